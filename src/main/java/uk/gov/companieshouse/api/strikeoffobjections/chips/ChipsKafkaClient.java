@@ -1,8 +1,5 @@
 package uk.gov.companieshouse.api.strikeoffobjections.chips;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,10 +7,13 @@ import org.springframework.stereotype.Component;
 import uk.gov.companieshouse.api.strikeoffobjections.Application;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.common.AvroSerializer;
+import uk.gov.companieshouse.api.strikeoffobjections.common.JsonWriters;
+import uk.gov.companieshouse.api.strikeoffobjections.common.KafkaSpool;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.KafkaMessageSpooledException;
 import uk.gov.companieshouse.api.strikeoffobjections.model.chips.ChipsRequest;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.chips.ChipsRestInterfacesSend;
 import uk.gov.companieshouse.kafka.message.Message;
-import uk.gov.companieshouse.kafka.producer.CHKafkaProducer;
 import uk.gov.companieshouse.service.ServiceException;
 
 import java.io.IOException;
@@ -22,25 +22,32 @@ import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
 @Component
 public class ChipsKafkaClient implements ChipsSender {
 
     @Autowired
-    private CHKafkaProducer producer;
+    private KafkaSpool producer;
 
     @Autowired
     private AvroSerializer avroSerializer;
 
+    @Autowired
+    private JsonWriters jsonWriters;
+
     @Value("${CHIPS_REST_INTERFACES_SEND_TOPIC}")
     private String chipsRestInterfacesSendTopic;
 
     @Value("${OBJECT_TO_STRIKE_OFF_CHIPS_REST_INTERFACES_ENDPOINT}")
     private String chipsRestInterfacesEndpoint;
 
+    @Value("${CHIPS_JSON_STREAMING_ENABLED:false}")
+    private boolean isJsonStreamingEnabled;
+
     @Autowired
     private ApiLogger logger;
 
@@ -49,11 +56,36 @@ public class ChipsKafkaClient implements ChipsSender {
 
     @Override
     public void sendToChips(String requestId, ChipsRequest chipsRequest) throws ServiceException {
+        try {
+            sendToChipsAsync(requestId, chipsRequest).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KafkaMessageSpooledException) {
+                throw (KafkaMessageSpooledException) e.getCause();
+            }
+            logger.errorContext(requestId, e);
+            throw new ServiceException(e.getMessage(), e);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            logger.errorContext(requestId, ie);
+            throw new ServiceException("Thread Interrupted when ChipsRestInterfacesConsumer future was sent and returned", ie);
+        }
+    }
+
+    /**
+     * Sends the request without waiting for the broker to acknowledge it
+     *
+     * @return completed once the message is acknowledged, or exceptionally if it could not be
+     * sent, with a {@link KafkaMessageSpooledException} if it was spooled to send later
+     * @throws ServiceException if the message could not be built
+     */
+    public CompletableFuture<RecordMetadata> sendToChipsAsync(String requestId, ChipsRequest chipsRequest)
+            throws ServiceException {
+        Message message;
+        Map<String, Object> dataForInfoLogMessage = new HashMap<>();
         try {
             Long timestamp = dateTimeSupplier.get().atZone(ZoneId.systemDefault()).toEpochSecond();
             ChipsRestInterfacesSend chipsRestInterfacesSend = getChipsRestInterfacesSend(chipsRequest, timestamp);
 
-            Map<String, Object> dataForInfoLogMessage = new HashMap<>();
             dataForInfoLogMessage.put("topic", chipsRestInterfacesSendTopic);
             dataForInfoLogMessage.put("message_id", chipsRestInterfacesSend.getMessageId());
 
@@ -64,34 +96,63 @@ public class ChipsKafkaClient implements ChipsSender {
             dataForDebugLogMessage.put("message_contents", chipsRestInterfacesSend.getData());
             logger.debugContext(requestId, logMessageSendText, dataForDebugLogMessage);
 
-            Message message = new Message();
-            byte[] serializedData = avroSerializer.serialize(chipsRestInterfacesSend);
-            message.setValue(serializedData);
-            message.setTopic(chipsRestInterfacesSendTopic);
-            message.setTimestamp(timestamp);
-
-            Future<RecordMetadata> future = producer.sendAndReturnFuture(message);
-            RecordMetadata recordMetadata = future.get();
-            long offset = recordMetadata.offset();
-            int partition = recordMetadata.partition();
+            message = buildMessage(chipsRestInterfacesSend, timestamp);
+        } catch (IOException e) {
+            logger.errorContext(requestId, e);
+            throw new ServiceException(e.getMessage(), e);
+        }
 
-            dataForInfoLogMessage.put("Offset", offset);
-            dataForInfoLogMessage.put("Partition", partition);
+        return producer.send(message).whenComplete((recordMetadata, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                if (cause instanceof KafkaMessageSpooledException) {
+                    logger.infoContext(requestId,
+                            "Spooled kafka message to Chips Rest Interfaces Consumer until Kafka is available",
+                            dataForInfoLogMessage);
+                }
+                return;
+            }
+
+            Map<String, Object> dataForFinishedLogMessage = new HashMap<>(dataForInfoLogMessage);
+            dataForFinishedLogMessage.put("Offset", recordMetadata.offset());
+            dataForFinishedLogMessage.put("Partition", recordMetadata.partition());
 
             logger.infoContext(requestId,
                     "Finished sending kafka message to Chips Rest Interfaces Consumer",
-                    dataForInfoLogMessage);
-        } catch (IOException | ExecutionException e) {
+                    dataForFinishedLogMessage);
+        });
+    }
+
+    @Override
+    public OutboxMessage toOutboxMessage(String requestId, ChipsRequest chipsRequest) throws ServiceException {
+        try {
+            LocalDateTime now = dateTimeSupplier.get();
+            Long timestamp = now.atZone(ZoneId.systemDefault()).toEpochSecond();
+            ChipsRestInterfacesSend chipsRestInterfacesSend = getChipsRestInterfacesSend(chipsRequest, timestamp);
+
+            Map<String, Object> dataForInfoLogMessage = new HashMap<>();
+            dataForInfoLogMessage.put("topic", chipsRestInterfacesSendTopic);
+            dataForInfoLogMessage.put("message_id", chipsRestInterfacesSend.getMessageId());
+            logger.infoContext(requestId, "Adding Chips Rest Interfaces message to outbox", dataForInfoLogMessage);
+
+            return OutboxMessage.fromMessage(chipsRestInterfacesSend.getMessageId(),
+                    buildMessage(chipsRestInterfacesSend, timestamp), now);
+        } catch (IOException e) {
             logger.errorContext(requestId, e);
             throw new ServiceException(e.getMessage(), e);
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-            logger.errorContext(requestId, ie);
-            throw new ServiceException("Thread Interrupted when ChipsRestInterfacesConsumer future was sent and returned", ie);
         }
     }
 
-    private ChipsRestInterfacesSend getChipsRestInterfacesSend(ChipsRequest chipsRequest, Long timestamp) throws JsonProcessingException {
+    private Message buildMessage(ChipsRestInterfacesSend chipsRestInterfacesSend, Long timestamp) throws IOException {
+        Message message = new Message();
+        byte[] serializedData = avroSerializer.serialize(chipsRestInterfacesSend);
+        message.setValue(serializedData);
+        message.setTopic(chipsRestInterfacesSendTopic);
+        message.setTimestamp(timestamp);
+        return message;
+    }
+
+    private ChipsRestInterfacesSend getChipsRestInterfacesSend(ChipsRequest chipsRequest, Long timestamp) throws IOException {
         return new ChipsRestInterfacesSendBuilder()
                 .withSourceAppId(Application.APP_NAMESPACE)
                 .withMessageId(UUID.randomUUID().toString())
@@ -102,8 +163,10 @@ public class ChipsKafkaClient implements ChipsSender {
                 .build();
     }
 
-    private String convertToJSON(ChipsRequest chipsRequest) throws JsonProcessingException {
-        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
-        return ow.writeValueAsString(chipsRequest);
+    private String convertToJSON(ChipsRequest chipsRequest) throws IOException {
+        if (isJsonStreamingEnabled) {
+            return jsonWriters.writeChipsRequest(chipsRequest);
+        }
+        return jsonWriters.writeValueAsString(chipsRequest);
     }
 }
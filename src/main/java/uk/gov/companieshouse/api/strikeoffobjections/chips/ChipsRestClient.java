@@ -2,11 +2,18 @@ package uk.gov.companieshouse.api.strikeoffobjections.chips;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.common.JsonWriters;
 import uk.gov.companieshouse.api.strikeoffobjections.model.chips.ChipsRequest;
+import uk.gov.companieshouse.service.ServiceException;
+
+import java.io.IOException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -16,18 +23,20 @@ public class ChipsRestClient implements ChipsSender {
 
     private final ApiLogger apiLogger;
     private final RestTemplate restTemplate;
+    private final JsonWriters jsonWriters;
 
     @Value("${OBJECT_TO_STRIKE_OFF_CHIPS_REST_INTERFACE_URL}")
     private String chipsRestUrl;
 
     @Autowired
-    public ChipsRestClient(ApiLogger apiLogger, RestTemplate restTemplate) {
+    public ChipsRestClient(ApiLogger apiLogger, RestTemplate restTemplate, JsonWriters jsonWriters) {
         this.apiLogger = apiLogger;
         this.restTemplate = restTemplate;
+        this.jsonWriters = jsonWriters;
     }
 
     @Override
-    public void sendToChips(String requestId, ChipsRequest chipsRequest){
+    public void sendToChips(String requestId, ChipsRequest chipsRequest) throws ServiceException {
         Map<String, Object> logMap = new HashMap<>();
         logMap.put("chipsRestUrl", chipsRestUrl);
 
@@ -37,11 +46,23 @@ public class ChipsRestClient implements ChipsSender {
                 logMap
         );
 
-        ResponseEntity<String> chipsRestResponse = restTemplate.postForEntity(chipsRestUrl, chipsRequest, String.class);
+        ResponseEntity<String> chipsRestResponse =
+                restTemplate.postForEntity(chipsRestUrl, toJsonEntity(requestId, chipsRequest), String.class);
 
         apiLogger.infoContext(
                 requestId,
                 String.format("Sent data to CHIPS, received status code: %s", chipsRestResponse.getStatusCode())
         );
     }
+
+    private HttpEntity<byte[]> toJsonEntity(String requestId, ChipsRequest chipsRequest) throws ServiceException {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            return new HttpEntity<>(jsonWriters.writeValueAsBytes(chipsRequest), headers);
+        } catch (IOException e) {
+            apiLogger.errorContext(requestId, e);
+            throw new ServiceException(e.getMessage(), e);
+        }
+    }
 }
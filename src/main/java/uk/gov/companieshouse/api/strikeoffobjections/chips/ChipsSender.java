@@ -1,8 +1,16 @@
 package uk.gov.companieshouse.api.strikeoffobjections.chips;
 
 import uk.gov.companieshouse.api.strikeoffobjections.model.chips.ChipsRequest;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.service.ServiceException;
 
 public interface ChipsSender {
     void sendToChips(String requestId, ChipsRequest chipsRequest) throws ServiceException;
+
+    /**
+     * @return the request serialised for the outbox, or null if this sender can only send directly
+     */
+    default OutboxMessage toOutboxMessage(String requestId, ChipsRequest chipsRequest) throws ServiceException {
+        return null;
+    }
 }
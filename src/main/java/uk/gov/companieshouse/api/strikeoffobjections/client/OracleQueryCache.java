@@ -0,0 +1,136 @@
+package uk.gov.companieshouse.api.strikeoffobjections.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.strikeoffobjections.common.SingleFlight;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-expiring cache of Oracle Query API lookups, keyed on company number.
+ * <p>
+ * Results are wrapped in an {@link Optional} so that an empty response (e.g. no GAZ2
+ * requested) is cached in the same way as a populated one. Hit, miss and eviction
+ * counts are published as {@code cache.*} metrics tagged with the cache name.
+ * <p>
+ * On a miss, concurrent lookups for the same company share a single in-flight call to
+ * the loader, and the number of lookups served this way is published as
+ * {@code oracle.lookups.coalesced}.
+ * <p>
+ * It also remembers the companies whose last action code lookup found GAZ1, the only ones
+ * whose GAZ2 requested lookup is used, so that lookup can be started early for them.
+ */
+@Component
+public class OracleQueryCache {
+
+    static final String ACTION_CODE_CACHE_NAME = "oracle-action-code";
+    static final String GAZ2_REQUESTED_CACHE_NAME = "oracle-gaz2-requested";
+    static final String RECENT_GAZ1_CACHE_NAME = "oracle-recent-gaz1";
+    static final String COALESCED_METRIC_NAME = "oracle.lookups.coalesced";
+
+    private final Cache<String, Optional<Long>> actionCodes;
+    private final Cache<String, Optional<String>> requestedGaz2;
+    private final Cache<String, Boolean> recentGaz1Companies;
+    private final SingleFlight<String, Optional<Long>> actionCodeLookups = new SingleFlight<>();
+    private final SingleFlight<String, Optional<String>> requestedGaz2Lookups = new SingleFlight<>();
+
+    @Autowired
+    public OracleQueryCache(@Value("${ORACLE_QUERY_CACHE_MAX_SIZE:10000}") long maxSize,
+                            @Value("${ORACLE_QUERY_CACHE_TTL_SECONDS:60}") long ttlSeconds,
+                            @Value("${ORACLE_RECENT_GAZ1_CACHE_MAX_SIZE:10000}") long recentGaz1MaxSize,
+                            @Value("${ORACLE_RECENT_GAZ1_CACHE_TTL_SECONDS:1800}") long recentGaz1TtlSeconds,
+                            MeterRegistry meterRegistry) {
+        this.actionCodes = buildCache(maxSize, ttlSeconds);
+        this.requestedGaz2 = buildCache(maxSize, ttlSeconds);
+        this.recentGaz1Companies = Caffeine.newBuilder()
+                .maximumSize(recentGaz1MaxSize)
+                .expireAfterWrite(recentGaz1TtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, actionCodes, ACTION_CODE_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, requestedGaz2, GAZ2_REQUESTED_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, recentGaz1Companies, RECENT_GAZ1_CACHE_NAME);
+        FunctionCounter.builder(COALESCED_METRIC_NAME, actionCodeLookups, SingleFlight::getCoalescedCount)
+                .tag("cache", ACTION_CODE_CACHE_NAME)
+                .register(meterRegistry);
+        FunctionCounter.builder(COALESCED_METRIC_NAME, requestedGaz2Lookups, SingleFlight::getCoalescedCount)
+                .tag("cache", GAZ2_REQUESTED_CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public Long getCompanyActionCode(String companyNumber, Function<String, Long> loader) {
+        return load(actionCodes, actionCodeLookups, companyNumber, loader);
+    }
+
+    public String getRequestedGaz2(String companyNumber, Function<String, String> loader) {
+        return load(requestedGaz2, requestedGaz2Lookups, companyNumber, loader);
+    }
+
+    /**
+     * Records whether the company's action code lookup just found GAZ1
+     */
+    public void setRecentGaz1(String companyNumber, boolean isGaz1) {
+        if (isGaz1) {
+            recentGaz1Companies.put(companyNumber, Boolean.TRUE);
+        } else {
+            recentGaz1Companies.invalidate(companyNumber);
+        }
+    }
+
+    /**
+     * @return whether the company's action code was recently found to be GAZ1
+     */
+    public boolean isRecentGaz1(String companyNumber) {
+        return recentGaz1Companies.getIfPresent(companyNumber) != null;
+    }
+
+    public CacheStats getActionCodeStats() {
+        return actionCodes.stats();
+    }
+
+    public CacheStats getRequestedGaz2Stats() {
+        return requestedGaz2.stats();
+    }
+
+    public CacheStats getRecentGaz1Stats() {
+        return recentGaz1Companies.stats();
+    }
+
+    private static <V> V load(Cache<String, Optional<V>> cache,
+                              SingleFlight<String, Optional<V>> lookups,
+                              String companyNumber,
+                              Function<String, V> loader) {
+        Optional<V> result = cache.getIfPresent(companyNumber);
+        if (result == null) {
+            result = lookups.execute(companyNumber, () -> {
+                // another lookup may have populated the cache between our miss and joining the flight
+                Optional<V> cached = cache.asMap().get(companyNumber);
+                if (cached != null) {
+                    return cached;
+                }
+                Optional<V> loaded = Optional.ofNullable(loader.apply(companyNumber));
+                cache.put(companyNumber, loaded);
+                return loaded;
+            });
+        }
+        return result.orElse(null);
+    }
+
+    private static <V> Cache<String, Optional<V>> buildCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+}
@@ -16,10 +16,23 @@ public class OracleQueryClient {
     @Autowired
     private ApiLogger apiLogger;
 
+    @Autowired
+    private OracleQueryCache oracleQueryCache;
+
     @Value("${ORACLE_QUERY_API_URL}")
     private String oracleQueryApiUrl;
 
     public Long getCompanyActionCode(String companyNumber, String requestId) {
+        return oracleQueryCache.getCompanyActionCode(companyNumber,
+                key -> fetchCompanyActionCode(key, requestId));
+    }
+
+    public String getRequestedGaz2(String companyNumber, String requestId) {
+        return oracleQueryCache.getRequestedGaz2(companyNumber,
+                key -> fetchRequestedGaz2(key, requestId));
+    }
+
+    private Long fetchCompanyActionCode(String companyNumber, String requestId) {
         String getCompanyActionCodeUrl = String.format("%s/company/%s/action-code", oracleQueryApiUrl, companyNumber);
         apiLogger.infoContext(requestId, "Calling Oracle Query APi at: " + getCompanyActionCodeUrl);
 
@@ -28,7 +41,7 @@ public class OracleQueryClient {
         return response.getBody();
     }
 
-    public String getRequestedGaz2(String companyNumber, String requestId) {
+    private String fetchRequestedGaz2(String companyNumber, String requestId) {
         String getRequestedGaz2Url = String.format("%s/company/%s/gaz2-requested", oracleQueryApiUrl, companyNumber);
         apiLogger.infoContext(requestId, "Calling Oracle Query APi at: " + getRequestedGaz2Url);
 
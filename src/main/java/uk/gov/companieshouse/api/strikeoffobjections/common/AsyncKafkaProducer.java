@@ -0,0 +1,124 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.kafka.message.Message;
+import uk.gov.companieshouse.service.ServiceException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends Kafka messages without the caller waiting for the broker to acknowledge them.
+ * <p>
+ * Each message is sent by the producer for its topic's profile, and the returned
+ * {@link CompletableFuture} is completed by the producer's callback. That runs on the
+ * producer's network thread, so anything chained on it must not block. At most
+ * {@code KAFKA_PRODUCER_MAX_IN_FLIGHT} messages are awaiting acknowledgement at once; further
+ * sends wait for a slot, and fail if none frees up in time. The number in flight is published
+ * as {@code kafka.producer.in.flight} and the time from send to acknowledgement as
+ * {@code kafka.producer.ack.latency}, tagged with the outcome.
+ */
+@Component
+public class AsyncKafkaProducer {
+
+    static final String IN_FLIGHT_METRIC_NAME = "kafka.producer.in.flight";
+    static final String ACK_LATENCY_METRIC_NAME = "kafka.producer.ack.latency";
+
+    private final KafkaProducers kafkaProducers;
+    private final int maxInFlight;
+    private final long inFlightWaitMillis;
+    private final Semaphore inFlight;
+    private final Timer acknowledged;
+    private final Timer failed;
+
+    @Autowired
+    public AsyncKafkaProducer(KafkaProducers kafkaProducers,
+                              MeterRegistry meterRegistry,
+                              @Value("${KAFKA_PRODUCER_MAX_IN_FLIGHT:100}") int maxInFlight,
+                              @Value("${KAFKA_PRODUCER_IN_FLIGHT_WAIT_MILLIS:10000}") long inFlightWaitMillis) {
+        this.kafkaProducers = kafkaProducers;
+        this.maxInFlight = maxInFlight;
+        this.inFlightWaitMillis = inFlightWaitMillis;
+        this.inFlight = new Semaphore(maxInFlight);
+
+        Gauge.builder(IN_FLIGHT_METRIC_NAME, this, AsyncKafkaProducer::getInFlightCount)
+                .register(meterRegistry);
+        this.acknowledged = Timer.builder(ACK_LATENCY_METRIC_NAME)
+                .tag("outcome", "acknowledged")
+                .register(meterRegistry);
+        this.failed = Timer.builder(ACK_LATENCY_METRIC_NAME)
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return completed with the record metadata once the broker acknowledges the message, or
+     * exceptionally with the reason it could not be sent
+     */
+    public CompletableFuture<RecordMetadata> send(Message message) {
+        try {
+            if (!inFlight.tryAcquire(inFlightWaitMillis, TimeUnit.MILLISECONDS)) {
+                return failedFuture(new ServiceException(String.format(
+                        "Timed out waiting for one of %d in flight Kafka messages to be acknowledged",
+                        maxInFlight)));
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return failedFuture(ie);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<RecordMetadata> result = new CompletableFuture<>();
+        try {
+            kafkaProducers.getProducer(message.getTopic()).send(
+                    toProducerRecord(message),
+                    (recordMetadata, exception) -> complete(result, start, recordMetadata, exception));
+        } catch (RuntimeException e) {
+            complete(result, start, null, e);
+        }
+        return result;
+    }
+
+    public int getInFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private void complete(CompletableFuture<RecordMetadata> result,
+                          long start,
+                          RecordMetadata recordMetadata,
+                          Exception exception) {
+        if (result.isDone()) {
+            // the producer both called back and threw
+            return;
+        }
+        // free the slot before completing, so anything chained on the result can send straight away
+        inFlight.release();
+        (exception == null ? acknowledged : failed).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (exception == null) {
+            result.complete(recordMetadata);
+        } else {
+            result.completeExceptionally(exception);
+        }
+    }
+
+    private static ProducerRecord<String, byte[]> toProducerRecord(Message message) {
+        // messages are timestamped in epoch seconds, Kafka records in epoch milliseconds
+        Long timestamp = message.getTimestamp() == null ? null : TimeUnit.SECONDS.toMillis(message.getTimestamp());
+        return new ProducerRecord<>(message.getTopic(), message.getPartition(), timestamp, message.getKey(),
+                message.getValue());
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable failure) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(failure);
+        return future;
+    }
+}
@@ -1,50 +1,74 @@
 package uk.gov.companieshouse.api.strikeoffobjections.common;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
-import org.apache.avro.io.Encoder;
 import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.avro.specific.SpecificRecord;
+import org.apache.avro.util.Utf8;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailContent;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Serialises Kafka message payloads to Avro binary.
+ * <p>
+ * Datum writers are built once per schema and shared, as writing does not change them. Each
+ * thread reuses its own output buffer and encoder, which writes straight into the buffer, so
+ * the only per message allocations are the record and the returned bytes.
+ */
 @Component
 public class AvroSerializer {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Buffers that have grown beyond this are dropped after use rather than kept by the thread
+     */
+    static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private final JsonWriters jsonWriters;
+    private final ConcurrentMap<Schema, DatumWriter<GenericRecord>> genericWriters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Schema, DatumWriter<SpecificRecord>> specificWriters = new ConcurrentHashMap<>();
+    private final ThreadLocal<Output> outputs = ThreadLocal.withInitial(Output::new);
+
+    @Autowired
+    public AvroSerializer(JsonWriters jsonWriters) {
+        this.jsonWriters = jsonWriters;
+    }
 
     public byte[] serialize(EmailContent emailContent, Schema schema) throws IOException {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(stream, null);
-        GenericDatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
-        datumWriter.write(buildAvroGenericRecord(emailContent, schema), encoder);
-        encoder.flush();
-        return stream.toByteArray();
+        DatumWriter<GenericRecord> datumWriter = genericWriters.computeIfAbsent(schema, GenericDatumWriter::new);
+        return write(datumWriter, buildAvroGenericRecord(emailContent, schema));
     }
 
     public byte[] serialize(SpecificRecord data) throws IOException {
-        DatumWriter<SpecificRecord> datumWriter = new SpecificDatumWriter<>();
-
-        try(ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Encoder encoder = EncoderFactory.get().binaryEncoder(out, null);
-            datumWriter.setSchema(data.getSchema());
-            datumWriter.write(data, encoder);
-            encoder.flush();
-
-            byte[] serializedData = out.toByteArray();
-            encoder.flush();
+        DatumWriter<SpecificRecord> datumWriter = specificWriters.computeIfAbsent(data.getSchema(),
+                SpecificDatumWriter::new);
+        return write(datumWriter, data);
+    }
 
-            return serializedData;
+    private <T> byte[] write(DatumWriter<T> datumWriter, T datum) throws IOException {
+        Output output = outputs.get();
+        try {
+            datumWriter.write(datum, output.encoder);
+            output.encoder.flush();
+            return output.stream.toByteArray();
+        } finally {
+            if (output.stream.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+                outputs.remove();
+            } else {
+                output.stream.reset();
+            }
         }
     }
 
@@ -54,9 +78,26 @@ public class AvroSerializer {
         documentData.put("app_id", emailContent.getOriginatingAppId());
         documentData.put("message_id", emailContent.getMessageId());
         documentData.put("message_type", emailContent.getMessageType());
-        documentData.put("data", objectMapper.writeValueAsString(emailContent.getData()));
+        // written as UTF-8 bytes, so the JSON is never held as a String
+        documentData.put("data", new Utf8(jsonWriters.writeValueAsBytes(emailContent.getData())));
         documentData.put("email_address", emailContent.getEmailAddress());
         documentData.put("created_at", FormatUtils.formatTimestamp(emailContent.getCreatedAt()));
         return documentData;
     }
+
+    private static class Output {
+        private final ReusableByteArrayOutputStream stream = new ReusableByteArrayOutputStream();
+        private final BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(stream, null);
+    }
+
+    private static class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+        ReusableByteArrayOutputStream() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
 }
@@ -5,16 +5,16 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 public class FormatUtils {
-    private static final String CREATED_AT_FORMAT = "dd MMM yyyy HH:mm:ss";
-    private static final String DATE_FORMAT = "dd MMMM yyyy";
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm:ss");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMMM yyyy");
 
     private FormatUtils() {}
 
     public static String formatTimestamp(LocalDateTime timestamp) {
-        return timestamp.format(DateTimeFormatter.ofPattern(CREATED_AT_FORMAT));
+        return timestamp.format(CREATED_AT_FORMAT);
     }
 
     public static String formatDate(LocalDate date) {
-        return date.format(DateTimeFormatter.ofPattern(DATE_FORMAT));
+        return date.format(DATE_FORMAT);
     }
 }
@@ -0,0 +1,75 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.strikeoffobjections.model.chips.ChipsRequest;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+
+/**
+ * JSON serialisation shared by the Chips and email clients.
+ * <p>
+ * The writers are configured once and are thread safe, so they are shared rather than built
+ * per message, and write compact JSON with no whitespace. Chips requests can also be written
+ * field by field with a {@link JsonGenerator}, which skips Jackson's bean introspection.
+ */
+@Component
+public class JsonWriters {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectWriter writer = objectMapper.writer();
+
+    public String writeValueAsString(Object value) throws JsonProcessingException {
+        return writer.writeValueAsString(value);
+    }
+
+    public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    /**
+     * Streams the Chips request, giving the same JSON as {@link #writeValueAsString(Object)}
+     */
+    public String writeChipsRequest(ChipsRequest chipsRequest) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartObject();
+            writeStringField(generator, "objection_id", chipsRequest.getObjectionId());
+            writeStringField(generator, "company_number", chipsRequest.getCompanyNumber());
+            writeAttachments(generator, chipsRequest.getAttachments());
+            writeStringField(generator, "reference_number", chipsRequest.getReferenceNumber());
+            writeStringField(generator, "full_name", chipsRequest.getFullName());
+            if (chipsRequest.isShareIdentity() != null) {
+                generator.writeBooleanField("share_identity", chipsRequest.isShareIdentity());
+            }
+            writeStringField(generator, "customer_email", chipsRequest.getCustomerEmail());
+            writeStringField(generator, "reason", chipsRequest.getReason());
+            generator.writeEndObject();
+        }
+        return json.toString();
+    }
+
+    private static void writeAttachments(JsonGenerator generator, Map<String, String> attachments)
+            throws IOException {
+        if (attachments == null) {
+            return;
+        }
+        generator.writeObjectFieldStart("attachments");
+        for (Map.Entry<String, String> attachment : attachments.entrySet()) {
+            generator.writeStringField(attachment.getKey(), attachment.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    // matches the NON_NULL inclusion on ChipsRequest
+    private static void writeStringField(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import org.apache.kafka.clients.producer.Producer;
+import uk.gov.companieshouse.api.strikeoffobjections.config.KafkaProducerProfile;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * One Kafka producer for each producer profile in use, and the profile used for each topic.
+ * <p>
+ * Topics without a profile of their own use the default profile.
+ */
+public class KafkaProducers {
+
+    private final Map<String, KafkaProducerProfile> topicProfiles;
+    private final KafkaProducerProfile defaultProfile;
+    private final Map<KafkaProducerProfile, Map<String, Object>> settings = new EnumMap<>(KafkaProducerProfile.class);
+    private final Map<KafkaProducerProfile, Producer<String, byte[]>> producers = new EnumMap<>(KafkaProducerProfile.class);
+
+    /**
+     * @param commonSettings  producer properties shared by every profile, such as the brokers
+     * @param topicProfiles   the profile for each topic
+     * @param defaultProfile  the profile for any other topic
+     * @param producerFactory builds a producer from its properties
+     */
+    public KafkaProducers(Map<String, Object> commonSettings,
+                          Map<String, KafkaProducerProfile> topicProfiles,
+                          KafkaProducerProfile defaultProfile,
+                          Function<Map<String, Object>, Producer<String, byte[]>> producerFactory) {
+        this.topicProfiles = new TreeMap<>(topicProfiles);
+        this.defaultProfile = defaultProfile;
+
+        for (KafkaProducerProfile profile : KafkaProducerProfile.values()) {
+            if (profile == defaultProfile || topicProfiles.containsValue(profile)) {
+                Map<String, Object> profileSettings = new LinkedHashMap<>(commonSettings);
+                profileSettings.putAll(profile.getSettings());
+                settings.put(profile, Collections.unmodifiableMap(profileSettings));
+                producers.put(profile, producerFactory.apply(profileSettings));
+            }
+        }
+    }
+
+    public KafkaProducerProfile getProfile(String topic) {
+        return topicProfiles.getOrDefault(topic, defaultProfile);
+    }
+
+    public Producer<String, byte[]> getProducer(String topic) {
+        return producers.get(getProfile(topic));
+    }
+
+    /**
+     * @return the profile for each topic, and the effective producer properties for each profile
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("default_profile", defaultProfile);
+        description.put("topics", Collections.unmodifiableMap(topicProfiles));
+        description.put("profiles", Collections.unmodifiableMap(settings));
+        return description;
+    }
+
+    public void close() {
+        producers.values().forEach(Producer::close);
+    }
+}
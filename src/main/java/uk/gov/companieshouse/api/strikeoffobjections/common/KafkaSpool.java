@@ -0,0 +1,555 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.KafkaMessageSpooledException;
+import uk.gov.companieshouse.kafka.message.Message;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Sends Kafka messages, keeping those that can't be sent in a local spool until the brokers
+ * are back.
+ * <p>
+ * The spool is a directory of fixed size, memory mapped segment files, appended to in order.
+ * Each record is the message's topic, timestamp, partition, key and already serialised value,
+ * with a length and checksum so a record torn by a crash is ignored. Only sends that fail with a retriable error or
+ * time out are spooled, anything else fails straight back to the sender. Once a send is
+ * spooled, every later message is spooled behind it until the spool has been drained, so they
+ * still reach Kafka in order. Only messages already handed to the producer when the send failed
+ * can overtake it. The drainer replays the spool oldest first, stopping at the first message
+ * that still can't be sent, and deletes each segment once it has been replayed. A message that
+ * fails to replay with an error that isn't retriable is moved to the dead letter file, so it
+ * can't hold up the messages behind it. Messages are replayed at least once, as a crash after
+ * sending but before moving on replays the message again, so consumers dedupe on message id.
+ * <p>
+ * A spooled message hasn't been sent, so its send fails with a
+ * {@link KafkaMessageSpooledException}, which is completed once the message is replayed. The
+ * spool is local to the node, so the sender should keep what it sent retryable until then. If
+ * the message is dead lettered instead, it is completed exceptionally with the reason.
+ * <p>
+ * The number of spooled messages is published as {@code kafka.spool.depth}, and the number
+ * spooled, replayed and dead lettered as {@code kafka.spool.appended},
+ * {@code kafka.spool.replayed} and {@code kafka.spool.dead.lettered}.
+ */
+@Component
+public class KafkaSpool {
+
+    static final String DEPTH_METRIC_NAME = "kafka.spool.depth";
+    static final String SEGMENTS_METRIC_NAME = "kafka.spool.segments";
+    static final String APPENDED_METRIC_NAME = "kafka.spool.appended";
+    static final String REPLAYED_METRIC_NAME = "kafka.spool.replayed";
+    static final String DEAD_LETTERED_METRIC_NAME = "kafka.spool.dead.lettered";
+    static final String SEGMENT_SUFFIX = ".spool";
+    // records in the same format as the segments, appended to and never replayed
+    static final String DEAD_LETTER_FILE_NAME = "dead-letter.log";
+
+    // record length and checksum
+    private static final int RECORD_HEADER_BYTES = 8;
+    // flags for the optional message fields present in a record
+    private static final byte HAS_TIMESTAMP = 1;
+    private static final byte HAS_PARTITION = 2;
+    private static final byte HAS_KEY = 4;
+    private static final String LOG_CONTEXT = "kafka-spool";
+
+    /**
+     * When spooled records are forced from memory to disk
+     */
+    public enum FsyncPolicy {
+        /**
+         * After every record, so nothing acknowledged is lost if the host fails
+         */
+        ALWAYS,
+        /**
+         * Every {@code KAFKA_SPOOL_FSYNC_INTERVAL_MILLIS}
+         */
+        INTERVAL,
+        /**
+         * Whenever the operating system writes the pages out, which only survives the
+         * application failing
+         */
+        NEVER
+    }
+
+    private final AsyncKafkaProducer producer;
+    private final ApiLogger apiLogger;
+    private final boolean isSpoolEnabled;
+    private final Path spoolDir;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    // for each message spooled since startup, in spool order, completed when it is replayed
+    private final Deque<CompletableFuture<Void>> awaitingReplay = new ArrayDeque<>();
+    private final Counter appended;
+    private final Counter replayed;
+    private final Counter deadLettered;
+    private long depth;
+    // messages recovered at startup, which no sender is waiting on
+    private long recoveredDepth;
+    private boolean isSpooling;
+    private int readPosition;
+    private boolean isDirty;
+
+    @Autowired
+    public KafkaSpool(AsyncKafkaProducer producer,
+                      ApiLogger apiLogger,
+                      MeterRegistry meterRegistry,
+                      @Value("${FEATURE_FLAG_KAFKA_SPOOL:false}") boolean isSpoolEnabled,
+                      @Value("${KAFKA_SPOOL_DIR:${java.io.tmpdir}/strike-off-objections-spool}") String spoolDir,
+                      @Value("${KAFKA_SPOOL_SEGMENT_BYTES:16777216}") int segmentBytes,
+                      @Value("${KAFKA_SPOOL_FSYNC_POLICY:ALWAYS}") FsyncPolicy fsyncPolicy) throws IOException {
+        this.producer = producer;
+        this.apiLogger = apiLogger;
+        this.isSpoolEnabled = isSpoolEnabled;
+        this.spoolDir = Paths.get(spoolDir);
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+
+        Gauge.builder(DEPTH_METRIC_NAME, this, KafkaSpool::getDepth).register(meterRegistry);
+        Gauge.builder(SEGMENTS_METRIC_NAME, this, KafkaSpool::getSegmentCount).register(meterRegistry);
+        this.appended = Counter.builder(APPENDED_METRIC_NAME).register(meterRegistry);
+        this.replayed = Counter.builder(REPLAYED_METRIC_NAME).register(meterRegistry);
+        this.deadLettered = Counter.builder(DEAD_LETTERED_METRIC_NAME).register(meterRegistry);
+
+        if (isSpoolEnabled) {
+            recover();
+        }
+    }
+
+    /**
+     * Sends the message, or spools it if its send fails with a retriable error or a message has
+     * been spooled since the spool was last drained.
+     *
+     * @return completed with the record metadata once the broker acknowledges the message.
+     * Completed exceptionally with a {@link KafkaMessageSpooledException} if the message was
+     * spooled instead, or with the reason it could be neither sent nor spooled.
+     */
+    public CompletableFuture<RecordMetadata> send(Message message) {
+        if (!isSpoolEnabled) {
+            return producer.send(message);
+        }
+
+        CompletableFuture<RecordMetadata> sent;
+        synchronized (this) {
+            // handed to the producer under the lock, so no message can be sent after one that's spooled
+            if (isSpooling) {
+                return spool(message, null);
+            }
+            sent = producer.send(message);
+        }
+
+        // spooled off the producer's network thread, which mustn't wait for the lock
+        return sent.handleAsync((recordMetadata, failure) -> failure == null || !isRetriable(failure)
+                        ? sent : spool(message, failure))
+                .thenCompose(result -> result);
+    }
+
+    public synchronized boolean isSpooling() {
+        return isSpooling;
+    }
+
+    /**
+     * Replays spooled messages, oldest first, until the spool is empty or a message still
+     * can't be sent. A message that can never be sent is dead lettered and the next one
+     * replayed.
+     */
+    @Scheduled(fixedDelayString = "${KAFKA_SPOOL_DRAIN_INTERVAL_MILLIS:5000}")
+    public void drain() {
+        if (!isSpoolEnabled) {
+            return;
+        }
+
+        while (true) {
+            Message message;
+            synchronized (this) {
+                message = peek();
+            }
+            if (message == null) {
+                return;
+            }
+
+            Throwable failure = null;
+            try {
+                producer.send(message).get();
+            } catch (ExecutionException e) {
+                if (isRetriable(e)) {
+                    apiLogger.errorContext(LOG_CONTEXT, "Unable to replay spooled Kafka message, will try again", e);
+                    return;
+                }
+                failure = e.getCause();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            CompletableFuture<Void> replay;
+            synchronized (this) {
+                if (failure != null && !deadLetter()) {
+                    return;
+                }
+                replay = advance();
+            }
+            if (failure == null) {
+                replayed.increment();
+                if (replay != null) {
+                    replay.complete(null);
+                }
+            } else {
+                apiLogger.errorContext(LOG_CONTEXT, String.format("Moved spooled Kafka message for topic %s to %s",
+                        message.getTopic(), spoolDir.resolve(DEAD_LETTER_FILE_NAME)), failure);
+                deadLettered.increment();
+                if (replay != null) {
+                    replay.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${KAFKA_SPOOL_FSYNC_INTERVAL_MILLIS:1000}")
+    public synchronized void flush() {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && isDirty && !segments.isEmpty()) {
+            segments.getLast().buffer.force();
+            isDirty = false;
+        }
+    }
+
+    public synchronized long getDepth() {
+        return depth;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * @return whether the failure, or anything that caused it, means the send may succeed if
+     * tried again
+     */
+    private static boolean isRetriable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized CompletableFuture<RecordMetadata> spool(Message message, Throwable sendFailure) {
+        CompletableFuture<RecordMetadata> result = new CompletableFuture<>();
+        try {
+            append(message);
+        } catch (IOException | RuntimeException e) {
+            if (sendFailure != null) {
+                e.addSuppressed(sendFailure);
+            }
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        isSpooling = true;
+        CompletableFuture<Void> replay = new CompletableFuture<>();
+        awaitingReplay.addLast(replay);
+        result.completeExceptionally(new KafkaMessageSpooledException(
+                "Kafka message spooled to send once Kafka is available", sendFailure, replay));
+        return result;
+    }
+
+    private void append(Message message) throws IOException {
+        byte[] topic = message.getTopic().getBytes(StandardCharsets.UTF_8);
+        byte[] key = message.getKey() == null ? null : message.getKey().getBytes(StandardCharsets.UTF_8);
+        byte[] value = message.getValue();
+
+        byte flags = 0;
+        int payloadLength = Short.BYTES + topic.length + Byte.BYTES + value.length;
+        if (message.getTimestamp() != null) {
+            flags |= HAS_TIMESTAMP;
+            payloadLength += Long.BYTES;
+        }
+        if (message.getPartition() != null) {
+            flags |= HAS_PARTITION;
+            payloadLength += Integer.BYTES;
+        }
+        if (key != null) {
+            flags |= HAS_KEY;
+            payloadLength += Integer.BYTES + key.length;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        payload.putShort((short) topic.length).put(topic).put(flags);
+        if (message.getTimestamp() != null) {
+            payload.putLong(message.getTimestamp());
+        }
+        if (message.getPartition() != null) {
+            payload.putInt(message.getPartition());
+        }
+        if (key != null) {
+            payload.putInt(key.length).put(key);
+        }
+        payload.put(value);
+        byte[] payloadBytes = payload.array();
+
+        int recordBytes = RECORD_HEADER_BYTES + payloadBytes.length;
+        // a zero length after the last record marks the end of a segment
+        if (recordBytes + Integer.BYTES > segmentBytes) {
+            throw new IOException(String.format("Kafka message of %d bytes is too large to spool in %d byte segments",
+                    recordBytes, segmentBytes));
+        }
+
+        Segment segment = segments.peekLast();
+        if (segment == null || segment.writePosition + recordBytes + Integer.BYTES > segmentBytes) {
+            segment = rotate(segment);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payloadBytes, 0, payloadBytes.length);
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(segment.writePosition);
+        buffer.putInt(payloadBytes.length).putInt((int) crc.getValue()).put(payloadBytes);
+        segment.writePosition += recordBytes;
+
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            segment.buffer.force();
+        } else {
+            isDirty = true;
+        }
+        depth++;
+        appended.increment();
+    }
+
+    private Segment rotate(Segment current) throws IOException {
+        if (current != null) {
+            current.buffer.force();
+        }
+        long sequence = current == null ? 0 : current.sequence + 1;
+        Files.createDirectories(spoolDir);
+        Segment segment = Segment.open(spoolDir.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX)),
+                sequence, segmentBytes);
+        segments.addLast(segment);
+        apiLogger.infoContext(LOG_CONTEXT, "Opened Kafka spool segment " + segment.path);
+        return segment;
+    }
+
+    /**
+     * @return the oldest spooled message, or null if the spool is empty
+     */
+    private Message peek() {
+        while (!segments.isEmpty()) {
+            Segment segment = segments.peekFirst();
+            if (readPosition < segment.writePosition) {
+                return segment.read(readPosition);
+            }
+            if (segment == segments.peekLast()) {
+                return null;
+            }
+            // fully replayed, and nothing more will be written to it
+            segments.removeFirst();
+            readPosition = 0;
+            delete(segment);
+        }
+        return null;
+    }
+
+    /**
+     * @return completed once the caller has left the lock, or null if no sender is waiting on
+     * the replayed message
+     */
+    private CompletableFuture<Void> advance() {
+        readPosition += RECORD_HEADER_BYTES + segments.peekFirst().buffer.getInt(readPosition);
+        depth--;
+        CompletableFuture<Void> replay = null;
+        if (recoveredDepth > 0) {
+            recoveredDepth--;
+        } else {
+            replay = awaitingReplay.pollFirst();
+        }
+        if (depth == 0) {
+            // start afresh, so nothing already replayed is replayed again after a restart
+            segments.forEach(this::delete);
+            segments.clear();
+            readPosition = 0;
+            isSpooling = false;
+        }
+        return replay;
+    }
+
+    /**
+     * Appends the oldest spooled record to the dead letter file
+     *
+     * @return false if it couldn't be, so it must be kept in the spool
+     */
+    private boolean deadLetter() {
+        Path deadLetterFile = spoolDir.resolve(DEAD_LETTER_FILE_NAME);
+        try (FileChannel channel = FileChannel.open(deadLetterFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer record = segments.peekFirst().record(readPosition);
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                channel.force(false);
+            }
+            return true;
+        } catch (IOException e) {
+            apiLogger.errorContext(LOG_CONTEXT, "Unable to write Kafka spool dead letter file " + deadLetterFile, e);
+            return false;
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            apiLogger.errorContext(LOG_CONTEXT, "Unable to delete Kafka spool segment " + segment.path, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        if (!Files.isDirectory(spoolDir)) {
+            return;
+        }
+
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        for (Path path : paths) {
+            String fileName = path.getFileName().toString();
+            long sequence = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = Segment.open(path, sequence, segmentBytes);
+            depth += segment.recoverWritePosition();
+            segments.addLast(segment);
+        }
+
+        recoveredDepth = depth;
+        if (depth > 0) {
+            // anything sent now would overtake the recovered messages
+            isSpooling = true;
+            apiLogger.info(String.format("Recovered %d spooled Kafka messages from %d segments in %s",
+                    depth, segments.size(), spoolDir));
+        }
+    }
+
+    private static class Segment {
+
+        private final Path path;
+        private final long sequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+
+        private Segment(Path path, long sequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.sequence = sequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, long sequence, int segmentBytes) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(segmentBytes, channel.size()));
+            return new Segment(path, sequence, channel, buffer);
+        }
+
+        /**
+         * Finds the end of the last whole record, so a record torn by a crash is overwritten
+         *
+         * @return the number of whole records
+         */
+        int recoverWritePosition() {
+            int records = 0;
+            writePosition = 0;
+            while (writePosition + RECORD_HEADER_BYTES <= buffer.capacity()) {
+                int length = buffer.getInt(writePosition);
+                if (length <= 0 || writePosition + RECORD_HEADER_BYTES + length > buffer.capacity()
+                        || checksum(writePosition + RECORD_HEADER_BYTES, length) != buffer.getInt(writePosition + 4)) {
+                    break;
+                }
+                writePosition += RECORD_HEADER_BYTES + length;
+                records++;
+            }
+            if (writePosition + Integer.BYTES <= buffer.capacity()) {
+                buffer.putInt(writePosition, 0);
+            }
+            return records;
+        }
+
+        /**
+         * @return the whole record, header included
+         */
+        ByteBuffer record(int position) {
+            ByteBuffer record = buffer.duplicate();
+            record.position(position);
+            record.limit(position + RECORD_HEADER_BYTES + buffer.getInt(position));
+            return record;
+        }
+
+        Message read(int position) {
+            int length = buffer.getInt(position);
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(position + RECORD_HEADER_BYTES);
+            byte[] topic = new byte[payload.getShort()];
+            payload.get(topic);
+
+            Message message = new Message();
+            message.setTopic(new String(topic, StandardCharsets.UTF_8));
+            byte flags = payload.get();
+            if ((flags & HAS_TIMESTAMP) != 0) {
+                message.setTimestamp(payload.getLong());
+            }
+            if ((flags & HAS_PARTITION) != 0) {
+                message.setPartition(payload.getInt());
+            }
+            if ((flags & HAS_KEY) != 0) {
+                byte[] key = new byte[payload.getInt()];
+                payload.get(key);
+                message.setKey(new String(key, StandardCharsets.UTF_8));
+            }
+
+            byte[] value = new byte[position + RECORD_HEADER_BYTES + length - payload.position()];
+            payload.get(value);
+            message.setValue(value);
+            return message;
+        }
+
+        private int checksum(int position, int length) {
+            byte[] payload = new byte[length];
+            ByteBuffer source = buffer.duplicate();
+            source.position(position);
+            source.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, payload.length);
+            return (int) crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key so that only one of them does the work.
+ * <p>
+ * The first caller for a key runs the supplier on its own thread; any caller arriving while
+ * that call is still in flight waits for, and receives, the same result or exception. The
+ * in-flight entry is always removed once the call completes, so a failure is never cached.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existingCall = inFlight.putIfAbsent(key, call);
+        if (existingCall != null) {
+            coalesced.increment();
+            return await(existingCall);
+        }
+
+        try {
+            V result = supplier.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * @return the number of calls that were served by another caller's in-flight call
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 import uk.gov.companieshouse.api.strikeoffobjections.chips.ChipsKafkaClient;
 import uk.gov.companieshouse.api.strikeoffobjections.chips.ChipsRestClient;
@@ -28,8 +29,8 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, ClientHttpRequestFactory clientHttpRequestFactory) {
+        return builder.requestFactory(() -> clientHttpRequestFactory).build();
     }
 
     @Bean("chips-sender")
@@ -0,0 +1,60 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+
+import java.net.URI;
+
+/**
+ * Connection limit and read timeout for one downstream service, identified by the host of
+ * its configured url.
+ */
+public class DownstreamProfile {
+
+    private static final String HTTPS = "https";
+
+    private final String name;
+    private final HttpHost targetHost;
+    private final int readTimeoutMillis;
+    private final int maxConnections;
+
+    public DownstreamProfile(String name, String url, int readTimeoutMillis, int maxConnections) {
+        this.name = name;
+        this.targetHost = targetHost(URI.create(url));
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * @return the host that requests to the uri are sent to, with the default port for the
+     * scheme filled in so that it matches however the url was configured
+     */
+    public static HttpHost targetHost(URI uri) {
+        String scheme = uri.getScheme() == null ? "http" : uri.getScheme();
+        int port = uri.getPort();
+        if (port == -1) {
+            port = HTTPS.equalsIgnoreCase(scheme) ? 443 : 80;
+        }
+        return new HttpHost(uri.getHost(), port, scheme);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HttpHost getTargetHost() {
+        return targetHost;
+    }
+
+    public HttpRoute getRoute() {
+        return new HttpRoute(targetHost, null, HTTPS.equalsIgnoreCase(targetHost.getSchemeName()));
+    }
+
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+}
@@ -0,0 +1,37 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Applies the timeouts of the downstream a request is sent to. Requests to any other host
+ * use the http client's default timeouts.
+ */
+public class DownstreamRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    private final Map<HttpHost, RequestConfig> requestConfigs;
+
+    public DownstreamRequestFactory(HttpClient httpClient, Map<HttpHost, RequestConfig> requestConfigs) {
+        super(httpClient);
+        this.requestConfigs = requestConfigs;
+    }
+
+    @Override
+    protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+        RequestConfig requestConfig = requestConfigs.get(DownstreamProfile.targetHost(uri));
+        if (requestConfig == null) {
+            return null;
+        }
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(requestConfig);
+        return context;
+    }
+}
@@ -0,0 +1,99 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded thread pools used to run downstream calls off the request thread.
+ * <p>
+ * Each pool has a fixed number of threads and a bounded queue. When both are full the
+ * submitting thread runs the task itself, so a saturated pool degrades to sequential
+ * behaviour rather than rejecting work. The exceptions are the pools for speculative work,
+ * the company profile prefetch and the Oracle lookups started ahead of need, which drop or
+ * reject the task instead, as running it on the request thread would defeat its purpose.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String ORACLE_LOOKUP_EXECUTOR = "oracle-lookup-executor";
+    public static final String ELIGIBILITY_BATCH_EXECUTOR = "eligibility-batch-executor";
+    public static final String OBJECTION_PROCESSING_EXECUTOR = "objection-processing-executor";
+    public static final String OBJECTION_DISPATCH_EXECUTOR = "objection-dispatch-executor";
+    public static final String COMPANY_PROFILE_PREFETCH_EXECUTOR = "company-profile-prefetch-executor";
+
+    @Bean(name = ORACLE_LOOKUP_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService oracleLookupExecutor(@Value("${ORACLE_LOOKUP_POOL_SIZE:10}") int poolSize,
+                                                @Value("${ORACLE_LOOKUP_QUEUE_CAPACITY:100}") int queueCapacity,
+                                                MeterRegistry meterRegistry) {
+        // a rejected lookup is made by the eligibility validator if it turns out to be needed
+        return buildBoundedExecutor(ORACLE_LOOKUP_EXECUTOR, poolSize, queueCapacity, meterRegistry,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean(name = ELIGIBILITY_BATCH_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService eligibilityBatchExecutor(@Value("${ELIGIBILITY_BATCH_POOL_SIZE:5}") int poolSize,
+                                                    @Value("${ELIGIBILITY_BATCH_QUEUE_CAPACITY:1000}") int queueCapacity,
+                                                    MeterRegistry meterRegistry) {
+        return buildBoundedExecutor(ELIGIBILITY_BATCH_EXECUTOR, poolSize, queueCapacity, meterRegistry);
+    }
+
+    @Bean(name = OBJECTION_PROCESSING_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService objectionProcessingExecutor(@Value("${OBJECTION_PROCESSING_POOL_SIZE:4}") int poolSize,
+                                                       MeterRegistry meterRegistry) {
+        // the processing worker never has more objections claimed than there are threads
+        return buildBoundedExecutor(OBJECTION_PROCESSING_EXECUTOR, poolSize, poolSize, meterRegistry);
+    }
+
+    @Bean(name = OBJECTION_DISPATCH_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService objectionDispatchExecutor(@Value("${OBJECTION_DISPATCH_POOL_SIZE:12}") int poolSize,
+                                                     @Value("${OBJECTION_DISPATCH_QUEUE_CAPACITY:100}") int queueCapacity,
+                                                     MeterRegistry meterRegistry) {
+        return buildBoundedExecutor(OBJECTION_DISPATCH_EXECUTOR, poolSize, queueCapacity, meterRegistry);
+    }
+
+    @Bean(name = COMPANY_PROFILE_PREFETCH_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService companyProfilePrefetchExecutor(@Value("${COMPANY_PROFILE_PREFETCH_POOL_SIZE:2}") int poolSize,
+                                                          @Value("${COMPANY_PROFILE_PREFETCH_QUEUE_CAPACITY:100}") int queueCapacity,
+                                                          MeterRegistry meterRegistry) {
+        // a dropped prefetch is looked up when the objection is processed, instead of on the request thread
+        return buildBoundedExecutor(COMPANY_PROFILE_PREFETCH_EXECUTOR, poolSize, queueCapacity, meterRegistry,
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    static ExecutorService buildBoundedExecutor(String name,
+                                                int poolSize,
+                                                int queueCapacity,
+                                                MeterRegistry meterRegistry) {
+        return buildBoundedExecutor(name, poolSize, queueCapacity, meterRegistry,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    static ExecutorService buildBoundedExecutor(String name,
+                                                int poolSize,
+                                                int queueCapacity,
+                                                MeterRegistry meterRegistry,
+                                                RejectedExecutionHandler rejectedExecutionHandler) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory(name + "-"),
+                rejectedExecutionHandler);
+
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
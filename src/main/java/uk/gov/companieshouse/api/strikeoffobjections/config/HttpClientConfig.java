@@ -0,0 +1,142 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Pooled Apache http client behind the shared {@link org.springframework.web.client.RestTemplate}.
+ * <p>
+ * Every request has a connect, read and pool wait timeout, so a slow downstream can't hold
+ * request threads indefinitely. Each downstream has its own read timeout and connection
+ * limit, so it can only use its share of the pool. If two downstreams share a host, the
+ * first profile declared applies.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private static final String POOL_NAME = "rest-template";
+    private static final String ROUTE_CONNECTIONS_METRIC = "httpcomponents.httpclient.pool.route.connections";
+
+    @Bean
+    public DownstreamProfile oracleQueryApiProfile(@Value("${ORACLE_QUERY_API_URL}") String url,
+                                                   @Value("${ORACLE_QUERY_API_READ_TIMEOUT_MILLIS:3000}") int readTimeoutMillis,
+                                                   @Value("${ORACLE_QUERY_API_MAX_CONNECTIONS:20}") int maxConnections) {
+        return new DownstreamProfile("oracle-query-api", url, readTimeoutMillis, maxConnections);
+    }
+
+    @Bean
+    public DownstreamProfile chipsRestInterfaceProfile(@Value("${OBJECT_TO_STRIKE_OFF_CHIPS_REST_INTERFACE_URL}") String url,
+                                                       @Value("${CHIPS_REST_INTERFACE_READ_TIMEOUT_MILLIS:10000}") int readTimeoutMillis,
+                                                       @Value("${CHIPS_REST_INTERFACE_MAX_CONNECTIONS:10}") int maxConnections) {
+        return new DownstreamProfile("chips-rest-interface", url, readTimeoutMillis, maxConnections);
+    }
+
+    @Bean
+    public DownstreamProfile fileTransferApiProfile(@Value("${FILE_TRANSFER_API_URL}") String url,
+                                                    @Value("${FILE_TRANSFER_API_READ_TIMEOUT_MILLIS:30000}") int readTimeoutMillis,
+                                                    @Value("${FILE_TRANSFER_API_MAX_CONNECTIONS:10}") int maxConnections) {
+        return new DownstreamProfile("file-transfer-api", url, readTimeoutMillis, maxConnections);
+    }
+
+    @Bean
+    public DownstreamProfile schemaRegistryProfile(@Value("${SCHEMA_REGISTRY_URL}") String url,
+                                                   @Value("${SCHEMA_REGISTRY_READ_TIMEOUT_MILLIS:5000}") int readTimeoutMillis,
+                                                   @Value("${SCHEMA_REGISTRY_MAX_CONNECTIONS:2}") int maxConnections) {
+        return new DownstreamProfile("schema-registry", url, readTimeoutMillis, maxConnections);
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(
+            @Value("${HTTP_CLIENT_MAX_TOTAL_CONNECTIONS:100}") int maxTotalConnections,
+            @Value("${HTTP_CLIENT_MAX_CONNECTIONS_PER_ROUTE:20}") int defaultMaxConnectionsPerRoute,
+            List<DownstreamProfile> downstreamProfiles,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotalConnections);
+        connectionManager.setDefaultMaxPerRoute(defaultMaxConnectionsPerRoute);
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+
+        for (DownstreamProfile profile : byTargetHost(downstreamProfiles).values()) {
+            HttpRoute route = profile.getRoute();
+            connectionManager.setMaxPerRoute(route, profile.getMaxConnections());
+
+            registerRouteGauge(meterRegistry, connectionManager, route, profile, "leased", PoolStats::getLeased);
+            registerRouteGauge(meterRegistry, connectionManager, route, profile, "available", PoolStats::getAvailable);
+            registerRouteGauge(meterRegistry, connectionManager, route, profile, "pending", PoolStats::getPending);
+        }
+        return connectionManager;
+    }
+
+    @Bean
+    public RequestConfig defaultRequestConfig(@Value("${HTTP_CLIENT_CONNECT_TIMEOUT_MILLIS:2000}") int connectTimeoutMillis,
+                                              @Value("${HTTP_CLIENT_READ_TIMEOUT_MILLIS:10000}") int readTimeoutMillis,
+                                              @Value("${HTTP_CLIENT_POOL_TIMEOUT_MILLIS:1000}") int poolTimeoutMillis) {
+        return RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .setConnectionRequestTimeout(poolTimeoutMillis)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpClientConnectionManager,
+                                          RequestConfig defaultRequestConfig) {
+        return HttpClients.custom()
+                .setConnectionManager(httpClientConnectionManager)
+                .setDefaultRequestConfig(defaultRequestConfig)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient,
+                                                             RequestConfig defaultRequestConfig,
+                                                             List<DownstreamProfile> downstreamProfiles) {
+        Map<HttpHost, RequestConfig> requestConfigs = new LinkedHashMap<>();
+        for (DownstreamProfile profile : byTargetHost(downstreamProfiles).values()) {
+            requestConfigs.put(profile.getTargetHost(), RequestConfig.copy(defaultRequestConfig)
+                    .setSocketTimeout(profile.getReadTimeoutMillis())
+                    .build());
+        }
+        return new DownstreamRequestFactory(httpClient, requestConfigs);
+    }
+
+    static Map<HttpHost, DownstreamProfile> byTargetHost(List<DownstreamProfile> downstreamProfiles) {
+        Map<HttpHost, DownstreamProfile> profiles = new LinkedHashMap<>();
+        for (DownstreamProfile profile : downstreamProfiles) {
+            profiles.putIfAbsent(profile.getTargetHost(), profile);
+        }
+        return profiles;
+    }
+
+    private static void registerRouteGauge(MeterRegistry meterRegistry,
+                                           PoolingHttpClientConnectionManager connectionManager,
+                                           HttpRoute route,
+                                           DownstreamProfile profile,
+                                           String state,
+                                           ToIntFunction<PoolStats> stat) {
+        Gauge.builder(ROUTE_CONNECTIONS_METRIC, connectionManager,
+                        manager -> stat.applyAsInt(manager.getStats(route)))
+                .tag("httpclient", POOL_NAME)
+                .tag("downstream", profile.getName())
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
@@ -1,48 +1,52 @@
 package uk.gov.companieshouse.api.strikeoffobjections.config;
 
-import org.apache.avro.Schema;
-import org.json.JSONException;
-import org.json.JSONObject;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import uk.gov.companieshouse.api.strikeoffobjections.email.KafkaRestClient;
-import uk.gov.companieshouse.kafka.producer.Acks;
-import uk.gov.companieshouse.kafka.producer.CHKafkaProducer;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.common.KafkaProducers;
 import uk.gov.companieshouse.kafka.producer.ProducerConfig;
 import uk.gov.companieshouse.kafka.producer.ProducerConfigHelper;
 
-@Configuration
-public class KafkaConfiguration {
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-    @Value("${SCHEMA_REGISTRY_URL}")
-    private String schemaRegistryUrl;
+import static org.apache.kafka.clients.producer.ProducerConfig.ACKS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.BOOTSTRAP_SERVERS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.RETRIES_CONFIG;
 
-    @Value("${EMAIL_SCHEMA_URI}")
-    private String emailSchemaUri;
+@Configuration
+public class KafkaConfiguration {
 
     @Value("${KAFKA_PRODUCER_MAXIMUM_RETRY_ATTEMPTS}")
     private String maximumRetryAttempts;
 
-    @Bean
-    public Schema fetchSchema(KafkaRestClient restClient) throws JSONException {
-       return getSchema(restClient, emailSchemaUri);
-    }
-
-    private Schema getSchema(KafkaRestClient restClient, String schemaUri) throws JSONException {
-        byte[] bytes = restClient.getSchema(schemaRegistryUrl, schemaUri);
-        String schemaJson = new JSONObject(new String(bytes)).getString("schema");
-        return new Schema.Parser().parse(schemaJson);
-    }
-
-    @Bean
-    public CHKafkaProducer buildKafkaProducer() {
+    @Bean(destroyMethod = "close")
+    public KafkaProducers buildKafkaProducers(@Value("${EMAIL_SEND_QUEUE_TOPIC}") String emailSendQueueTopic,
+                                              @Value("${CHIPS_REST_INTERFACES_SEND_TOPIC}") String chipsRestInterfacesSendTopic,
+                                              @Value("${KAFKA_EMAIL_PRODUCER_PROFILE:LOW_LATENCY}") KafkaProducerProfile emailProfile,
+                                              @Value("${KAFKA_CHIPS_PRODUCER_PROFILE:LOW_LATENCY}") KafkaProducerProfile chipsProfile,
+                                              @Value("${KAFKA_DEFAULT_PRODUCER_PROFILE:LOW_LATENCY}") KafkaProducerProfile defaultProfile,
+                                              ApiLogger logger) {
         ProducerConfig config = new ProducerConfig();
         ProducerConfigHelper.assignBrokerAddresses(config);
 
-        config.setRoundRobinPartitioner(true);
-        config.setAcks(Acks.WAIT_FOR_ALL);
-        config.setRetries(Integer.parseInt(maximumRetryAttempts));
-        return new CHKafkaProducer(config);
+        Map<String, Object> commonSettings = new LinkedHashMap<>();
+        commonSettings.put(BOOTSTRAP_SERVERS_CONFIG, String.join(",", config.getBrokerAddresses()));
+        commonSettings.put(ACKS_CONFIG, "all");
+        commonSettings.put(RETRIES_CONFIG, Integer.parseInt(maximumRetryAttempts));
+
+        Map<String, KafkaProducerProfile> topicProfiles = new HashMap<>();
+        topicProfiles.put(emailSendQueueTopic, emailProfile);
+        topicProfiles.put(chipsRestInterfacesSendTopic, chipsProfile);
+
+        KafkaProducers kafkaProducers = new KafkaProducers(commonSettings, topicProfiles, defaultProfile,
+                settings -> new KafkaProducer<>(settings, new StringSerializer(), new ByteArraySerializer()));
+        logger.info("CHS ENV CONFIG - Kafka producers = " + kafkaProducers.describe());
+        return kafkaProducers;
     }
 }
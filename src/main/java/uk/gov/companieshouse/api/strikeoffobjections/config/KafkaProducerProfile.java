@@ -0,0 +1,71 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kafka producer batching presets, chosen per topic.
+ * <p>
+ * {@link #LOW_LATENCY} sends each message as soon as it is ready, which suits the odd message
+ * sent while a user waits. {@link #HIGH_THROUGHPUT} waits briefly to fill larger, compressed
+ * batches, which suits bursts such as outbox relays and batch email sends. Both wait for all
+ * in sync replicas to acknowledge.
+ */
+public enum KafkaProducerProfile {
+
+    LOW_LATENCY(16 * 1024, 0, "none", 5, 32L * 1024 * 1024),
+    HIGH_THROUGHPUT(64 * 1024, 20, "lz4", 5, 64L * 1024 * 1024);
+
+    private final int batchSizeBytes;
+    private final int lingerMillis;
+    private final String compressionType;
+    private final int maxInFlightRequestsPerConnection;
+    private final long bufferMemoryBytes;
+
+    KafkaProducerProfile(int batchSizeBytes,
+                         int lingerMillis,
+                         String compressionType,
+                         int maxInFlightRequestsPerConnection,
+                         long bufferMemoryBytes) {
+        this.batchSizeBytes = batchSizeBytes;
+        this.lingerMillis = lingerMillis;
+        this.compressionType = compressionType;
+        this.maxInFlightRequestsPerConnection = maxInFlightRequestsPerConnection;
+        this.bufferMemoryBytes = bufferMemoryBytes;
+    }
+
+    public int getBatchSizeBytes() {
+        return batchSizeBytes;
+    }
+
+    public int getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public String getCompressionType() {
+        return compressionType;
+    }
+
+    public int getMaxInFlightRequestsPerConnection() {
+        return maxInFlightRequestsPerConnection;
+    }
+
+    public long getBufferMemoryBytes() {
+        return bufferMemoryBytes;
+    }
+
+    /**
+     * @return the profile's settings as Kafka producer properties
+     */
+    public Map<String, Object> getSettings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSizeBytes);
+        settings.put(ProducerConfig.LINGER_MS_CONFIG, lingerMillis);
+        settings.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        settings.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequestsPerConnection);
+        settings.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemoryBytes);
+        return settings;
+    }
+}
@@ -0,0 +1,29 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.strikeoffobjections.common.KafkaProducers;
+
+import java.util.Map;
+
+/**
+ * Reports the producer profile for each Kafka topic and the effective producer settings
+ */
+@Component
+@Endpoint(id = "kafkaproducers")
+public class KafkaProducersEndpoint {
+
+    private final KafkaProducers kafkaProducers;
+
+    @Autowired
+    public KafkaProducersEndpoint(KafkaProducers kafkaProducers) {
+        this.kafkaProducers = kafkaProducers;
+    }
+
+    @ReadOperation
+    public Map<String, Object> kafkaProducers() {
+        return kafkaProducers.describe();
+    }
+}
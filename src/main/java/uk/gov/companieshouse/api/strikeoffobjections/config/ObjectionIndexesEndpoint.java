@@ -0,0 +1,30 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionIndexReconciler;
+
+import java.util.Map;
+
+/**
+ * Reports the indexes declared on objections, any missing from the collection, and how often
+ * each index has been used
+ */
+@Component
+@Endpoint(id = "objectionindexes")
+public class ObjectionIndexesEndpoint {
+
+    private final ObjectionIndexReconciler objectionIndexReconciler;
+
+    @Autowired
+    public ObjectionIndexesEndpoint(ObjectionIndexReconciler objectionIndexReconciler) {
+        this.objectionIndexReconciler = objectionIndexReconciler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> objectionIndexes() {
+        return objectionIndexReconciler.describe();
+    }
+}
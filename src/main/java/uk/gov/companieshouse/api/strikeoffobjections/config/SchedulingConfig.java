@@ -0,0 +1,25 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Runs the scheduled jobs (the processing worker, outbox relay, retry scheduler, Kafka spool
+     * drain and fsync, and email schema refresh). Without this Spring runs them all on a single
+     * thread, so a retry poll blocked on CHIPS or email sends would hold up every other job.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${SCHEDULED_TASK_POOL_SIZE:6}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduled-task-");
+        return scheduler;
+    }
+}
@@ -1,6 +1,8 @@
 package uk.gov.companieshouse.api.strikeoffobjections.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.MongoDbFactory;
@@ -26,4 +28,22 @@ public class SpringMongoConfig {
 
         return converter;
     }
+
+    /**
+     * When the objection index reconciler is enabled, this stops Spring building indexes while
+     * the application starts, so the reconciler builds them in the background instead
+     */
+    @Bean
+    public static BeanPostProcessor autoIndexCreationPostProcessor(
+            @Value("${FEATURE_FLAG_OBJECTION_INDEX_RECONCILER:false}") boolean isReconcilerEnabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (isReconcilerEnabled && bean instanceof MongoMappingContext) {
+                    ((MongoMappingContext) bean).setAutoIndexCreation(false);
+                }
+                return bean;
+            }
+        };
+    }
 }
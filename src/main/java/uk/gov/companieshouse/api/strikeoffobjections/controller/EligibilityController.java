@@ -0,0 +1,99 @@
+package uk.gov.companieshouse.api.strikeoffobjections.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.CompanyEligibility;
+import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.EligibilityBatchRequest;
+import uk.gov.companieshouse.api.strikeoffobjections.service.IEligibilityService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderFields.ERIC_REQUEST_ID;
+
+@RestController
+@RequestMapping(value = "/strike-off-objections/eligibility")
+public class EligibilityController {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.valueOf("application/x-ndjson");
+
+    private static final String ERROR_500 = "Internal server error";
+
+    private IEligibilityService eligibilityService;
+    private ApiLogger apiLogger;
+    private ObjectMapper objectMapper;
+    private int maxBatchSize;
+    private long timeoutMillis;
+
+    @Autowired
+    public EligibilityController(IEligibilityService eligibilityService,
+                                 ApiLogger apiLogger,
+                                 ObjectMapper objectMapper,
+                                 @Value("${ELIGIBILITY_BATCH_MAX_SIZE:500}") int maxBatchSize,
+                                 @Value("${ELIGIBILITY_BATCH_TIMEOUT_MILLIS:60000}") long timeoutMillis) {
+        this.eligibilityService = eligibilityService;
+        this.apiLogger = apiLogger;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Checks the eligibility of each company in the request, streaming one JSON result per line
+     * as each check completes. The results are not in request order.
+     */
+    @PostMapping
+    public ResponseEntity<ResponseBodyEmitter> checkEligibility(@RequestBody EligibilityBatchRequest request,
+                                                                @RequestHeader(value = ERIC_REQUEST_ID) String requestId) {
+        apiLogger.infoContext(requestId, "POST /strike-off-objections/eligibility request received");
+
+        List<String> companyNumbers = request.getCompanyNumbers();
+        if (companyNumbers == null || companyNumbers.isEmpty() || companyNumbers.size() > maxBatchSize) {
+            apiLogger.infoContext(requestId,
+                    String.format("Rejecting eligibility batch, between 1 and %d company numbers are allowed",
+                            maxBatchSize));
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+
+        eligibilityService.checkEligibility(companyNumbers, requestId, result -> send(emitter, result))
+                .whenComplete((done, e) -> {
+                    if (e == null) {
+                        emitter.complete();
+                    } else {
+                        apiLogger.errorContext(requestId, ERROR_500, toException(e));
+                        emitter.completeWithError(e);
+                    }
+                    apiLogger.infoContext(requestId, "Finished POST /strike-off-objections/eligibility request");
+                });
+
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(emitter);
+    }
+
+    private void send(ResponseBodyEmitter emitter, CompanyEligibility result) {
+        try {
+            // written as a single string so that lines from concurrent checks can't interleave
+            emitter.send(objectMapper.writeValueAsString(result) + "\n", MediaType.TEXT_PLAIN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Exception toException(Throwable throwable) {
+        Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+    }
+}
@@ -19,6 +19,7 @@ import org.springframework.web.multipart.MultipartFile;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.common.LogConstants;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.AttachmentNotFoundException;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidCursorException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.ObjectionNotFoundException;
 import uk.gov.companieshouse.api.strikeoffobjections.file.FileTransferApiClientResponse;
 import uk.gov.companieshouse.api.strikeoffobjections.model.create.ObjectionCreate;
@@ -26,9 +27,12 @@ import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.Objection
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.list.ObjectionPage;
 import uk.gov.companieshouse.api.strikeoffobjections.model.patch.ObjectionPatch;
 import uk.gov.companieshouse.api.strikeoffobjections.model.response.AttachmentResponseDTO;
+import uk.gov.companieshouse.api.strikeoffobjections.model.response.ObjectionListResponseDTO;
 import uk.gov.companieshouse.api.strikeoffobjections.model.response.ObjectionResponseDTO;
+import uk.gov.companieshouse.api.strikeoffobjections.model.response.ObjectionSummaryResponseDTO;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidObjectionStatusException;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IObjectionService;
 import uk.gov.companieshouse.service.ServiceException;
@@ -38,6 +42,7 @@ import uk.gov.companieshouse.service.rest.response.PluggableResponseEntityFactor
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +51,7 @@ import java.util.stream.Collectors;
 import static uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderFields.ERIC_REQUEST_ID;
 import static uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderFields.ERIC_IDENTITY;
 import static uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderFields.ERIC_AUTHORISED_USER;
+import static uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderFields.ERIC_AUTHORISED_ROLES;
 
 @RestController
 @RequestMapping(value = "/company/{companyNumber}/strike-off-objections")
@@ -60,6 +66,12 @@ public class ObjectionController {
     private static final String COULD_NOT_DELETE = "Could not delete attachment";
     private static final String OBJECTION_NOT_PROCESSED = "Objection not processed";
     private static final String DOWNLOAD_ERROR = "Download Error";
+    private static final String INVALID_CURSOR = "Invalid cursor";
+
+    /**
+     * The admin role that is assigned to CHS users who are allowed to list a company's objections.
+     */
+    private static final String ADMIN_LIST_ROLE = "/admin/strike-off-objections-list";
 
     private PluggableResponseEntityFactory responseEntityFactory;
     private IObjectionService objectionService;
@@ -177,6 +189,82 @@ public class ObjectionController {
         }
     }
 
+    /**
+     * Lists the company's objections, newest first, a page at a time
+     *
+     * @param companyNumber the company number
+     * @param statuses      only objections with these statuses are listed, all are listed if absent
+     * @param cursor        next_cursor of the previous page, absent for the first page
+     * @param pageSize      number of objections per page
+     * @param requestId     http request id used for logging
+     * @param roles         the admin roles of the user, only admin users may list objections
+     * @return ResponseEntity the api response
+     */
+    @GetMapping
+    public ResponseEntity<ChResponseBody<ObjectionListResponseDTO>> getObjections(
+            @PathVariable("companyNumber") String companyNumber,
+            @RequestParam(value = "status", required = false) List<ObjectionStatus> statuses,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "page_size", required = false) Integer pageSize,
+            @RequestHeader(value = ERIC_REQUEST_ID) String requestId,
+            @RequestHeader(value = ERIC_AUTHORISED_ROLES, required = false) String roles
+    ) {
+        Map<String, Object> logMap = new HashMap<>();
+        logMap.put(LOG_COMPANY_NUMBER_KEY, companyNumber);
+
+        apiLogger.infoContext(
+                requestId,
+                "GET / request received",
+                logMap
+        );
+
+        try {
+            // checked here rather than in an interceptor, so every path mapped to the list is covered
+            if (!hasRole(roles, ADMIN_LIST_ROLE)) {
+                apiLogger.infoContext(
+                        requestId,
+                        "User is not authorized to list objections",
+                        logMap
+                );
+
+                return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+            }
+
+            ObjectionPage page = objectionService.listObjections(
+                    requestId, companyNumber, statuses, cursor, pageSize);
+            List<ObjectionSummaryResponseDTO> items = page.getObjections().stream()
+                    .map(objectionMapper::objectionEntityToObjectionSummaryResponseDTO)
+                    .collect(Collectors.toList());
+
+            return responseEntityFactory.createResponse(
+                    ServiceResult.found(new ObjectionListResponseDTO(items, page.getNextCursor())));
+        } catch (InvalidCursorException e) {
+            apiLogger.errorContext(
+                    requestId,
+                    INVALID_CURSOR,
+                    e,
+                    logMap
+            );
+
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            apiLogger.errorContext(
+                    requestId,
+                    ERROR_500,
+                    e,
+                    logMap
+            );
+
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            apiLogger.infoContext(
+                    requestId,
+                    "Finished GET / request",
+                    logMap
+            );
+        }
+    }
+
     /**
      * Updates Objection data and will process the objection if status
      * updated from OPEN to SUBMITTED
@@ -531,4 +619,8 @@ public class ObjectionController {
                     logMap);
         }
     }
+
+    private static boolean hasRole(String roles, String role) {
+        return roles != null && Arrays.asList(roles.split(" ")).contains(role);
+    }
 }
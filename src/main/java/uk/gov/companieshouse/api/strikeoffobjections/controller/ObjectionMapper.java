@@ -4,10 +4,13 @@ import org.mapstruct.Mapper;
 import org.springframework.stereotype.Component;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.response.ObjectionResponseDTO;
+import uk.gov.companieshouse.api.strikeoffobjections.model.response.ObjectionSummaryResponseDTO;
 
 @Component
 @Mapper(componentModel = "spring")
 public interface ObjectionMapper {
 
     ObjectionResponseDTO objectionEntityToObjectionResponseDTO(Objection objection);
+
+    ObjectionSummaryResponseDTO objectionEntityToObjectionSummaryResponseDTO(Objection objection);
 }
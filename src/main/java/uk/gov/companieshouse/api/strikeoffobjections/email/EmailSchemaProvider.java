@@ -0,0 +1,144 @@
+package uk.gov.companieshouse.api.strikeoffobjections.email;
+
+import org.apache.avro.Schema;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Resolves the email Avro schema the first time it is needed rather than while the application starts.
+ * <p>
+ * The schema is fetched from the schema registry and saved to a local file named after the
+ * subject and version. If the registry can't be reached, the last saved copy is used, then the
+ * copy bundled in the jar (when enabled). The schema is also refreshed from the registry in the
+ * background, starting as soon as the application is up.
+ */
+@Component
+public class EmailSchemaProvider {
+
+    static final String BUNDLED_SCHEMA_PATH = "schemas/email-send.avsc";
+    private static final String LOG_CONTEXT = "email-schema";
+
+    private final KafkaRestClient restClient;
+    private final ApiLogger apiLogger;
+    private final String schemaRegistryUrl;
+    private final String emailSchemaUri;
+    private final Path cacheFile;
+    private final boolean isBundledFallbackEnabled;
+    private volatile Schema schema;
+
+    @Autowired
+    public EmailSchemaProvider(KafkaRestClient restClient,
+                               ApiLogger apiLogger,
+                               @Value("${SCHEMA_REGISTRY_URL}") String schemaRegistryUrl,
+                               @Value("${EMAIL_SCHEMA_URI}") String emailSchemaUri,
+                               @Value("${SCHEMA_CACHE_DIR:${java.io.tmpdir}/strike-off-objections-schemas}") String cacheDir,
+                               @Value("${SCHEMA_BUNDLED_FALLBACK_ENABLED:true}") boolean isBundledFallbackEnabled) {
+        this.restClient = restClient;
+        this.apiLogger = apiLogger;
+        this.schemaRegistryUrl = schemaRegistryUrl;
+        this.emailSchemaUri = emailSchemaUri;
+        this.cacheFile = Paths.get(cacheDir, cacheFileName(emailSchemaUri));
+        this.isBundledFallbackEnabled = isBundledFallbackEnabled;
+    }
+
+    /**
+     * @return the email schema
+     * @throws IOException if the schema can't be fetched and there is no saved or bundled copy
+     */
+    public Schema getSchema() throws IOException {
+        Schema current = schema;
+        if (current == null) {
+            synchronized (this) {
+                if (schema == null) {
+                    schema = resolve();
+                }
+                current = schema;
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${SCHEMA_REFRESH_INTERVAL_MILLIS:3600000}")
+    public void refresh() {
+        try {
+            schema = fetchAndSave();
+        } catch (Exception e) {
+            // keep using the schema we have, if any
+            apiLogger.errorContext(LOG_CONTEXT, "Unable to refresh email schema from the registry", e);
+        }
+    }
+
+    /**
+     * Names the cache file after the subject and version in the schema uri, e.g.
+     * {@code /subjects/email-send/versions/latest} is saved as {@code email-send.latest.avsc}
+     */
+    static String cacheFileName(String schemaUri) {
+        String subjectAndVersion = schemaUri
+                .replaceFirst("^/?subjects/", "")
+                .replace("/versions/", ".");
+        return subjectAndVersion.replaceAll("[^A-Za-z0-9._-]", "_") + ".avsc";
+    }
+
+    private Schema resolve() throws IOException {
+        try {
+            return fetchAndSave();
+        } catch (Exception e) {
+            apiLogger.errorContext(LOG_CONTEXT, "Unable to fetch email schema from the registry", e);
+        }
+
+        if (Files.isReadable(cacheFile)) {
+            apiLogger.info("Using email schema saved at " + cacheFile);
+            return parse(new String(Files.readAllBytes(cacheFile), StandardCharsets.UTF_8));
+        }
+
+        ClassPathResource bundledSchema = new ClassPathResource(BUNDLED_SCHEMA_PATH);
+        if (isBundledFallbackEnabled && bundledSchema.exists()) {
+            apiLogger.info("Using email schema bundled at " + BUNDLED_SCHEMA_PATH);
+            try (InputStream in = bundledSchema.getInputStream()) {
+                return parse(StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+            }
+        }
+
+        throw new IOException("Email schema is not available from the registry, " + cacheFile
+                + " or the bundled schema");
+    }
+
+    private Schema fetchAndSave() throws JSONException {
+        byte[] bytes = restClient.getSchema(schemaRegistryUrl, emailSchemaUri);
+        String schemaJson = new JSONObject(new String(bytes, StandardCharsets.UTF_8)).getString("schema");
+        Schema fetched = parse(schemaJson);
+        save(schemaJson);
+        return fetched;
+    }
+
+    private void save(String schemaJson) {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+            Files.write(tempFile, schemaJson.getBytes(StandardCharsets.UTF_8));
+            // readers never see a partly written file
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            apiLogger.errorContext(LOG_CONTEXT, "Unable to save email schema to " + cacheFile, e);
+        }
+    }
+
+    private static Schema parse(String schemaJson) {
+        return new Schema.Parser().parse(schemaJson);
+    }
+}
@@ -1,20 +1,25 @@
 package uk.gov.companieshouse.api.strikeoffobjections.email;
 
-import org.apache.avro.Schema;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import uk.gov.companieshouse.api.strikeoffobjections.common.AvroSerializer;
+import uk.gov.companieshouse.api.strikeoffobjections.common.KafkaSpool;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.KafkaMessageSpooledException;
 import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailContent;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.kafka.message.Message;
-import uk.gov.companieshouse.kafka.producer.CHKafkaProducer;
 import uk.gov.companieshouse.service.ServiceException;
 
 import java.io.IOException;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 @Component
 public class KafkaEmailClient {
@@ -22,35 +27,107 @@ public class KafkaEmailClient {
     @Value("${EMAIL_SEND_QUEUE_TOPIC}")
     private String emailSendQueueTopic;
 
-    private CHKafkaProducer producer;
+    private KafkaSpool producer;
     private AvroSerializer avroSerializer;
-    private Schema schema;
+    private EmailSchemaProvider schemaProvider;
 
     @Autowired
-    public KafkaEmailClient(CHKafkaProducer producer,
+    public KafkaEmailClient(KafkaSpool producer,
                             AvroSerializer avroSerializer,
-                            Schema schema) {
+                            EmailSchemaProvider schemaProvider) {
         this.producer = producer;
         this.avroSerializer = avroSerializer;
-        this.schema = schema;
+        this.schemaProvider = schemaProvider;
     }
 
     public void sendEmailToKafka(EmailContent emailContent)
             throws ServiceException {
         try {
-            Message message = new Message();
-            byte[] serializedData = avroSerializer.serialize(emailContent, schema);
-            message.setValue(serializedData);
-            message.setTopic(emailSendQueueTopic);
-            message.setTimestamp(emailContent.getCreatedAt().atZone(ZoneId.systemDefault()).toEpochSecond());
-            Future<RecordMetadata> future = producer.sendAndReturnFuture(message);
-            future.get();
-        } catch (IOException | ExecutionException e) {
-            throw new ServiceException(e.getMessage());
+            sendEmailToKafkaAsync(emailContent).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KafkaMessageSpooledException) {
+                throw (KafkaMessageSpooledException) e.getCause();
+            }
+            throw new ServiceException(e.getCause().getMessage());
         } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
             throw new ServiceException("Thread Interrupted when future was sent and returned");
         }
     }
 
+    /**
+     * Sends the email without waiting for the broker to acknowledge it
+     *
+     * @return completed once the email is acknowledged, or exceptionally if it could not be
+     * sent, with a {@link KafkaMessageSpooledException} if it was spooled to send later
+     */
+    public CompletableFuture<RecordMetadata> sendEmailToKafkaAsync(EmailContent emailContent) {
+        Message message;
+        try {
+            message = buildMessage(emailContent);
+        } catch (IOException e) {
+            CompletableFuture<RecordMetadata> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return producer.send(message);
+    }
+
+    /**
+     * Sends all of the emails before waiting for any of them to be acknowledged, so the
+     * broker round trips overlap rather than adding up.
+     *
+     * @param emailContents the emails to send
+     * @return the exception for each email address that could not be sent, in the order the
+     * emails were given; empty when all of them were sent
+     */
+    public Map<String, Exception> sendEmailsToKafka(List<EmailContent> emailContents) {
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        List<CompletableFuture<RecordMetadata>> futures = new ArrayList<>(emailContents.size());
+        for (EmailContent emailContent : emailContents) {
+            try {
+                futures.add(sendEmailToKafkaAsync(emailContent));
+            } catch (RuntimeException e) {
+                failures.put(emailContent.getEmailAddress(), e);
+                futures.add(null);
+            }
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<RecordMetadata> future = futures.get(i);
+            if (future == null) {
+                continue;
+            }
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failures.put(emailContents.get(i).getEmailAddress(), e);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                failures.put(emailContents.get(i).getEmailAddress(), ie);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Serialises the email for the outbox rather than sending it
+     */
+    public OutboxMessage toOutboxMessage(EmailContent emailContent) throws ServiceException {
+        try {
+            return OutboxMessage.fromMessage(emailContent.getMessageId(), buildMessage(emailContent),
+                    emailContent.getCreatedAt());
+        } catch (IOException e) {
+            throw new ServiceException(e.getMessage());
+        }
+    }
+
+    private Message buildMessage(EmailContent emailContent) throws IOException {
+        Message message = new Message();
+        byte[] serializedData = avroSerializer.serialize(emailContent, schemaProvider.getSchema());
+        message.setValue(serializedData);
+        message.setTopic(emailSendQueueTopic);
+        message.setTimestamp(emailContent.getCreatedAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+        return message;
+    }
 }
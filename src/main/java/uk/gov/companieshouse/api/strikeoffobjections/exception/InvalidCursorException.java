@@ -0,0 +1,11 @@
+package uk.gov.companieshouse.api.strikeoffobjections.exception;
+
+public class InvalidCursorException extends Exception {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
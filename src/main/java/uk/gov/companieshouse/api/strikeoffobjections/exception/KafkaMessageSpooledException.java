@@ -0,0 +1,25 @@
+package uk.gov.companieshouse.api.strikeoffobjections.exception;
+
+import uk.gov.companieshouse.service.ServiceException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A Kafka message couldn't be sent now, and has been spooled to be sent once Kafka is available
+ */
+public class KafkaMessageSpooledException extends ServiceException {
+
+    private final transient CompletableFuture<Void> replayed;
+
+    public KafkaMessageSpooledException(String message, Throwable cause, CompletableFuture<Void> replayed) {
+        super(message, cause);
+        this.replayed = replayed;
+    }
+
+    /**
+     * @return completed once the spooled message has been sent
+     */
+    public CompletableFuture<Void> getReplayed() {
+        return replayed;
+    }
+}
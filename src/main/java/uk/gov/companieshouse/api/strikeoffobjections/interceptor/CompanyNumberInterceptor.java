@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
-import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderFields;
 
 import javax.servlet.http.HttpServletRequest;
@@ -23,7 +23,7 @@ public class CompanyNumberInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         final String requestId = request.getHeader(ERICHeaderFields.ERIC_REQUEST_ID);
         apiLogger.debugContext(requestId, "Checking provided company number matches objection company number");
-        final Objection objection = (Objection) request.getAttribute(InterceptorConstants.OBJECTION_ATTRIBUTE);
+        final ObjectionSummary objection = (ObjectionSummary) request.getAttribute(InterceptorConstants.OBJECTION_ATTRIBUTE);
 
         Map<String, String> pathVariables =
                 (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
@@ -40,7 +40,7 @@ public class CompanyNumberInterceptor implements HandlerInterceptor {
         return companyNumberMatches;
     }
 
-    private boolean doCompanyNumbersMatch(String requestCompanyNumber, Objection objection) {
+    private boolean doCompanyNumbersMatch(String requestCompanyNumber, ObjectionSummary objection) {
         boolean companyNumberMatches = false;
         if(requestCompanyNumber != null) {
             companyNumberMatches = requestCompanyNumber.equals(objection.getCompanyNumber());
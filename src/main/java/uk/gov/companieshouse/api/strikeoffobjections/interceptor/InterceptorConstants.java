@@ -8,4 +8,5 @@ public class InterceptorConstants {
     public static final String OBJECTION_ATTRIBUTE = "objection";
     public static final String COMPANY_NUMBER_PATH_VARIABLE = "companyNumber";
     public static final String OBJECTION_ID_PATH_VARIABLE = "objectionId";
+    public static final String ATTACHMENT_ID_PATH_VARIABLE = "attachmentId";
 }
@@ -1,11 +1,12 @@
 package uk.gov.companieshouse.api.strikeoffobjections.interceptor;
 
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.ObjectionNotFoundException;
-import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IObjectionService;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderFields;
 
@@ -34,7 +35,10 @@ public class ObjectionInterceptor implements HandlerInterceptor {
         final String objectionId = pathVariables.get(InterceptorConstants.OBJECTION_ID_PATH_VARIABLE);
 
         try {
-            Objection objection = objectionService.getObjection(requestId, objectionId);
+            // the service holds a full objection for the rest of the request, so the handler doesn't read it again
+            ObjectionSummary objection = isFullObjectionNeeded(request, pathVariables)
+                    ? ObjectionSummary.of(objectionService.getObjection(requestId, objectionId))
+                    : objectionService.getObjectionSummary(requestId, objectionId);
             request.setAttribute(InterceptorConstants.OBJECTION_ATTRIBUTE, objection);
         } catch (ObjectionNotFoundException e) {
             apiLogger.errorContext(
@@ -48,4 +52,14 @@ public class ObjectionInterceptor implements HandlerInterceptor {
         }
         return true;
     }
+
+    /**
+     * Only getting the objection or its attachments reads the whole objection. Patching it and
+     * uploading an attachment don't read it, and the routes for a single attachment read just
+     * that attachment, so only the fields the interceptors check are loaded for them
+     */
+    private static boolean isFullObjectionNeeded(HttpServletRequest request, Map<String, String> pathVariables) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && !pathVariables.containsKey(InterceptorConstants.ATTACHMENT_ID_PATH_VARIABLE);
+    }
 }
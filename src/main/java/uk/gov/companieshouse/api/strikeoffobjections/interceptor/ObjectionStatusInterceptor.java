@@ -3,8 +3,8 @@ package uk.gov.companieshouse.api.strikeoffobjections.interceptor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.HandlerInterceptor;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
-import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderFields;
 
 import javax.servlet.http.HttpServletRequest;
@@ -24,7 +24,7 @@ public class ObjectionStatusInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         final String requestId = request.getHeader(ERICHeaderFields.ERIC_REQUEST_ID);
         apiLogger.debugContext(requestId, "Checking objection status is OPEN");
-        final Objection objection = (Objection) request.getAttribute(InterceptorConstants.OBJECTION_ATTRIBUTE);
+        final ObjectionSummary objection = (ObjectionSummary) request.getAttribute(InterceptorConstants.OBJECTION_ATTRIBUTE);
 
         // Operations on objections via the API REST interface are only allowed whilst the objection is
         // still 'open', i.e. has not yet been submitted (to CHIPS) for processing
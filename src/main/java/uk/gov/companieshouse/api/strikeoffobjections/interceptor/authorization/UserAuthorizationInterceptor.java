@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.HandlerInterceptor;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.interceptor.InterceptorConstants;
-import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderFields;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderParser;
 
@@ -28,9 +28,9 @@ public class UserAuthorizationInterceptor implements HandlerInterceptor {
         apiLogger.debugContext(requestId, "Checking current user is authorised to access objection");
         final String user = request.getHeader(ERICHeaderFields.ERIC_AUTHORISED_USER);
 
-        final Objection objection = (Objection) request.getAttribute(InterceptorConstants.OBJECTION_ATTRIBUTE);
+        final ObjectionSummary objection = (ObjectionSummary) request.getAttribute(InterceptorConstants.OBJECTION_ATTRIBUTE);
 
-        final String createdByUserEmail = objection.getCreatedBy().getEmail();
+        final String createdByUserEmail = objection.getCreatedByEmail();
         final String requestUserEmail = ericHeaderParser.getEmailAddress(user);
 
         if(createdByUserEmail.equals(requestUserEmail)) {
@@ -0,0 +1,61 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.eligibility;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The eligibility of a single company within a batch eligibility check. If the eligibility
+ * could not be determined, only the company number and error are populated.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CompanyEligibility {
+
+    @JsonProperty("company_number")
+    private final String companyNumber;
+
+    @JsonProperty("is_eligible")
+    private final Boolean eligible;
+
+    @JsonProperty("eligibility_status")
+    private final EligibilityStatus eligibilityStatus;
+
+    @JsonProperty("error")
+    private final String error;
+
+    private CompanyEligibility(String companyNumber,
+                               Boolean eligible,
+                               EligibilityStatus eligibilityStatus,
+                               String error) {
+        this.companyNumber = companyNumber;
+        this.eligible = eligible;
+        this.eligibilityStatus = eligibilityStatus;
+        this.error = error;
+    }
+
+    public static CompanyEligibility of(String companyNumber, ObjectionEligibility objectionEligibility) {
+        return new CompanyEligibility(companyNumber,
+                objectionEligibility.isEligible(),
+                objectionEligibility.getEligibilityStatus(),
+                null);
+    }
+
+    public static CompanyEligibility failed(String companyNumber, String error) {
+        return new CompanyEligibility(companyNumber, null, null, error);
+    }
+
+    public String getCompanyNumber() {
+        return companyNumber;
+    }
+
+    public Boolean isEligible() {
+        return eligible;
+    }
+
+    public EligibilityStatus getEligibilityStatus() {
+        return eligibilityStatus;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
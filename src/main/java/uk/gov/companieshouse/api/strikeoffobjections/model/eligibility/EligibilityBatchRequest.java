@@ -0,0 +1,19 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.eligibility;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class EligibilityBatchRequest {
+
+    @JsonProperty("company_numbers")
+    private List<String> companyNumbers;
+
+    public List<String> getCompanyNumbers() {
+        return companyNumbers;
+    }
+
+    public void setCompanyNumbers(List<String> companyNumbers) {
+        this.companyNumbers = companyNumbers;
+    }
+}
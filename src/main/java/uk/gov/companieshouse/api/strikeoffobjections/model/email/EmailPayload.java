@@ -0,0 +1,38 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.email;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The email data shared by every recipient of an objection's emails, built once each time the
+ * objection is processed and passed to each of its sends.
+ * <p>
+ * Each recipient's data is a copy with the recipient's own fields added, so recipients never
+ * see each other's changes and the shared fields are never rebuilt.
+ */
+public class EmailPayload {
+
+    private static final String TO_KEY = "to";
+
+    private final Map<String, Object> commonData;
+
+    public EmailPayload(Map<String, Object> commonData) {
+        this.commonData = Collections.unmodifiableMap(new HashMap<>(commonData));
+    }
+
+    public Map<String, Object> getCommonData() {
+        return commonData;
+    }
+
+    /**
+     * @return a new map of the shared data addressed to the recipient, for the caller to add to
+     */
+    public Map<String, Object> forRecipient(String emailAddress) {
+        // sized for the shared fields plus the recipient and one extra field without resizing
+        Map<String, Object> data = new HashMap<>((int) ((commonData.size() + 2) / 0.75f) + 1);
+        data.putAll(commonData);
+        data.put(TO_KEY, emailAddress);
+        return data;
+    }
+}
@@ -2,6 +2,9 @@ package uk.gov.companieshouse.api.strikeoffobjections.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 import org.springframework.util.StringUtils;
@@ -12,6 +15,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "strike_off_objections")
+@CompoundIndexes({
+        @CompoundIndex(name = "status_status_changed_on", def = "{'status': 1, 'status_changed_on': 1}"),
+        @CompoundIndex(name = "company_number_created_on",
+                def = "{'company_number': 1, 'created_on': -1, '_id': -1}"),
+        @CompoundIndex(name = "created_by_email", def = "{'created_by.email': 1}")
+})
 public class Objection {
 
 
@@ -112,10 +121,51 @@ public class Objection {
     @Field("http_request_id")
     @JsonIgnore
     private String httpRequestId;
+    @Indexed(name = "status_changed_on")
     @Field("status_changed_on")
     private LocalDateTime statusChangedOn;
     @Field("links")
     private Links links;
+    @Field("processing_lease_owner")
+    @JsonIgnore
+    private String processingLeaseOwner;
+    @Field("processing_lease_expires_on")
+    @JsonIgnore
+    private LocalDateTime processingLeaseExpiresOn;
+    @Field("processing_attempts")
+    @JsonIgnore
+    private int processingAttempts;
+    @Field("outbox")
+    @JsonIgnore
+    private List<OutboxMessage> outbox = new ArrayList<>();
+    // only present while the outbox has messages waiting, so the sparse index stays small
+    @Indexed(name = "outbox_next_attempt_on", sparse = true)
+    @Field("outbox_next_attempt_on")
+    @JsonIgnore
+    private LocalDateTime outboxNextAttemptOn;
+    @Field("retry_partition")
+    @JsonIgnore
+    private Integer retryPartition;
+    @Field("retry_attempts")
+    @JsonIgnore
+    private int retryAttempts;
+    @Field("retry_next_attempt_on")
+    @JsonIgnore
+    private LocalDateTime retryNextAttemptOn;
+    // when each send succeeded, so a retry only repeats the sends that haven't
+    @Field("chips_sent_on")
+    @JsonIgnore
+    private LocalDateTime chipsSentOn;
+    @Field("internal_email_sent_on")
+    @JsonIgnore
+    private LocalDateTime internalEmailSentOn;
+    @Field("external_email_sent_on")
+    @JsonIgnore
+    private LocalDateTime externalEmailSentOn;
+    // dissolution team recipients sent the internal email, so a retry only sends it to the rest
+    @Field("internal_email_sent_to")
+    @JsonIgnore
+    private List<String> internalEmailSentTo = new ArrayList<>();
 
     public String getId() {
         return id;
@@ -167,6 +217,21 @@ public class Objection {
         return attachments;
     }
 
+    /**
+     * @return the attachment with the given id, or null if the objection has no such attachment
+     */
+    public Attachment getAttachment(String attachmentId) {
+        if (attachments == null) {
+            return null;
+        }
+        for (Attachment attachment : attachments) {
+            if (attachment.getId() != null && attachment.getId().equals(attachmentId)) {
+                return attachment;
+            }
+        }
+        return null;
+    }
+
     public void setAttachments(List<Attachment> attachments) {
         this. attachments = attachments;
     }
@@ -215,4 +280,100 @@ public class Objection {
     public void setLinks(Links links) {
         this.links = links;
     }
+
+    public String getProcessingLeaseOwner() {
+        return processingLeaseOwner;
+    }
+
+    public void setProcessingLeaseOwner(String processingLeaseOwner) {
+        this.processingLeaseOwner = processingLeaseOwner;
+    }
+
+    public LocalDateTime getProcessingLeaseExpiresOn() {
+        return processingLeaseExpiresOn;
+    }
+
+    public void setProcessingLeaseExpiresOn(LocalDateTime processingLeaseExpiresOn) {
+        this.processingLeaseExpiresOn = processingLeaseExpiresOn;
+    }
+
+    public int getProcessingAttempts() {
+        return processingAttempts;
+    }
+
+    public void setProcessingAttempts(int processingAttempts) {
+        this.processingAttempts = processingAttempts;
+    }
+
+    public List<OutboxMessage> getOutbox() {
+        return outbox;
+    }
+
+    public void setOutbox(List<OutboxMessage> outbox) {
+        this.outbox = outbox;
+    }
+
+    public LocalDateTime getOutboxNextAttemptOn() {
+        return outboxNextAttemptOn;
+    }
+
+    public void setOutboxNextAttemptOn(LocalDateTime outboxNextAttemptOn) {
+        this.outboxNextAttemptOn = outboxNextAttemptOn;
+    }
+
+    public Integer getRetryPartition() {
+        return retryPartition;
+    }
+
+    public void setRetryPartition(Integer retryPartition) {
+        this.retryPartition = retryPartition;
+    }
+
+    public int getRetryAttempts() {
+        return retryAttempts;
+    }
+
+    public void setRetryAttempts(int retryAttempts) {
+        this.retryAttempts = retryAttempts;
+    }
+
+    public LocalDateTime getRetryNextAttemptOn() {
+        return retryNextAttemptOn;
+    }
+
+    public void setRetryNextAttemptOn(LocalDateTime retryNextAttemptOn) {
+        this.retryNextAttemptOn = retryNextAttemptOn;
+    }
+
+    public LocalDateTime getChipsSentOn() {
+        return chipsSentOn;
+    }
+
+    public void setChipsSentOn(LocalDateTime chipsSentOn) {
+        this.chipsSentOn = chipsSentOn;
+    }
+
+    public LocalDateTime getInternalEmailSentOn() {
+        return internalEmailSentOn;
+    }
+
+    public void setInternalEmailSentOn(LocalDateTime internalEmailSentOn) {
+        this.internalEmailSentOn = internalEmailSentOn;
+    }
+
+    public LocalDateTime getExternalEmailSentOn() {
+        return externalEmailSentOn;
+    }
+
+    public void setExternalEmailSentOn(LocalDateTime externalEmailSentOn) {
+        this.externalEmailSentOn = externalEmailSentOn;
+    }
+
+    public List<String> getInternalEmailSentTo() {
+        return internalEmailSentTo;
+    }
+
+    public void setInternalEmailSentTo(List<String> internalEmailSentTo) {
+        this.internalEmailSentTo = internalEmailSentTo;
+    }
 }
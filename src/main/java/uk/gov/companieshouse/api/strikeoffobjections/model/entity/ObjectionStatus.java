@@ -1,5 +1,11 @@
 package uk.gov.companieshouse.api.strikeoffobjections.model.entity;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum ObjectionStatus {
 
     INELIGIBLE_COMPANY_STRUCK_OFF,
@@ -13,9 +19,55 @@ public enum ObjectionStatus {
     ERROR_EXTERNAL_EMAIL,
     SUBMITTED;
 
+    // the legal status changes, enforced by making each change conditional on the current status
+    private static final Map<ObjectionStatus, Set<ObjectionStatus>> NEXT_STATUSES = new EnumMap<>(ObjectionStatus.class);
+    private static final Map<ObjectionStatus, Set<ObjectionStatus>> PREVIOUS_STATUSES = new EnumMap<>(ObjectionStatus.class);
+
+    static {
+        allow(OPEN, OPEN, SUBMITTED);
+        allow(SUBMITTED, PROCESSED, ERROR_DATA_INCOMPLETE, ERROR_CHIPS, ERROR_INTERNAL_EMAIL, ERROR_EXTERNAL_EMAIL);
+        // a retry resumes from the stage that failed, so can fail again at that stage or a later one
+        allow(ERROR_CHIPS, PROCESSED, ERROR_CHIPS, ERROR_INTERNAL_EMAIL, ERROR_EXTERNAL_EMAIL);
+        allow(ERROR_INTERNAL_EMAIL, PROCESSED, ERROR_INTERNAL_EMAIL, ERROR_EXTERNAL_EMAIL);
+        allow(ERROR_EXTERNAL_EMAIL, PROCESSED, ERROR_EXTERNAL_EMAIL);
+    }
+
+    private static void allow(ObjectionStatus from, ObjectionStatus... to) {
+        Set<ObjectionStatus> next = EnumSet.noneOf(ObjectionStatus.class);
+        for (ObjectionStatus status : to) {
+            next.add(status);
+            PREVIOUS_STATUSES.computeIfAbsent(status, key -> EnumSet.noneOf(ObjectionStatus.class)).add(from);
+        }
+        NEXT_STATUSES.put(from, Collections.unmodifiableSet(next));
+    }
+
     public boolean isIneligible() {
         return this == INELIGIBLE_NO_DISSOLUTION_ACTION ||
                 this == INELIGIBLE_COMPANY_STRUCK_OFF ||
                 this == INELIGIBLE_GAZ2_REQUESTED;
     }
+
+    /**
+     * @return true if processing failed sending to Chips or sending an email, and can be
+     * resumed from the stage that failed
+     */
+    public boolean isRetryable() {
+        return this == ERROR_CHIPS ||
+                this == ERROR_INTERNAL_EMAIL ||
+                this == ERROR_EXTERNAL_EMAIL;
+    }
+
+    /**
+     * @return true if an objection in this status may be changed to the next status
+     */
+    public boolean canChangeTo(ObjectionStatus next) {
+        return NEXT_STATUSES.getOrDefault(this, Collections.emptySet()).contains(next);
+    }
+
+    /**
+     * @return the statuses an objection may be in to be changed to this status
+     */
+    public Set<ObjectionStatus> getPreviousStatuses() {
+        return Collections.unmodifiableSet(PREVIOUS_STATUSES.getOrDefault(this, EnumSet.noneOf(ObjectionStatus.class)));
+    }
 }
@@ -0,0 +1,84 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.entity;
+
+import org.springframework.data.mongodb.core.mapping.Field;
+import uk.gov.companieshouse.kafka.message.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * A serialised Kafka message waiting in an objection's outbox to be relayed to the broker.
+ * <p>
+ * The id is the message id inside the serialised payload, so a consumer can discard a
+ * message that is relayed more than once.
+ */
+public class OutboxMessage {
+
+    @Field("id")
+    private String id;
+    @Field("topic")
+    private String topic;
+    @Field("value")
+    private byte[] value;
+    @Field("timestamp")
+    private Long timestamp;
+    @Field("created_on")
+    private LocalDateTime createdOn;
+
+    public static OutboxMessage fromMessage(String id, Message message, LocalDateTime createdOn) {
+        OutboxMessage outboxMessage = new OutboxMessage();
+        outboxMessage.setId(id);
+        outboxMessage.setTopic(message.getTopic());
+        outboxMessage.setValue(message.getValue());
+        outboxMessage.setTimestamp(message.getTimestamp());
+        outboxMessage.setCreatedOn(createdOn);
+        return outboxMessage;
+    }
+
+    public Message toMessage() {
+        Message message = new Message();
+        message.setTopic(topic);
+        message.setValue(value);
+        message.setTimestamp(timestamp);
+        return message;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public byte[] getValue() {
+        return value;
+    }
+
+    public void setValue(byte[] value) {
+        this.value = value;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public void setCreatedOn(LocalDateTime createdOn) {
+        this.createdOn = createdOn;
+    }
+}
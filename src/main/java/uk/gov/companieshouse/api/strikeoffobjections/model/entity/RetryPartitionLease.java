@@ -0,0 +1,48 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease held by a node while it retries the failed objections in one retry partition.
+ * <p>
+ * There is at most one document per partition. It is removed when the node releases the
+ * partition, and can be taken over by another node once it has expired.
+ */
+@Document(collection = "objection_retry_leases")
+public class RetryPartitionLease {
+
+    @Id
+    private Integer partition;
+    @Field("owner")
+    private String owner;
+    @Field("expires_on")
+    private LocalDateTime expiresOn;
+
+    public Integer getPartition() {
+        return partition;
+    }
+
+    public void setPartition(Integer partition) {
+        this.partition = partition;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getExpiresOn() {
+        return expiresOn;
+    }
+
+    public void setExpiresOn(LocalDateTime expiresOn) {
+        this.expiresOn = expiresOn;
+    }
+}
@@ -0,0 +1,69 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.list;
+
+import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a company's list of objections, newest first. Identifies the last objection of a
+ * page by its created on time and id, so the next page is read from the index starting just after
+ * it, however far into the list it is and whatever has been added since.
+ * <p>
+ * Clients see the cursor only as an opaque string.
+ */
+public class ObjectionListCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid cursor: %s";
+
+    private final LocalDateTime createdOn;
+    private final String id;
+
+    public ObjectionListCursor(LocalDateTime createdOn, String id) {
+        this.createdOn = createdOn;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedOn() {
+        return createdOn;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String encode() {
+        String position = createdOn + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor a cursor returned by {@link #encode()}
+     * @return the position the cursor identifies
+     * @throws InvalidCursorException if the cursor wasn't returned by {@link #encode()}
+     */
+    public static ObjectionListCursor decode(String cursor) throws InvalidCursorException {
+        String position;
+        try {
+            position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(String.format(INVALID_CURSOR_MESSAGE, cursor), e);
+        }
+
+        int separator = position.indexOf(SEPARATOR);
+        if (separator < 0 || separator == position.length() - 1) {
+            throw new InvalidCursorException(String.format(INVALID_CURSOR_MESSAGE, cursor));
+        }
+        try {
+            return new ObjectionListCursor(
+                    LocalDateTime.parse(position.substring(0, separator)),
+                    position.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException(String.format(INVALID_CURSOR_MESSAGE, cursor), e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.list;
+
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+
+import java.util.List;
+
+/**
+ * A page of a company's objections, holding only the fields read for the list.
+ */
+public class ObjectionPage {
+
+    private final List<Objection> objections;
+    private final String nextCursor;
+
+    public ObjectionPage(List<Objection> objections, String nextCursor) {
+        this.objections = objections;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Objection> getObjections() {
+        return objections;
+    }
+
+    /**
+     * @return the cursor for the next page, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
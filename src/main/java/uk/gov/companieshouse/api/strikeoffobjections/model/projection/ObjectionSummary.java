@@ -0,0 +1,47 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.projection;
+
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+
+/**
+ * The fields of an objection needed to authorise a request for it, read without the reason or
+ * attachments so authorising costs the same however large the objection is.
+ */
+public class ObjectionSummary {
+
+    private final String id;
+    private final String companyNumber;
+    private final ObjectionStatus status;
+    private final String createdByEmail;
+
+    public ObjectionSummary(String id, String companyNumber, ObjectionStatus status, String createdByEmail) {
+        this.id = id;
+        this.companyNumber = companyNumber;
+        this.status = status;
+        this.createdByEmail = createdByEmail;
+    }
+
+    public static ObjectionSummary of(Objection objection) {
+        return new ObjectionSummary(
+                objection.getId(),
+                objection.getCompanyNumber(),
+                objection.getStatus(),
+                objection.getCreatedBy() == null ? null : objection.getCreatedBy().getEmail());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCompanyNumber() {
+        return companyNumber;
+    }
+
+    public ObjectionStatus getStatus() {
+        return status;
+    }
+
+    public String getCreatedByEmail() {
+        return createdByEmail;
+    }
+}
@@ -0,0 +1,40 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ObjectionListResponseDTO {
+
+    @JsonProperty("items")
+    private List<ObjectionSummaryResponseDTO> items;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    public ObjectionListResponseDTO() {
+    }
+
+    public ObjectionListResponseDTO(List<ObjectionSummaryResponseDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ObjectionSummaryResponseDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ObjectionSummaryResponseDTO> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
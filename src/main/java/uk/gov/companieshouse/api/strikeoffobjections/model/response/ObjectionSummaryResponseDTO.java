@@ -0,0 +1,64 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ObjectionSummaryResponseDTO {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("created_on")
+    private String createdOn;
+
+    @JsonProperty("created_by")
+    private CreatedByResponseDTO createdBy;
+
+    @JsonProperty("status")
+    private ObjectionStatus status;
+
+    @JsonProperty("status_changed_on")
+    private String statusChangedOn;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCreatedOn() {
+        return createdOn;
+    }
+
+    public void setCreatedOn(String createdOn) {
+        this.createdOn = createdOn;
+    }
+
+    public CreatedByResponseDTO getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(CreatedByResponseDTO createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public ObjectionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ObjectionStatus status) {
+        this.status = status;
+    }
+
+    public String getStatusChangedOn() {
+        return statusChangedOn;
+    }
+
+    public void setStatusChangedOn(String statusChangedOn) {
+        this.statusChangedOn = statusChangedOn;
+    }
+}
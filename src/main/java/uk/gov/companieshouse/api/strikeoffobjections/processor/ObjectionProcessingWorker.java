@@ -0,0 +1,179 @@
+package uk.gov.companieshouse.api.strikeoffobjections.processor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.common.LogConstants;
+import uk.gov.companieshouse.api.strikeoffobjections.config.ExecutorConfig;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Processes submitted objections in the background when asynchronous processing is enabled.
+ * <p>
+ * SUBMITTED objections waiting in Mongo are the queue. Each poll claims as many as there are
+ * free processing threads, taking a lease on each so that no other node processes it at the
+ * same time, and renews the leases it holds until processing finishes. Processing moves the
+ * objection out of SUBMITTED. If a node dies part way through, the lease expires and the
+ * objection is claimed again, up to the maximum number of attempts, after which it is moved to
+ * ERROR_CHIPS for the retry scheduler.
+ */
+@Component
+public class ObjectionProcessingWorker {
+
+    private static final String LOG_OBJECTION_ID_KEY = LogConstants.OBJECTION_ID.getValue();
+
+    private final ObjectionRepository objectionRepository;
+    private final ObjectionProcessor objectionProcessor;
+    private final ExecutorService objectionProcessingExecutor;
+    private final ApiLogger apiLogger;
+    private final Supplier<LocalDateTime> dateTimeSupplier;
+    private final boolean isAsyncProcessingEnabled;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final Semaphore freeThreads;
+    // when the lease on each objection being processed expires
+    private final Map<String, LocalDateTime> heldLeases = new ConcurrentHashMap<>();
+    private final String workerId = UUID.randomUUID().toString();
+
+    @Autowired
+    public ObjectionProcessingWorker(ObjectionRepository objectionRepository,
+                                     ObjectionProcessor objectionProcessor,
+                                     @Qualifier(ExecutorConfig.OBJECTION_PROCESSING_EXECUTOR) ExecutorService objectionProcessingExecutor,
+                                     ApiLogger apiLogger,
+                                     Supplier<LocalDateTime> dateTimeSupplier,
+                                     @Value("${FEATURE_FLAG_ASYNC_OBJECTION_PROCESSING:false}") boolean isAsyncProcessingEnabled,
+                                     @Value("${OBJECTION_PROCESSING_POOL_SIZE:4}") int poolSize,
+                                     @Value("${OBJECTION_PROCESSING_LEASE_SECONDS:300}") long leaseSeconds,
+                                     @Value("${OBJECTION_PROCESSING_MAX_ATTEMPTS:5}") int maxAttempts) {
+        this.objectionRepository = objectionRepository;
+        this.objectionProcessor = objectionProcessor;
+        this.objectionProcessingExecutor = objectionProcessingExecutor;
+        this.apiLogger = apiLogger;
+        this.dateTimeSupplier = dateTimeSupplier;
+        this.isAsyncProcessingEnabled = isAsyncProcessingEnabled;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.freeThreads = new Semaphore(poolSize);
+    }
+
+    @Scheduled(fixedDelayString = "${OBJECTION_PROCESSING_POLL_INTERVAL_MILLIS:1000}")
+    public void poll() {
+        if (!isAsyncProcessingEnabled) {
+            return;
+        }
+
+        LocalDateTime now = dateTimeSupplier.get();
+        renewLeases(now);
+        failExhaustedObjections(now);
+
+        while (freeThreads.tryAcquire()) {
+            Objection objection;
+            LocalDateTime leaseExpiresOn = now.plusSeconds(leaseSeconds);
+            try {
+                objection = objectionRepository.claimSubmittedObjection(
+                        workerId, now, leaseExpiresOn, maxAttempts);
+            } catch (RuntimeException e) {
+                freeThreads.release();
+                apiLogger.errorContext(workerId, "Unable to claim submitted objection", e);
+                return;
+            }
+
+            if (objection == null) {
+                freeThreads.release();
+                return;
+            }
+
+            heldLeases.put(objection.getId(), leaseExpiresOn);
+            try {
+                objectionProcessingExecutor.execute(() -> process(objection));
+            } catch (RejectedExecutionException e) {
+                // the lease will expire and the objection will be claimed again
+                heldLeases.remove(objection.getId());
+                freeThreads.release();
+                apiLogger.errorContext(objection.getHttpRequestId(), "Unable to start objection processing", e,
+                        buildLogMap(objection));
+                return;
+            }
+        }
+    }
+
+    private void process(Objection objection) {
+        try {
+            apiLogger.infoContext(objection.getHttpRequestId(),
+                    String.format("Processing objection, attempt %d", objection.getProcessingAttempts()),
+                    buildLogMap(objection));
+            objectionProcessor.process(objection, objection.getHttpRequestId());
+        } catch (Exception e) {
+            // the processor records an error status for any failure it can attribute to a stage
+            apiLogger.errorContext(objection.getHttpRequestId(), "Objection processing failed", e,
+                    buildLogMap(objection));
+        } finally {
+            heldLeases.remove(objection.getId());
+            freeThreads.release();
+        }
+    }
+
+    /**
+     * Renews the leases that are half way to expiring, so no other node claims an objection
+     * while it is still being processed here.
+     */
+    private void renewLeases(LocalDateTime now) {
+        for (Map.Entry<String, LocalDateTime> lease : heldLeases.entrySet()) {
+            if (lease.getValue().minusSeconds(leaseSeconds / 2).isAfter(now)) {
+                continue;
+            }
+
+            String objectionId = lease.getKey();
+            LocalDateTime leaseExpiresOn = now.plusSeconds(leaseSeconds);
+            try {
+                if (objectionRepository.renewProcessingLease(objectionId, workerId, leaseExpiresOn)) {
+                    // processing may have finished and removed the lease since it was read
+                    heldLeases.replace(objectionId, lease.getValue(), leaseExpiresOn);
+                } else {
+                    heldLeases.remove(objectionId, lease.getValue());
+                }
+            } catch (RuntimeException e) {
+                apiLogger.errorContext(workerId, "Unable to renew objection processing lease", e,
+                        buildLogMap(objectionId));
+            }
+        }
+    }
+
+    private void failExhaustedObjections(LocalDateTime now) {
+        try {
+            Objection objection;
+            while ((objection = objectionRepository.failExhaustedObjection(now, maxAttempts)) != null) {
+                apiLogger.errorContext(objection.getHttpRequestId(),
+                        String.format("Objection processing attempts used up after %d attempts, status changed to %s",
+                                objection.getProcessingAttempts(), objection.getStatus()),
+                        null, buildLogMap(objection));
+            }
+        } catch (RuntimeException e) {
+            apiLogger.errorContext(workerId, "Unable to fail objections with processing attempts used up", e);
+        }
+    }
+
+    private Map<String, Object> buildLogMap(Objection objection) {
+        return buildLogMap(objection.getId());
+    }
+
+    private Map<String, Object> buildLogMap(String objectionId) {
+        Map<String, Object> logMap = new HashMap<>();
+        logMap.put(LOG_OBJECTION_ID_KEY, objectionId);
+        return logMap;
+    }
+}
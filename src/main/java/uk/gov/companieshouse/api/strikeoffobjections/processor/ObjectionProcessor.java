@@ -1,18 +1,30 @@
 package uk.gov.companieshouse.api.strikeoffobjections.processor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import uk.gov.companieshouse.api.model.company.CompanyProfileApi;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.common.LogConstants;
+import uk.gov.companieshouse.api.strikeoffobjections.config.ExecutorConfig;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidObjectionStatusException;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.KafkaMessageSpooledException;
+import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailPayload;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IChipsService;
 import uk.gov.companieshouse.api.strikeoffobjections.service.ICompanyProfileService;
@@ -25,19 +37,53 @@ import uk.gov.companieshouse.service.ServiceException;
  * Will only process Objection if status = SUBMITTED
  * Calls Chips to place stop against company
  * Sends email
+ * <p>
+ * When the outbox is enabled, the Chips and email messages are instead saved to the objection's
+ * outbox together with the PROCESSED status, and the OutboxRelay sends them to Kafka.
+ * <p>
+ * When concurrent dispatch is enabled, the Chips call and the internal email are sent at the
+ * same time rather than one after another. The customer email is only sent once Chips has the
+ * objection. The error status records the first failure in Chips, internal email, external email
+ * order.
+ * <p>
+ * An objection that failed sending to Chips or sending an email can be retried. When each send
+ * succeeds its time is saved with the objection's next status, so a retry only repeats the
+ * sends that haven't succeeded, whether they were sent one after another or concurrently.
+ * <p>
+ * A message spooled because Kafka is unavailable hasn't been sent, so its send fails and the
+ * objection is left to be retried. Once the spool sends it, its send is recorded as succeeded
+ * so a later retry doesn't send it again.
+ * <p>
+ * The data shared by the emails is built once each time the objection is processed, and
+ * passed to both the dissolution team and customer email sends.
  */
 @Component
 public class ObjectionProcessor {
 
     private static final String INVALID_START_STATUS_MSG =
             "Objection %s has status %s. Cannot process unless status = SUBMITTED";
+    private static final String INVALID_RETRY_STATUS_MSG =
+            "Objection %s has status %s. Cannot retry unless status = ERROR_CHIPS, ERROR_INTERNAL_EMAIL or ERROR_EXTERNAL_EMAIL";
+    private static final String STATUS_NOT_SAVED_MSG =
+            "Status of objection %s was changed by another process, %s not saved";
+    private static final String SENT_ON_NOT_SAVED_MSG = "Unable to record spooled send of objection";
     private static final String LOG_OBJECTION_ID_KEY = LogConstants.OBJECTION_ID.getValue();
+    private static final String CHIPS_ERROR_MSG = "Error sending objection to CHIPS";
+    private static final String INTERNAL_EMAIL_ERROR_MSG = "Error sending dissolution team email";
+    private static final String EXTERNAL_EMAIL_ERROR_MSG = "Error sending customer email";
 
     private IEmailService emailService;
     private ICompanyProfileService companyProfileService;
     private IChipsService chipsService;
     private ApiLogger apiLogger;
     private ObjectionRepository objectionRepository;
+    private ExecutorService objectionDispatchExecutor;
+
+    @Value("${FEATURE_FLAG_OBJECTION_OUTBOX:false}")
+    private boolean isOutboxEnabled;
+
+    @Value("${FEATURE_FLAG_CONCURRENT_OBJECTION_DISPATCH:false}")
+    private boolean isConcurrentDispatchEnabled;
 
     @Autowired
     public ObjectionProcessor(
@@ -45,12 +91,14 @@ public class ObjectionProcessor {
             ICompanyProfileService companyProfileService,
             IChipsService chipsService,
             ApiLogger apiLogger,
-            ObjectionRepository objectionRepository) {
+            ObjectionRepository objectionRepository,
+            @Qualifier(ExecutorConfig.OBJECTION_DISPATCH_EXECUTOR) ExecutorService objectionDispatchExecutor) {
         this.emailService = emailService;
         this.companyProfileService = companyProfileService;
         this.chipsService = chipsService;
         this.apiLogger = apiLogger;
         this.objectionRepository = objectionRepository;
+        this.objectionDispatchExecutor = objectionDispatchExecutor;
     }
 
     /**
@@ -59,7 +107,8 @@ public class ObjectionProcessor {
      *
      * @param objection     the objection to process
      * @param httpRequestId http request id used for logging
-     * @throws InvalidObjectionStatusException if the Objection is not currently in status SUBMITTED when this is called
+     * @throws InvalidObjectionStatusException if the Objection is not currently in status SUBMITTED when this is called,
+     *                                         or another process changes its status while it is being processed
      */
     public void process(Objection objection, String httpRequestId)
             throws InvalidObjectionStatusException, ServiceException {
@@ -81,15 +130,90 @@ public class ObjectionProcessor {
         
         validateObjectionData(objection, httpRequestId);
 
+        send(objection, ObjectionStatus.ERROR_CHIPS, httpRequestId);
+    }
+
+    /**
+     * Retry processing the specified Objection from the stage that failed
+     * Only retries if status is ERROR_CHIPS, ERROR_INTERNAL_EMAIL or ERROR_EXTERNAL_EMAIL
+     *
+     * @param objection     the objection to retry
+     * @param httpRequestId http request id used for logging
+     * @throws InvalidObjectionStatusException if the Objection is not currently in a retryable status, or another
+     *                                         process changes its status while it is being retried
+     */
+    public void retry(Objection objection, String httpRequestId)
+            throws InvalidObjectionStatusException, ServiceException {
+
+        if (objection == null) {
+            throw new IllegalArgumentException(
+                    "Objection arg missing from ObjectionProcessor.retry(Objection, String)");
+        }
+        if (httpRequestId == null) {
+            throw new IllegalArgumentException(
+                    "httpRequestId arg missing from ObjectionProcessor.retry(Objection, String)");
+        }
+
+        ObjectionStatus failedStatus = objection.getStatus();
+        Map<String, Object> logMap = new HashMap<>();
+        logMap.put(LOG_OBJECTION_ID_KEY, objection.getId());
+        logMap.put(LogConstants.OBJECTION_STATUS.getValue(), failedStatus);
+        apiLogger.debugContext(httpRequestId, "Retrying objection processing", logMap);
+
+        if (failedStatus == null || !failedStatus.isRetryable()) {
+            InvalidObjectionStatusException statusException = new InvalidObjectionStatusException(
+                    String.format(INVALID_RETRY_STATUS_MSG, objection.getId(), failedStatus));
+            apiLogger.errorContext(httpRequestId, statusException.getMessage(), statusException, logMap);
+
+            throw statusException;
+        }
+
+        send(objection, failedStatus, httpRequestId);
+    }
+
+    /**
+     * Sends to Chips and sends the emails that haven't already succeeded, then records the
+     * PROCESSED status. Stages before the one the given error status is recorded for had
+     * succeeded when that status was recorded.
+     */
+    private void send(Objection objection, ObjectionStatus fromStage, String httpRequestId)
+            throws InvalidObjectionStatusException, ServiceException {
+
         CompanyProfileApi companyProfile = this.companyProfileService.getCompanyProfile(objection.getCompanyNumber(), httpRequestId);
 
-        sendObjectionToChips(objection, httpRequestId);
+        boolean isChipsDue = fromStage == ObjectionStatus.ERROR_CHIPS && objection.getChipsSentOn() == null;
+        boolean isInternalEmailDue = fromStage != ObjectionStatus.ERROR_EXTERNAL_EMAIL
+                && objection.getInternalEmailSentOn() == null;
+        boolean isExternalEmailDue = objection.getExternalEmailSentOn() == null;
 
-        sendInternalEmail(objection, companyProfile, httpRequestId);
+        List<OutboxMessage> outbox = new ArrayList<>();
 
-        sendExternalEmail(objection, companyProfile, httpRequestId);
+        if (isConcurrentDispatchEnabled && !isOutboxEnabled) {
+            sendConcurrently(objection, companyProfile, httpRequestId,
+                    isChipsDue, isInternalEmailDue, isExternalEmailDue);
+        } else {
+            if (isChipsDue) {
+                sendObjectionToChips(objection, httpRequestId, outbox);
+            }
 
-        updateObjectionStatus(objection, httpRequestId, ObjectionStatus.PROCESSED);
+            EmailPayload emailPayload = isInternalEmailDue || isExternalEmailDue
+                    ? emailService.buildEmailPayload(companyProfile.getCompanyName(), objection) : null;
+
+            if (isInternalEmailDue) {
+                sendInternalEmail(objection, companyProfile, emailPayload, httpRequestId, outbox);
+            }
+
+            if (isExternalEmailDue) {
+                sendExternalEmail(objection, emailPayload, httpRequestId, outbox);
+            }
+        }
+
+        if (!outbox.isEmpty()) {
+            // saved by the status update below, so the messages and status are written together
+            objection.getOutbox().addAll(outbox);
+            objection.setOutboxNextAttemptOn(LocalDateTime.now());
+        }
+        updateObjectionStatus(objection, httpRequestId, ObjectionStatus.PROCESSED, outbox);
     }
 
     private void validateObjectionStatus(Objection objection, String httpRequestId)
@@ -108,7 +232,8 @@ public class ObjectionProcessor {
         }
     }
 
-    private void validateObjectionData(Objection objection, String httpRequestId) throws ServiceException {
+    private void validateObjectionData(Objection objection, String httpRequestId)
+            throws InvalidObjectionStatusException, ServiceException {
         if (objection.isDataEnteredByUserIncomplete()) {
             ServiceException serviceException = new ServiceException("Objection data entered by user is not complete");
             Map<String, Object> logMap = new HashMap<>();
@@ -120,53 +245,198 @@ public class ObjectionProcessor {
         }
     }
     
-    private void sendObjectionToChips(Objection objection, String httpRequestId) throws ServiceException {
+    private void sendObjectionToChips(Objection objection, String httpRequestId,
+                                      List<OutboxMessage> outbox)
+            throws InvalidObjectionStatusException, ServiceException {
         try {
-            chipsService.sendObjection(httpRequestId, objection);
+            OutboxMessage message = isOutboxEnabled
+                    ? chipsService.buildObjectionOutboxMessage(httpRequestId, objection) : null;
+            if (message != null) {
+                outbox.add(message);
+            } else {
+                chipsService.sendObjection(httpRequestId, objection);
+                objection.setChipsSentOn(LocalDateTime.now());
+            }
         } catch (Exception e) {
             Map<String, Object> logMap = new HashMap<>();
             logMap.put(LOG_OBJECTION_ID_KEY, objection.getId());
-            apiLogger.errorContext(httpRequestId, "Error sending objection to CHIPS", e, logMap);
+            apiLogger.errorContext(httpRequestId, CHIPS_ERROR_MSG, e, logMap);
 
             updateObjectionStatus(objection, httpRequestId, ObjectionStatus.ERROR_CHIPS);
+            saveSentOnReplay(e, objection, ObjectionStatus.ERROR_CHIPS, httpRequestId);
             throw e;
         }
     }
 
-    private void sendInternalEmail(Objection objection, CompanyProfileApi companyProfile,
-                                   String httpRequestId) throws ServiceException {
+    private void sendInternalEmail(Objection objection, CompanyProfileApi companyProfile, EmailPayload emailPayload,
+                                   String httpRequestId, List<OutboxMessage> outbox)
+            throws InvalidObjectionStatusException, ServiceException {
         try {
-            emailService.sendObjectionSubmittedDissolutionTeamEmail(companyProfile.getCompanyName(), companyProfile.getJurisdiction(), objection, httpRequestId);
+            if (isOutboxEnabled) {
+                outbox.addAll(emailService.buildObjectionSubmittedDissolutionTeamEmails(
+                        emailPayload, companyProfile.getJurisdiction(), objection, httpRequestId));
+            } else {
+                emailService.sendObjectionSubmittedDissolutionTeamEmail(emailPayload, companyProfile.getJurisdiction(), objection, httpRequestId);
+                objection.setInternalEmailSentOn(LocalDateTime.now());
+            }
         } catch (Exception e) {
             Map<String, Object> logMap = new HashMap<>();
             logMap.put(LOG_OBJECTION_ID_KEY, objection.getId());
-            apiLogger.errorContext(httpRequestId, "Error sending dissolution team email", e,
-                    logMap);
+            apiLogger.errorContext(httpRequestId, INTERNAL_EMAIL_ERROR_MSG, e, logMap);
 
             updateObjectionStatus(objection, httpRequestId, ObjectionStatus.ERROR_INTERNAL_EMAIL);
+            saveSentOnReplay(e, objection, ObjectionStatus.ERROR_INTERNAL_EMAIL, httpRequestId);
             throw e;
         }
     }
 
-    private void sendExternalEmail(Objection objection, CompanyProfileApi companyProfile,
-                                   String httpRequestId) throws ServiceException {
+    private void sendExternalEmail(Objection objection, EmailPayload emailPayload,
+                                   String httpRequestId, List<OutboxMessage> outbox)
+            throws InvalidObjectionStatusException, ServiceException {
         try {
-            emailService.sendObjectionSubmittedCustomerEmail(objection, companyProfile.getCompanyName(), httpRequestId);
+            if (isOutboxEnabled) {
+                outbox.add(emailService.buildObjectionSubmittedCustomerEmail(
+                        objection, emailPayload, httpRequestId));
+            } else {
+                emailService.sendObjectionSubmittedCustomerEmail(objection, emailPayload, httpRequestId);
+                objection.setExternalEmailSentOn(LocalDateTime.now());
+            }
         } catch (Exception e) {
             Map<String, Object> logMap = new HashMap<>();
             logMap.put(LOG_OBJECTION_ID_KEY, objection.getId());
-            apiLogger.errorContext(httpRequestId, "Error sending customer email", e, logMap);
+            apiLogger.errorContext(httpRequestId, EXTERNAL_EMAIL_ERROR_MSG, e, logMap);
 
             updateObjectionStatus(objection, httpRequestId, ObjectionStatus.ERROR_EXTERNAL_EMAIL);
+            saveSentOnReplay(e, objection, ObjectionStatus.ERROR_EXTERNAL_EMAIL, httpRequestId);
             throw e;
         }
     }
 
-    private void updateObjectionStatus(Objection objection, String requestId, ObjectionStatus newStatus) {
+    private void sendConcurrently(Objection objection, CompanyProfileApi companyProfile, String httpRequestId,
+                                  boolean isChipsDue, boolean isInternalEmailDue, boolean isExternalEmailDue)
+            throws InvalidObjectionStatusException, ServiceException {
+        EmailPayload emailPayload = isInternalEmailDue || isExternalEmailDue
+                ? emailService.buildEmailPayload(companyProfile.getCompanyName(), objection) : null;
+        CompletableFuture<Void> chipsSend = !isChipsDue ? CompletableFuture.completedFuture(null) : dispatch(() -> {
+            chipsService.sendObjection(httpRequestId, objection);
+            objection.setChipsSentOn(LocalDateTime.now());
+        });
+        CompletableFuture<Void> internalEmailSend = !isInternalEmailDue ? CompletableFuture.completedFuture(null)
+                : dispatch(() -> {
+                    emailService.sendObjectionSubmittedDissolutionTeamEmail(emailPayload,
+                            companyProfile.getJurisdiction(), objection, httpRequestId);
+                    objection.setInternalEmailSentOn(LocalDateTime.now());
+                });
+        // the customer is only told the objection was submitted once Chips has it
+        CompletableFuture<Void> externalEmailSend = !isExternalEmailDue ? CompletableFuture.completedFuture(null)
+                : chipsSend.thenRunAsync(asRunnable(() -> {
+                    emailService.sendObjectionSubmittedCustomerEmail(objection, emailPayload, httpRequestId);
+                    objection.setExternalEmailSentOn(LocalDateTime.now());
+                }), objectionDispatchExecutor);
+
+        // wait for every send to finish before recording any status
+        CompletableFuture.allOf(chipsSend, internalEmailSend, externalEmailSend)
+                .handle((result, e) -> null)
+                .join();
+
+        checkSend(chipsSend, objection, httpRequestId, ObjectionStatus.ERROR_CHIPS, CHIPS_ERROR_MSG);
+        checkSend(internalEmailSend, objection, httpRequestId, ObjectionStatus.ERROR_INTERNAL_EMAIL,
+                INTERNAL_EMAIL_ERROR_MSG);
+        checkSend(externalEmailSend, objection, httpRequestId, ObjectionStatus.ERROR_EXTERNAL_EMAIL,
+                EXTERNAL_EMAIL_ERROR_MSG);
+    }
+
+    private CompletableFuture<Void> dispatch(Send send) {
+        return CompletableFuture.runAsync(asRunnable(send), objectionDispatchExecutor);
+    }
+
+    private static Runnable asRunnable(Send send) {
+        return () -> {
+            try {
+                send.send();
+            } catch (ServiceException e) {
+                throw new CompletionException(e);
+            }
+        };
+    }
+
+    private void checkSend(CompletableFuture<Void> send, Objection objection, String httpRequestId,
+                           ObjectionStatus errorStatus, String errorMessage)
+            throws InvalidObjectionStatusException, ServiceException {
+        try {
+            send.join();
+        } catch (CompletionException ce) {
+            Throwable cause = ce.getCause();
+            Exception e = cause instanceof Exception ? (Exception) cause : ce;
+
+            Map<String, Object> logMap = new HashMap<>();
+            logMap.put(LOG_OBJECTION_ID_KEY, objection.getId());
+            apiLogger.errorContext(httpRequestId, errorMessage, e, logMap);
+
+            updateObjectionStatus(objection, httpRequestId, errorStatus);
+            saveSentOnReplay(e, objection, errorStatus, httpRequestId);
+            if (e instanceof ServiceException) {
+                throw (ServiceException) e;
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new ServiceException(e.getMessage());
+        }
+    }
+
+    private void saveSentOnReplay(Exception e, Objection objection, ObjectionStatus failedStage,
+                                  String httpRequestId) {
+        if (!(e instanceof KafkaMessageSpooledException)) {
+            return;
+        }
+
+        String objectionId = objection.getId();
+        ((KafkaMessageSpooledException) e).getReplayed().thenRun(() -> {
+            try {
+                objectionRepository.saveSentOn(objectionId, failedStage, LocalDateTime.now());
+            } catch (RuntimeException re) {
+                // the retry sends it again instead
+                Map<String, Object> logMap = new HashMap<>();
+                logMap.put(LOG_OBJECTION_ID_KEY, objectionId);
+                logMap.put(LogConstants.OBJECTION_STATUS.getValue(), failedStage);
+                apiLogger.errorContext(httpRequestId, SENT_ON_NOT_SAVED_MSG, re, logMap);
+            }
+        });
+    }
+
+    private void updateObjectionStatus(Objection objection, String requestId, ObjectionStatus newStatus)
+            throws InvalidObjectionStatusException {
+        updateObjectionStatus(objection, requestId, newStatus, Collections.emptyList());
+    }
+
+    /**
+     * @throws InvalidObjectionStatusException if another process changed the status first, so
+     * this process must stop rather than carry on as if its status had been saved
+     */
+    private void updateObjectionStatus(Objection objection, String requestId, ObjectionStatus newStatus,
+                                       List<OutboxMessage> addedToOutbox) throws InvalidObjectionStatusException {
         objection.setStatus(newStatus);
         objection.setHttpRequestId(requestId);
         objection.setStatusChangedOn(LocalDateTime.now());
+        if (newStatus.isRetryable()) {
+            objection.setRetryPartition(ObjectionRetryScheduler.partitionOf(objection.getId()));
+        }
+
+        if (!objectionRepository.saveStatus(objection, addedToOutbox)) {
+            InvalidObjectionStatusException statusException = new InvalidObjectionStatusException(
+                    String.format(STATUS_NOT_SAVED_MSG, objection.getId(), newStatus));
+            Map<String, Object> logMap = new HashMap<>();
+            logMap.put(LOG_OBJECTION_ID_KEY, objection.getId());
+            logMap.put(LogConstants.OBJECTION_STATUS.getValue(), newStatus);
+            apiLogger.errorContext(requestId, statusException.getMessage(), statusException, logMap);
+
+            throw statusException;
+        }
+    }
 
-        objectionRepository.save(objection);
+    @FunctionalInterface
+    private interface Send {
+        void send() throws ServiceException;
     }
 }
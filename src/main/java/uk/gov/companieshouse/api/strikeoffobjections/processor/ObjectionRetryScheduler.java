@@ -0,0 +1,208 @@
+package uk.gov.companieshouse.api.strikeoffobjections.processor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.common.KafkaSpool;
+import uk.gov.companieshouse.api.strikeoffobjections.common.LogConstants;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries objections that failed sending to Chips or sending an email, resuming from the
+ * stage that failed.
+ * <p>
+ * Failed objections are spread over a fixed number of retry partitions. Each poll works
+ * through the partitions in a random order, taking a lease on each one before retrying its
+ * due objections, so several nodes share the work without retrying the same objection at the
+ * same time. Retries back off exponentially, with jitter, until the maximum number of
+ * attempts is used up. Nothing is retried while this node is spooling Kafka messages, as the
+ * retried messages would only be spooled again, and the spooled ones are recorded as sent once
+ * the spool has sent them.
+ */
+@Component
+public class ObjectionRetryScheduler {
+
+    /**
+     * Recorded on each failed objection, so must not change once objections have failed
+     */
+    static final int RETRY_PARTITIONS = 16;
+
+    private static final String LOG_OBJECTION_ID_KEY = LogConstants.OBJECTION_ID.getValue();
+    private static final String LOG_CONTEXT = "objection-retry";
+
+    private final ObjectionRepository objectionRepository;
+    private final ObjectionProcessor objectionProcessor;
+    private final KafkaSpool kafkaSpool;
+    private final ApiLogger apiLogger;
+    private final Supplier<LocalDateTime> dateTimeSupplier;
+    private final boolean isRetryEnabled;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final long baseDelaySeconds;
+    private final long maxDelaySeconds;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    public ObjectionRetryScheduler(ObjectionRepository objectionRepository,
+                                   ObjectionProcessor objectionProcessor,
+                                   KafkaSpool kafkaSpool,
+                                   ApiLogger apiLogger,
+                                   Supplier<LocalDateTime> dateTimeSupplier,
+                                   @Value("${FEATURE_FLAG_OBJECTION_RETRY:false}") boolean isRetryEnabled,
+                                   @Value("${OBJECTION_RETRY_BATCH_SIZE:10}") int batchSize,
+                                   @Value("${OBJECTION_RETRY_LEASE_SECONDS:300}") long leaseSeconds,
+                                   @Value("${OBJECTION_RETRY_MAX_ATTEMPTS:5}") int maxAttempts,
+                                   @Value("${OBJECTION_RETRY_BASE_DELAY_SECONDS:60}") long baseDelaySeconds,
+                                   @Value("${OBJECTION_RETRY_MAX_DELAY_SECONDS:3600}") long maxDelaySeconds) {
+        this.objectionRepository = objectionRepository;
+        this.objectionProcessor = objectionProcessor;
+        this.kafkaSpool = kafkaSpool;
+        this.apiLogger = apiLogger;
+        this.dateTimeSupplier = dateTimeSupplier;
+        this.isRetryEnabled = isRetryEnabled;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.baseDelaySeconds = baseDelaySeconds;
+        this.maxDelaySeconds = maxDelaySeconds;
+    }
+
+    static int partitionOf(String objectionId) {
+        return objectionId == null ? 0 : Math.floorMod(objectionId.hashCode(), RETRY_PARTITIONS);
+    }
+
+    @Scheduled(fixedDelayString = "${OBJECTION_RETRY_POLL_INTERVAL_MILLIS:30000}")
+    public void poll() {
+        if (!isRetryEnabled) {
+            return;
+        }
+        if (kafkaSpool.isSpooling()) {
+            apiLogger.infoContext(LOG_CONTEXT, "Kafka messages are spooled, retrying once they have been sent");
+            return;
+        }
+
+        List<Integer> partitions = new ArrayList<>(RETRY_PARTITIONS);
+        for (int partition = 0; partition < RETRY_PARTITIONS; partition++) {
+            partitions.add(partition);
+        }
+        // nodes polling at the same time start on different partitions
+        Collections.shuffle(partitions);
+
+        for (int partition : partitions) {
+            try {
+                LocalDateTime now = dateTimeSupplier.get();
+                if (!objectionRepository.claimRetryPartition(partition, nodeId, now, now.plusSeconds(leaseSeconds))) {
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                apiLogger.errorContext(LOG_CONTEXT, "Unable to claim retry partition", e);
+                return;
+            }
+
+            try {
+                retryPartition(partition);
+            } finally {
+                release(partition);
+            }
+        }
+    }
+
+    private void retryPartition(int partition) {
+        for (int i = 0; i < batchSize; i++) {
+            Objection objection;
+            try {
+                LocalDateTime now = dateTimeSupplier.get();
+                objection = objectionRepository.claimFailedObjection(partition, now,
+                        now.minusSeconds(baseDelaySeconds), now.plusSeconds(leaseSeconds), maxAttempts);
+            } catch (RuntimeException e) {
+                apiLogger.errorContext(LOG_CONTEXT, "Unable to claim failed objection", e);
+                return;
+            }
+
+            if (objection == null) {
+                return;
+            }
+            retry(objection);
+        }
+    }
+
+    private void retry(Objection objection) {
+        Map<String, Object> logMap = buildLogMap(objection);
+        try {
+            apiLogger.infoContext(objection.getHttpRequestId(),
+                    String.format("Retrying objection, attempt %d", objection.getRetryAttempts()), logMap);
+            objectionProcessor.retry(objection, objection.getHttpRequestId());
+            apiLogger.infoContext(objection.getHttpRequestId(), "Objection retry succeeded", logMap);
+        } catch (Exception e) {
+            // the processor has recorded the status of the stage that failed this time
+            apiLogger.errorContext(objection.getHttpRequestId(), "Objection retry failed", e, logMap);
+            scheduleNextAttempt(objection, e, logMap);
+        }
+    }
+
+    private void scheduleNextAttempt(Objection objection, Exception failure, Map<String, Object> logMap) {
+        if (objection.getRetryAttempts() >= maxAttempts) {
+            apiLogger.errorContext(objection.getHttpRequestId(),
+                    String.format("Objection retries exhausted after %d attempts", objection.getRetryAttempts()),
+                    failure, logMap);
+            return;
+        }
+
+        long delaySeconds = backoffSeconds(objection.getRetryAttempts(), ThreadLocalRandom.current().nextDouble());
+        try {
+            objectionRepository.scheduleRetry(objection.getId(), dateTimeSupplier.get().plusSeconds(delaySeconds));
+        } catch (RuntimeException e) {
+            // the claim expires instead, so the objection is retried after the lease time
+            apiLogger.errorContext(objection.getHttpRequestId(), "Unable to schedule objection retry", e, logMap);
+        }
+    }
+
+    /**
+     * Delay before the next retry, doubling with each attempt up to the maximum delay. The
+     * delay is then spread over its upper half by the jitter, so objections that failed
+     * together are not all retried together.
+     *
+     * @param attempts the number of retries already made
+     * @param jitter   a random number in the range [0, 1)
+     */
+    long backoffSeconds(int attempts, double jitter) {
+        long delay = maxDelaySeconds;
+        if (attempts < Long.SIZE - 1) {
+            long multiplier = 1L << attempts;
+            if (baseDelaySeconds <= maxDelaySeconds / multiplier) {
+                delay = baseDelaySeconds * multiplier;
+            }
+        }
+        return delay / 2 + (long) (jitter * (delay - delay / 2));
+    }
+
+    private void release(int partition) {
+        try {
+            objectionRepository.releaseRetryPartition(partition, nodeId);
+        } catch (RuntimeException e) {
+            // the lease expires instead
+            apiLogger.errorContext(LOG_CONTEXT, "Unable to release retry partition", e);
+        }
+    }
+
+    private Map<String, Object> buildLogMap(Objection objection) {
+        Map<String, Object> logMap = new HashMap<>();
+        logMap.put(LOG_OBJECTION_ID_KEY, objection.getId());
+        logMap.put(LogConstants.OBJECTION_STATUS.getValue(), objection.getStatus());
+        return logMap;
+    }
+}
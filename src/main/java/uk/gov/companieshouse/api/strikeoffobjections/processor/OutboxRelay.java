@@ -0,0 +1,141 @@
+package uk.gov.companieshouse.api.strikeoffobjections.processor;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.common.AsyncKafkaProducer;
+import uk.gov.companieshouse.api.strikeoffobjections.common.LogConstants;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
+import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Relays messages from objection outboxes to Kafka.
+ * <p>
+ * Each run claims a batch of objections with messages due, sends every message in the batch
+ * and then waits for all of the acknowledgements, so the broker round trips overlap. Sent
+ * messages are removed from the outbox. Failed ones stay and are retried once the retry
+ * delay has passed. A message can be sent more than once if the relay fails between sending
+ * it and removing it, so consumers dedupe on the message id.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final String LOG_OBJECTION_ID_KEY = LogConstants.OBJECTION_ID.getValue();
+    private static final String LOG_CONTEXT = "outbox-relay";
+
+    private final ObjectionRepository objectionRepository;
+    private final AsyncKafkaProducer producer;
+    private final ApiLogger apiLogger;
+    private final Supplier<LocalDateTime> dateTimeSupplier;
+    private final boolean isOutboxEnabled;
+    private final int batchSize;
+    private final long retryDelaySeconds;
+
+    @Autowired
+    public OutboxRelay(ObjectionRepository objectionRepository,
+                       AsyncKafkaProducer producer,
+                       ApiLogger apiLogger,
+                       Supplier<LocalDateTime> dateTimeSupplier,
+                       @Value("${FEATURE_FLAG_OBJECTION_OUTBOX:false}") boolean isOutboxEnabled,
+                       @Value("${OUTBOX_RELAY_BATCH_SIZE:50}") int batchSize,
+                       @Value("${OUTBOX_RELAY_RETRY_DELAY_SECONDS:60}") long retryDelaySeconds) {
+        this.objectionRepository = objectionRepository;
+        this.producer = producer;
+        this.apiLogger = apiLogger;
+        this.dateTimeSupplier = dateTimeSupplier;
+        this.isOutboxEnabled = isOutboxEnabled;
+        this.batchSize = batchSize;
+        this.retryDelaySeconds = retryDelaySeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${OUTBOX_RELAY_INTERVAL_MILLIS:1000}")
+    public void relay() {
+        if (!isOutboxEnabled) {
+            return;
+        }
+
+        Map<Objection, Map<OutboxMessage, Future<RecordMetadata>>> batch = new LinkedHashMap<>();
+        try {
+            for (int i = 0; i < batchSize; i++) {
+                LocalDateTime now = dateTimeSupplier.get();
+                // the claim expires when a retry would be due, in case this node dies mid-relay
+                Objection objection = objectionRepository.claimOutbox(now, now.plusSeconds(retryDelaySeconds));
+                if (objection == null) {
+                    break;
+                }
+                batch.put(objection, send(objection));
+            }
+        } catch (RuntimeException e) {
+            apiLogger.errorContext(LOG_CONTEXT, "Unable to claim objection outbox", e);
+        }
+
+        for (Map.Entry<Objection, Map<OutboxMessage, Future<RecordMetadata>>> sends : batch.entrySet()) {
+            complete(sends.getKey(), sends.getValue());
+        }
+    }
+
+    private Map<OutboxMessage, Future<RecordMetadata>> send(Objection objection) {
+        Map<OutboxMessage, Future<RecordMetadata>> sends = new LinkedHashMap<>();
+        for (OutboxMessage message : objection.getOutbox()) {
+            try {
+                sends.put(message, producer.send(message.toMessage()));
+            } catch (RuntimeException e) {
+                logRelayError(objection, message, e);
+            }
+        }
+        return sends;
+    }
+
+    private void complete(Objection objection, Map<OutboxMessage, Future<RecordMetadata>> sends) {
+        List<String> sentIds = new ArrayList<>();
+        for (Map.Entry<OutboxMessage, Future<RecordMetadata>> send : sends.entrySet()) {
+            try {
+                send.getValue().get();
+                sentIds.add(send.getKey().getId());
+            } catch (ExecutionException e) {
+                logRelayError(objection, send.getKey(), e);
+            } catch (InterruptedException ie) {
+                // anything not yet acknowledged is resent after the retry delay
+                Thread.currentThread().interrupt();
+                logRelayError(objection, send.getKey(), ie);
+                break;
+            }
+        }
+
+        LocalDateTime nextAttemptOn = sentIds.size() == objection.getOutbox().size()
+                ? null : dateTimeSupplier.get().plusSeconds(retryDelaySeconds);
+        objectionRepository.removeOutboxMessages(objection.getId(), sentIds, nextAttemptOn);
+
+        Map<String, Object> logMap = buildLogMap(objection);
+        logMap.put("relayed", sentIds.size());
+        logMap.put("remaining", objection.getOutbox().size() - sentIds.size());
+        apiLogger.infoContext(objection.getHttpRequestId(), "Relayed objection outbox messages", logMap);
+    }
+
+    private void logRelayError(Objection objection, OutboxMessage message, Exception e) {
+        Map<String, Object> logMap = buildLogMap(objection);
+        logMap.put("message_id", message.getId());
+        logMap.put("topic", message.getTopic());
+        apiLogger.errorContext(objection.getHttpRequestId(), "Error relaying outbox message", e, logMap);
+    }
+
+    private Map<String, Object> buildLogMap(Objection objection) {
+        Map<String, Object> logMap = new HashMap<>();
+        logMap.put(LOG_OBJECTION_ID_KEY, objection.getId());
+        return logMap;
+    }
+}
@@ -0,0 +1,183 @@
+package uk.gov.companieshouse.api.strikeoffobjections.repository;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the indexes declared on {@link Objection} that are missing from the collection.
+ * <p>
+ * When enabled, Spring's own index creation is switched off (see
+ * {@link uk.gov.companieshouse.api.strikeoffobjections.config.SpringMongoConfig}), so startup
+ * no longer waits for index builds. Instead, once the application is ready, the missing
+ * indexes are built one at a time as background builds, which don't lock the collection.
+ * Indexes on the collection that are no longer declared are logged but never dropped, and
+ * {@link #describe()} reports how often each index has been used so unused ones can be pruned.
+ */
+@Component
+public class ObjectionIndexReconciler {
+
+    static final String ID_INDEX_NAME = "_id_";
+
+    private static final String LOG_CONTEXT = "objection-index-reconciler";
+    private static final String NAME_KEY = "name";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final ApiLogger apiLogger;
+    private final boolean isReconcilerEnabled;
+
+    @Autowired
+    public ObjectionIndexReconciler(MongoTemplate mongoTemplate,
+                                    MongoMappingContext mappingContext,
+                                    ApiLogger apiLogger,
+                                    @Value("${FEATURE_FLAG_OBJECTION_INDEX_RECONCILER:false}")
+                                            boolean isReconcilerEnabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.apiLogger = apiLogger;
+        this.isReconcilerEnabled = isReconcilerEnabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileInBackground() {
+        if (isReconcilerEnabled) {
+            new CustomizableThreadFactory(LOG_CONTEXT + "-").newThread(this::reconcile).start();
+        }
+    }
+
+    /**
+     * @return the names of the indexes that were built
+     */
+    public List<String> reconcile() {
+        List<String> built = new ArrayList<>();
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(Objection.class);
+            Set<String> existing = getExistingIndexNames(indexOps);
+
+            for (IndexDefinition declared : getDeclaredIndexes()) {
+                String name = declared.getIndexOptions().getString(NAME_KEY);
+                if (existing.contains(name)) {
+                    continue;
+                }
+                apiLogger.infoContext(LOG_CONTEXT, String.format("Building index %s %s in the background",
+                        name, declared.getIndexKeys().toJson()));
+                indexOps.ensureIndex(inBackground(declared));
+                built.add(name);
+            }
+
+            List<String> undeclared = getUndeclaredIndexNames(existing);
+            if (!undeclared.isEmpty()) {
+                apiLogger.infoContext(LOG_CONTEXT, "Indexes not declared on Objection, candidates to drop: "
+                        + undeclared);
+            }
+        } catch (RuntimeException e) {
+            apiLogger.errorContext(LOG_CONTEXT, "Unable to reconcile objection indexes", e);
+        }
+        return built;
+    }
+
+    /**
+     * @return the declared indexes, the declared indexes missing from the collection, and the
+     * usage of every index on the collection since its server last started
+     */
+    public Map<String, Object> describe() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Objection.class);
+        Set<String> existing = getExistingIndexNames(indexOps);
+
+        List<String> declared = getDeclaredIndexes().stream()
+                .map(index -> index.getIndexOptions().getString(NAME_KEY))
+                .collect(Collectors.toList());
+        List<String> missing = declared.stream()
+                .filter(name -> !existing.contains(name))
+                .collect(Collectors.toList());
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("declared", declared);
+        description.put("missing", missing);
+        description.put("undeclared", getUndeclaredIndexNames(existing));
+        description.put("usage", getIndexUsage());
+        return description;
+    }
+
+    List<IndexDefinition> getDeclaredIndexes() {
+        List<IndexDefinition> declared = new ArrayList<>();
+        new MongoPersistentEntityIndexResolver(mappingContext)
+                .resolveIndexFor(ClassTypeInformation.from(Objection.class))
+                .forEach(declared::add);
+        return declared;
+    }
+
+    /**
+     * @return each index's name, the number of operations that used it, and since when
+     */
+    private List<Map<String, Object>> getIndexUsage() {
+        List<Document> stats = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Objection.class))
+                .aggregate(Collections.singletonList(new Document("$indexStats", new Document())))
+                .into(new ArrayList<>());
+
+        List<Map<String, Object>> usage = new ArrayList<>(stats.size());
+        for (Document stat : stats) {
+            Document accesses = stat.get("accesses", Document.class);
+            Map<String, Object> index = new LinkedHashMap<>();
+            index.put(NAME_KEY, stat.getString(NAME_KEY));
+            index.put("ops", accesses == null ? null : accesses.get("ops"));
+            index.put("since", accesses == null ? null : accesses.get("since"));
+            usage.add(index);
+        }
+        return usage;
+    }
+
+    private Set<String> getExistingIndexNames(IndexOperations indexOps) {
+        return indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+    }
+
+    private List<String> getUndeclaredIndexNames(Set<String> existing) {
+        Set<String> declared = getDeclaredIndexes().stream()
+                .map(index -> index.getIndexOptions().getString(NAME_KEY))
+                .collect(Collectors.toSet());
+        return existing.stream()
+                .filter(name -> !ID_INDEX_NAME.equals(name) && !declared.contains(name))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static IndexDefinition inBackground(IndexDefinition declared) {
+        Document options = new Document(declared.getIndexOptions());
+        options.put("background", true);
+        return new IndexDefinition() {
+            @Override
+            public Document getIndexKeys() {
+                return declared.getIndexKeys();
+            }
+
+            @Override
+            public Document getIndexOptions() {
+                return options;
+            }
+        };
+    }
+}
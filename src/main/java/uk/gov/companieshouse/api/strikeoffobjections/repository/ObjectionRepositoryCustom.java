@@ -0,0 +1,208 @@
+package uk.gov.companieshouse.api.strikeoffobjections.repository;
+
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
+import uk.gov.companieshouse.api.strikeoffobjections.model.patch.ObjectionPatch;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Objection queries that need more than the derived {@link org.springframework.data.mongodb.repository.MongoRepository}
+ * methods, implemented with {@link org.springframework.data.mongodb.core.MongoTemplate}.
+ */
+public interface ObjectionRepositoryCustom {
+
+    /**
+     * Reads only the fields needed to authorise a request for an objection.
+     *
+     * @param objectionId id of the objection
+     * @return the objection's summary, or null if it doesn't exist
+     */
+    ObjectionSummary findSummaryById(String objectionId);
+
+    /**
+     * Reads a page of a company's objections, newest first, with only the fields shown in a list.
+     * The page starts just after the given objection, found with the company number and created on
+     * index rather than by skipping the objections on earlier pages.
+     *
+     * @param companyNumber  the company the objections are for
+     * @param statuses       only objections with these statuses are read, all are read if empty
+     * @param afterCreatedOn created on time of the last objection of the previous page, or null for the first page
+     * @param afterId        id of the last objection of the previous page, or null for the first page
+     * @param limit          maximum number of objections to read
+     * @return the objections, newest first
+     */
+    List<Objection> findCompanyObjections(String companyNumber,
+                                          Collection<ObjectionStatus> statuses,
+                                          LocalDateTime afterCreatedOn,
+                                          String afterId,
+                                          int limit);
+
+    /**
+     * Reads a single attachment of an objection, without reading the rest of the objection.
+     *
+     * @param objectionId  id of the objection
+     * @param attachmentId id of the attachment
+     * @return the attachment, or null if the objection or attachment doesn't exist
+     */
+    Attachment findAttachment(String objectionId, String attachmentId);
+
+    /**
+     * Atomically claims the longest waiting SUBMITTED objection that isn't leased to another
+     * processor and hasn't used up its processing attempts.
+     *
+     * @param leaseOwner     identifies the processor taking the lease
+     * @param now            the current time, leases expiring before this are free to claim
+     * @param leaseExpiresOn when the lease taken by this claim expires
+     * @param maxAttempts    objections already claimed this many times are not claimed again
+     * @return the claimed objection, or null if there is none waiting
+     */
+    Objection claimSubmittedObjection(String leaseOwner,
+                                      LocalDateTime now,
+                                      LocalDateTime leaseExpiresOn,
+                                      int maxAttempts);
+
+    /**
+     * Extends a processing lease, provided the objection is still SUBMITTED and leased to the owner.
+     *
+     * @param objectionId    the leased objection
+     * @param leaseOwner     identifies the processor holding the lease
+     * @param leaseExpiresOn when the extended lease expires
+     * @return false if the objection is no longer leased to the owner
+     */
+    boolean renewProcessingLease(String objectionId, String leaseOwner, LocalDateTime leaseExpiresOn);
+
+    /**
+     * Atomically moves the longest waiting SUBMITTED objection that has used up its processing
+     * attempts, and whose last lease has expired, to ERROR_CHIPS so that it is retried.
+     *
+     * @param now         the current time, leases expiring before this have expired
+     * @param maxAttempts objections claimed this many times have used up their attempts
+     * @return the failed objection, or null if there is none
+     */
+    Objection failExhaustedObjection(LocalDateTime now, int maxAttempts);
+
+    /**
+     * Atomically claims the objection whose outbox has been waiting longest, by moving its next
+     * attempt time on to when the claim expires.
+     *
+     * @param now            the current time, outboxes due before this are free to claim
+     * @param leaseExpiresOn when the claim expires and the outbox can be claimed again
+     * @return the claimed objection, or null if no outbox is due
+     */
+    Objection claimOutbox(LocalDateTime now, LocalDateTime leaseExpiresOn);
+
+    /**
+     * Removes relayed messages from an objection's outbox.
+     *
+     * @param objectionId   the objection owning the outbox
+     * @param messageIds    ids of the messages to remove
+     * @param nextAttemptOn when to relay the remaining messages, or null if none remain
+     */
+    void removeOutboxMessages(String objectionId, Collection<String> messageIds, LocalDateTime nextAttemptOn);
+
+    /**
+     * Takes the lease on a retry partition if no other node holds an unexpired lease on it.
+     *
+     * @param partition the retry partition
+     * @param owner     identifies the node taking the lease
+     * @param now       the current time, leases expiring before this can be taken over
+     * @param expiresOn when the lease taken by this claim expires
+     * @return true if the lease was taken
+     */
+    boolean claimRetryPartition(int partition, String owner, LocalDateTime now, LocalDateTime expiresOn);
+
+    /**
+     * Releases a retry partition lease, if it is still held by the owner.
+     *
+     * @param partition the retry partition
+     * @param owner     identifies the node releasing the lease
+     */
+    void releaseRetryPartition(int partition, String owner);
+
+    /**
+     * Atomically claims the longest failed objection in a retry partition that is due a retry
+     * and hasn't used up its retry attempts, by moving its next attempt time on to when the
+     * claim expires.
+     *
+     * @param partition       the retry partition
+     * @param now             the current time, retries due before this are free to claim
+     * @param firstRetryDueOn objections not yet retried are due once their status is this old
+     * @param leaseExpiresOn  when the claim expires and the objection can be claimed again
+     * @param maxAttempts     objections already retried this many times are not claimed again
+     * @return the claimed objection, or null if there is none due
+     */
+    Objection claimFailedObjection(int partition,
+                                   LocalDateTime now,
+                                   LocalDateTime firstRetryDueOn,
+                                   LocalDateTime leaseExpiresOn,
+                                   int maxAttempts);
+
+    /**
+     * Sets when a failed objection is next due a retry.
+     *
+     * @param objectionId   the objection to retry
+     * @param nextAttemptOn when the retry is due
+     */
+    void scheduleRetry(String objectionId, LocalDateTime nextAttemptOn);
+
+    /**
+     * Atomically appends an attachment to an objection, without reading or rewriting the rest
+     * of the objection.
+     *
+     * @param objectionId the objection to add the attachment to
+     * @param attachment  the attachment
+     * @return false if there is no objection with the id
+     */
+    boolean addAttachment(String objectionId, Attachment attachment);
+
+    /**
+     * Atomically removes an attachment from an objection, leaving any other attachments added
+     * or removed at the same time in place.
+     *
+     * @param objectionId  the objection owning the attachment
+     * @param attachmentId id of the attachment to remove
+     */
+    void removeAttachment(String objectionId, String attachmentId);
+
+    /**
+     * Atomically applies a patch to an objection. If the patch changes the status, the patch is
+     * only applied if the objection's current status may be changed to the new status.
+     *
+     * @param objectionId the objection to patch
+     * @param patch       the patch, whose non null fields are written
+     * @param requestId   the request making the change
+     * @param now         when the status changed, if the patch changes it
+     * @return the patched objection, or null if there is no objection with the id or its status
+     * can't be changed to the patched status
+     */
+    Objection patchObjection(String objectionId, ObjectionPatch patch, String requestId, LocalDateTime now);
+
+    /**
+     * Atomically writes an objection's status, the request and time it changed, its retry
+     * partition, when each of its sends succeeded and the dissolution team recipients sent the
+     * internal email, and appends any messages added to its outbox, provided the objection's current status in the database may be changed to the new
+     * status.
+     *
+     * @param objection     the objection with its new status
+     * @param addedToOutbox messages added to the outbox with the status change, may be empty
+     * @return false if the objection's status can't be changed to the new status, for example
+     * because another process has already changed it
+     */
+    boolean saveStatus(Objection objection, Collection<OutboxMessage> addedToOutbox);
+
+    /**
+     * Records when a send that failed, but was spooled to be sent later, was sent, so that
+     * retrying the objection doesn't send it again. Leaves the objection's status unchanged.
+     *
+     * @param objectionId the objection that was sent
+     * @param failedStage the error status recorded when the send failed
+     * @param sentOn      when the spooled message was sent
+     */
+    void saveSentOn(String objectionId, ObjectionStatus failedStage, LocalDateTime sentOn);
+}
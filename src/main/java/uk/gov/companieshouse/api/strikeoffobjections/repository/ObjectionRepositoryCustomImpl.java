@@ -0,0 +1,362 @@
+package uk.gov.companieshouse.api.strikeoffobjections.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.RetryPartitionLease;
+import uk.gov.companieshouse.api.strikeoffobjections.model.patch.ObjectionPatch;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ObjectionRepositoryCustomImpl implements ObjectionRepositoryCustom {
+
+    static final String ID = "_id";
+    static final String STATUS = "status";
+    static final String COMPANY_NUMBER = "company_number";
+    static final String CREATED_ON = "created_on";
+    static final String CREATED_BY = "created_by";
+    static final String CREATED_BY_EMAIL = "created_by.email";
+    static final String EMAIL = "email";
+    static final String HTTP_REQUEST_ID = "http_request_id";
+    static final String REASON = "reason";
+    static final String CREATED_BY_OBJECTOR = "created_by.objector";
+    static final String CREATED_BY_FULL_NAME = "created_by.full_name";
+    static final String CREATED_BY_SHARE_IDENTITY = "created_by.share_identity";
+    static final String ATTACHMENTS = "attachments";
+    static final String ATTACHMENT_ID = "id";
+    static final String ATTACHMENTS_ID = "attachments.id";
+    static final String STATUS_CHANGED_ON = "status_changed_on";
+    static final String PROCESSING_LEASE_OWNER = "processing_lease_owner";
+    static final String PROCESSING_LEASE_EXPIRES_ON = "processing_lease_expires_on";
+    static final String PROCESSING_ATTEMPTS = "processing_attempts";
+    static final String OUTBOX = "outbox";
+    static final String OUTBOX_NEXT_ATTEMPT_ON = "outbox_next_attempt_on";
+    static final String RETRY_PARTITION = "retry_partition";
+    static final String RETRY_ATTEMPTS = "retry_attempts";
+    static final String RETRY_NEXT_ATTEMPT_ON = "retry_next_attempt_on";
+    static final String CHIPS_SENT_ON = "chips_sent_on";
+    static final String INTERNAL_EMAIL_SENT_ON = "internal_email_sent_on";
+    static final String EXTERNAL_EMAIL_SENT_ON = "external_email_sent_on";
+    static final String INTERNAL_EMAIL_SENT_TO = "internal_email_sent_to";
+    static final String LEASE_OWNER = "owner";
+    static final String LEASE_EXPIRES_ON = "expires_on";
+
+    private static final List<ObjectionStatus> RETRYABLE_STATUSES = Arrays.stream(ObjectionStatus.values())
+            .filter(ObjectionStatus::isRetryable)
+            .collect(Collectors.toList());
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public ObjectionRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public ObjectionSummary findSummaryById(String objectionId) {
+        Query query = byId(objectionId);
+        query.fields().include(COMPANY_NUMBER).include(STATUS).include(CREATED_BY_EMAIL);
+
+        // read as a plain document, as the projected fields alone don't make a valid Objection
+        Document summary = mongoTemplate.findOne(query, Document.class,
+                mongoTemplate.getCollectionName(Objection.class));
+        if (summary == null) {
+            return null;
+        }
+
+        String status = summary.getString(STATUS);
+        Document createdBy = summary.get(CREATED_BY, Document.class);
+        return new ObjectionSummary(
+                objectionId,
+                summary.getString(COMPANY_NUMBER),
+                status == null ? null : ObjectionStatus.valueOf(status),
+                createdBy == null ? null : createdBy.getString(EMAIL));
+    }
+
+    @Override
+    public List<Objection> findCompanyObjections(String companyNumber,
+                                                 Collection<ObjectionStatus> statuses,
+                                                 LocalDateTime afterCreatedOn,
+                                                 String afterId,
+                                                 int limit) {
+        Criteria criteria = Criteria.where(COMPANY_NUMBER).is(companyNumber);
+        if (statuses != null && !statuses.isEmpty()) {
+            criteria.and(STATUS).in(statuses);
+        }
+        if (afterCreatedOn != null && afterId != null) {
+            // objections created at the same time are ordered by id, so none are skipped or repeated
+            criteria.orOperator(
+                    Criteria.where(CREATED_ON).lt(afterCreatedOn),
+                    Criteria.where(CREATED_ON).is(afterCreatedOn).and(ID).lt(afterId));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, CREATED_ON, ID))
+                .limit(limit);
+        query.fields().include(COMPANY_NUMBER).include(CREATED_ON).include(CREATED_BY)
+                .include(STATUS).include(STATUS_CHANGED_ON);
+
+        return mongoTemplate.find(query, Objection.class);
+    }
+
+    @Override
+    public Attachment findAttachment(String objectionId, String attachmentId) {
+        Query query = Query.query(Criteria.where(ID).is(objectionId).and(ATTACHMENTS_ID).is(attachmentId));
+        // only the matching attachment is returned, the objection's other fields are never read
+        query.fields().elemMatch(ATTACHMENTS, Criteria.where(ATTACHMENT_ID).is(attachmentId));
+
+        Objection objection = mongoTemplate.findOne(query, Objection.class);
+        if (objection == null || objection.getAttachments() == null || objection.getAttachments().isEmpty()) {
+            return null;
+        }
+        return objection.getAttachments().get(0);
+    }
+
+    @Override
+    public Objection claimSubmittedObjection(String leaseOwner,
+                                             LocalDateTime now,
+                                             LocalDateTime leaseExpiresOn,
+                                             int maxAttempts) {
+        Query query = new Query(Criteria.where(STATUS).is(ObjectionStatus.SUBMITTED)
+                // $not also matches objections submitted before attempts were recorded
+                .and(PROCESSING_ATTEMPTS).not().gte(maxAttempts)
+                .orOperator(
+                        Criteria.where(PROCESSING_LEASE_EXPIRES_ON).is(null),
+                        Criteria.where(PROCESSING_LEASE_EXPIRES_ON).lt(now)))
+                .with(Sort.by(Sort.Direction.ASC, STATUS_CHANGED_ON));
+
+        Update update = new Update()
+                .set(PROCESSING_LEASE_OWNER, leaseOwner)
+                .set(PROCESSING_LEASE_EXPIRES_ON, leaseExpiresOn)
+                .inc(PROCESSING_ATTEMPTS, 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Objection.class);
+    }
+
+    @Override
+    public boolean renewProcessingLease(String objectionId, String leaseOwner, LocalDateTime leaseExpiresOn) {
+        Query query = new Query(Criteria.where(ID).is(objectionId)
+                .and(STATUS).is(ObjectionStatus.SUBMITTED)
+                .and(PROCESSING_LEASE_OWNER).is(leaseOwner));
+
+        UpdateResult result = mongoTemplate.updateFirst(query,
+                new Update().set(PROCESSING_LEASE_EXPIRES_ON, leaseExpiresOn), Objection.class);
+        return result.getMatchedCount() > 0;
+    }
+
+    @Override
+    public Objection failExhaustedObjection(LocalDateTime now, int maxAttempts) {
+        Query query = new Query(Criteria.where(STATUS).is(ObjectionStatus.SUBMITTED)
+                .and(PROCESSING_ATTEMPTS).gte(maxAttempts)
+                .and(PROCESSING_LEASE_EXPIRES_ON).lt(now))
+                .with(Sort.by(Sort.Direction.ASC, STATUS_CHANGED_ON));
+
+        // whether an earlier attempt reached CHIPS isn't known, but the retry skips any send
+        // recorded as succeeded
+        Update update = new Update()
+                .set(STATUS, ObjectionStatus.ERROR_CHIPS)
+                .set(STATUS_CHANGED_ON, now)
+                .unset(PROCESSING_LEASE_OWNER)
+                .unset(PROCESSING_LEASE_EXPIRES_ON);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Objection.class);
+    }
+
+    @Override
+    public Objection claimOutbox(LocalDateTime now, LocalDateTime leaseExpiresOn) {
+        Query query = new Query(Criteria.where(OUTBOX_NEXT_ATTEMPT_ON).lte(now))
+                .with(Sort.by(Sort.Direction.ASC, OUTBOX_NEXT_ATTEMPT_ON));
+
+        Update update = new Update().set(OUTBOX_NEXT_ATTEMPT_ON, leaseExpiresOn);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Objection.class);
+    }
+
+    @Override
+    public void removeOutboxMessages(String objectionId, Collection<String> messageIds, LocalDateTime nextAttemptOn) {
+        Update update = new Update().pull(OUTBOX, new Document("id", new Document("$in", messageIds)));
+        if (nextAttemptOn == null) {
+            update.unset(OUTBOX_NEXT_ATTEMPT_ON);
+        } else {
+            update.set(OUTBOX_NEXT_ATTEMPT_ON, nextAttemptOn);
+        }
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(objectionId)), update, Objection.class);
+    }
+
+    @Override
+    public boolean claimRetryPartition(int partition, String owner, LocalDateTime now, LocalDateTime expiresOn) {
+        Query query = new Query(Criteria.where("_id").is(partition)
+                .orOperator(
+                        Criteria.where(LEASE_EXPIRES_ON).lt(now),
+                        Criteria.where(LEASE_OWNER).is(owner)));
+
+        Update update = new Update()
+                .set(LEASE_OWNER, owner)
+                .set(LEASE_EXPIRES_ON, expiresOn);
+
+        try {
+            mongoTemplate.upsert(query, update, RetryPartitionLease.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // another node holds an unexpired lease, so the upsert tried to insert a second one
+            return false;
+        }
+    }
+
+    @Override
+    public void releaseRetryPartition(int partition, String owner) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(partition).and(LEASE_OWNER).is(owner)),
+                RetryPartitionLease.class);
+    }
+
+    @Override
+    public Objection claimFailedObjection(int partition,
+                                          LocalDateTime now,
+                                          LocalDateTime firstRetryDueOn,
+                                          LocalDateTime leaseExpiresOn,
+                                          int maxAttempts) {
+        // objections that failed before partitions were recorded are retried in partition 0
+        Criteria partitionCriteria = partition == 0
+                ? Criteria.where(RETRY_PARTITION).in(0, null)
+                : Criteria.where(RETRY_PARTITION).is(partition);
+
+        Query query = new Query(Criteria.where(STATUS).in(RETRYABLE_STATUSES)
+                .andOperator(
+                        partitionCriteria,
+                        Criteria.where(RETRY_ATTEMPTS).not().gte(maxAttempts),
+                        new Criteria().orOperator(
+                                Criteria.where(RETRY_NEXT_ATTEMPT_ON).is(null)
+                                        .and(STATUS_CHANGED_ON).lte(firstRetryDueOn),
+                                Criteria.where(RETRY_NEXT_ATTEMPT_ON).lte(now))))
+                .with(Sort.by(Sort.Direction.ASC, STATUS_CHANGED_ON));
+
+        Update update = new Update()
+                .set(RETRY_NEXT_ATTEMPT_ON, leaseExpiresOn)
+                .inc(RETRY_ATTEMPTS, 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Objection.class);
+    }
+
+    @Override
+    public void scheduleRetry(String objectionId, LocalDateTime nextAttemptOn) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(objectionId)),
+                new Update().set(RETRY_NEXT_ATTEMPT_ON, nextAttemptOn), Objection.class);
+    }
+
+    @Override
+    public boolean addAttachment(String objectionId, Attachment attachment) {
+        UpdateResult result = mongoTemplate.updateFirst(byId(objectionId),
+                new Update().push(ATTACHMENTS, attachment), Objection.class);
+        return result.getMatchedCount() > 0;
+    }
+
+    @Override
+    public void removeAttachment(String objectionId, String attachmentId) {
+        mongoTemplate.updateFirst(byId(objectionId),
+                new Update().pull(ATTACHMENTS, new Document(ATTACHMENT_ID, attachmentId)), Objection.class);
+    }
+
+    @Override
+    public Objection patchObjection(String objectionId, ObjectionPatch patch, String requestId, LocalDateTime now) {
+        Query query = byId(objectionId);
+        Update update = new Update().set(HTTP_REQUEST_ID, requestId);
+        if (patch.getObjector() != null) {
+            update.set(CREATED_BY_OBJECTOR, patch.getObjector());
+        }
+        if (patch.getFullName() != null) {
+            update.set(CREATED_BY_FULL_NAME, patch.getFullName());
+        }
+        if (patch.isShareIdentity() != null) {
+            update.set(CREATED_BY_SHARE_IDENTITY, patch.isShareIdentity());
+        }
+        if (patch.getReason() != null) {
+            update.set(REASON, patch.getReason());
+        }
+        if (patch.getStatus() != null) {
+            query.addCriteria(Criteria.where(STATUS).in(patch.getStatus().getPreviousStatuses()));
+            update.set(STATUS, patch.getStatus())
+                    .set(STATUS_CHANGED_ON, now);
+        }
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Objection.class);
+    }
+
+    @Override
+    public boolean saveStatus(Objection objection, Collection<OutboxMessage> addedToOutbox) {
+        Query query = byId(objection.getId())
+                .addCriteria(Criteria.where(STATUS).in(objection.getStatus().getPreviousStatuses()));
+        Update update = new Update()
+                .set(STATUS, objection.getStatus())
+                .set(HTTP_REQUEST_ID, objection.getHttpRequestId())
+                .set(STATUS_CHANGED_ON, objection.getStatusChangedOn());
+        if (objection.getRetryPartition() != null) {
+            update.set(RETRY_PARTITION, objection.getRetryPartition());
+        }
+        if (objection.getChipsSentOn() != null) {
+            update.set(CHIPS_SENT_ON, objection.getChipsSentOn());
+        }
+        if (objection.getInternalEmailSentOn() != null) {
+            update.set(INTERNAL_EMAIL_SENT_ON, objection.getInternalEmailSentOn());
+        }
+        if (objection.getExternalEmailSentOn() != null) {
+            update.set(EXTERNAL_EMAIL_SENT_ON, objection.getExternalEmailSentOn());
+        }
+        if (objection.getInternalEmailSentTo() != null && !objection.getInternalEmailSentTo().isEmpty()) {
+            update.addToSet(INTERNAL_EMAIL_SENT_TO).each(objection.getInternalEmailSentTo().toArray());
+        }
+        if (!addedToOutbox.isEmpty()) {
+            update.push(OUTBOX).each(addedToOutbox.toArray())
+                    .set(OUTBOX_NEXT_ATTEMPT_ON, objection.getOutboxNextAttemptOn());
+        }
+
+        return mongoTemplate.updateFirst(query, update, Objection.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void saveSentOn(String objectionId, ObjectionStatus failedStage, LocalDateTime sentOn) {
+        String sentOnField;
+        switch (failedStage) {
+            case ERROR_CHIPS:
+                sentOnField = CHIPS_SENT_ON;
+                break;
+            case ERROR_INTERNAL_EMAIL:
+                sentOnField = INTERNAL_EMAIL_SENT_ON;
+                break;
+            case ERROR_EXTERNAL_EMAIL:
+                sentOnField = EXTERNAL_EMAIL_SENT_ON;
+                break;
+            default:
+                throw new IllegalArgumentException("No send fails with status " + failedStage);
+        }
+
+        // a retry may have sent it again in the meantime, so the first send is kept
+        Query query = byId(objectionId).addCriteria(Criteria.where(sentOnField).exists(false));
+        mongoTemplate.updateFirst(query, new Update().set(sentOnField, sentOn), Objection.class);
+    }
+
+    private static Query byId(String objectionId) {
+        return Query.query(Criteria.where(ID).is(objectionId));
+    }
+}
@@ -1,9 +1,15 @@
 package uk.gov.companieshouse.api.strikeoffobjections.service;
 
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.service.ServiceException;
 
 public interface IChipsService {
 
     void sendObjection(String requestId, Objection objection) throws ServiceException;
+
+    /**
+     * @return the objection serialised for the outbox, or null if CHIPS can only be called directly
+     */
+    OutboxMessage buildObjectionOutboxMessage(String requestId, Objection objection) throws ServiceException;
 }
@@ -4,5 +4,9 @@ import uk.gov.companieshouse.api.model.company.CompanyProfileApi;
 import uk.gov.companieshouse.service.ServiceException;
 
 public interface ICompanyProfileService {
+
+    /**
+     * @return the company profile, holding only the company name and jurisdiction
+     */
     CompanyProfileApi getCompanyProfile(String companyNumber, String requestId) throws ServiceException;
 }
@@ -0,0 +1,14 @@
+package uk.gov.companieshouse.api.strikeoffobjections.service;
+
+import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.CompanyEligibility;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+public interface IEligibilityService {
+
+    CompletableFuture<Void> checkEligibility(Collection<String> companyNumbers,
+                                             String requestId,
+                                             Consumer<CompanyEligibility> resultConsumer);
+}
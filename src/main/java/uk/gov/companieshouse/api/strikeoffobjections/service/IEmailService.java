@@ -1,18 +1,41 @@
 package uk.gov.companieshouse.api.strikeoffobjections.service;
 
+import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailPayload;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.service.ServiceException;
 
+import java.util.List;
+
 public interface IEmailService {
 
+    /**
+     * @return the data shared by every email about the objection, to build once and pass to
+     * each of its sends
+     */
+    EmailPayload buildEmailPayload(String companyName, Objection objection);
+
     void sendObjectionSubmittedCustomerEmail(
             Objection objection,
-            String companyName,
+            EmailPayload payload,
             String requestId
     ) throws ServiceException;
 
     void sendObjectionSubmittedDissolutionTeamEmail(
-            String companyName,
+            EmailPayload payload,
+            String jurisdiction,
+            Objection objection,
+            String requestId
+    ) throws ServiceException;
+
+    OutboxMessage buildObjectionSubmittedCustomerEmail(
+            Objection objection,
+            EmailPayload payload,
+            String requestId
+    ) throws ServiceException;
+
+    List<OutboxMessage> buildObjectionSubmittedDissolutionTeamEmails(
+            EmailPayload payload,
             String jurisdiction,
             Objection objection,
             String requestId
@@ -1,9 +1,11 @@
 package uk.gov.companieshouse.api.strikeoffobjections.service;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.web.multipart.MultipartFile;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.AttachmentNotFoundException;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidCursorException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidObjectionStatusException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.ObjectionNotFoundException;
 import uk.gov.companieshouse.api.strikeoffobjections.file.FileTransferApiClientResponse;
@@ -11,7 +13,10 @@ import uk.gov.companieshouse.api.strikeoffobjections.model.create.ObjectionCreat
 import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.ObjectionEligibility;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.list.ObjectionPage;
 import uk.gov.companieshouse.api.strikeoffobjections.model.patch.ObjectionPatch;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.service.ServiceException;
 import uk.gov.companieshouse.service.ServiceResult;
 
@@ -30,6 +35,20 @@ public interface IObjectionService {
     Objection getObjection(String requestId, String objectionId)
             throws ObjectionNotFoundException;
 
+    ObjectionSummary getObjectionSummary(String requestId, String objectionId)
+            throws ObjectionNotFoundException;
+
+    /**
+     * @param cursor   the next cursor of the previous page, or null for the first page
+     * @param pageSize number of objections per page, or null for the default
+     * @throws InvalidCursorException if the cursor is invalid
+     */
+    ObjectionPage listObjections(String requestId,
+                                 String companyNumber,
+                                 Collection<ObjectionStatus> statuses,
+                                 String cursor,
+                                 Integer pageSize) throws InvalidCursorException;
+
     List<Attachment> getAttachments(String requestId, String companyNumber,String objectionId)
             throws ObjectionNotFoundException;
 
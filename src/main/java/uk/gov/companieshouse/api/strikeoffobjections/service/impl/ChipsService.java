@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import uk.gov.companieshouse.api.strikeoffobjections.chips.ChipsSender;
 import uk.gov.companieshouse.api.strikeoffobjections.model.chips.ChipsRequest;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IChipsService;
 import uk.gov.companieshouse.service.ServiceException;
 
@@ -26,7 +27,16 @@ public class ChipsService implements IChipsService {
 
     @Override
     public void sendObjection(String requestId, Objection objection) throws ServiceException {
-        ChipsRequest chipsRequest = new ChipsRequest(
+        this.chipsClient.sendToChips(requestId, buildChipsRequest(objection));
+    }
+
+    @Override
+    public OutboxMessage buildObjectionOutboxMessage(String requestId, Objection objection) throws ServiceException {
+        return this.chipsClient.toOutboxMessage(requestId, buildChipsRequest(objection));
+    }
+
+    private ChipsRequest buildChipsRequest(Objection objection) {
+        return new ChipsRequest(
                 objection.getId(),
                 objection.getCompanyNumber(),
                 objection.getAttachments(),
@@ -37,7 +47,5 @@ public class ChipsService implements IChipsService {
                 objection.getReason(),
                 attachmentDownloadUrlPrefix
         );
-
-        this.chipsClient.sendToChips(requestId, chipsRequest);
     }
 }
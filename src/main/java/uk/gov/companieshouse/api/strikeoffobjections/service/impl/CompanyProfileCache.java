@@ -0,0 +1,116 @@
+package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.companieshouse.api.model.company.CompanyProfileApi;
+import uk.gov.companieshouse.api.strikeoffobjections.common.SingleFlight;
+import uk.gov.companieshouse.service.ServiceException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, time-expiring cache of company profiles, keyed on company number.
+ * <p>
+ * Only the company name and jurisdiction are kept, as those are all that objection processing
+ * needs. Hit, miss and eviction counts are published as {@code cache.*} metrics tagged with the
+ * cache name, and concurrent lookups for the same company share a single in-flight call, with
+ * the number of lookups served this way published as {@code company.profile.lookups.coalesced}.
+ */
+@Component
+public class CompanyProfileCache {
+
+    static final String CACHE_NAME = "company-profile";
+    static final String COALESCED_METRIC_NAME = "company.profile.lookups.coalesced";
+
+    private final Cache<String, CompanyProfileApi> profiles;
+    private final SingleFlight<String, CompanyProfileApi> lookups = new SingleFlight<>();
+
+    @Autowired
+    public CompanyProfileCache(@Value("${COMPANY_PROFILE_CACHE_MAX_SIZE:10000}") long maxSize,
+                               @Value("${COMPANY_PROFILE_CACHE_TTL_SECONDS:600}") long ttlSeconds,
+                               MeterRegistry meterRegistry) {
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, CACHE_NAME);
+        FunctionCounter.builder(COALESCED_METRIC_NAME, lookups, SingleFlight::getCoalescedCount)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public CompanyProfileApi getCompanyProfile(String companyNumber, Loader loader) throws ServiceException {
+        CompanyProfileApi profile = profiles.getIfPresent(companyNumber);
+        if (profile != null) {
+            return profile;
+        }
+
+        try {
+            return lookups.execute(companyNumber, () -> {
+                // another lookup may have populated the cache between our miss and joining the flight
+                CompanyProfileApi cached = profiles.asMap().get(companyNumber);
+                if (cached != null) {
+                    return cached;
+                }
+                CompanyProfileApi loaded = load(loader, companyNumber);
+                if (loaded == null) {
+                    // not cached, so the company is looked up again once it exists
+                    return null;
+                }
+                CompanyProfileApi slimProfile = slim(loaded);
+                profiles.put(companyNumber, slimProfile);
+                return slimProfile;
+            });
+        } catch (LoadException e) {
+            throw e.getCause();
+        }
+    }
+
+    public CacheStats getStats() {
+        return profiles.stats();
+    }
+
+    private static CompanyProfileApi load(Loader loader, String companyNumber) {
+        try {
+            return loader.load(companyNumber);
+        } catch (ServiceException e) {
+            throw new LoadException(e);
+        }
+    }
+
+    private static CompanyProfileApi slim(CompanyProfileApi companyProfile) {
+        CompanyProfileApi slimProfile = new CompanyProfileApi();
+        slimProfile.setCompanyName(companyProfile.getCompanyName());
+        slimProfile.setJurisdiction(companyProfile.getJurisdiction());
+        return slimProfile;
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        CompanyProfileApi load(String companyNumber) throws ServiceException;
+    }
+
+    /**
+     * Carries a loader's checked exception through the single flight
+     */
+    private static class LoadException extends RuntimeException {
+
+        LoadException(ServiceException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized ServiceException getCause() {
+            return (ServiceException) super.getCause();
+        }
+    }
+}
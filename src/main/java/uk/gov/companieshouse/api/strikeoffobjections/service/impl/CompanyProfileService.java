@@ -20,18 +20,28 @@ public class CompanyProfileService implements ICompanyProfileService {
 
     private ApiSdkClient apiSdkClient;
     private ApiLogger apiLogger;
+    private CompanyProfileCache companyProfileCache;
 
     @Autowired
     public CompanyProfileService(ApiSdkClient apiSdkClient,
-                                 ApiLogger apiLogger) {
+                                 ApiLogger apiLogger,
+                                 CompanyProfileCache companyProfileCache) {
         this.apiSdkClient = apiSdkClient;
         this.apiLogger = apiLogger;
+        this.companyProfileCache = companyProfileCache;
     }
 
     /**
-     * Calls the API SDK Manager Java library in order to retrieve the company (profile) details.
+     * Returns the company name and jurisdiction, from the cache if the company was looked up recently.
      */
     public CompanyProfileApi getCompanyProfile(String companyNumber, String requestId) throws ServiceException {
+        return companyProfileCache.getCompanyProfile(companyNumber, key -> fetchCompanyProfile(key, requestId));
+    }
+
+    /**
+     * Calls the API SDK Manager Java library in order to retrieve the company (profile) details.
+     */
+    private CompanyProfileApi fetchCompanyProfile(String companyNumber, String requestId) throws ServiceException {
         try {
             Map<String, Object> logMap = new HashMap<>();
             logMap.put(LOG_COMPANY_NUMBER_KEY, companyNumber);
@@ -0,0 +1,86 @@
+package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
+
+import org.apache.commons.lang.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.common.LogConstants;
+import uk.gov.companieshouse.api.strikeoffobjections.config.ExecutorConfig;
+import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.CompanyEligibility;
+import uk.gov.companieshouse.api.strikeoffobjections.service.IEligibilityService;
+import uk.gov.companieshouse.api.strikeoffobjections.service.IObjectionService;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+@Service
+public class EligibilityService implements IEligibilityService {
+
+    private static final String ELIGIBILITY_ERROR = "Unable to determine eligibility";
+
+    private final IObjectionService objectionService;
+    private final ExecutorService eligibilityBatchExecutor;
+    private final ApiLogger logger;
+
+    @Autowired
+    public EligibilityService(IObjectionService objectionService,
+                              @Qualifier(ExecutorConfig.ELIGIBILITY_BATCH_EXECUTOR) ExecutorService eligibilityBatchExecutor,
+                              ApiLogger logger) {
+        this.objectionService = objectionService;
+        this.eligibilityBatchExecutor = eligibilityBatchExecutor;
+        this.logger = logger;
+    }
+
+    /**
+     * Checks the eligibility of each distinct company number on the eligibility batch executor,
+     * passing each result to the consumer as soon as it is available. Results are therefore
+     * not in request order. A failed lookup produces an error result for that company rather
+     * than failing the batch.
+     *
+     * @param companyNumbers the company numbers to check, blanks and duplicates are ignored
+     * @param requestId      http request id used for logging
+     * @param resultConsumer called once per distinct company number, possibly concurrently
+     * @return a future completed once every result has been passed to the consumer
+     */
+    @Override
+    public CompletableFuture<Void> checkEligibility(Collection<String> companyNumbers,
+                                                    String requestId,
+                                                    Consumer<CompanyEligibility> resultConsumer) {
+        Set<String> distinctCompanyNumbers = new LinkedHashSet<>();
+        for (String companyNumber : companyNumbers) {
+            if (StringUtils.isNotBlank(companyNumber)) {
+                distinctCompanyNumbers.add(companyNumber.trim());
+            }
+        }
+
+        logger.infoContext(requestId,
+                String.format("Checking eligibility of %d companies", distinctCompanyNumbers.size()));
+
+        CompletableFuture<?>[] checks = distinctCompanyNumbers.stream()
+                .map(companyNumber -> CompletableFuture
+                        .supplyAsync(() -> checkCompany(companyNumber, requestId), eligibilityBatchExecutor)
+                        .thenAccept(resultConsumer))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(checks);
+    }
+
+    private CompanyEligibility checkCompany(String companyNumber, String requestId) {
+        try {
+            return CompanyEligibility.of(companyNumber, objectionService.isCompanyEligible(companyNumber, requestId));
+        } catch (RuntimeException e) {
+            Map<String, Object> logMap = new HashMap<>();
+            logMap.put(LogConstants.COMPANY_NUMBER.getValue(), companyNumber);
+            logger.errorContext(requestId, ELIGIBILITY_ERROR, e, logMap);
+
+            return CompanyEligibility.failed(companyNumber, ELIGIBILITY_ERROR);
+        }
+    }
+}
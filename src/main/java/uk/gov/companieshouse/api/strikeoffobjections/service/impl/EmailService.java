@@ -5,22 +5,36 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.common.FormatUtils;
+import uk.gov.companieshouse.api.strikeoffobjections.common.LogConstants;
 import uk.gov.companieshouse.api.strikeoffobjections.email.KafkaEmailClient;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.KafkaMessageSpooledException;
 import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailContent;
+import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailPayload;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IEmailService;
 import uk.gov.companieshouse.service.ServiceException;
 
+import javax.annotation.PostConstruct;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 @Service
 public class EmailService implements IEmailService {
 
+    private static final String JURISDICTION_SCOTLAND = "scotland";
+    private static final String JURISDICTION_NORTHERN_IRELAND = "northern-ireland";
+
     private ApiLogger logger;
     private KafkaEmailClient kafkaEmailClient;
     private Supplier<LocalDateTime> dateTimeSupplier;
@@ -49,6 +63,10 @@ public class EmailService implements IEmailService {
     @Value("${EMAIL_RECIPIENTS_BELFAST}")
     private String emailRecipientsBelfast;
 
+    // dissolution team recipients by jurisdiction, resolved once from the recipient config
+    private Map<String, List<String>> dissolutionTeamRecipients = Collections.emptyMap();
+    private List<String> defaultDissolutionTeamRecipients = Collections.emptyList();
+
     @Autowired
     public EmailService(
             ApiLogger logger,
@@ -60,21 +78,46 @@ public class EmailService implements IEmailService {
         this.dateTimeSupplier = dateTimeSupplier;
     }
 
+    @PostConstruct
+    void buildDissolutionTeamRecipients() {
+        Map<String, List<String>> recipients = new HashMap<>();
+        recipients.put(JURISDICTION_SCOTLAND, splitAndStrip(emailRecipientsEdinburgh));
+        recipients.put(JURISDICTION_NORTHERN_IRELAND, splitAndStrip(emailRecipientsBelfast));
+        dissolutionTeamRecipients = Collections.unmodifiableMap(recipients);
+        defaultDissolutionTeamRecipients = splitAndStrip(emailRecipientsCardiff);
+    }
+
+    @Override
+    public EmailPayload buildEmailPayload(String companyName, Objection objection) {
+        Map<String, Object> data = new HashMap<>();
+
+        LocalDate submittedOn = objection.getCreatedOn().toLocalDate();
+
+        String subject = emailSubject.replace("{{ COMPANY_NUMBER }}", objection.getCompanyNumber());
+        data.put("subject", subject);
+        data.put("date", FormatUtils.formatDate(submittedOn));
+        data.put("objection_id", objection.getId());
+        data.put("full_name", objection.getCreatedBy().getFullName());
+        data.put("share_identity", objection.getCreatedBy().isShareIdentity());
+        data.put("company_name", companyName);
+        data.put("company_number", objection.getCompanyNumber());
+        data.put("reason", objection.getReason());
+        // copied, as every email shares the list and the objection's own can still change
+        List<Attachment> attachments = objection.getAttachments();
+        data.put("attachments", attachments == null ? null : Collections.unmodifiableList(new ArrayList<>(attachments)));
+        data.put("attachments_download_url_prefix", emailAttachmentDownloadUrlPrefix);
+
+        return new EmailPayload(data);
+    }
+
     @Override
     public void sendObjectionSubmittedCustomerEmail(
             Objection objection,
-            String companyName,
+            EmailPayload payload,
             String requestId
     ) throws ServiceException {
 
-        String emailAddress = objection.getCreatedBy().getEmail();
-        Map<String, Object> data = constructCommonEmailMap(
-                companyName,
-                objection,
-                emailAddress);
-
-        EmailContent emailContent = constructEmailContent(EmailType.CUSTOMER,
-                emailAddress, data);
+        EmailContent emailContent = constructCustomerEmailContent(objection, payload);
 
         logger.debugContext(requestId, "Calling Kafka client to send customer email");
         kafkaEmailClient.sendEmailToKafka(emailContent);
@@ -83,27 +126,99 @@ public class EmailService implements IEmailService {
 
     @Override
     public void sendObjectionSubmittedDissolutionTeamEmail(
-            String companyName,
+            EmailPayload payload,
             String jurisdiction,
             Objection objection,
             String requestId
     ) throws ServiceException {
 
+        List<String> recipients = getDissolutionTeamRecipients(jurisdiction);
+        List<String> sentTo = objection.getInternalEmailSentTo();
+        List<EmailContent> emailContents = new ArrayList<>(recipients.size());
+        for (String emailAddress : recipients) {
+            // already sent by an earlier attempt that failed for other recipients
+            if (!sentTo.contains(emailAddress)) {
+                emailContents.add(constructDissolutionTeamEmailContent(payload, objection, emailAddress));
+            }
+        }
+
+        logger.debugContext(requestId, String.format("Calling Kafka client to send dissolution team email to %d recipients",
+                emailContents.size()));
+        Map<String, Exception> failures = kafkaEmailClient.sendEmailsToKafka(emailContents);
+        for (EmailContent emailContent : emailContents) {
+            if (!failures.containsKey(emailContent.getEmailAddress())) {
+                sentTo.add(emailContent.getEmailAddress());
+            }
+        }
+        if (!failures.isEmpty()) {
+            List<CompletableFuture<Void>> replays = new ArrayList<>();
+            for (Map.Entry<String, Exception> failure : failures.entrySet()) {
+                Map<String, Object> logMap = new HashMap<>();
+                logMap.put(LogConstants.OBJECTION_ID.getValue(), objection.getId());
+                logMap.put("recipient", failure.getKey());
+                logger.errorContext(requestId, "Error sending dissolution team email", failure.getValue(), logMap);
+                if (failure.getValue().getCause() instanceof KafkaMessageSpooledException) {
+                    replays.add(((KafkaMessageSpooledException) failure.getValue().getCause()).getReplayed());
+                }
+            }
+            String message = String.format("Failed to send dissolution team email to %d of %d recipients: %s",
+                    failures.size(), emailContents.size(), String.join(", ", failures.keySet()));
+            if (replays.size() == failures.size()) {
+                // the other recipients have theirs, so the email is sent once the spooled ones are replayed
+                throw new KafkaMessageSpooledException(message, null,
+                        CompletableFuture.allOf(replays.toArray(new CompletableFuture[0])));
+            }
+            throw new ServiceException(message);
+        }
+        logger.debugContext(requestId, "Successfully called Kafka client");
+    }
+
+    @Override
+    public OutboxMessage buildObjectionSubmittedCustomerEmail(
+            Objection objection,
+            EmailPayload payload,
+            String requestId
+    ) throws ServiceException {
+
+        logger.debugContext(requestId, "Adding customer email to outbox");
+        return kafkaEmailClient.toOutboxMessage(constructCustomerEmailContent(objection, payload));
+    }
 
-        for (String emailAddress : getDissolutionTeamRecipients(jurisdiction)) {
-            Map<String, Object> data = constructCommonEmailMap(
-                    companyName,
-                    objection,
-                    emailAddress);
+    @Override
+    public List<OutboxMessage> buildObjectionSubmittedDissolutionTeamEmails(
+            EmailPayload payload,
+            String jurisdiction,
+            Objection objection,
+            String requestId
+    ) throws ServiceException {
 
-            data.put("customer_email", objection.getCreatedBy().getEmail());
-            EmailContent emailContent = constructEmailContent(EmailType.DISSOLUTION_TEAM,
-                    emailAddress, data);
-            logger.debugContext(requestId, String.format("Calling Kafka client to send dissolution team email to %s",
+        List<String> recipients = getDissolutionTeamRecipients(jurisdiction);
+        List<OutboxMessage> messages = new ArrayList<>(recipients.size());
+        for (String emailAddress : recipients) {
+            logger.debugContext(requestId, String.format("Adding dissolution team email to %s to outbox",
                     emailAddress));
-            kafkaEmailClient.sendEmailToKafka(emailContent);
-            logger.debugContext(requestId, "Successfully called Kafka client");
+            messages.add(kafkaEmailClient.toOutboxMessage(
+                    constructDissolutionTeamEmailContent(payload, objection, emailAddress)));
         }
+        return messages;
+    }
+
+    private EmailContent constructCustomerEmailContent(Objection objection, EmailPayload payload) {
+        String emailAddress = objection.getCreatedBy().getEmail();
+        Map<String, Object> data = payload.forRecipient(emailAddress);
+
+        return constructEmailContent(EmailType.CUSTOMER,
+                emailAddress, data);
+    }
+
+    private EmailContent constructDissolutionTeamEmailContent(EmailPayload payload,
+                                                              Objection objection,
+                                                              String emailAddress) {
+        Map<String, Object> data = payload.forRecipient(emailAddress);
+
+        data.put("customer_email", objection.getCreatedBy().getEmail());
+        return constructEmailContent(EmailType.DISSOLUTION_TEAM,
+                emailAddress, data);
     }
 
     private EmailContent constructEmailContent(EmailType emailType,
@@ -123,39 +238,11 @@ public class EmailService implements IEmailService {
                 .build();
     }
 
-    private Map<String, Object> constructCommonEmailMap(String companyName, Objection objection, String email) {
-        Map<String, Object> data = new HashMap<>();
-
-        LocalDate submittedOn = objection.getCreatedOn().toLocalDate();
-
-        String subject = emailSubject.replace("{{ COMPANY_NUMBER }}", objection.getCompanyNumber());
-        data.put("subject", subject);
-        data.put("date", FormatUtils.formatDate(submittedOn));
-        data.put("objection_id", objection.getId());
-        data.put("to", email);
-        data.put("full_name", objection.getCreatedBy().getFullName());
-        data.put("share_identity", objection.getCreatedBy().isShareIdentity());
-        data.put("company_name", companyName);
-        data.put("company_number", objection.getCompanyNumber());
-        data.put("reason", objection.getReason());
-        data.put("attachments", objection.getAttachments());
-        data.put("attachments_download_url_prefix", emailAttachmentDownloadUrlPrefix);
-
-        return data;
-    }
-
-    protected String[] getDissolutionTeamRecipients(String jurisdiction) {
-        switch(jurisdiction) {
-            case "scotland":
-                return splitAndStrip(emailRecipientsEdinburgh);
-            case "northern-ireland":
-                return splitAndStrip(emailRecipientsBelfast);
-            default:
-                return splitAndStrip(emailRecipientsCardiff);
-        }
+    protected List<String> getDissolutionTeamRecipients(String jurisdiction) {
+        return dissolutionTeamRecipients.getOrDefault(jurisdiction, defaultDissolutionTeamRecipients);
     }
 
-    private String[] splitAndStrip(String commaSeparatedString) {
-        return commaSeparatedString.replace(" ", "").split(",");
+    private List<String> splitAndStrip(String commaSeparatedString) {
+        return Collections.unmodifiableList(Arrays.asList(commaSeparatedString.replace(" ", "").split(",")));
     }
 }
@@ -0,0 +1,81 @@
+package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+
+import java.util.Optional;
+
+/**
+ * The full objection loaded for the current request, held in a request attribute so the
+ * objection is read from Mongo at most once per request however many service calls need it.
+ * For handlers that read the objection, the
+ * {@link uk.gov.companieshouse.api.strikeoffobjections.interceptor.ObjectionInterceptor} loads
+ * it through the service, which puts it here for the handler's service calls.
+ * <p>
+ * Writes replace or evict the objection so later reads in the request never see stale data.
+ * Outside a request (e.g. on a worker thread) nothing is held and every read goes to Mongo.
+ * Reads served from the context are published as {@code objection.reads.saved}.
+ */
+@Component
+public class ObjectionContext {
+
+    static final String READS_SAVED_METRIC_NAME = "objection.reads.saved";
+    static final String OBJECTION_ATTRIBUTE = ObjectionContext.class.getName() + ".objection";
+
+    private final Counter readsSaved;
+
+    @Autowired
+    public ObjectionContext(MeterRegistry meterRegistry) {
+        this.readsSaved = Counter.builder(READS_SAVED_METRIC_NAME)
+                .description("Objection reads served from the objection loaded earlier in the request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the objection loaded earlier in the request, if it has the given id
+     */
+    public Optional<Objection> get(String objectionId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || objectionId == null) {
+            return Optional.empty();
+        }
+
+        Object objection = attributes.getAttribute(OBJECTION_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (objection instanceof Objection && objectionId.equals(((Objection) objection).getId())) {
+            readsSaved.increment();
+            return Optional.of((Objection) objection);
+        }
+        return Optional.empty();
+    }
+
+    public void put(Objection objection) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && objection != null) {
+            attributes.setAttribute(OBJECTION_ATTRIBUTE, objection,
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Removes the objection after a write that wasn't read back, so the next read goes to Mongo
+     */
+    public void evict(String objectionId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+
+        Object objection = attributes.getAttribute(OBJECTION_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (objection instanceof Objection && objectionId != null
+                && objectionId.equals(((Objection) objection).getId())) {
+            attributes.removeAttribute(OBJECTION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
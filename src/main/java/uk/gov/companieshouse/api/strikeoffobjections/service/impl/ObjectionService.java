@@ -2,6 +2,8 @@ package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
 
 import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -9,10 +11,13 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.multipart.MultipartFile;
 
+import uk.gov.companieshouse.api.strikeoffobjections.client.OracleQueryCache;
 import uk.gov.companieshouse.api.strikeoffobjections.client.OracleQueryClient;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.common.LogConstants;
+import uk.gov.companieshouse.api.strikeoffobjections.config.ExecutorConfig;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.AttachmentNotFoundException;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidCursorException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidObjectionStatusException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.ObjectionNotFoundException;
 import uk.gov.companieshouse.api.strikeoffobjections.file.FileTransferApiClient;
@@ -25,10 +30,13 @@ import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.CreatedBy;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.list.ObjectionListCursor;
+import uk.gov.companieshouse.api.strikeoffobjections.model.list.ObjectionPage;
 import uk.gov.companieshouse.api.strikeoffobjections.model.patch.ObjectionPatch;
-import uk.gov.companieshouse.api.strikeoffobjections.model.patcher.ObjectionPatcher;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.processor.ObjectionProcessor;
 import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
+import uk.gov.companieshouse.api.strikeoffobjections.service.ICompanyProfileService;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IObjectionService;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IReferenceNumberGeneratorService;
 import uk.gov.companieshouse.api.strikeoffobjections.validation.ActionCodeValidator;
@@ -41,10 +49,16 @@ import uk.gov.companieshouse.service.links.Links;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
 @Service
@@ -60,13 +74,13 @@ public class ObjectionService implements IObjectionService {
     private ObjectionRepository objectionRepository;
 
     @Autowired
-    private ApiLogger logger;
+    private ObjectionContext objectionContext;
 
     @Autowired
-    private Supplier<LocalDateTime> dateTimeSupplier;
+    private ApiLogger logger;
 
     @Autowired
-    private ObjectionPatcher objectionPatcher;
+    private Supplier<LocalDateTime> dateTimeSupplier;
 
     @Autowired
     private FileTransferApiClient fileTransferApiClient;
@@ -80,6 +94,9 @@ public class ObjectionService implements IObjectionService {
     @Autowired
     private OracleQueryClient oracleQueryClient;
 
+    @Autowired
+    private OracleQueryCache oracleQueryCache;
+
     @Autowired
     private ActionCodeValidator actionCodeValidator;
 
@@ -89,6 +106,32 @@ public class ObjectionService implements IObjectionService {
     @Autowired
     private Gaz2RequestedValidator gaz2RequestedValidator;
 
+    @Autowired
+    @Qualifier(ExecutorConfig.ORACLE_LOOKUP_EXECUTOR)
+    private ExecutorService oracleLookupExecutor;
+
+    @Autowired
+    private ICompanyProfileService companyProfileService;
+
+    @Autowired
+    @Qualifier(ExecutorConfig.COMPANY_PROFILE_PREFETCH_EXECUTOR)
+    private ExecutorService companyProfilePrefetchExecutor;
+
+    @Value("${FEATURE_FLAG_PARALLEL_ELIGIBILITY_LOOKUP:false}")
+    private boolean isParallelEligibilityLookupEnabled;
+
+    @Value("${FEATURE_FLAG_ASYNC_OBJECTION_PROCESSING:false}")
+    private boolean isAsyncObjectionProcessingEnabled;
+
+    @Value("${FEATURE_FLAG_COMPANY_PROFILE_PREFETCH:false}")
+    private boolean isCompanyProfilePrefetchEnabled;
+
+    @Value("${OBJECTION_LIST_DEFAULT_PAGE_SIZE:20}")
+    private int defaultListPageSize;
+
+    @Value("${OBJECTION_LIST_MAX_PAGE_SIZE:100}")
+    private int maxListPageSize;
+
     @Override
     public Objection createObjection(String requestId,
                                      String companyNumber,
@@ -99,8 +142,10 @@ public class ObjectionService implements IObjectionService {
         Map<String, Object> logMap = buildLogMap(companyNumber, null, null);
         logger.infoContext(requestId, "Creating objection", logMap);
 
+        final CompletableFuture<String> requestedGaz2Lookup = prefetchRequestedGaz2(companyNumber, requestId);
         final Long actionCode = getActionCode(companyNumber, requestId);
-        final ObjectionStatus objectionStatus = getObjectionStatusForCreate(actionCode, companyNumber, requestId);
+        final ObjectionStatus objectionStatus =
+                getObjectionStatusForCreate(actionCode, companyNumber, requestedGaz2Lookup, requestId);
         final String refNumber = referenceNumberGeneratorService.generateReferenceNumber();
         
         Objection entity = new Objection.Builder()
@@ -115,12 +160,37 @@ public class ObjectionService implements IObjectionService {
                 .withLinks(createLinks("/company/" + companyNumber + "/strike-off-objections/" + refNumber, false))
                 .build();
 
+        Objection objection;
         try {
-            return objectionRepository.insert(entity);
+            objection = objectionRepository.insert(entity);
         } catch (DuplicateKeyException e) {
             logger.errorContext(requestId, "Reference Number already exists", e);
             throw new ServiceException("Reference Number already exists", e);
         }
+
+        if (objectionStatus == ObjectionStatus.OPEN) {
+            prefetchCompanyProfile(companyNumber, requestId);
+        }
+        return objection;
+    }
+
+    /**
+     * When company profile prefetching is enabled, looks up the company profile in the
+     * background so that it is already cached when the objection is submitted and processed.
+     */
+    private void prefetchCompanyProfile(String companyNumber, String requestId) {
+        if (!isCompanyProfilePrefetchEnabled) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                companyProfileService.getCompanyProfile(companyNumber, requestId);
+            } catch (ServiceException | RuntimeException e) {
+                // processing looks the profile up again, so a failed prefetch is only logged
+                logger.errorContext(requestId, "Unable to prefetch company profile", e,
+                        buildLogMap(companyNumber, null, null));
+            }
+        }, companyProfilePrefetchExecutor);
     }
 
     private CreatedBy buildCreatedBy(String ericUserId,
@@ -136,13 +206,43 @@ public class ObjectionService implements IObjectionService {
 
         logger.debugContext(requestId, "Company action code is " + actionCode);
 
+        if (isParallelEligibilityLookupEnabled) {
+            oracleQueryCache.setRecentGaz1(companyNumber, gaz2RequestedValidator.isGaz2Checked(actionCode));
+        }
+
         return actionCode;
     }
 
-    private ObjectionStatus getObjectionStatusForCreate(Long actionCode, String companyNumber, String logContext) {
+    /**
+     * When parallel eligibility lookups are enabled, starts the GAZ2 requested lookup on the
+     * oracle lookup executor so that it runs at the same time as the action code lookup.
+     * The result is only used if the company has a GAZ1 action code, so the lookup is only
+     * started for companies recently found to have one, such as when the eligibility check
+     * comes before the objection is created. It is never run on the request thread; if the
+     * executor is full, the lookup is left to the validator.
+     *
+     * @return the in-flight lookup, or null if the lookup wasn't started
+     */
+    private CompletableFuture<String> prefetchRequestedGaz2(String companyNumber, String requestId) {
+        if (!isParallelEligibilityLookupEnabled || !oracleQueryCache.isRecentGaz1(companyNumber)) {
+            return null;
+        }
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> oracleQueryClient.getRequestedGaz2(companyNumber, requestId), oracleLookupExecutor);
+        } catch (RejectedExecutionException e) {
+            logger.debugContext(requestId, "Oracle lookup executor full, not prefetching requested GAZ2");
+            return null;
+        }
+    }
+
+    private ObjectionStatus getObjectionStatusForCreate(Long actionCode,
+                                                        String companyNumber,
+                                                        CompletableFuture<String> requestedGaz2Lookup,
+                                                        String logContext) {
         ObjectionStatus objectionStatus = ObjectionStatus.OPEN;
         try {
-            validateCompanyIsEligible(actionCode, companyNumber, logContext);
+            validateCompanyIsEligible(actionCode, companyNumber, requestedGaz2Lookup, logContext);
         } catch (ValidationException validationException) {
             objectionStatus = validationException.getObjectionStatus();
         }
@@ -150,13 +250,14 @@ public class ObjectionService implements IObjectionService {
     }
 
     public ObjectionEligibility isCompanyEligible(String companyNumber, String requestId) {
+        CompletableFuture<String> requestedGaz2Lookup = prefetchRequestedGaz2(companyNumber, requestId);
         Long actionCode = getActionCode(companyNumber, requestId);
 
         boolean isCompanyEligible = true;
         EligibilityStatus eligibilityStatus = EligibilityStatus.ELIGIBLE;
 
         try {
-            validateCompanyIsEligible(actionCode, companyNumber, requestId);
+            validateCompanyIsEligible(actionCode, companyNumber, requestedGaz2Lookup, requestId);
         } catch (ValidationException validationException) {
             eligibilityStatus = validationException.getEligibilityStatus();
             isCompanyEligible = false;
@@ -164,10 +265,18 @@ public class ObjectionService implements IObjectionService {
         return new ObjectionEligibility(isCompanyEligible, eligibilityStatus);
     }
 
-    private void validateCompanyIsEligible(Long actionCode, String companyNumber, String logContext) throws ValidationException {
+    private void validateCompanyIsEligible(Long actionCode,
+                                           String companyNumber,
+                                           CompletableFuture<String> requestedGaz2Lookup,
+                                           String logContext) throws ValidationException {
         try {
             actionCodeValidator.validate(actionCode, logContext);
-            gaz2RequestedValidator.validate(companyNumber, actionCode, logContext);
+            if (requestedGaz2Lookup == null) {
+                gaz2RequestedValidator.validate(companyNumber, actionCode, logContext);
+            } else {
+                gaz2RequestedValidator.validate(
+                        companyNumber, actionCode, () -> joinLookup(requestedGaz2Lookup), logContext);
+            }
         } catch (ValidationException validationException) {
             Map<String, Object> logMap = buildLogMap(companyNumber, null, null);
             logMap.put(LogConstants.ACTION_CODE.getValue(), actionCode);
@@ -177,6 +286,17 @@ public class ObjectionService implements IObjectionService {
         }
     }
 
+    private static <T> T joinLookup(CompletableFuture<T> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     /**
      * Update the Objection data with the provided patch data
      * Triggers the processing of the Objection if status is changed
@@ -197,52 +317,105 @@ public class ObjectionService implements IObjectionService {
                    InvalidObjectionStatusException,
                    ServiceException {
         Map<String, Object> logMap = buildLogMap(companyNumber, objectionId, null);
-        logger.debugContext(requestId, "Checking for existing objection", logMap);
-
-        Optional<Objection> existingObjectionOptional = objectionRepository.findById(objectionId);
+        logger.debugContext(requestId, "Patching objection", logMap);
+
+        // applied only if the status can change to the patched status, so of concurrent
+        // submissions only one changes the status from OPEN and goes on to be processed
+        Objection objection = objectionRepository.patchObjection(
+                objectionId, objectionPatch, requestId, dateTimeSupplier.get());
+
+        if (objection == null) {
+            objectionContext.evict(objectionId);
+            Optional<Objection> existingObjection = objectionRepository.findById(objectionId);
+            if (!existingObjection.isPresent()) {
+                logger.infoContext(requestId, "Objection does not exist", logMap);
+                throw new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId));
+            }
 
-        if (!existingObjectionOptional.isPresent()) {
-            logger.infoContext(requestId, "Objection does not exist", logMap);
-            throw new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId));
+            InvalidObjectionStatusException statusException = new InvalidObjectionStatusException(
+                    String.format(INVALID_PATCH_STATUS, objectionPatch.getStatus(), objectionId));
+            logMap.put(LogConstants.OBJECTION_STATUS.getValue(), existingObjection.get().getStatus());
+            logger.errorContext(requestId, statusException.getMessage(), statusException, logMap);
+            throw statusException;
         }
 
-        Objection existingObjection = existingObjectionOptional.get();
+        objectionContext.put(objection);
 
-        validatePatchStatusChange(objectionPatch, existingObjection, requestId, companyNumber);
+        // the patch could only change the status to SUBMITTED from OPEN, so process the objection
+        if (ObjectionStatus.SUBMITTED == objectionPatch.getStatus()) {
+            if (isAsyncObjectionProcessingEnabled) {
+                // saved as SUBMITTED, so the ObjectionProcessingWorker will pick it up
+                logger.infoContext(requestId, "Objection submitted, queued for processing", logMap);
+            } else {
+                objectionProcessor.process(objection, requestId);
+            }
+        }
+    }
 
-        logger.debugContext(requestId, "Objection exists, patching", logMap);
-        ObjectionStatus previousStatus = existingObjection.getStatus();
-        Objection objection = objectionPatcher.patchObjection(objectionPatch, requestId, existingObjection);
-        objectionRepository.save(objection);
+    @Override
+    public Objection getObjection(String requestId, String objectionId) throws ObjectionNotFoundException {
+        return findObjection(objectionId).orElseThrow(
+                () -> new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId))
+        );
+    }
 
-        // if changing status to SUBMITTED from OPEN, process the objection
-        if (ObjectionStatus.SUBMITTED == objectionPatch.getStatus() && ObjectionStatus.OPEN == previousStatus) {
-            objectionProcessor.process(objection, requestId);
+    @Override
+    public ObjectionSummary getObjectionSummary(String requestId, String objectionId)
+            throws ObjectionNotFoundException {
+        ObjectionSummary summary = objectionRepository.findSummaryById(objectionId);
+        if (summary == null) {
+            throw new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId));
         }
+        return summary;
     }
 
-    private void validatePatchStatusChange(ObjectionPatch objectionPatch,
-                                           Objection existingObjection,
-                                           String requestId,
-                                           String companyNumber) throws InvalidObjectionStatusException {
-        if (ObjectionStatus.SUBMITTED == objectionPatch.getStatus() && ObjectionStatus.OPEN != existingObjection.getStatus()) {
-            String objectionId = existingObjection.getId();
-
-            InvalidObjectionStatusException statusException = new InvalidObjectionStatusException(
-                    String.format(INVALID_PATCH_STATUS, objectionPatch.getStatus(), objectionId));
+    @Override
+    public ObjectionPage listObjections(String requestId,
+                                        String companyNumber,
+                                        Collection<ObjectionStatus> statuses,
+                                        String cursor,
+                                        Integer pageSize) throws InvalidCursorException {
+        Map<String, Object> logMap = buildLogMap(companyNumber, null, null);
+        logger.infoContext(requestId, "Listing objections", logMap);
+
+        ObjectionListCursor after = StringUtils.isBlank(cursor) ? null : ObjectionListCursor.decode(cursor);
+        int limit = listPageSize(pageSize);
+
+        // one more than a page is read to find out if there is a next page
+        List<Objection> objections = objectionRepository.findCompanyObjections(
+                companyNumber,
+                statuses,
+                after == null ? null : after.getCreatedOn(),
+                after == null ? null : after.getId(),
+                limit + 1);
+        if (objections.size() <= limit) {
+            return new ObjectionPage(objections, null);
+        }
 
-            Map<String, Object> logMap = buildLogMap(companyNumber, objectionId, null);
-            logger.errorContext(requestId, statusException.getMessage(), statusException, logMap);
+        List<Objection> page = new ArrayList<>(objections.subList(0, limit));
+        Objection last = page.get(limit - 1);
+        return new ObjectionPage(page, new ObjectionListCursor(last.getCreatedOn(), last.getId()).encode());
+    }
 
-            throw statusException;
+    private int listPageSize(Integer pageSize) {
+        if (pageSize == null || pageSize < 1) {
+            return Math.min(defaultListPageSize, maxListPageSize);
         }
+        return Math.min(pageSize, maxListPageSize);
     }
 
-    @Override
-    public Objection getObjection(String requestId, String objectionId) throws ObjectionNotFoundException {
-        return objectionRepository.findById(objectionId).orElseThrow(
-                () -> new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId))
-        );
+    /**
+     * @return the objection loaded earlier in the request, or else the objection read from the repository
+     */
+    private Optional<Objection> findObjection(String objectionId) {
+        Optional<Objection> objection = objectionContext.get(objectionId);
+        if (objection.isPresent()) {
+            return objection;
+        }
+
+        objection = objectionRepository.findById(objectionId);
+        objection.ifPresent(objectionContext::put);
+        return objection;
     }
 
     @Override
@@ -263,15 +436,14 @@ public class ObjectionService implements IObjectionService {
         }
 
         Attachment attachment = createAttachment(file, attachmentId);
-        Objection objection = objectionRepository.findById(objectionId).orElseThrow(
-                () -> new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId))
-        );
-        objection.addAttachment(attachment);
-
         Links links = createLinks(attachmentsUri + "/" + attachmentId, true);
         attachment.setLinks(links);
 
-        objectionRepository.save(objection);
+        boolean added = objectionRepository.addAttachment(objectionId, attachment);
+        objectionContext.evict(objectionId);
+        if (!added) {
+            throw new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId));
+        }
 
         return ServiceResult.accepted(attachmentId);
     }
@@ -283,14 +455,27 @@ public class ObjectionService implements IObjectionService {
             String objectionId,
             String attachmentId
     ) throws ObjectionNotFoundException, AttachmentNotFoundException {
-        Objection objection = objectionRepository.findById(objectionId).orElseThrow(
-                () -> new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId))
-        );
+        return findAttachment(objectionId, attachmentId);
+    }
 
-        List<Attachment> attachments = objection.getAttachments();
-        return attachments.parallelStream().filter(o -> attachmentId.equals(o.getId())).findFirst().orElseThrow(
-                () -> new AttachmentNotFoundException(String.format(ATTACHMENT_NOT_FOUND_MESSAGE, attachmentId))
-        );
+    /**
+     * Finds the attachment in the objection loaded earlier in the request, or else reads just the
+     * attachment from the repository
+     */
+    private Attachment findAttachment(String objectionId, String attachmentId)
+            throws ObjectionNotFoundException, AttachmentNotFoundException {
+        Optional<Objection> loadedObjection = objectionContext.get(objectionId);
+        Attachment attachment = loadedObjection.isPresent()
+                ? loadedObjection.get().getAttachment(attachmentId)
+                : objectionRepository.findAttachment(objectionId, attachmentId);
+
+        if (attachment == null) {
+            if (!loadedObjection.isPresent() && !objectionRepository.existsById(objectionId)) {
+                throw new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId));
+            }
+            throw new AttachmentNotFoundException(String.format(ATTACHMENT_NOT_FOUND_MESSAGE, attachmentId));
+        }
+        return attachment;
     }
 
     private Links createLinks(String selfLink, boolean createDownloadLink) {
@@ -317,7 +502,7 @@ public class ObjectionService implements IObjectionService {
         Map<String, Object> logMap = buildLogMap(companyNumber, objectionId, null);
         logger.infoContext(requestId, "Finding the objection", logMap);
 
-        Optional<Objection> objection = objectionRepository.findById(objectionId);
+        Optional<Objection> objection = findObjection(objectionId);
         if (objection.isPresent()) {
             logger.infoContext(requestId, "Objection exists, returning attachments", logMap);
             return objection.get().getAttachments();
@@ -331,24 +516,13 @@ public class ObjectionService implements IObjectionService {
     public void deleteAttachment(String requestId, String objectionId, String attachmentId)
             throws ObjectionNotFoundException, AttachmentNotFoundException, ServiceException {
 
-        Objection objection = objectionRepository.findById(objectionId).orElseThrow(
-                () -> new ObjectionNotFoundException(String.format(OBJECTION_NOT_FOUND_MESSAGE, objectionId))
-        );
-
-        List<Attachment> attachments = objection.getAttachments();
-        Attachment attachment = attachments.parallelStream().filter(o -> attachmentId.equals(o.getId())).findFirst().orElseThrow(
-                () -> new AttachmentNotFoundException(String.format(ATTACHMENT_NOT_FOUND_MESSAGE, attachmentId))
-        );
+        Attachment attachment = findAttachment(objectionId, attachmentId);
 
         Map<String, Object> logMap = buildLogMap(null, objectionId, attachmentId);
         deleteFromS3(requestId, attachmentId, logMap);
 
-        attachments.remove(attachment);
-
-        objection.setAttachments(attachments);
-
-        objectionRepository.save(objection);
-
+        objectionRepository.removeAttachment(objectionId, attachment.getId());
+        objectionContext.evict(objectionId);
     }
 
     private void deleteFromS3(String requestId, String attachmentId, Map<String, Object> logMap) throws ServiceException {
@@ -10,6 +10,7 @@ import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.Eligibili
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Component
 public class Gaz2RequestedValidator {
@@ -26,15 +27,34 @@ public class Gaz2RequestedValidator {
         this.apiLogger = apiLogger;
     }
 
+    /**
+     * @return true if companies with the action code are checked for a requested GAZ2
+     */
+    public boolean isGaz2Checked(Long actionCode) {
+        return actionCode != null && gaz1ActionCode == actionCode;
+    }
+
     public void validate(String companyNumber, Long actionCode, String logContext) throws ValidationException{
-        if (gaz1ActionCode == actionCode) {
+        validate(companyNumber, actionCode, () -> oracleQueryClient.getRequestedGaz2(companyNumber, logContext), logContext);
+    }
+
+    /**
+     * Validates using the supplied GAZ2 lookup rather than calling Oracle directly, allowing the
+     * caller to start the lookup early (e.g. alongside the action code lookup). The supplier is
+     * only used if the company has a GAZ1 action code.
+     */
+    public void validate(String companyNumber,
+                         Long actionCode,
+                         Supplier<String> requestedGaz2Lookup,
+                         String logContext) throws ValidationException {
+        if (isGaz2Checked(actionCode)) {
             Map<String, Object> logMap = new HashMap<>();
             logMap.put(LogConstants.COMPANY_NUMBER.getValue(), companyNumber);
             logMap.put(LogConstants.ACTION_CODE.getValue(), actionCode);
 
             apiLogger.debugContext(logContext, "Company action code is GAZ1, checking for requested GAZ2");
 
-            String requestedGaz2Result = oracleQueryClient.getRequestedGaz2(companyNumber, logContext);
+            String requestedGaz2Result = requestedGaz2Lookup.get();
 
             if (requestedGaz2Result != null) {
                 apiLogger.infoContext(logContext, "Company has a requested GAZ2 transaction ,failing validation", logMap);
@@ -1,5 +1,6 @@
 package uk.gov.companieshouse.api.strikeoffobjections.chips;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang.StringUtils;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
@@ -10,18 +11,21 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import uk.gov.companieshouse.api.strikeoffobjections.Application;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.common.AvroSerializer;
+import uk.gov.companieshouse.api.strikeoffobjections.common.JsonWriters;
+import uk.gov.companieshouse.api.strikeoffobjections.common.KafkaSpool;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.KafkaMessageSpooledException;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
 import uk.gov.companieshouse.api.strikeoffobjections.model.chips.ChipsRequest;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
 import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
 import uk.gov.companieshouse.chips.ChipsRestInterfacesSend;
 import uk.gov.companieshouse.kafka.message.Message;
-import uk.gov.companieshouse.kafka.producer.CHKafkaProducer;
 import uk.gov.companieshouse.service.ServiceException;
 
 import java.io.IOException;
@@ -30,16 +34,19 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -63,7 +70,7 @@ class ChipsKafkaClientTest {
     private static final Long TIMESTAMP = DATE_TIME.atZone(ZoneId.systemDefault()).toEpochSecond();
 
     @Mock
-    private CHKafkaProducer producer;
+    private KafkaSpool producer;
 
     @Mock
     private AvroSerializer avroSerializer;
@@ -71,11 +78,11 @@ class ChipsKafkaClientTest {
     @Mock
     private ApiLogger logger;
 
-    @Mock
-    private Supplier<LocalDateTime> dateTimeSupplier;
+    @Spy
+    private JsonWriters jsonWriters = new JsonWriters();
 
     @Mock
-    private Future<RecordMetadata> future;
+    private Supplier<LocalDateTime> dateTimeSupplier;
 
     private RecordMetadata recordMetadata;
 
@@ -109,8 +116,7 @@ class ChipsKafkaClientTest {
         final ChipsRequest chipsRequest = getChipsRequest();
 
         when(avroSerializer.serialize(any(ChipsRestInterfacesSend.class))).thenReturn(serializedData);
-        when(producer.sendAndReturnFuture(any(Message.class))).thenReturn(future);
-        when(future.get()).thenReturn(recordMetadata);
+        when(producer.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(recordMetadata));
 
         chipsKafkaClient.sendToChips(REQUEST_ID, chipsRequest);
 
@@ -137,14 +143,80 @@ class ChipsKafkaClientTest {
         assertTrue(chipsData.contains(REASON));
         assertTrue(chipsData.contains(DOWNLOAD_URL_PREFIX));
 
-        verify(producer, times(1)).sendAndReturnFuture(messageArgumentCaptor.capture());
+        verify(producer, times(1)).send(messageArgumentCaptor.capture());
 
         Message message = messageArgumentCaptor.getValue();
         assertEquals(serializedData, message.getValue());
         assertEquals(CHIPS_REST_INTERFACES_SEND_TOPIC, message.getTopic());
         assertEquals(TIMESTAMP, message.getTimestamp());
+    }
+
+    @Test
+    void testSendToChipsAsyncDoesNotWaitForAcknowledgement() throws ServiceException {
+        final ChipsRequest chipsRequest = getChipsRequest();
+        final CompletableFuture<RecordMetadata> ack = new CompletableFuture<>();
+
+        when(producer.send(any(Message.class))).thenReturn(ack);
+
+        CompletableFuture<RecordMetadata> result = chipsKafkaClient.sendToChipsAsync(REQUEST_ID, chipsRequest);
+
+        assertFalse(result.isDone());
+        ack.complete(recordMetadata);
+        assertEquals(recordMetadata, result.join());
+        verify(logger, times(1)).infoContext(eq(REQUEST_ID),
+                eq("Finished sending kafka message to Chips Rest Interfaces Consumer"), any());
+    }
+
+    @Test
+    void testSendToChipsWritesCompactJson() throws ServiceException, IOException, ExecutionException,
+            InterruptedException {
+        final ChipsRequest chipsRequest = getChipsRequest();
+
+        when(producer.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(recordMetadata));
+
+        chipsKafkaClient.sendToChips(REQUEST_ID, chipsRequest);
+
+        verify(avroSerializer, times(1)).serialize(chipsRestInterfacesSendArgumentCaptor.capture());
+        String chipsData = chipsRestInterfacesSendArgumentCaptor.getValue().getData();
+        assertEquals(jsonWriters.writeValueAsString(chipsRequest), chipsData);
+        assertFalse(chipsData.contains("\n"));
+    }
+
+    @Test
+    void testSendToChipsWithJsonStreaming() throws ServiceException, IOException, ExecutionException,
+            InterruptedException {
+        final ChipsRequest chipsRequest = getChipsRequest();
+        ReflectionTestUtils.setField(chipsKafkaClient, "isJsonStreamingEnabled", true);
+
+        when(producer.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(recordMetadata));
+
+        chipsKafkaClient.sendToChips(REQUEST_ID, chipsRequest);
+
+        verify(jsonWriters, times(1)).writeChipsRequest(chipsRequest);
+        verify(avroSerializer, times(1)).serialize(chipsRestInterfacesSendArgumentCaptor.capture());
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(objectMapper.readTree(jsonWriters.writeValueAsString(chipsRequest)),
+                objectMapper.readTree(chipsRestInterfacesSendArgumentCaptor.getValue().getData()));
+    }
+
+    @Test
+    void testSendToChipsThrowsWhenMessageIsSpooled() {
+        final ChipsRequest chipsRequest = getChipsRequest();
+        final KafkaMessageSpooledException spooledException =
+                new KafkaMessageSpooledException("spooled", null, new CompletableFuture<>());
+        final CompletableFuture<RecordMetadata> ack = new CompletableFuture<>();
+        ack.completeExceptionally(spooledException);
+
+        when(producer.send(any(Message.class))).thenReturn(ack);
+
+        // not sent yet, so the objection must stay retryable until the spool is drained
+        assertSame(spooledException, assertThrows(KafkaMessageSpooledException.class,
+                () -> chipsKafkaClient.sendToChips(REQUEST_ID, chipsRequest)));
 
-        verify(future, times(1)).get();
+        verify(logger, times(1)).infoContext(eq(REQUEST_ID),
+                eq("Spooled kafka message to Chips Rest Interfaces Consumer until Kafka is available"), any());
+        verify(logger, never()).infoContext(eq(REQUEST_ID),
+                eq("Finished sending kafka message to Chips Rest Interfaces Consumer"), any());
     }
 
     @Test
@@ -156,8 +228,7 @@ class ChipsKafkaClientTest {
         final String messageIdKey = "message_id";
         final String messageContentsKey = "message_contents";
 
-        when(producer.sendAndReturnFuture(any(Message.class))).thenReturn(future);
-        when(future.get()).thenReturn(recordMetadata);
+        when(producer.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(recordMetadata));
 
         chipsKafkaClient.sendToChips(REQUEST_ID, chipsRequest);
 
@@ -201,36 +272,37 @@ class ChipsKafkaClientTest {
     }
 
     @Test
-    void testSendToChipsExecutionExceptionHandling() throws ExecutionException, InterruptedException {
+    void testSendToChipsExecutionExceptionHandling() {
         final ChipsRequest chipsRequest = getChipsRequest();
-        final ExecutionException executionException = new ExecutionException("error", new Exception());
+        final Exception kafkaException = new Exception("error");
+        final CompletableFuture<RecordMetadata> ack = new CompletableFuture<>();
+        ack.completeExceptionally(kafkaException);
 
-        when(producer.sendAndReturnFuture(any(Message.class))).thenReturn(future);
-        doThrow(executionException).when(future).get();
+        when(producer.send(any(Message.class))).thenReturn(ack);
 
         ServiceException serviceException = assertThrows(ServiceException.class,
                 () -> chipsKafkaClient.sendToChips(REQUEST_ID, chipsRequest));
 
-        verify(logger, times(1)).errorContext(REQUEST_ID, executionException);
-        assertEquals(executionException.getMessage(), serviceException.getMessage());
-        assertEquals(executionException, serviceException.getCause());
+        assertTrue(serviceException.getCause() instanceof ExecutionException);
+        assertEquals(kafkaException, serviceException.getCause().getCause());
+        verify(logger, times(1)).errorContext(REQUEST_ID, (Exception) serviceException.getCause());
+        assertEquals(serviceException.getCause().getMessage(), serviceException.getMessage());
     }
 
     @Test
-    void testSendToChipsInterruptedExceptionHandling() throws ExecutionException, InterruptedException {
+    void testSendToChipsInterruptedExceptionHandling() {
         final ChipsRequest chipsRequest = getChipsRequest();
-        final InterruptedException interruptedException = new InterruptedException();
 
-        when(producer.sendAndReturnFuture(any(Message.class))).thenReturn(future);
-        doThrow(interruptedException).when(future).get();
+        when(producer.send(any(Message.class))).thenReturn(new CompletableFuture<>());
 
+        Thread.currentThread().interrupt();
         ServiceException serviceException = assertThrows(ServiceException.class,
                 () -> chipsKafkaClient.sendToChips(REQUEST_ID, chipsRequest));
 
         assertTrue(Thread.currentThread().isInterrupted());
-        verify(logger, times(1)).errorContext(REQUEST_ID, interruptedException);
+        assertTrue(serviceException.getCause() instanceof InterruptedException);
+        verify(logger, times(1)).errorContext(REQUEST_ID, (Exception) serviceException.getCause());
         assertTrue(serviceException.getMessage().contains("Thread Interrupted"));
-        assertEquals(interruptedException, serviceException.getCause());
     }
 
     private ChipsRequest getChipsRequest() {
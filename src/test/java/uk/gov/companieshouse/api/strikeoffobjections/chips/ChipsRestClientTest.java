@@ -2,14 +2,20 @@ package uk.gov.companieshouse.api.strikeoffobjections.chips;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.common.JsonWriters;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
 import uk.gov.companieshouse.api.strikeoffobjections.model.chips.ChipsRequest;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
@@ -18,6 +24,10 @@ import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -45,8 +55,14 @@ class ChipsRestClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private JsonWriters jsonWriters = new JsonWriters();
+
+    @Captor
+    private ArgumentCaptor<HttpEntity<byte[]>> httpEntityArgumentCaptor;
+
     @Test
-    void testSendMessageToChips() {
+    void testSendMessageToChips() throws Exception {
         Utils.setTestAttachmentsWithLinks(ATTACHMENTS);
         ReflectionTestUtils.setField(chipsRestClient, "chipsRestUrl", CHIPS_REST_URL);
         ChipsRequest chipsRequest = new ChipsRequest(
@@ -61,10 +77,16 @@ class ChipsRestClientTest {
                 DOWNLOAD_URL_PREFIX
         );
 
-        when(restTemplate.postForEntity(CHIPS_REST_URL, chipsRequest, String.class)).thenReturn(new ResponseEntity<>(HttpStatus.OK));
+        when(restTemplate.postForEntity(eq(CHIPS_REST_URL), any(HttpEntity.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
 
         chipsRestClient.sendToChips(REQUEST_ID, chipsRequest);
-        verify(restTemplate, times(1)).postForEntity(CHIPS_REST_URL, chipsRequest, String.class);
+        verify(restTemplate, times(1))
+                .postForEntity(eq(CHIPS_REST_URL), httpEntityArgumentCaptor.capture(), eq(String.class));
+
+        HttpEntity<byte[]> httpEntity = httpEntityArgumentCaptor.getValue();
+        assertEquals(MediaType.APPLICATION_JSON, httpEntity.getHeaders().getContentType());
+        assertArrayEquals(jsonWriters.writeValueAsBytes(chipsRequest), httpEntity.getBody());
     }
 
 }
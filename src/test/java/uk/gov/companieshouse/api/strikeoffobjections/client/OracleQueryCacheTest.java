@@ -0,0 +1,72 @@
+package uk.gov.companieshouse.api.strikeoffobjections.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Unit
+class OracleQueryCacheTest {
+
+    private static final String COMPANY_NUMBER = "12345678";
+    private static final Long ACTION_CODE = 5000L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OracleQueryCache oracleQueryCache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        oracleQueryCache = new OracleQueryCache(10, 60, 10, 60, meterRegistry);
+    }
+
+    @Test
+    void testActionCodeHitsAndMissesAreCounted() {
+        oracleQueryCache.getCompanyActionCode(COMPANY_NUMBER, key -> ACTION_CODE);
+        Long actionCode = oracleQueryCache.getCompanyActionCode(COMPANY_NUMBER, key -> {
+            throw new IllegalStateException("Loader should not be called for a cached company");
+        });
+
+        assertEquals(ACTION_CODE, actionCode);
+        assertEquals(1, oracleQueryCache.getActionCodeStats().hitCount());
+        assertEquals(1, oracleQueryCache.getActionCodeStats().missCount());
+    }
+
+    @Test
+    void testNullGaz2ResultIsCached() {
+        oracleQueryCache.getRequestedGaz2(COMPANY_NUMBER, key -> null);
+        String gaz2 = oracleQueryCache.getRequestedGaz2(COMPANY_NUMBER, key -> "GAZ2");
+
+        assertNull(gaz2);
+        assertEquals(1, oracleQueryCache.getRequestedGaz2Stats().hitCount());
+    }
+
+    @Test
+    void testRecentGaz1IsRememberedUntilActionCodeChanges() {
+        assertFalse(oracleQueryCache.isRecentGaz1(COMPANY_NUMBER));
+
+        oracleQueryCache.setRecentGaz1(COMPANY_NUMBER, true);
+        assertTrue(oracleQueryCache.isRecentGaz1(COMPANY_NUMBER));
+
+        oracleQueryCache.setRecentGaz1(COMPANY_NUMBER, false);
+        assertFalse(oracleQueryCache.isRecentGaz1(COMPANY_NUMBER));
+        assertEquals(1, oracleQueryCache.getRecentGaz1Stats().hitCount());
+        assertEquals(2, oracleQueryCache.getRecentGaz1Stats().missCount());
+    }
+
+    @Test
+    void testCacheMetricsAreRegistered() {
+        assertNotNull(meterRegistry.find("cache.gets")
+                .tag("cache", OracleQueryCache.ACTION_CODE_CACHE_NAME).meter());
+        assertNotNull(meterRegistry.find("cache.evictions")
+                .tag("cache", OracleQueryCache.GAZ2_REQUESTED_CACHE_NAME).meter());
+        assertNotNull(meterRegistry.find("cache.gets")
+                .tag("cache", OracleQueryCache.RECENT_GAZ1_CACHE_NAME).meter());
+    }
+}
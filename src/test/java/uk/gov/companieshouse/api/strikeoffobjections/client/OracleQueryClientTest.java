@@ -1,8 +1,13 @@
 package uk.gov.companieshouse.api.strikeoffobjections.client;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,6 +44,8 @@ class OracleQueryClientTest {
     @BeforeEach
     public void setup() {
         ReflectionTestUtils.setField(oracleQueryClient, "oracleQueryApiUrl", DUMMY_URL);
+        ReflectionTestUtils.setField(oracleQueryClient, "oracleQueryCache",
+                new OracleQueryCache(10, 60, 10, 60, new SimpleMeterRegistry()));
     }
 
     @Test
@@ -60,4 +67,30 @@ class OracleQueryClientTest {
 
         assertEquals(GAZ2_TRANSACTION, gaz2Transaction);
     }
+
+    @Test
+    void testActionCodeIsCachedPerCompany() {
+        when(restTemplate.getForEntity(DUMMY_URL + "/company/" + COMPANY_NUMBER + "/action-code", Long.class))
+                .thenReturn(new ResponseEntity<>(ACTION_CODE, HttpStatus.OK));
+
+        oracleQueryClient.getCompanyActionCode(COMPANY_NUMBER, REQUEST_ID);
+        Long actionCode = oracleQueryClient.getCompanyActionCode(COMPANY_NUMBER, REQUEST_ID);
+
+        assertEquals(ACTION_CODE, actionCode);
+        verify(restTemplate, times(1))
+                .getForEntity(DUMMY_URL + "/company/" + COMPANY_NUMBER + "/action-code", Long.class);
+    }
+
+    @Test
+    void testEmptyGaz2ResponseIsCached() {
+        when(restTemplate.getForEntity(DUMMY_URL + "/company/" + COMPANY_NUMBER + "/gaz2-requested", String.class))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        oracleQueryClient.getRequestedGaz2(COMPANY_NUMBER, REQUEST_ID);
+        String gaz2Transaction = oracleQueryClient.getRequestedGaz2(COMPANY_NUMBER, REQUEST_ID);
+
+        assertNull(gaz2Transaction);
+        verify(restTemplate, times(1))
+                .getForEntity(DUMMY_URL + "/company/" + COMPANY_NUMBER + "/gaz2-requested", String.class);
+    }
 }
@@ -0,0 +1,144 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.strikeoffobjections.config.KafkaProducerProfile;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.kafka.message.Message;
+import uk.gov.companieshouse.service.ServiceException;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Unit
+class AsyncKafkaProducerTest {
+
+    private static final String TOPIC = "email-send";
+
+    private final MockProducer<String, byte[]> producer =
+            new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AsyncKafkaProducer buildProducer(Producer<String, byte[]> producer, int maxInFlight) {
+        KafkaProducers kafkaProducers = new KafkaProducers(Collections.emptyMap(), Collections.emptyMap(),
+                KafkaProducerProfile.LOW_LATENCY, settings -> producer);
+        return new AsyncKafkaProducer(kafkaProducers, meterRegistry, maxInFlight, 0);
+    }
+
+    private Message message(String value) {
+        Message message = new Message();
+        message.setTopic(TOPIC);
+        message.setValue(value.getBytes());
+        return message;
+    }
+
+    private double inFlightGauge() {
+        return meterRegistry.get(AsyncKafkaProducer.IN_FLIGHT_METRIC_NAME).gauge().value();
+    }
+
+    private long ackLatencyCount(String outcome) {
+        return meterRegistry.get(AsyncKafkaProducer.ACK_LATENCY_METRIC_NAME).tag("outcome", outcome).timer().count();
+    }
+
+    @Test
+    void completesWithRecordMetadataWhenProducerCallsBack() throws Exception {
+        AsyncKafkaProducer asyncProducer = buildProducer(producer, 10);
+
+        CompletableFuture<RecordMetadata> result = asyncProducer.send(message("a"));
+
+        assertFalse(result.isDone());
+        assertEquals(1, asyncProducer.getInFlightCount());
+        assertEquals(1.0, inFlightGauge());
+        assertEquals(TOPIC, producer.history().get(0).topic());
+        assertArrayEquals("a".getBytes(), producer.history().get(0).value());
+
+        producer.completeNext();
+
+        assertEquals(TOPIC, result.get().topic());
+        assertEquals(0, asyncProducer.getInFlightCount());
+        assertEquals(1, ackLatencyCount("acknowledged"));
+        assertEquals(0, ackLatencyCount("failed"));
+    }
+
+    @Test
+    void sendsMessageKeyPartitionAndTimestamp() {
+        AsyncKafkaProducer asyncProducer = buildProducer(producer, 10);
+        Message message = message("a");
+        message.setKey("key");
+        message.setPartition(2);
+        message.setTimestamp(1611144000L);
+
+        asyncProducer.send(message);
+
+        ProducerRecord<String, byte[]> sent = producer.history().get(0);
+        assertEquals("key", sent.key());
+        assertEquals(Integer.valueOf(2), sent.partition());
+        assertEquals(Long.valueOf(1611144000000L), sent.timestamp());
+    }
+
+    @Test
+    void completesExceptionallyWhenSendFails() {
+        IllegalStateException brokerException = new IllegalStateException("broker unavailable");
+        AsyncKafkaProducer asyncProducer = buildProducer(producer, 10);
+
+        CompletableFuture<RecordMetadata> result = asyncProducer.send(message("a"));
+        producer.errorNext(brokerException);
+
+        ExecutionException executionException = assertThrows(ExecutionException.class, result::get);
+        assertEquals(brokerException, executionException.getCause());
+        assertEquals(0, asyncProducer.getInFlightCount());
+        assertEquals(1, ackLatencyCount("failed"));
+    }
+
+    @Test
+    void failsSendWhenInFlightWindowIsFull() throws Exception {
+        AsyncKafkaProducer asyncProducer = buildProducer(producer, 1);
+
+        CompletableFuture<RecordMetadata> first = asyncProducer.send(message("a"));
+        CompletableFuture<RecordMetadata> second = asyncProducer.send(message("b"));
+
+        ExecutionException executionException = assertThrows(ExecutionException.class, second::get);
+        assertTrue(executionException.getCause() instanceof ServiceException);
+        assertEquals(1, producer.history().size());
+
+        producer.completeNext();
+        first.get();
+
+        // the acknowledgement freed the slot
+        CompletableFuture<RecordMetadata> third = asyncProducer.send(message("c"));
+        producer.completeNext();
+        third.get();
+        assertEquals(2, producer.history().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void releasesSlotWhenProducerThrows() {
+        Producer<String, byte[]> closedProducer = mock(Producer.class);
+        when(closedProducer.send(any(), any())).thenThrow(new IllegalStateException("closed"));
+        AsyncKafkaProducer asyncProducer = buildProducer(closedProducer, 1);
+
+        CompletableFuture<RecordMetadata> result = asyncProducer.send(message("a"));
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, asyncProducer.getInFlightCount());
+    }
+}
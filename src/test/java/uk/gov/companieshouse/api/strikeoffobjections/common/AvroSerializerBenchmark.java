@@ -0,0 +1,112 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailContent;
+import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
+import uk.gov.companieshouse.chips.ChipsRestInterfacesSend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialises an email and a Chips message with the AvroSerializer, which reuses its datum
+ * writers, encoders and buffers, and by building them for each message as it used to. Run
+ * with the GC profiler, whose {@code gc.alloc.rate.norm} is the bytes allocated per message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AvroSerializerBenchmark {
+
+    private final AvroSerializer avroSerializer = new AvroSerializer(new JsonWriters());
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Schema emailSchema;
+    private EmailContent emailContent;
+    private ChipsRestInterfacesSend chipsMessage;
+
+    @Setup
+    public void setUp() throws IOException {
+        emailSchema = Utils.getDummySchema(getClass().getClassLoader().getResource("email/email-send.avsc"));
+        emailContent = Utils.buildEmailContent("strike-off-objections-api", "abc",
+                "strike_off_objections_application_submitted_external", Utils.getDummyEmailData(),
+                "example@test.co.uk", LocalDateTime.of(2020, 1, 1, 5, 0));
+
+        chipsMessage = new ChipsRestInterfacesSend();
+        chipsMessage.setAttempt(0);
+        chipsMessage.setChipsRestEndpoint("/rest/chipRest/etc");
+        chipsMessage.setCreatedAt("1577854800");
+        chipsMessage.setMessageId("abc");
+        chipsMessage.setAppId("strike-off-objections-api");
+        chipsMessage.setData("{\"objection_id\":\"abc\",\"company_number\":\"00001111\",\"reason\":\"Testing this\"}");
+    }
+
+    @Benchmark
+    public byte[] emailPooled() throws IOException {
+        return avroSerializer.serialize(emailContent, emailSchema);
+    }
+
+    @Benchmark
+    public byte[] emailPerMessage() throws IOException {
+        GenericRecord record = new GenericData.Record(emailSchema);
+        record.put("app_id", emailContent.getOriginatingAppId());
+        record.put("message_id", emailContent.getMessageId());
+        record.put("message_type", emailContent.getMessageType());
+        record.put("data", objectMapper.writeValueAsString(emailContent.getData()));
+        record.put("email_address", emailContent.getEmailAddress());
+        record.put("created_at", FormatUtils.formatTimestamp(emailContent.getCreatedAt()));
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(stream, null);
+        new GenericDatumWriter<GenericRecord>(emailSchema).write(record, encoder);
+        encoder.flush();
+        return stream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] chipsPooled() throws IOException {
+        return avroSerializer.serialize(chipsMessage);
+    }
+
+    @Benchmark
+    public byte[] chipsPerMessage() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(stream, null);
+        new SpecificDatumWriter<SpecificRecord>(chipsMessage.getSchema()).write(chipsMessage, encoder);
+        encoder.flush();
+        return stream.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AvroSerializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
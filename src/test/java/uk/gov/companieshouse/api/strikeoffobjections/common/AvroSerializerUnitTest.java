@@ -1,18 +1,30 @@
 package uk.gov.companieshouse.api.strikeoffobjections.common;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
 import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailContent;
 import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
 import uk.gov.companieshouse.chips.ChipsRestInterfacesSend;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -31,6 +43,9 @@ class AvroSerializerUnitTest {
     private static final String DUMMY_DATA = "{dummy:data,more:data}";
 
 
+    @Spy
+    private JsonWriters jsonWriters = new JsonWriters();
+
     @InjectMocks
     private AvroSerializer avroSerializer;
 
@@ -84,4 +99,86 @@ class AvroSerializerUnitTest {
         assertTrue(result.contains(APP_ID));
         assertTrue(result.contains(DUMMY_DATA));
     }
+
+    @Test
+    void testEmailContentBytesMatchUnpooledEncoding() throws IOException {
+        Schema schema = Utils.getDummySchema(this.getClass().getClassLoader().getResource(
+                "email/email-send.avsc"));
+        EmailContent emailContent = buildEmailContent(Utils.getDummyEmailData());
+
+        // the second call reuses the thread's buffer and encoder
+        avroSerializer.serialize(emailContent, schema);
+        byte[] byteArray = avroSerializer.serialize(emailContent, schema);
+
+        assertArrayEquals(serializeUnpooled(emailContent, schema), byteArray);
+    }
+
+    @Test
+    void testSpecificContentBytesMatchUnpooledEncoding() throws IOException {
+        ChipsRestInterfacesSend chipsMessage = new ChipsRestInterfacesSend();
+        chipsMessage.setAttempt(ATTEMPT);
+        chipsMessage.setChipsRestEndpoint(CHIPS_REST_ENDPOINT);
+        chipsMessage.setCreatedAt(CREATED_AT.toString());
+        chipsMessage.setMessageId(MESSAGE_ID);
+        chipsMessage.setAppId(APP_ID);
+        chipsMessage.setData(DUMMY_DATA);
+
+        avroSerializer.serialize(chipsMessage);
+        byte[] byteArray = avroSerializer.serialize(chipsMessage);
+
+        assertArrayEquals(serializeUnpooled(chipsMessage), byteArray);
+    }
+
+    @Test
+    void testSmallMessageAfterOversizedMessageIsNotCorrupted() throws IOException {
+        Schema schema = Utils.getDummySchema(this.getClass().getClassLoader().getResource(
+                "email/email-send.avsc"));
+        Map<String, Object> largeData = Utils.getDummyEmailData();
+        StringBuilder reason = new StringBuilder();
+        while (reason.length() <= AvroSerializer.MAX_RETAINED_BUFFER_SIZE) {
+            reason.append("A long reason. ");
+        }
+        largeData.put("reason", reason.toString());
+        EmailContent largeEmailContent = buildEmailContent(largeData);
+        EmailContent emailContent = buildEmailContent(Utils.getDummyEmailData());
+
+        assertArrayEquals(serializeUnpooled(largeEmailContent, schema),
+                avroSerializer.serialize(largeEmailContent, schema));
+        assertArrayEquals(serializeUnpooled(emailContent, schema),
+                avroSerializer.serialize(emailContent, schema));
+    }
+
+    private EmailContent buildEmailContent(Map<String, Object> data) {
+        return Utils.buildEmailContent(
+                APP_ID,
+                MESSAGE_ID,
+                EMAIL_TEMPLATE_MESSAGE_TYPE,
+                data,
+                RECIPIENT,
+                CREATED_AT);
+    }
+
+    private byte[] serializeUnpooled(EmailContent emailContent, Schema schema) throws IOException {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("app_id", emailContent.getOriginatingAppId());
+        record.put("message_id", emailContent.getMessageId());
+        record.put("message_type", emailContent.getMessageType());
+        record.put("data", new ObjectMapper().writeValueAsString(emailContent.getData()));
+        record.put("email_address", emailContent.getEmailAddress());
+        record.put("created_at", FormatUtils.formatTimestamp(emailContent.getCreatedAt()));
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(stream, null);
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+        encoder.flush();
+        return stream.toByteArray();
+    }
+
+    private byte[] serializeUnpooled(SpecificRecord data) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(stream, null);
+        new SpecificDatumWriter<SpecificRecord>(data.getSchema()).write(data, encoder);
+        encoder.flush();
+        return stream.toByteArray();
+    }
 }
@@ -0,0 +1,79 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.companieshouse.api.strikeoffobjections.model.chips.ChipsRequest;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
+import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a Chips request as JSON three ways: with a pretty printing writer built for each
+ * request as the Chips client used to, with the shared compact writer, and streamed field by
+ * field. The size of each variant's JSON is printed when the benchmark starts, so the saving
+ * from compact output can be read next to the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonWritersBenchmark {
+
+    private final JsonWriters jsonWriters = new JsonWriters();
+    private ChipsRequest chipsRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Attachment> attachments = new ArrayList<>();
+        Utils.setTestAttachmentsWithLinks(attachments);
+        chipsRequest = new ChipsRequest("OBJECTION_ID", "12345678", attachments, "OBJECTION_ID", "Joe Bloggs",
+                true, "test123@ch.gov.uk", "This is a test, with \"quotes\" and a\nnew line",
+                "http://chs-test-web:4000/strike-off-objections/download");
+
+        System.out.printf("Chips request JSON bytes: prettyWriterPerRequest %d, sharedWriter %d, streamed %d%n",
+                utf8Length(prettyWriterPerRequest()), utf8Length(sharedWriter()), utf8Length(streamed()));
+    }
+
+    @Benchmark
+    public String prettyWriterPerRequest() throws JsonProcessingException {
+        return new ObjectMapper().writer().withDefaultPrettyPrinter().writeValueAsString(chipsRequest);
+    }
+
+    @Benchmark
+    public String sharedWriter() throws JsonProcessingException {
+        return jsonWriters.writeValueAsString(chipsRequest);
+    }
+
+    @Benchmark
+    public String streamed() throws IOException {
+        return jsonWriters.writeChipsRequest(chipsRequest);
+    }
+
+    private static int utf8Length(String json) {
+        return json.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonWritersBenchmark.class.getSimpleName()).build()).run();
+    }
+}
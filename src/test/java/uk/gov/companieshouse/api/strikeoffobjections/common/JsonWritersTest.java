@@ -0,0 +1,95 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.chips.ChipsRequest;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
+import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Unit
+class JsonWritersTest {
+
+    private static final String OBJECTION_ID = "OBJECTION_ID";
+    private static final String COMPANY_NUMBER = "12345678";
+    private static final String FULL_NAME = "Joe Bloggs";
+    private static final String CUSTOMER_EMAIL = "test123@ch.gov.uk";
+    private static final String REASON = "This is a test, with \"quotes\" and a\nnew line";
+    private static final String DOWNLOAD_URL_PREFIX = "http://chs-test-web:4000/strike-off-objections/download";
+
+    private final JsonWriters jsonWriters = new JsonWriters();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesCompactJson() throws IOException {
+        ChipsRequest chipsRequest = getChipsRequest();
+
+        String json = jsonWriters.writeValueAsString(chipsRequest);
+        String prettyJson = new ObjectMapper().writer().withDefaultPrettyPrinter().writeValueAsString(chipsRequest);
+
+        assertEquals(objectMapper.readTree(prettyJson), objectMapper.readTree(json));
+        assertTrue(json.length() < prettyJson.length());
+        assertFalse(json.contains(" \""));
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), jsonWriters.writeValueAsBytes(chipsRequest));
+    }
+
+    @Test
+    void streamedChipsRequestMatchesObjectWriter() throws IOException {
+        ChipsRequest chipsRequest = getChipsRequest();
+
+        String streamedJson = jsonWriters.writeChipsRequest(chipsRequest);
+
+        // CHIPS receives the same bytes whichever writer is used, field order and escaping included
+        assertEquals(jsonWriters.writeValueAsString(chipsRequest), streamedJson);
+    }
+
+    @Test
+    void streamedChipsRequestMatchesObjectWriterWhenTextNeedsEscaping() throws IOException {
+        List<Attachment> attachments = new ArrayList<>();
+        Utils.setTestAttachmentsWithLinks(attachments);
+        ChipsRequest chipsRequest = new ChipsRequest(OBJECTION_ID, COMPANY_NUMBER, attachments, OBJECTION_ID,
+                "Zo\u00eb O'Brien-\u0141ukasz", false, CUSTOMER_EMAIL,
+                "Tab\t, back\\slash, </script>, control \u0001, pound \u00a3 and emoji \uD83D\uDE00",
+                DOWNLOAD_URL_PREFIX);
+
+        assertEquals(jsonWriters.writeValueAsString(chipsRequest), jsonWriters.writeChipsRequest(chipsRequest));
+    }
+
+    @Test
+    void streamedChipsRequestLeavesOutNullFields() throws IOException {
+        ChipsRequest chipsRequest = new ChipsRequest(OBJECTION_ID, COMPANY_NUMBER, null, null, null, null,
+                CUSTOMER_EMAIL, null, DOWNLOAD_URL_PREFIX);
+
+        String streamedJson = jsonWriters.writeChipsRequest(chipsRequest);
+
+        assertEquals(objectMapper.readTree(jsonWriters.writeValueAsString(chipsRequest)),
+                objectMapper.readTree(streamedJson));
+        assertFalse(streamedJson.contains("null"));
+    }
+
+    private ChipsRequest getChipsRequest() {
+        List<Attachment> attachments = new ArrayList<>();
+        Utils.setTestAttachmentsWithLinks(attachments);
+        return new ChipsRequest(
+                OBJECTION_ID,
+                COMPANY_NUMBER,
+                attachments,
+                OBJECTION_ID,
+                FULL_NAME,
+                true,
+                CUSTOMER_EMAIL,
+                REASON,
+                DOWNLOAD_URL_PREFIX
+        );
+    }
+}
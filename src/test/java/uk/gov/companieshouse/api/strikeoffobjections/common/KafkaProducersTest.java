@@ -0,0 +1,91 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.strikeoffobjections.config.KafkaProducerProfile;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@Unit
+class KafkaProducersTest {
+
+    private static final String EMAIL_TOPIC = "email-send";
+    private static final String CHIPS_TOPIC = "chips-rest-interfaces-send";
+    private static final String BROKERS = "kafka:9092";
+
+    private final List<Map<String, Object>> builtSettings = new ArrayList<>();
+
+    private KafkaProducers buildProducers(KafkaProducerProfile emailProfile, KafkaProducerProfile chipsProfile) {
+        Map<String, Object> commonSettings = new HashMap<>();
+        commonSettings.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, BROKERS);
+        Map<String, KafkaProducerProfile> topicProfiles = new HashMap<>();
+        topicProfiles.put(EMAIL_TOPIC, emailProfile);
+        topicProfiles.put(CHIPS_TOPIC, chipsProfile);
+        return new KafkaProducers(commonSettings, topicProfiles, KafkaProducerProfile.LOW_LATENCY, settings -> {
+            builtSettings.add(settings);
+            return new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        });
+    }
+
+    @Test
+    void buildsOneProducerPerProfileInUse() {
+        KafkaProducers kafkaProducers = buildProducers(KafkaProducerProfile.LOW_LATENCY,
+                KafkaProducerProfile.LOW_LATENCY);
+
+        assertEquals(1, builtSettings.size());
+        assertSame(kafkaProducers.getProducer(EMAIL_TOPIC), kafkaProducers.getProducer(CHIPS_TOPIC));
+    }
+
+    @Test
+    void routesEachTopicToItsProfilesProducer() {
+        KafkaProducers kafkaProducers = buildProducers(KafkaProducerProfile.HIGH_THROUGHPUT,
+                KafkaProducerProfile.LOW_LATENCY);
+
+        assertEquals(2, builtSettings.size());
+        assertEquals(KafkaProducerProfile.HIGH_THROUGHPUT, kafkaProducers.getProfile(EMAIL_TOPIC));
+        assertEquals(KafkaProducerProfile.LOW_LATENCY, kafkaProducers.getProfile(CHIPS_TOPIC));
+        assertEquals(KafkaProducerProfile.LOW_LATENCY, kafkaProducers.getProfile("other-topic"));
+        Producer<String, byte[]> emailProducer = kafkaProducers.getProducer(EMAIL_TOPIC);
+        assertNotSame(emailProducer, kafkaProducers.getProducer(CHIPS_TOPIC));
+        assertSame(kafkaProducers.getProducer(CHIPS_TOPIC), kafkaProducers.getProducer("other-topic"));
+    }
+
+    @Test
+    void profileSettingsAreAddedToCommonSettings() {
+        buildProducers(KafkaProducerProfile.HIGH_THROUGHPUT, KafkaProducerProfile.HIGH_THROUGHPUT);
+
+        Map<String, Object> highThroughput = builtSettings.get(1);
+        assertEquals(BROKERS, highThroughput.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals(20, highThroughput.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("lz4", highThroughput.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals(0, builtSettings.get(0).get(ProducerConfig.LINGER_MS_CONFIG));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void describesTopicsAndEffectiveSettings() {
+        KafkaProducers kafkaProducers = buildProducers(KafkaProducerProfile.HIGH_THROUGHPUT,
+                KafkaProducerProfile.LOW_LATENCY);
+
+        Map<String, Object> description = kafkaProducers.describe();
+
+        assertEquals(KafkaProducerProfile.LOW_LATENCY, description.get("default_profile"));
+        Map<String, KafkaProducerProfile> topics = (Map<String, KafkaProducerProfile>) description.get("topics");
+        assertEquals(KafkaProducerProfile.HIGH_THROUGHPUT, topics.get(EMAIL_TOPIC));
+        Map<KafkaProducerProfile, Map<String, Object>> profiles =
+                (Map<KafkaProducerProfile, Map<String, Object>>) description.get("profiles");
+        assertEquals(64 * 1024, profiles.get(KafkaProducerProfile.HIGH_THROUGHPUT).get(ProducerConfig.BATCH_SIZE_CONFIG));
+    }
+}
@@ -0,0 +1,339 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.NetworkException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.KafkaMessageSpooledException;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.kafka.message.Message;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Unit
+@ExtendWith(MockitoExtension.class)
+class KafkaSpoolTest {
+
+    private static final String TOPIC = "email-send";
+    private static final int SEGMENT_BYTES = 1024;
+    private static final RecordMetadata RECORD_METADATA =
+            new RecordMetadata(new TopicPartition(TOPIC, 0), 0, 0, 0, 0L, 0, 0);
+
+    @TempDir
+    Path spoolDir;
+
+    @Mock
+    private AsyncKafkaProducer producer;
+
+    @Mock
+    private ApiLogger apiLogger;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private KafkaSpool buildSpool(boolean isSpoolEnabled) throws IOException {
+        return new KafkaSpool(producer, apiLogger, meterRegistry, isSpoolEnabled, spoolDir.toString(),
+                SEGMENT_BYTES, KafkaSpool.FsyncPolicy.ALWAYS);
+    }
+
+    private Message message(String value) {
+        Message message = new Message();
+        message.setTopic(TOPIC);
+        message.setValue(value.getBytes());
+        return message;
+    }
+
+    private static CompletableFuture<RecordMetadata> unavailable() {
+        CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        future.completeExceptionally(new NetworkException("broker unavailable"));
+        return future;
+    }
+
+    private static CompletableFuture<RecordMetadata> rejected() {
+        CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        future.completeExceptionally(new RecordTooLargeException("message too large"));
+        return future;
+    }
+
+    private static CompletableFuture<RecordMetadata> acknowledged() {
+        return CompletableFuture.completedFuture(RECORD_METADATA);
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            return files.filter(path -> path.toString().endsWith(KafkaSpool.SEGMENT_SUFFIX)).count();
+        }
+    }
+
+    private static KafkaMessageSpooledException spooled(CompletableFuture<RecordMetadata> result) {
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertTrue(e.getCause() instanceof KafkaMessageSpooledException);
+        return (KafkaMessageSpooledException) e.getCause();
+    }
+
+    private List<String> replayedValues(int expected) {
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(producer, times(expected)).send(sent.capture());
+        return sent.getAllValues().stream().map(message -> new String(message.getValue())).collect(Collectors.toList());
+    }
+
+    @Test
+    void sendsDirectlyWhenSpoolDisabled() throws IOException {
+        CompletableFuture<RecordMetadata> failed = unavailable();
+        when(producer.send(any())).thenReturn(failed);
+
+        KafkaSpool spool = buildSpool(false);
+
+        assertSame(failed, spool.send(message("a")));
+        spool.drain();
+        assertEquals(0, spool.getDepth());
+        assertEquals(0, segmentFiles());
+    }
+
+    @Test
+    void sendsDirectlyWhenNothingIsSpooled() throws Exception {
+        when(producer.send(any())).thenReturn(acknowledged());
+
+        KafkaSpool spool = buildSpool(true);
+
+        assertEquals(RECORD_METADATA, spool.send(message("a")).get());
+        assertEquals(0, spool.getDepth());
+    }
+
+    @Test
+    void spoolsMessageWhenSendFails() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable());
+
+        KafkaSpool spool = buildSpool(true);
+
+        KafkaMessageSpooledException e = spooled(spool.send(message("a")));
+
+        assertFalse(e.getReplayed().isDone());
+        assertTrue(spool.isSpooling());
+        assertEquals(1, spool.getDepth());
+        assertEquals(1, segmentFiles());
+        assertEquals(1.0, meterRegistry.get(KafkaSpool.DEPTH_METRIC_NAME).gauge().value());
+        assertEquals(1.0, meterRegistry.get(KafkaSpool.APPENDED_METRIC_NAME).counter().count());
+    }
+
+    @Test
+    void failsWithoutSpoolingWhenSendFailsWithErrorThatIsNotRetriable() throws Exception {
+        when(producer.send(any())).thenReturn(rejected());
+
+        KafkaSpool spool = buildSpool(true);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> spool.send(message("a")).get());
+
+        assertTrue(e.getCause() instanceof RecordTooLargeException);
+        assertFalse(spool.isSpooling());
+        assertEquals(0, spool.getDepth());
+        assertEquals(0, segmentFiles());
+    }
+
+    @Test
+    void spoolsMessageWhenSendTimesOut() throws Exception {
+        CompletableFuture<RecordMetadata> timedOut = new CompletableFuture<>();
+        timedOut.completeExceptionally(new TimeoutException("no acknowledgement"));
+        when(producer.send(any())).thenReturn(timedOut);
+
+        KafkaSpool spool = buildSpool(true);
+
+        spooled(spool.send(message("a")));
+        assertEquals(1, spool.getDepth());
+    }
+
+    @Test
+    void spoolsBehindSpooledMessagesToKeepOrder() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable());
+
+        KafkaSpool spool = buildSpool(true);
+        spooled(spool.send(message("a")));
+        spooled(spool.send(message("b")));
+
+        // only the first message was tried before the spool had anything in it
+        verify(producer, times(1)).send(any());
+        assertEquals(2, spool.getDepth());
+    }
+
+    @Test
+    void completesReplayedOnceSpooledMessageIsSent() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable(), acknowledged(), unavailable());
+
+        KafkaSpool spool = buildSpool(true);
+        KafkaMessageSpooledException a = spooled(spool.send(message("a")));
+        KafkaMessageSpooledException b = spooled(spool.send(message("b")));
+
+        // a replays, b fails again
+        spool.drain();
+
+        assertTrue(a.getReplayed().isDone());
+        assertFalse(b.getReplayed().isDone());
+    }
+
+    @Test
+    void sendsDirectlyAgainOnceSpoolIsDrained() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable(), acknowledged());
+
+        KafkaSpool spool = buildSpool(true);
+        spooled(spool.send(message("a")));
+        spool.drain();
+
+        assertFalse(spool.isSpooling());
+        assertEquals(RECORD_METADATA, spool.send(message("b")).get());
+        assertEquals(0, spool.getDepth());
+    }
+
+    @Test
+    void drainReplaysInOrderAndDeletesSegments() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable(), acknowledged());
+
+        KafkaSpool spool = buildSpool(true);
+        for (int i = 0; i < 30; i++) {
+            spooled(spool.send(message(String.format("message-%02d-%s", i, new String(new char[50]).replace('\0', 'x')))));
+        }
+        assertTrue(segmentFiles() > 1);
+
+        spool.drain();
+
+        List<String> sent = replayedValues(31);
+        for (int i = 0; i < 30; i++) {
+            assertTrue(sent.get(i + 1).startsWith(String.format("message-%02d-", i)));
+        }
+        assertEquals(0, spool.getDepth());
+        assertEquals(0, segmentFiles());
+        assertEquals(30.0, meterRegistry.get(KafkaSpool.REPLAYED_METRIC_NAME).counter().count());
+    }
+
+    @Test
+    void drainStopsAtFirstMessageThatStillCannotBeSent() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable(), acknowledged(), unavailable());
+
+        KafkaSpool spool = buildSpool(true);
+        spooled(spool.send(message("a")));
+        spooled(spool.send(message("b")));
+
+        // a replays, b fails again
+        spool.drain();
+
+        assertEquals(1, spool.getDepth());
+        verify(apiLogger).errorContext(any(), any(), any(Exception.class));
+        verify(producer, times(3)).send(any());
+    }
+
+    @Test
+    void drainDeadLettersMessageThatCanNeverBeSent() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable(), rejected(), acknowledged());
+
+        KafkaSpool spool = buildSpool(true);
+        KafkaMessageSpooledException a = spooled(spool.send(message("a")));
+        KafkaMessageSpooledException b = spooled(spool.send(message("b")));
+
+        // a is rejected and dead lettered, so b replays behind it
+        spool.drain();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> a.getReplayed().get());
+        assertTrue(e.getCause() instanceof RecordTooLargeException);
+        assertTrue(b.getReplayed().isDone());
+        assertFalse(spool.isSpooling());
+        assertEquals(0, spool.getDepth());
+        assertEquals("b", replayedValues(3).get(2));
+        assertTrue(Files.size(spoolDir.resolve(KafkaSpool.DEAD_LETTER_FILE_NAME)) > 0);
+        assertEquals(1.0, meterRegistry.get(KafkaSpool.DEAD_LETTERED_METRIC_NAME).counter().count());
+        assertEquals(1.0, meterRegistry.get(KafkaSpool.REPLAYED_METRIC_NAME).counter().count());
+    }
+
+    @Test
+    void recoversSpooledMessagesAfterRestart() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable());
+        KafkaSpool spool = buildSpool(true);
+        spooled(spool.send(message("a")));
+        spooled(spool.send(message("b")));
+
+        when(producer.send(any())).thenReturn(acknowledged());
+        KafkaSpool restarted = buildSpool(true);
+        assertEquals(2, restarted.getDepth());
+        assertTrue(restarted.isSpooling());
+
+        restarted.drain();
+
+        List<String> sent = replayedValues(3);
+        assertEquals("a", sent.get(1));
+        assertEquals("b", sent.get(2));
+        assertEquals(0, restarted.getDepth());
+    }
+
+    @Test
+    void replaysMessageWithItsTimestampPartitionAndKey() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable(), acknowledged());
+        Message message = message("a");
+        message.setTimestamp(1607587200L);
+        message.setPartition(3);
+        message.setKey("OBJECTION_ID");
+
+        KafkaSpool spool = buildSpool(true);
+        spooled(spool.send(message));
+        spool.drain();
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(producer, times(2)).send(sent.capture());
+        Message replayed = sent.getAllValues().get(1);
+        assertEquals(TOPIC, replayed.getTopic());
+        assertEquals(Long.valueOf(1607587200L), replayed.getTimestamp());
+        assertEquals(Integer.valueOf(3), replayed.getPartition());
+        assertEquals("OBJECTION_ID", replayed.getKey());
+        assertEquals("a", new String(replayed.getValue()));
+    }
+
+    @Test
+    void replaysMessageWithoutTimestampPartitionOrKey() throws Exception {
+        when(producer.send(any())).thenReturn(unavailable(), acknowledged());
+
+        KafkaSpool spool = buildSpool(true);
+        spooled(spool.send(message("a")));
+        spool.drain();
+
+        ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+        verify(producer, times(2)).send(sent.capture());
+        Message replayed = sent.getAllValues().get(1);
+        assertNull(replayed.getTimestamp());
+        assertNull(replayed.getPartition());
+        assertNull(replayed.getKey());
+        assertEquals("a", new String(replayed.getValue()));
+    }
+
+    @Test
+    void doesNothingWhenDrainingEmptySpool() throws IOException {
+        KafkaSpool spool = buildSpool(true);
+
+        spool.drain();
+
+        verifyNoInteractions(producer);
+    }
+}
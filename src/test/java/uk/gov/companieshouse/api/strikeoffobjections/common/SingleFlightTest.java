@@ -0,0 +1,107 @@
+package uk.gov.companieshouse.api.strikeoffobjections.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Unit
+class SingleFlightTest {
+
+    private static final String KEY = "12345678";
+    private static final String VALUE = "5000";
+
+    private SingleFlight<String, String> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        singleFlight = new SingleFlight<>();
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallsShareOneInFlightCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<String> first = executor.submit(() -> singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+            return VALUE;
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        Future<String> second = executor.submit(() -> singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            return "not shared";
+        }));
+        waitForCoalescedCount(1);
+        release.countDown();
+
+        assertEquals(VALUE, first.get(5, TimeUnit.SECONDS));
+        assertEquals(VALUE, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testFailureIsSharedAndNotRetained() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Oracle unavailable");
+
+        Future<String> first = executor.submit(() -> singleFlight.execute(KEY, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            throw failure;
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        Future<String> second = executor.submit(() -> singleFlight.execute(KEY, () -> VALUE));
+        waitForCoalescedCount(1);
+        release.countDown();
+
+        ExecutionException firstException = assertThrows(ExecutionException.class,
+                () -> first.get(5, TimeUnit.SECONDS));
+        ExecutionException secondException = assertThrows(ExecutionException.class,
+                () -> second.get(5, TimeUnit.SECONDS));
+        assertSame(failure, firstException.getCause());
+        assertSame(failure, secondException.getCause());
+
+        assertEquals(VALUE, singleFlight.execute(KEY, () -> VALUE));
+    }
+
+    private void waitForCoalescedCount(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (singleFlight.getCoalescedCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@Unit
+class HttpClientConfigTest {
+
+    private static final String ORACLE_URL = "http://oracle-query-api:8080";
+    private static final String FILE_TRANSFER_URL = "https://file-transfer.example.com/strike-off-objections/files";
+    private static final int CONNECT_TIMEOUT = 2000;
+    private static final int DEFAULT_READ_TIMEOUT = 10000;
+    private static final int POOL_TIMEOUT = 1000;
+
+    private final HttpClientConfig httpClientConfig = new HttpClientConfig();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private List<DownstreamProfile> profiles;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private RequestConfig defaultRequestConfig;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setup() {
+        profiles = Arrays.asList(
+                httpClientConfig.oracleQueryApiProfile(ORACLE_URL, 3000, 20),
+                httpClientConfig.fileTransferApiProfile(FILE_TRANSFER_URL, 30000, 5),
+                // shares the oracle host, so the oracle profile should win
+                httpClientConfig.schemaRegistryProfile("http://oracle-query-api:8080/schemas", 500, 1));
+        connectionManager = httpClientConfig.httpClientConnectionManager(100, 10, profiles, meterRegistry);
+        defaultRequestConfig = httpClientConfig.defaultRequestConfig(CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, POOL_TIMEOUT);
+        httpClient = httpClientConfig.httpClient(connectionManager, defaultRequestConfig);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+    }
+
+    @Test
+    void willApplyConnectionLimitsPerDownstream() {
+        assertEquals(100, connectionManager.getMaxTotal());
+        assertEquals(10, connectionManager.getDefaultMaxPerRoute());
+        assertEquals(20, connectionManager.getMaxPerRoute(profiles.get(0).getRoute()));
+        assertEquals(5, connectionManager.getMaxPerRoute(profiles.get(1).getRoute()));
+    }
+
+    @Test
+    void willApplyReadTimeoutOfDownstream() {
+        DownstreamRequestFactory requestFactory = (DownstreamRequestFactory) httpClientConfig
+                .clientHttpRequestFactory(httpClient, defaultRequestConfig, profiles);
+
+        HttpClientContext oracleContext = (HttpClientContext) requestFactory.createHttpContext(
+                HttpMethod.GET, URI.create(ORACLE_URL + "/company/00006400/action-code"));
+        HttpClientContext fileTransferContext = (HttpClientContext) requestFactory.createHttpContext(
+                HttpMethod.GET, URI.create("https://FILE-TRANSFER.example.com:443/strike-off-objections/files/123"));
+
+        assertEquals(3000, oracleContext.getRequestConfig().getSocketTimeout());
+        assertEquals(CONNECT_TIMEOUT, oracleContext.getRequestConfig().getConnectTimeout());
+        assertEquals(POOL_TIMEOUT, oracleContext.getRequestConfig().getConnectionRequestTimeout());
+        assertEquals(30000, fileTransferContext.getRequestConfig().getSocketTimeout());
+    }
+
+    @Test
+    void willUseDefaultTimeoutsForUnknownHost() {
+        DownstreamRequestFactory requestFactory = (DownstreamRequestFactory) httpClientConfig
+                .clientHttpRequestFactory(httpClient, defaultRequestConfig, profiles);
+
+        assertNull(requestFactory.createHttpContext(HttpMethod.GET, URI.create("http://unknown:8080/path")));
+    }
+
+    @Test
+    void willRegisterPoolMetrics() {
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.connections").gauge());
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.pending").gauge());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.route.connections")
+                .tag("downstream", "oracle-query-api")
+                .tag("state", "leased")
+                .gauge().value());
+    }
+}
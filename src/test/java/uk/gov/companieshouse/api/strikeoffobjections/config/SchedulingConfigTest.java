@@ -0,0 +1,40 @@
+package uk.gov.companieshouse.api.strikeoffobjections.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Unit
+class SchedulingConfigTest {
+
+    @Test
+    void jobRunsWhileAnotherJobIsBlocked() throws InterruptedException {
+        ThreadPoolTaskScheduler scheduler = new SchedulingConfig().taskScheduler(2);
+        scheduler.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch ran = new CountDownLatch(1);
+        try {
+            assertEquals(2, scheduler.getPoolSize());
+
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 1000);
+            scheduler.scheduleWithFixedDelay(ran::countDown, 1000);
+
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package uk.gov.companieshouse.api.strikeoffobjections.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.EligibilityBatchRequest;
+import uk.gov.companieshouse.api.strikeoffobjections.service.IEligibilityService;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Unit
+@ExtendWith(MockitoExtension.class)
+class EligibilityControllerTest {
+
+    private static final String REQUEST_ID = "87654321";
+    private static final int MAX_BATCH_SIZE = 3;
+
+    @Mock
+    private IEligibilityService eligibilityService;
+
+    @Mock
+    private ApiLogger apiLogger;
+
+    private EligibilityController eligibilityController;
+
+    @BeforeEach
+    void setup() {
+        eligibilityController = new EligibilityController(
+                eligibilityService, apiLogger, new ObjectMapper(), MAX_BATCH_SIZE, 1000L);
+    }
+
+    @Test
+    void willStreamEligibilityResults() {
+        EligibilityBatchRequest request = new EligibilityBatchRequest();
+        request.setCompanyNumbers(Arrays.asList("00000001", "00000002"));
+        when(eligibilityService.checkEligibility(anyList(), eq(REQUEST_ID), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        ResponseEntity<ResponseBodyEmitter> response = eligibilityController.checkEligibility(request, REQUEST_ID);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(EligibilityController.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertNotNull(response.getBody());
+        verify(eligibilityService).checkEligibility(eq(request.getCompanyNumbers()), eq(REQUEST_ID), any());
+    }
+
+    @Test
+    void willRejectEmptyBatch() {
+        EligibilityBatchRequest request = new EligibilityBatchRequest();
+        request.setCompanyNumbers(Collections.emptyList());
+
+        ResponseEntity<ResponseBodyEmitter> response = eligibilityController.checkEligibility(request, REQUEST_ID);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(eligibilityService);
+    }
+
+    @Test
+    void willRejectMissingCompanyNumbers() {
+        ResponseEntity<ResponseBodyEmitter> response =
+                eligibilityController.checkEligibility(new EligibilityBatchRequest(), REQUEST_ID);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(eligibilityService);
+    }
+
+    @Test
+    void willRejectBatchOverMaximumSize() {
+        EligibilityBatchRequest request = new EligibilityBatchRequest();
+        request.setCompanyNumbers(Arrays.asList("00000001", "00000002", "00000003", "00000004"));
+
+        ResponseEntity<ResponseBodyEmitter> response = eligibilityController.checkEligibility(request, REQUEST_ID);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(eligibilityService);
+    }
+}
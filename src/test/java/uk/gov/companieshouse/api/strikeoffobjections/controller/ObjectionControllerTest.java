@@ -17,6 +17,7 @@ import org.springframework.web.multipart.MultipartFile;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.common.LogConstants;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.AttachmentNotFoundException;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidCursorException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidObjectionStatusException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.ObjectionNotFoundException;
 import uk.gov.companieshouse.api.strikeoffobjections.file.FileTransferApiClientResponse;
@@ -28,10 +29,13 @@ import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.CreatedBy;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.list.ObjectionPage;
 import uk.gov.companieshouse.api.strikeoffobjections.model.patch.ObjectionPatch;
 import uk.gov.companieshouse.api.strikeoffobjections.model.response.AttachmentResponseDTO;
 import uk.gov.companieshouse.api.strikeoffobjections.model.response.CreatedByResponseDTO;
+import uk.gov.companieshouse.api.strikeoffobjections.model.response.ObjectionListResponseDTO;
 import uk.gov.companieshouse.api.strikeoffobjections.model.response.ObjectionResponseDTO;
+import uk.gov.companieshouse.api.strikeoffobjections.model.response.ObjectionSummaryResponseDTO;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IObjectionService;
 import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
 import uk.gov.companieshouse.service.ServiceException;
@@ -45,6 +49,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +67,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @Unit
@@ -81,6 +87,7 @@ class ObjectionControllerTest {
     private static final String ATTACHMENT_CONTENT = "Content";
     private static final long ATTACHMENT_SIZE = 12L;
     private static final String OBJECTOR = "client";
+    private static final String LIST_ROLES = "permission /admin/strike-off-objections-list";
 
     @Mock
     private IObjectionService objectionService;
@@ -103,6 +110,73 @@ class ObjectionControllerTest {
     @InjectMocks
     private ObjectionController objectionController;
 
+    @Test
+    void getObjectionsTest() throws Exception {
+        Objection objection = new Objection();
+        objection.setId(OBJECTION_ID);
+        objection.setStatus(ObjectionStatus.SUBMITTED);
+        ObjectionSummaryResponseDTO summary = new ObjectionSummaryResponseDTO();
+        summary.setId(OBJECTION_ID);
+        summary.setStatus(ObjectionStatus.SUBMITTED);
+        List<ObjectionStatus> statuses = Collections.singletonList(ObjectionStatus.SUBMITTED);
+
+        when(objectionService.listObjections(REQUEST_ID, COMPANY_NUMBER, statuses, null, 10))
+                .thenReturn(new ObjectionPage(Collections.singletonList(objection), "NEXT_CURSOR"));
+        when(objectionMapper.objectionEntityToObjectionSummaryResponseDTO(objection)).thenReturn(summary);
+        when(pluggableResponseEntityFactory.createResponse(any())).then(invocation -> {
+            ServiceResult serviceResult = invocation.getArgument(0, ServiceResult.class);
+            return ResponseEntity.status(HttpStatus.OK).body(ChResponseBody.createNormalBody(serviceResult.getData()));
+        });
+
+        ResponseEntity<ChResponseBody<ObjectionListResponseDTO>> response =
+                objectionController.getObjections(COMPANY_NUMBER, statuses, null, 10, REQUEST_ID, LIST_ROLES);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ObjectionListResponseDTO list = response.getBody().getSuccessBody();
+        assertEquals(Collections.singletonList(summary), list.getItems());
+        assertEquals("NEXT_CURSOR", list.getNextCursor());
+    }
+
+    @Test
+    void getObjectionsInvalidCursorTest() throws Exception {
+        when(objectionService.listObjections(REQUEST_ID, COMPANY_NUMBER, null, "BAD_CURSOR", null))
+                .thenThrow(new InvalidCursorException("Invalid cursor: BAD_CURSOR"));
+
+        ResponseEntity<ChResponseBody<ObjectionListResponseDTO>> response =
+                objectionController.getObjections(COMPANY_NUMBER, null, "BAD_CURSOR", null, REQUEST_ID, LIST_ROLES);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void getObjectionsUnexpectedErrorTest() throws Exception {
+        when(objectionService.listObjections(REQUEST_ID, COMPANY_NUMBER, null, null, null))
+                .thenThrow(new IllegalArgumentException("Unexpected"));
+
+        ResponseEntity<ChResponseBody<ObjectionListResponseDTO>> response =
+                objectionController.getObjections(COMPANY_NUMBER, null, null, null, REQUEST_ID, LIST_ROLES);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    void getObjectionsWithoutListRoleTest() {
+        ResponseEntity<ChResponseBody<ObjectionListResponseDTO>> response = objectionController.getObjections(
+                COMPANY_NUMBER, null, null, null, REQUEST_ID, "permission /admin/strike-off-objections-download");
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(objectionService);
+    }
+
+    @Test
+    void getObjectionsWithoutRolesTest() {
+        ResponseEntity<ChResponseBody<ObjectionListResponseDTO>> response =
+                objectionController.getObjections(COMPANY_NUMBER, null, null, null, REQUEST_ID, null);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(objectionService);
+    }
+
     @Test
     void createObjectionTest() throws ServiceException {
         ObjectionCreate objectionCreate = new ObjectionCreate();
@@ -0,0 +1,124 @@
+package uk.gov.companieshouse.api.strikeoffobjections.email;
+
+import org.apache.avro.Schema;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Unit
+@ExtendWith(MockitoExtension.class)
+class EmailSchemaProviderTest {
+
+    private static final String SCHEMA_REGISTRY_URL = "http://testSchema:1000";
+    private static final String EMAIL_SCHEMA_URI = "/subjects/email-send/versions/latest";
+    private static final String CACHE_FILE_NAME = "email-send.latest.avsc";
+
+    @TempDir
+    Path cacheDir;
+
+    @Mock
+    private KafkaRestClient restClient;
+
+    @Mock
+    private ApiLogger apiLogger;
+
+    private Schema testSchema;
+
+    @BeforeEach
+    void setup() throws IOException {
+        testSchema = Utils.getDummySchema(this.getClass().getClassLoader().getResource(
+                "email/email-send.avsc"));
+    }
+
+    private EmailSchemaProvider buildProvider(boolean isBundledFallbackEnabled) {
+        return new EmailSchemaProvider(restClient, apiLogger, SCHEMA_REGISTRY_URL, EMAIL_SCHEMA_URI,
+                cacheDir.toString(), isBundledFallbackEnabled);
+    }
+
+    private byte[] registryResponse(Schema schema) {
+        String response = "{\"subject\":\"email-send\",\"version\":1,\"schema\":"
+                + JSONObject.quote(schema.toString()) + "}";
+        return response.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void willFetchSchemaLazilyAndSaveIt() throws IOException {
+        when(restClient.getSchema(SCHEMA_REGISTRY_URL, EMAIL_SCHEMA_URI)).thenReturn(registryResponse(testSchema));
+
+        EmailSchemaProvider provider = buildProvider(false);
+        verifyNoInteractions(restClient);
+
+        assertEquals(testSchema, provider.getSchema());
+        assertEquals(testSchema, provider.getSchema());
+        verify(restClient, times(1)).getSchema(SCHEMA_REGISTRY_URL, EMAIL_SCHEMA_URI);
+        assertTrue(Files.exists(cacheDir.resolve(CACHE_FILE_NAME)));
+    }
+
+    @Test
+    void willUseSavedSchemaWhenRegistryUnavailable() throws IOException {
+        Files.write(cacheDir.resolve(CACHE_FILE_NAME), testSchema.toString().getBytes(StandardCharsets.UTF_8));
+        when(restClient.getSchema(SCHEMA_REGISTRY_URL, EMAIL_SCHEMA_URI))
+                .thenThrow(new ResourceAccessException("registry unavailable"));
+
+        assertEquals(testSchema, buildProvider(false).getSchema());
+    }
+
+    @Test
+    void willUseBundledSchemaWhenRegistryUnavailableAndNothingSaved() throws IOException {
+        when(restClient.getSchema(SCHEMA_REGISTRY_URL, EMAIL_SCHEMA_URI))
+                .thenThrow(new ResourceAccessException("registry unavailable"));
+
+        assertEquals(testSchema, buildProvider(true).getSchema());
+    }
+
+    @Test
+    void willThrowWhenNoSchemaAvailable() {
+        when(restClient.getSchema(SCHEMA_REGISTRY_URL, EMAIL_SCHEMA_URI))
+                .thenThrow(new ResourceAccessException("registry unavailable"));
+
+        assertThrows(IOException.class, () -> buildProvider(false).getSchema());
+    }
+
+    @Test
+    void willKeepCurrentSchemaWhenRefreshFails() throws IOException {
+        when(restClient.getSchema(SCHEMA_REGISTRY_URL, EMAIL_SCHEMA_URI))
+                .thenReturn(registryResponse(testSchema))
+                .thenThrow(new ResourceAccessException("registry unavailable"));
+        EmailSchemaProvider provider = buildProvider(false);
+
+        provider.refresh();
+        Schema refreshed = provider.getSchema();
+        provider.refresh();
+
+        assertSame(refreshed, provider.getSchema());
+        verify(restClient, times(2)).getSchema(SCHEMA_REGISTRY_URL, EMAIL_SCHEMA_URI);
+    }
+
+    @Test
+    void cacheFileIsNamedAfterSubjectAndVersion() {
+        assertEquals(CACHE_FILE_NAME, EmailSchemaProvider.cacheFileName(EMAIL_SCHEMA_URI));
+        assertEquals("email-send.3.avsc", EmailSchemaProvider.cacheFileName("subjects/email-send/versions/3"));
+    }
+}
@@ -2,27 +2,35 @@ package uk.gov.companieshouse.api.strikeoffobjections.email;
 
 import org.apache.avro.Schema;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.companieshouse.api.strikeoffobjections.common.AvroSerializer;
+import uk.gov.companieshouse.api.strikeoffobjections.common.KafkaSpool;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
 import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailContent;
 import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
-import uk.gov.companieshouse.kafka.producer.CHKafkaProducer;
 import uk.gov.companieshouse.service.ServiceException;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,20 +41,21 @@ class KafkaEmailClientUnitTest {
 
     private static final LocalDateTime CREATED_AT =
             LocalDateTime.of(2019, 1, 1, 0, 0);
-    private static final Future<RecordMetadata> MOCKED_FUTURE = Mockito.mock(Future.class);
-    private static final Future<RecordMetadata> FAULTY_MOCKED_FUTURE = Mockito.mock(Future.class);
+    private static final RecordMetadata RECORD_METADATA =
+            new RecordMetadata(new TopicPartition("email-send", 0), 0, 0, 0, 0L, 0, 0);
 
     private static final String MESSAGE_ID = "abc";
     private static final String NO_LONGER_REQUIRED_TEMPLATE_MESSAGE_TYPE = "promise_to_file_no_longer_required";
     private static final String EMAIL_NO_LONGER_REQUIRED_TEMPLATE_APP_ID = "filing_processed_notification_sender.promise_to_file_no_longer_required";
     private static final String CUSTOMER_EMAIL = "example@test.co.uk";
+    private static final String OTHER_EMAIL = "other@test.co.uk";
 
     private KafkaEmailClient kafkaEmailClient;
     private Schema testSchema;
     private EmailContent emailContent;
 
     @Mock
-    private CHKafkaProducer producer;
+    private KafkaSpool producer;
 
     @Mock
     private AvroSerializer avroSerializer;
@@ -54,6 +63,9 @@ class KafkaEmailClientUnitTest {
     @Mock
     private AvroSerializer faultyAvroSerializer;
 
+    @Mock
+    private EmailSchemaProvider schemaProvider;
+
     @BeforeEach
     void setup() throws IOException {
         emailContent = Utils.buildEmailContent(
@@ -66,16 +78,16 @@ class KafkaEmailClientUnitTest {
 
         testSchema = Utils.getDummySchema(this.getClass().getClassLoader().getResource(
                 "email/email-send.avsc"));
+        when(schemaProvider.getSchema()).thenReturn(testSchema);
     }
 
     @Test
-    void checkFutureIsCalledWhenSendingEmailToKafka()
-            throws ServiceException, ExecutionException, InterruptedException {
-        when(producer.sendAndReturnFuture(any())).thenReturn(MOCKED_FUTURE);
+    void checkAcknowledgementIsAwaitedWhenSendingEmailToKafka() throws ServiceException {
+        when(producer.send(any())).thenReturn(CompletableFuture.completedFuture(RECORD_METADATA));
         kafkaEmailClient = new KafkaEmailClient(producer,
-                avroSerializer, testSchema);
+                avroSerializer, schemaProvider);
         kafkaEmailClient.sendEmailToKafka(emailContent);
-        verify(MOCKED_FUTURE, times(1)).get();
+        verify(producer, times(1)).send(any());
     }
 
     @Test
@@ -83,18 +95,82 @@ class KafkaEmailClientUnitTest {
             throws IOException {
         doThrow(IOException.class).when(faultyAvroSerializer).serialize(emailContent, testSchema);
         kafkaEmailClient = new KafkaEmailClient(producer,
-                faultyAvroSerializer, testSchema);
+                faultyAvroSerializer, schemaProvider);
         assertThrows(ServiceException.class, () -> kafkaEmailClient.sendEmailToKafka(emailContent));
+        verify(producer, never()).send(any());
     }
 
     @Test
-    void checkServiceExceptionIsThrownWhenFutureThrowsExecutionException()
-            throws ExecutionException, InterruptedException {
-        when(producer.sendAndReturnFuture(any())).thenReturn(FAULTY_MOCKED_FUTURE);
+    void checkServiceExceptionIsThrownWhenSendFails() {
+        when(producer.send(any())).thenReturn(failedFuture(new IllegalStateException("broker unavailable")));
         kafkaEmailClient = new KafkaEmailClient(producer,
-                avroSerializer, testSchema);
-        doThrow(ExecutionException.class).when(FAULTY_MOCKED_FUTURE).get();
-        assertThrows(ServiceException.class, () -> kafkaEmailClient.sendEmailToKafka(emailContent));
+                avroSerializer, schemaProvider);
+        ServiceException serviceException = assertThrows(ServiceException.class,
+                () -> kafkaEmailClient.sendEmailToKafka(emailContent));
+        assertEquals("broker unavailable", serviceException.getMessage());
+    }
+
+    @Test
+    void checkSendEmailToKafkaAsyncDoesNotWaitForAcknowledgement() {
+        CompletableFuture<RecordMetadata> ack = new CompletableFuture<>();
+        when(producer.send(any())).thenReturn(ack);
+        kafkaEmailClient = new KafkaEmailClient(producer,
+                avroSerializer, schemaProvider);
+
+        CompletableFuture<RecordMetadata> result = kafkaEmailClient.sendEmailToKafkaAsync(emailContent);
+
+        assertFalse(result.isDone());
+        ack.complete(RECORD_METADATA);
+        assertEquals(RECORD_METADATA, result.join());
+    }
+
+    @Test
+    void checkAllEmailsAreSentBeforeAnyAcknowledgementIsAwaited() {
+        CompletableFuture<RecordMetadata> firstAck = new CompletableFuture<>();
+        // the first email is only acknowledged once the second has been sent
+        when(producer.send(any())).thenReturn(firstAck).thenAnswer(invocation -> {
+            firstAck.complete(RECORD_METADATA);
+            return CompletableFuture.completedFuture(RECORD_METADATA);
+        });
+        kafkaEmailClient = new KafkaEmailClient(producer,
+                avroSerializer, schemaProvider);
+
+        Map<String, Exception> failures = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> kafkaEmailClient.sendEmailsToKafka(
+                        Arrays.asList(emailContent, buildEmailContent(OTHER_EMAIL))));
+
+        assertTrue(failures.isEmpty());
+        verify(producer, times(2)).send(any());
     }
-}
 
+    @Test
+    void checkFailuresAreReportedPerRecipientWhenSendingEmailsToKafka() {
+        when(producer.send(any())).thenReturn(failedFuture(new IllegalStateException("broker unavailable")),
+                CompletableFuture.completedFuture(RECORD_METADATA));
+        kafkaEmailClient = new KafkaEmailClient(producer,
+                avroSerializer, schemaProvider);
+
+        Map<String, Exception> failures = kafkaEmailClient.sendEmailsToKafka(
+                Arrays.asList(emailContent, buildEmailContent(OTHER_EMAIL)));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(CUSTOMER_EMAIL) instanceof ExecutionException);
+        verify(producer, times(2)).send(any());
+    }
+
+    private static CompletableFuture<RecordMetadata> failedFuture(Exception e) {
+        CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private EmailContent buildEmailContent(String emailAddress) {
+        return Utils.buildEmailContent(
+                EMAIL_NO_LONGER_REQUIRED_TEMPLATE_APP_ID,
+                MESSAGE_ID,
+                NO_LONGER_REQUIRED_TEMPLATE_MESSAGE_TYPE,
+                Utils.getDummyEmailData(),
+                emailAddress,
+                CREATED_AT);
+    }
+}
@@ -22,6 +22,7 @@ import uk.gov.companieshouse.api.strikeoffobjections.groups.Integration;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.CreatedBy;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderParser;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ObjectionService;
 import uk.gov.companieshouse.service.rest.response.PluggableResponseEntityFactory;
@@ -64,6 +65,8 @@ class CompanyNumberInterceptorIntegrationTest {
                 "client", "Joe Bloggs", false);
         objection.setCreatedBy(createdBy);
         when(objectionService.getObjection(any(), any())).thenReturn(objection);
+        when(objectionService.getObjectionSummary(any(), any())).thenReturn(
+                new ObjectionSummary("5f05c3f24be29647ef076f21", "00006400", ObjectionStatus.OPEN, "demo@ch.gov.uk"));
         when(headerParser.getEmailAddress(any())).thenReturn("demo@ch.gov.uk");
     }
 
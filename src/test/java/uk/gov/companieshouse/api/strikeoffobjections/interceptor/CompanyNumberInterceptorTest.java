@@ -10,7 +10,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.HandlerMapping;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
-import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -53,8 +54,8 @@ class CompanyNumberInterceptorTest {
 
     @Test
     void companyNumbersMatch() throws Exception {
-        Objection objection = new Objection();
-        objection.setCompanyNumber(COMPANY_NUMBER);
+        ObjectionSummary objection = new ObjectionSummary("OBJECTION_ID", COMPANY_NUMBER, ObjectionStatus.OPEN,
+                "demo@ch.gov.uk");
         when(request.getAttribute("objection")).thenReturn(objection);
         when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(PATH_VARIABLES);
         boolean result = companyNumberInterceptor.preHandle(request, response, null);
@@ -64,8 +65,8 @@ class CompanyNumberInterceptorTest {
 
     @Test
     void companyNumbersDoNotMatch() throws Exception {
-        Objection objection = new Objection();
-        objection.setCompanyNumber(WRONG_COMPANY_NUMBER);
+        ObjectionSummary objection = new ObjectionSummary("OBJECTION_ID", WRONG_COMPANY_NUMBER, ObjectionStatus.OPEN,
+                "demo@ch.gov.uk");
         when(request.getAttribute("objection")).thenReturn(objection);
         when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(PATH_VARIABLES);
         boolean result = companyNumberInterceptor.preHandle(request, response, null);
@@ -3,6 +3,7 @@ package uk.gov.companieshouse.api.strikeoffobjections.interceptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -11,8 +12,10 @@ import org.springframework.web.servlet.HandlerMapping;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.ObjectionNotFoundException;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.CreatedBy;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IObjectionService;
 
 import javax.servlet.http.HttpServletRequest;
@@ -21,9 +24,12 @@ import javax.servlet.http.HttpServletResponse;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -58,21 +64,67 @@ class ObjectionInterceptorTest {
 
     @Test
     void testObjectionInterceptor() throws Exception{
+        ObjectionSummary objection = new ObjectionSummary(OBJECTION_ID, "00006400", ObjectionStatus.OPEN,
+                "demo@ch.gov.uk");
+
+        when(request.getMethod()).thenReturn("PATCH");
+        when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(PATH_VARIABLES);
+        when(objectionService.getObjectionSummary(any(), eq(OBJECTION_ID))).thenReturn(objection);
+
+        boolean result = objectionInterceptor.preHandle(request, response, null);
+        assertTrue(result);
+        verify(request, times(1)).setAttribute("objection", objection);
+        verify(objectionService, never()).getObjection(any(), any());
+    }
+
+    @Test
+    void testObjectionInterceptorLoadsFullObjectionForGet() throws Exception{
         Objection objection = new Objection();
+        objection.setId(OBJECTION_ID);
+        objection.setCompanyNumber("00006400");
         objection.setStatus(ObjectionStatus.OPEN);
+        objection.setCreatedBy(new CreatedBy("some id", "demo@ch.gov.uk", "client", "Joe Bloggs", false));
 
+        when(request.getMethod()).thenReturn("GET");
         when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(PATH_VARIABLES);
-        when(objectionService.getObjection(any(), any())).thenReturn(objection);
+        when(objectionService.getObjection(any(), eq(OBJECTION_ID))).thenReturn(objection);
 
         boolean result = objectionInterceptor.preHandle(request, response, null);
         assertTrue(result);
-        verify(request, times(1)).setAttribute("objection", objection);
+        ArgumentCaptor<ObjectionSummary> summary = ArgumentCaptor.forClass(ObjectionSummary.class);
+        verify(request).setAttribute(eq("objection"), summary.capture());
+        assertEquals("00006400", summary.getValue().getCompanyNumber());
+        assertEquals("demo@ch.gov.uk", summary.getValue().getCreatedByEmail());
+        verify(objectionService, never()).getObjectionSummary(any(), any());
+    }
+
+    @Test
+    void testObjectionInterceptorOnlyLoadsSummaryForGetAttachmentAndDownload() throws Exception{
+        // both routes have the attachment id path variable
+        assertOnlySummaryLoadedForAttachment("GET");
+    }
+
+    @Test
+    void testObjectionInterceptorOnlyLoadsSummaryForDeleteAttachment() throws Exception{
+        assertOnlySummaryLoadedForAttachment("DELETE");
+    }
+
+    private void assertOnlySummaryLoadedForAttachment(String method) throws Exception {
+        PATH_VARIABLES.put("attachmentId", "123");
+        when(request.getMethod()).thenReturn(method);
+        when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(PATH_VARIABLES);
+        when(objectionService.getObjectionSummary(any(), eq(OBJECTION_ID))).thenReturn(
+                new ObjectionSummary(OBJECTION_ID, "00006400", ObjectionStatus.OPEN, "demo@ch.gov.uk"));
+
+        assertTrue(objectionInterceptor.preHandle(request, response, null));
+        verify(objectionService, never()).getObjection(any(), any());
     }
 
     @Test
     void testObjectionInterceptorObjectionNotFound() throws Exception{
+        when(request.getMethod()).thenReturn("POST");
         when(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE)).thenReturn(PATH_VARIABLES);
-        when(objectionService.getObjection(any(), any())).thenThrow(new ObjectionNotFoundException("Not found"));
+        when(objectionService.getObjectionSummary(any(), any())).thenThrow(new ObjectionNotFoundException("Not found"));
 
         boolean result = objectionInterceptor.preHandle(request, response, null);
         assertFalse(result);
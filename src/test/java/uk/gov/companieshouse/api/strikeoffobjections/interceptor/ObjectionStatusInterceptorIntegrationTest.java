@@ -21,6 +21,7 @@ import uk.gov.companieshouse.api.strikeoffobjections.groups.Integration;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.CreatedBy;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderParser;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ObjectionService;
 import uk.gov.companieshouse.service.rest.response.PluggableResponseEntityFactory;
@@ -62,6 +63,7 @@ class ObjectionStatusInterceptorIntegrationTest {
     @Test
     void willAllowRequestsOnOpenObjectionsToBeProcessed() throws Exception {
         when(objectionService.getObjection(any(), any())).thenReturn(getObjection(ObjectionStatus.OPEN));
+        when(objectionService.getObjectionSummary(any(), any())).thenReturn(getSummary(ObjectionStatus.OPEN));
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders
                 .get("/company/00006400/strike-off-objections/5f05c3f24be29647ef076f21")
@@ -75,6 +77,7 @@ class ObjectionStatusInterceptorIntegrationTest {
     @Test
     void willBlockRequestsOnObjectionsThatAreNotOpen() throws Exception {
         when(objectionService.getObjection(any(), any())).thenReturn(getObjection(ObjectionStatus.SUBMITTED));
+        when(objectionService.getObjectionSummary(any(), any())).thenReturn(getSummary(ObjectionStatus.SUBMITTED));
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders
                 .get("/company/00000099/strike-off-objections/5f05c3f24be29647ef076f21")
@@ -95,4 +98,8 @@ class ObjectionStatusInterceptorIntegrationTest {
 
         return objection;
     }
+
+    private ObjectionSummary getSummary(ObjectionStatus status) {
+        return new ObjectionSummary("5f05c3f24be29647ef076f21", "00006400", status, "demo@ch.gov.uk");
+    }
 }
@@ -8,8 +8,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
-import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -41,8 +41,8 @@ class ObjectionStatusInterceptorTest {
 
     @Test
     void testObjectionInterceptorObjectionNoLongerOpen() throws Exception {
-        Objection objection = new Objection();
-        objection.setStatus(ObjectionStatus.PROCESSED);
+        ObjectionSummary objection = new ObjectionSummary("OBJECTION_ID", "00006400", ObjectionStatus.PROCESSED,
+                "demo@ch.gov.uk");
 
         when(request.getAttribute(OBJECTION_ATTRIBUTE)).thenReturn(objection);
 
@@ -54,8 +54,8 @@ class ObjectionStatusInterceptorTest {
 
     @Test
     void testObjectionInterceptorObjectionOpen() throws Exception {
-        Objection objection = new Objection();
-        objection.setStatus(ObjectionStatus.OPEN);
+        ObjectionSummary objection = new ObjectionSummary("OBJECTION_ID", "00006400", ObjectionStatus.OPEN,
+                "demo@ch.gov.uk");
 
         when(request.getAttribute(OBJECTION_ATTRIBUTE)).thenReturn(objection);
 
@@ -5,6 +5,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
+
 import javax.servlet.http.HttpServletResponse;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -25,11 +27,14 @@ import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.controller.AttachmentMapper;
 import uk.gov.companieshouse.api.strikeoffobjections.controller.ObjectionController;
 import uk.gov.companieshouse.api.strikeoffobjections.controller.ObjectionMapper;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidCursorException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.ObjectionNotFoundException;
 import uk.gov.companieshouse.api.strikeoffobjections.file.FileTransferApiClientResponse;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Integration;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.list.ObjectionPage;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderParser;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ObjectionService;
 import uk.gov.companieshouse.service.ServiceException;
@@ -62,7 +67,7 @@ class AuthorizationIntegrationTest {
     private PluggableResponseEntityFactory responseEntityFactory;
 
     @BeforeEach
-    public void setup() throws ServiceException, ObjectionNotFoundException {
+    public void setup() throws ServiceException, ObjectionNotFoundException, InvalidCursorException {
         Objection objection = new Objection();
         objection.setStatus(ObjectionStatus.OPEN);
         objection.setCompanyNumber("00006400");
@@ -72,6 +77,10 @@ class AuthorizationIntegrationTest {
         when(objectionService.downloadAttachment(anyString(), anyString(), anyString(), any(HttpServletResponse.class)))
             .thenReturn(transferResponse);
         when(objectionService.getObjection(any(), any())).thenReturn(objection);
+        when(objectionService.getObjectionSummary(any(), any())).thenReturn(
+                new ObjectionSummary("5f05c3f24be29647ef076f21", "00006400", ObjectionStatus.OPEN, null));
+        when(objectionService.listObjections(any(), any(), any(), any(), any()))
+                .thenReturn(new ObjectionPage(Collections.emptyList(), null));
     }
 
     @Test
@@ -109,4 +118,39 @@ class AuthorizationIntegrationTest {
         MvcResult result = mockMvc.perform(requestBuilder).andReturn();
         assertEquals(HttpStatus.UNAUTHORIZED.value(), result.getResponse().getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void willAllowUserWithListRoleToListObjections() throws Exception {
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+            .get("/company/00006400/strike-off-objections")
+            .accept(MediaType.APPLICATION_JSON)
+            .header("X-Request-Id", "444")
+            .header("ERIC-Authorised-Roles", "/admin/strike-off-objections-list");
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+    }
+
+    @Test
+    void willNotAllowUserWithoutListRoleToListObjections() throws Exception {
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+            .get("/company/00006400/strike-off-objections")
+            .accept(MediaType.APPLICATION_JSON)
+            .header("X-Request-Id", "444")
+            .header("ERIC-Authorised-Roles", "/admin/strike-off-objections-download");
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), result.getResponse().getStatus());
+    }
+
+    @Test
+    void willNotAllowUserWithoutListRoleToListObjectionsWithTrailingSlash() throws Exception {
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+            .get("/company/00006400/strike-off-objections/")
+            .accept(MediaType.APPLICATION_JSON)
+            .header("X-Request-Id", "444");
+
+        MvcResult result = mockMvc.perform(requestBuilder).andReturn();
+        assertEquals(HttpStatus.UNAUTHORIZED.value(), result.getResponse().getStatus());
+    }
+}
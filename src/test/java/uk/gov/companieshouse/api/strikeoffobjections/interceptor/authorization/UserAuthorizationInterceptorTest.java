@@ -8,8 +8,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
-import uk.gov.companieshouse.api.strikeoffobjections.model.entity.CreatedBy;
-import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IObjectionService;
 import uk.gov.companieshouse.api.strikeoffobjections.service.impl.ERICHeaderParser;
 import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
@@ -51,10 +51,8 @@ class UserAuthorizationInterceptorTest {
 
     @Test
     void testUserAuthorised() throws Exception {
-        Objection objection = new Objection();
-        CreatedBy createdBy = new CreatedBy("id", USER_EMAIL,
-               "client", "Joe Bloggs", false);
-        objection.setCreatedBy(createdBy);
+        ObjectionSummary objection = new ObjectionSummary("OBJECTION_ID", "00006400", ObjectionStatus.OPEN,
+                USER_EMAIL);
         when(ericHeaderParser.getEmailAddress(any())).thenReturn(USER_EMAIL);
         when(request.getAttribute("objection")).thenReturn(objection);
 
@@ -65,10 +63,8 @@ class UserAuthorizationInterceptorTest {
 
     @Test
     void testUserNotAuthorised() throws Exception {
-        Objection objection = new Objection();
-        CreatedBy createdBy = new CreatedBy("id", USER_EMAIL,
-                "client", "Joe Bloggs", false);
-        objection.setCreatedBy(createdBy);
+        ObjectionSummary objection = new ObjectionSummary("OBJECTION_ID", "00006400", ObjectionStatus.OPEN,
+                USER_EMAIL);
         when(ericHeaderParser.getEmailAddress(any())).thenReturn(DIFFERENT_USER_EMAIL);
         when(request.getAttribute("objection")).thenReturn(objection);
 
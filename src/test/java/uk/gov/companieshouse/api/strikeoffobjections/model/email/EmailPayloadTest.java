@@ -0,0 +1,56 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.email;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Unit
+class EmailPayloadTest {
+
+    private static final String SUBJECT = "12345678: objection submitted";
+
+    @Test
+    void recipientDataIsAddressedToRecipient() {
+        EmailPayload payload = new EmailPayload(commonData());
+
+        Map<String, Object> data = payload.forRecipient("test1@cardiff.gov.uk");
+
+        assertEquals(SUBJECT, data.get("subject"));
+        assertEquals("test1@cardiff.gov.uk", data.get("to"));
+    }
+
+    @Test
+    void recipientChangesAreNotShared() {
+        EmailPayload payload = new EmailPayload(commonData());
+
+        Map<String, Object> first = payload.forRecipient("test1@cardiff.gov.uk");
+        first.put("customer_email", "demo@ch.gov.uk");
+        Map<String, Object> second = payload.forRecipient("test2@cardiff.gov.uk");
+
+        assertFalse(second.containsKey("customer_email"));
+        assertFalse(payload.getCommonData().containsKey("to"));
+    }
+
+    @Test
+    void commonDataCannotBeChanged() {
+        Map<String, Object> commonData = commonData();
+        EmailPayload payload = new EmailPayload(commonData);
+        commonData.put("subject", "changed");
+
+        assertEquals(SUBJECT, payload.getCommonData().get("subject"));
+        assertThrows(UnsupportedOperationException.class, () -> payload.getCommonData().put("to", "x"));
+    }
+
+    private Map<String, Object> commonData() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("subject", SUBJECT);
+        data.put("company_number", "12345678");
+        return data;
+    }
+}
@@ -2,6 +2,9 @@ package uk.gov.companieshouse.api.strikeoffobjections.model.entity;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -24,4 +27,26 @@ class ObjectionStatusTest {
         ObjectionStatus objectionStatus = ObjectionStatus.INELIGIBLE_NO_DISSOLUTION_ACTION;
         assertTrue(objectionStatus.isIneligible());
     }
+
+    @Test
+    void testOnlyOpenCanBeSubmitted() {
+        assertTrue(ObjectionStatus.OPEN.canChangeTo(ObjectionStatus.SUBMITTED));
+        assertFalse(ObjectionStatus.SUBMITTED.canChangeTo(ObjectionStatus.SUBMITTED));
+        assertFalse(ObjectionStatus.PROCESSED.canChangeTo(ObjectionStatus.SUBMITTED));
+        assertEquals(EnumSet.of(ObjectionStatus.OPEN), ObjectionStatus.SUBMITTED.getPreviousStatuses());
+    }
+
+    @Test
+    void testProcessedIsFinal() {
+        for (ObjectionStatus next : ObjectionStatus.values()) {
+            assertFalse(ObjectionStatus.PROCESSED.canChangeTo(next));
+        }
+    }
+
+    @Test
+    void testRetryCanFailAtSameOrLaterStage() {
+        assertTrue(ObjectionStatus.ERROR_INTERNAL_EMAIL.canChangeTo(ObjectionStatus.ERROR_EXTERNAL_EMAIL));
+        assertFalse(ObjectionStatus.ERROR_INTERNAL_EMAIL.canChangeTo(ObjectionStatus.ERROR_CHIPS));
+        assertTrue(ObjectionStatus.PROCESSED.getPreviousStatuses().contains(ObjectionStatus.ERROR_CHIPS));
+    }
 }
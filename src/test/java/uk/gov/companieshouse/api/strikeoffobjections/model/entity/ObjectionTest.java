@@ -6,10 +6,13 @@ import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
 import uk.gov.companieshouse.service.links.Links;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @Unit
 class ObjectionTest {
@@ -64,4 +67,43 @@ class ObjectionTest {
        assertEquals(ObjectionStatus.OPEN, objection.getStatus());
        assertEquals(4400L, objection.getActionCode());
     }
+
+    @Test
+    void getAttachmentById() {
+        Objection objection = new Objection();
+        Attachment first = attachment("1");
+        Attachment second = attachment("2");
+        objection.addAttachment(first);
+        objection.addAttachment(second);
+
+        assertEquals(second, objection.getAttachment("2"));
+        assertNull(objection.getAttachment("3"));
+    }
+
+    @Test
+    void getAttachmentByIdSeesChangedAttachments() {
+        Objection objection = new Objection();
+        objection.addAttachment(attachment("1"));
+        assertNull(objection.getAttachment("2"));
+
+        Attachment added = attachment("2");
+        objection.addAttachment(added);
+        assertEquals(added, objection.getAttachment("2"));
+
+        Attachment setInPlace = attachment("3");
+        objection.getAttachments().set(1, setInPlace);
+        assertEquals(setInPlace, objection.getAttachment("3"));
+        assertNull(objection.getAttachment("2"));
+
+        Attachment replaced = attachment("2");
+        objection.setAttachments(new ArrayList<>(Collections.singletonList(replaced)));
+        assertEquals(replaced, objection.getAttachment("2"));
+        assertNull(objection.getAttachment("1"));
+    }
+
+    private static Attachment attachment(String id) {
+        Attachment attachment = new Attachment();
+        attachment.setId(id);
+        return attachment;
+    }
 }
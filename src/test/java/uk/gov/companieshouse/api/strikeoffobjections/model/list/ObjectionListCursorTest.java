@@ -0,0 +1,50 @@
+package uk.gov.companieshouse.api.strikeoffobjections.model.list;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidCursorException;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Unit
+class ObjectionListCursorTest {
+
+    private static final String OBJECTION_ID = "5fd1f5c6e4b0a6b1c2d3e4f5";
+
+    @Test
+    void decodesEncodedCursor() throws Exception {
+        LocalDateTime createdOn = LocalDateTime.of(2020, 12, 10, 8, 0);
+
+        String encoded = new ObjectionListCursor(createdOn, OBJECTION_ID).encode();
+        ObjectionListCursor cursor = ObjectionListCursor.decode(encoded);
+
+        assertEquals(createdOn, cursor.getCreatedOn());
+        assertEquals(OBJECTION_ID, cursor.getId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new ObjectionListCursor(LocalDateTime.of(2020, 12, 10, 8, 0, 1, 500), OBJECTION_ID).encode();
+
+        assertFalse(encoded.matches(".*[+/=].*"));
+    }
+
+    @Test
+    void rejectsCursorThatIsNotBase64() {
+        assertThrows(InvalidCursorException.class, () -> ObjectionListCursor.decode("not a cursor!"));
+    }
+
+    @Test
+    void rejectsCursorWithoutPosition() {
+        assertThrows(InvalidCursorException.class, () -> ObjectionListCursor.decode("YWJj"));
+    }
+
+    @Test
+    void rejectsCursorWithInvalidDate() {
+        assertThrows(InvalidCursorException.class, () -> ObjectionListCursor.decode("MjAyMC0xMy0wMXxhYmM"));
+    }
+}
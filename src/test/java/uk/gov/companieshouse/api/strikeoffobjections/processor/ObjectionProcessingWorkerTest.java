@@ -0,0 +1,166 @@
+package uk.gov.companieshouse.api.strikeoffobjections.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
+import uk.gov.companieshouse.service.ServiceException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Unit
+@ExtendWith(MockitoExtension.class)
+class ObjectionProcessingWorkerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 1, 20, 12, 0);
+    private static final long LEASE_SECONDS = 300;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final String REQUEST_ID = "87654321";
+
+    @Mock
+    private ObjectionRepository objectionRepository;
+
+    @Mock
+    private ObjectionProcessor objectionProcessor;
+
+    @Mock
+    private ExecutorService executorService;
+
+    @Mock
+    private ApiLogger apiLogger;
+
+    private LocalDateTime now = NOW;
+
+    private ObjectionProcessingWorker buildWorker(boolean enabled, int poolSize) {
+        return new ObjectionProcessingWorker(objectionRepository, objectionProcessor, executorService, apiLogger,
+                () -> now, enabled, poolSize, LEASE_SECONDS, MAX_ATTEMPTS);
+    }
+
+    private void runSubmittedTasks() {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executorService).execute(any());
+    }
+
+    private Objection submittedObjection(String id) {
+        Objection objection = new Objection();
+        objection.setId(id);
+        objection.setHttpRequestId(REQUEST_ID);
+        return objection;
+    }
+
+    @Test
+    void willDoNothingWhenAsyncProcessingDisabled() {
+        buildWorker(false, 2).poll();
+
+        verifyNoInteractions(objectionRepository, objectionProcessor, executorService);
+    }
+
+    @Test
+    void willProcessClaimedObjectionsUntilQueueEmpty() throws Exception {
+        runSubmittedTasks();
+        Objection first = submittedObjection("1");
+        Objection second = submittedObjection("2");
+        when(objectionRepository.claimSubmittedObjection(anyString(), eq(NOW), eq(NOW.plusSeconds(LEASE_SECONDS)),
+                eq(MAX_ATTEMPTS))).thenReturn(first, second, null);
+
+        buildWorker(true, 2).poll();
+
+        verify(objectionProcessor).process(first, REQUEST_ID);
+        verify(objectionProcessor).process(second, REQUEST_ID);
+        verify(objectionRepository, times(3)).claimSubmittedObjection(anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void willNotClaimMoreObjectionsThanFreeThreads() {
+        // tasks are never run, so the threads are never freed
+        when(objectionRepository.claimSubmittedObjection(anyString(), any(), any(), anyInt()))
+                .thenReturn(submittedObjection("1"), submittedObjection("2"));
+
+        buildWorker(true, 2).poll();
+
+        verify(objectionRepository, times(2)).claimSubmittedObjection(anyString(), any(), any(), anyInt());
+        verify(executorService, times(2)).execute(any());
+    }
+
+    @Test
+    void willFreeThreadWhenProcessingFails() throws Exception {
+        runSubmittedTasks();
+        Objection objection = submittedObjection("1");
+        ServiceException exception = new ServiceException("CHIPS unavailable");
+        when(objectionRepository.claimSubmittedObjection(anyString(), any(), any(), anyInt()))
+                .thenReturn(objection, objection, null);
+        doThrow(exception).when(objectionProcessor).process(objection, REQUEST_ID);
+
+        ObjectionProcessingWorker worker = buildWorker(true, 1);
+        worker.poll();
+
+        verify(objectionProcessor, times(2)).process(objection, REQUEST_ID);
+        verify(apiLogger, times(2)).errorContext(eq(REQUEST_ID), anyString(), eq(exception), anyMap());
+    }
+
+    @Test
+    void willRenewLeaseHalfWayToExpiryWhileProcessing() {
+        // the task is never run, so the objection is still being processed
+        when(objectionRepository.claimSubmittedObjection(anyString(), any(), any(), anyInt()))
+                .thenReturn(submittedObjection("1"), null);
+        ObjectionProcessingWorker worker = buildWorker(true, 2);
+        worker.poll();
+
+        now = NOW.plusSeconds(LEASE_SECONDS / 2 - 1);
+        worker.poll();
+        verify(objectionRepository, never()).renewProcessingLease(anyString(), anyString(), any());
+
+        now = NOW.plusSeconds(LEASE_SECONDS / 2);
+        when(objectionRepository.renewProcessingLease(eq("1"), anyString(), eq(now.plusSeconds(LEASE_SECONDS))))
+                .thenReturn(true);
+        worker.poll();
+        verify(objectionRepository).renewProcessingLease(eq("1"), anyString(), eq(now.plusSeconds(LEASE_SECONDS)));
+    }
+
+    @Test
+    void willNotRenewLeaseOnceProcessingFinished() throws Exception {
+        runSubmittedTasks();
+        when(objectionRepository.claimSubmittedObjection(anyString(), any(), any(), anyInt()))
+                .thenReturn(submittedObjection("1"), null);
+        ObjectionProcessingWorker worker = buildWorker(true, 2);
+        worker.poll();
+
+        now = NOW.plusSeconds(LEASE_SECONDS);
+        worker.poll();
+
+        verify(objectionProcessor).process(any(), eq(REQUEST_ID));
+        verify(objectionRepository, never()).renewProcessingLease(anyString(), anyString(), any());
+    }
+
+    @Test
+    void willFailAndLogObjectionsWithAttemptsUsedUp() {
+        Objection exhausted = submittedObjection("1");
+        when(objectionRepository.failExhaustedObjection(NOW, MAX_ATTEMPTS)).thenReturn(exhausted, null);
+
+        buildWorker(true, 2).poll();
+
+        verify(objectionRepository, times(2)).failExhaustedObjection(NOW, MAX_ATTEMPTS);
+        verify(apiLogger).errorContext(eq(REQUEST_ID), anyString(), isNull(), anyMap());
+    }
+}
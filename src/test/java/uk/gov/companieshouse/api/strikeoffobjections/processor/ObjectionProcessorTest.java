@@ -2,16 +2,26 @@ package uk.gov.companieshouse.api.strikeoffobjections.processor;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
-
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -20,12 +30,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidObjectionStatusException;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.KafkaMessageSpooledException;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailPayload;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IChipsService;
 import uk.gov.companieshouse.api.strikeoffobjections.service.ICompanyProfileService;
@@ -49,6 +63,8 @@ class ObjectionProcessorTest {
     private static final String OBJECTOR = "client";
     private static final LocalDateTime LOCAL_DATE_TIME =
             LocalDateTime.of(2020, 12, 10, 8, 0);
+    private static final EmailPayload EMAIL_PAYLOAD =
+            new EmailPayload(Collections.singletonMap("company_name", COMPANY_NAME));
 
     @Mock
     private ApiLogger apiLogger;
@@ -68,6 +84,13 @@ class ObjectionProcessorTest {
     @InjectMocks
     private ObjectionProcessor objectionProcessor;
 
+    @BeforeEach
+    void setUp() {
+        // no other process changes the status unless a test says so
+        lenient().when(objectionRepository.saveStatus(any(), any())).thenReturn(true);
+        lenient().when(emailService.buildEmailPayload(eq(COMPANY_NAME), any())).thenReturn(EMAIL_PAYLOAD);
+    }
+
     @Test
     void processTest() throws Exception {
         when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
@@ -79,7 +102,7 @@ class ObjectionProcessorTest {
 
         ArgumentCaptor<Objection> objectionArgumentCaptor = ArgumentCaptor.forClass(Objection.class);
         assertDoesNotThrow(() -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.PROCESSED, objection.getStatus());
@@ -100,12 +123,89 @@ class ObjectionProcessorTest {
         processingOrder.verify(companyProfileService, times(1)).getCompanyProfile(COMPANY_NUMBER,  HTTP_REQUEST_ID);
         processingOrder.verify(chipsService, times(1)).sendObjection(HTTP_REQUEST_ID, dummyObjection);
         processingOrder.verify(emailService, times(1))
-                .sendObjectionSubmittedDissolutionTeamEmail(COMPANY_NAME, JURISDICTION,
+                .sendObjectionSubmittedDissolutionTeamEmail(EMAIL_PAYLOAD, JURISDICTION,
                         dummyObjection, HTTP_REQUEST_ID);
         processingOrder.verify(emailService, times(1))
-                .sendObjectionSubmittedCustomerEmail(dummyObjection, COMPANY_NAME, HTTP_REQUEST_ID);
-        processingOrder.verify(objectionRepository, times(1)).save(dummyObjection);
+                .sendObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID);
+        processingOrder.verify(objectionRepository, times(1)).saveStatus(eq(dummyObjection), any());
+
+    }
+
+    @Test
+    void processBuildsEmailPayloadOnceForBothEmails() throws Exception {
+        when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+
+        objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID);
 
+        verify(emailService, times(1)).buildEmailPayload(COMPANY_NAME, dummyObjection);
+        verify(emailService, times(1)).sendObjectionSubmittedDissolutionTeamEmail(
+                EMAIL_PAYLOAD, JURISDICTION, dummyObjection, HTTP_REQUEST_ID);
+        verify(emailService, times(1))
+                .sendObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID);
+    }
+
+    @Test
+    void processWritesMessagesToOutboxWithProcessedStatusWhenOutboxEnabled() throws Exception {
+        ReflectionTestUtils.setField(objectionProcessor, "isOutboxEnabled", true);
+        when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+
+        OutboxMessage chipsMessage = new OutboxMessage();
+        OutboxMessage internalEmail1 = new OutboxMessage();
+        OutboxMessage internalEmail2 = new OutboxMessage();
+        OutboxMessage customerEmail = new OutboxMessage();
+        when(chipsService.buildObjectionOutboxMessage(HTTP_REQUEST_ID, dummyObjection)).thenReturn(chipsMessage);
+        when(emailService.buildObjectionSubmittedDissolutionTeamEmails(EMAIL_PAYLOAD, JURISDICTION,
+                dummyObjection, HTTP_REQUEST_ID)).thenReturn(Arrays.asList(internalEmail1, internalEmail2));
+        when(emailService.buildObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID))
+                .thenReturn(customerEmail);
+
+        objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID);
+
+        ArgumentCaptor<Objection> objectionArgumentCaptor = ArgumentCaptor.forClass(Objection.class);
+        ArgumentCaptor<List<OutboxMessage>> outboxArgumentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(),
+                outboxArgumentCaptor.capture());
+        Objection objection = objectionArgumentCaptor.getValue();
+        assertEquals(ObjectionStatus.PROCESSED, objection.getStatus());
+        assertEquals(Arrays.asList(chipsMessage, internalEmail1, internalEmail2, customerEmail),
+                objection.getOutbox());
+        assertEquals(Arrays.asList(chipsMessage, internalEmail1, internalEmail2, customerEmail),
+                outboxArgumentCaptor.getValue());
+        assertNotNull(objection.getOutboxNextAttemptOn());
+        verify(chipsService, never()).sendObjection(any(), any());
+        verify(emailService, never()).sendObjectionSubmittedDissolutionTeamEmail(any(), any(), any(), any());
+        verify(emailService, never()).sendObjectionSubmittedCustomerEmail(any(), any(), any());
+    }
+
+    @Test
+    void processSendsToChipsDirectlyWhenOutboxEnabledButChipsSenderHasNoOutboxMessage() throws Exception {
+        ReflectionTestUtils.setField(objectionProcessor, "isOutboxEnabled", true);
+        when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+
+        OutboxMessage customerEmail = new OutboxMessage();
+        when(emailService.buildObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID))
+                .thenReturn(customerEmail);
+
+        objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID);
+
+        verify(chipsService, times(1)).sendObjection(HTTP_REQUEST_ID, dummyObjection);
+        assertEquals(Arrays.asList(customerEmail), dummyObjection.getOutbox());
+        assertEquals(ObjectionStatus.PROCESSED, dummyObjection.getStatus());
     }
 
     @Test
@@ -140,7 +240,7 @@ class ObjectionProcessorTest {
 
         ArgumentCaptor<Objection> objectionArgumentCaptor = ArgumentCaptor.forClass(Objection.class);
         assertDoesNotThrow(() -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.PROCESSED, objection.getStatus());
@@ -182,10 +282,10 @@ class ObjectionProcessorTest {
         ArgumentCaptor<Objection> objectionArgumentCaptor = ArgumentCaptor.forClass(Objection.class);
 
         verify(emailService, times(1))
-                .sendObjectionSubmittedDissolutionTeamEmail(COMPANY_NAME, JURISDICTION,
+                .sendObjectionSubmittedDissolutionTeamEmail(EMAIL_PAYLOAD, JURISDICTION,
                         dummyObjection, HTTP_REQUEST_ID);
 
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.PROCESSED, objection.getStatus());
@@ -208,7 +308,7 @@ class ObjectionProcessorTest {
 
         verify(apiLogger, times(1)).errorContext(eq(HTTP_REQUEST_ID), any(), any(), any());
 
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.ERROR_INTERNAL_EMAIL, objection.getStatus());
@@ -231,7 +331,7 @@ class ObjectionProcessorTest {
 
         verify(apiLogger, times(1)).errorContext(eq(HTTP_REQUEST_ID), any(), any(), any());
 
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.ERROR_INTERNAL_EMAIL, objection.getStatus());
@@ -252,9 +352,9 @@ class ObjectionProcessorTest {
 
         verify(chipsService, times(1)).sendObjection(HTTP_REQUEST_ID, dummyObjection);
         verify(emailService, times(1))
-                .sendObjectionSubmittedCustomerEmail(dummyObjection, COMPANY_NAME, HTTP_REQUEST_ID);
+                .sendObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID);
 
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.PROCESSED, objection.getStatus());
@@ -277,7 +377,7 @@ class ObjectionProcessorTest {
 
         verify(apiLogger, times(1)).errorContext(eq(HTTP_REQUEST_ID), any(), any(), any());
 
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.ERROR_EXTERNAL_EMAIL, objection.getStatus());
@@ -300,7 +400,7 @@ class ObjectionProcessorTest {
 
         verify(apiLogger, times(1)).errorContext(eq(HTTP_REQUEST_ID), any(), any(), any());
 
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.ERROR_EXTERNAL_EMAIL, objection.getStatus());
@@ -320,19 +420,329 @@ class ObjectionProcessorTest {
 
         verify(apiLogger, times(1)).errorContext(eq(HTTP_REQUEST_ID), any(), any(), any());
 
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.ERROR_CHIPS, objection.getStatus());
     }
 
+    @Test
+    void processRecordsChipsSentOnceSpooledMessageIsReplayed() throws ServiceException {
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+        CompletableFuture<Void> replayed = new CompletableFuture<>();
+        doThrow(new KafkaMessageSpooledException("spooled", null, replayed))
+                .when(chipsService).sendObjection(any(), any());
+
+        assertThrows(KafkaMessageSpooledException.class,
+                () -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
+
+        // not sent yet, so left to be retried
+        assertEquals(ObjectionStatus.ERROR_CHIPS, dummyObjection.getStatus());
+        verify(objectionRepository, never()).saveSentOn(any(), any(), any());
+
+        replayed.complete(null);
+
+        verify(objectionRepository, times(1)).saveSentOn(eq(OBJECTION_ID), eq(ObjectionStatus.ERROR_CHIPS), any());
+        verify(emailService, never()).sendObjectionSubmittedDissolutionTeamEmail(any(), any(), any(), any());
+    }
+
+    @Test
+    void processSendsConcurrentlyWhenConcurrentDispatchEnabled() throws Exception {
+        ExecutorService executor = enableConcurrentDispatch();
+        try {
+            when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                    .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+            Objection dummyObjection = Utils.getTestObjection(
+                    OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                    Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+            dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+
+            objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID);
+
+            verify(chipsService, times(1)).sendObjection(HTTP_REQUEST_ID, dummyObjection);
+            verify(emailService, times(1)).sendObjectionSubmittedDissolutionTeamEmail(
+                    EMAIL_PAYLOAD, JURISDICTION, dummyObjection, HTTP_REQUEST_ID);
+            verify(emailService, times(1))
+                    .sendObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID);
+            verify(objectionRepository, times(1)).saveStatus(eq(dummyObjection), any());
+            assertEquals(ObjectionStatus.PROCESSED, dummyObjection.getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void processRecordsChipsErrorFirstWhenConcurrentSendsFail() throws Exception {
+        ExecutorService executor = enableConcurrentDispatch();
+        try {
+            when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                    .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+            Objection dummyObjection = Utils.getTestObjection(
+                    OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                    Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+            dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+            ServiceException chipsException = new ServiceException("chips");
+            doThrow(chipsException).when(chipsService).sendObjection(any(), any());
+            doThrow(new RuntimeException("internal email")).when(emailService)
+                    .sendObjectionSubmittedDissolutionTeamEmail(any(), any(), any(), any());
+
+            ServiceException thrown = assertThrows(ServiceException.class,
+                    () -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
+
+            assertEquals(chipsException, thrown);
+            verify(apiLogger, times(1)).errorContext(eq(HTTP_REQUEST_ID), eq("Error sending objection to CHIPS"),
+                    eq(chipsException), any());
+            verify(objectionRepository, times(1)).saveStatus(eq(dummyObjection), any());
+            assertEquals(ObjectionStatus.ERROR_CHIPS, dummyObjection.getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void processDoesNotSendCustomerEmailWhenConcurrentChipsSendFails() throws Exception {
+        ExecutorService executor = enableConcurrentDispatch();
+        try {
+            when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                    .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+            Objection dummyObjection = Utils.getTestObjection(
+                    OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                    Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+            dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+            doThrow(new ServiceException("chips")).when(chipsService).sendObjection(any(), any());
+
+            assertThrows(ServiceException.class, () -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
+
+            // the internal email is still sent despite the CHIPS failure, the customer email isn't
+            verify(emailService, times(1)).sendObjectionSubmittedDissolutionTeamEmail(
+                    EMAIL_PAYLOAD, JURISDICTION, dummyObjection, HTTP_REQUEST_ID);
+            verify(emailService, never()).sendObjectionSubmittedCustomerEmail(any(), any(), any());
+            assertEquals(ObjectionStatus.ERROR_CHIPS, dummyObjection.getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void processRecordsInternalEmailErrorWhenOnlyConcurrentInternalEmailFails() throws Exception {
+        ExecutorService executor = enableConcurrentDispatch();
+        try {
+            when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                    .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+            Objection dummyObjection = Utils.getTestObjection(
+                    OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                    Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+            dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+            doThrow(new RuntimeException("internal email")).when(emailService)
+                    .sendObjectionSubmittedDissolutionTeamEmail(any(), any(), any(), any());
+
+            assertThrows(RuntimeException.class, () -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
+
+            verify(objectionRepository, times(1)).saveStatus(eq(dummyObjection), any());
+            assertEquals(ObjectionStatus.ERROR_INTERNAL_EMAIL, dummyObjection.getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retryResumesFromInternalEmailWhenInternalEmailFailed() throws Exception {
+        when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.ERROR_INTERNAL_EMAIL);
+
+        objectionProcessor.retry(dummyObjection, HTTP_REQUEST_ID);
+
+        verify(chipsService, never()).sendObjection(any(), any());
+        verify(emailService, times(1)).sendObjectionSubmittedDissolutionTeamEmail(
+                EMAIL_PAYLOAD, JURISDICTION, dummyObjection, HTTP_REQUEST_ID);
+        verify(emailService, times(1))
+                .sendObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID);
+        verify(objectionRepository, times(1)).saveStatus(eq(dummyObjection), any());
+        assertEquals(ObjectionStatus.PROCESSED, dummyObjection.getStatus());
+    }
+
+    @Test
+    void retryOnlySendsCustomerEmailWhenExternalEmailFailed() throws Exception {
+        when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.ERROR_EXTERNAL_EMAIL);
+
+        objectionProcessor.retry(dummyObjection, HTTP_REQUEST_ID);
+
+        verify(chipsService, never()).sendObjection(any(), any());
+        verify(emailService, never()).sendObjectionSubmittedDissolutionTeamEmail(any(), any(), any(), any());
+        verify(emailService, times(1))
+                .sendObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID);
+        assertEquals(ObjectionStatus.PROCESSED, dummyObjection.getStatus());
+    }
+
+    @Test
+    void retryRecordsStatusAndPartitionOfStageThatFailsAgain() throws Exception {
+        when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.ERROR_CHIPS);
+        doThrow(new ServiceException("customer email"))
+                .when(emailService).sendObjectionSubmittedCustomerEmail(any(), any(), any());
+
+        assertThrows(ServiceException.class, () -> objectionProcessor.retry(dummyObjection, HTTP_REQUEST_ID));
+
+        verify(chipsService, times(1)).sendObjection(HTTP_REQUEST_ID, dummyObjection);
+        assertEquals(ObjectionStatus.ERROR_EXTERNAL_EMAIL, dummyObjection.getStatus());
+        assertEquals(ObjectionRetryScheduler.partitionOf(OBJECTION_ID), dummyObjection.getRetryPartition());
+    }
+
+    @Test
+    void retryOnlyResendsToChipsWhenConcurrentChipsSendFailed() throws Exception {
+        ExecutorService executor = enableConcurrentDispatch();
+        try {
+            when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                    .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+            Objection dummyObjection = Utils.getTestObjection(
+                    OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                    Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+            dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+            doThrow(new ServiceException("chips")).doNothing().when(chipsService).sendObjection(any(), any());
+
+            assertThrows(ServiceException.class, () -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
+            assertEquals(ObjectionStatus.ERROR_CHIPS, dummyObjection.getStatus());
+            assertNotNull(dummyObjection.getInternalEmailSentOn());
+
+            objectionProcessor.retry(dummyObjection, HTTP_REQUEST_ID);
+
+            verify(chipsService, times(2)).sendObjection(HTTP_REQUEST_ID, dummyObjection);
+            // the dissolution team email sent alongside the failed CHIPS send isn't sent again
+            verify(emailService, times(1)).sendObjectionSubmittedDissolutionTeamEmail(
+                    EMAIL_PAYLOAD, JURISDICTION, dummyObjection, HTTP_REQUEST_ID);
+            verify(emailService, times(1))
+                    .sendObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID);
+            assertEquals(ObjectionStatus.PROCESSED, dummyObjection.getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retryDoesNotResendCustomerEmailWhenOnlyConcurrentInternalEmailFailed() throws Exception {
+        ExecutorService executor = enableConcurrentDispatch();
+        try {
+            when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                    .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+            Objection dummyObjection = Utils.getTestObjection(
+                    OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                    Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+            dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+            doThrow(new ServiceException("internal email")).doNothing().when(emailService)
+                    .sendObjectionSubmittedDissolutionTeamEmail(any(), any(), any(), any());
+
+            assertThrows(ServiceException.class, () -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
+            assertEquals(ObjectionStatus.ERROR_INTERNAL_EMAIL, dummyObjection.getStatus());
+
+            objectionProcessor.retry(dummyObjection, HTTP_REQUEST_ID);
+
+            verify(chipsService, times(1)).sendObjection(HTTP_REQUEST_ID, dummyObjection);
+            verify(emailService, times(2)).sendObjectionSubmittedDissolutionTeamEmail(
+                    EMAIL_PAYLOAD, JURISDICTION, dummyObjection, HTTP_REQUEST_ID);
+            verify(emailService, times(1))
+                    .sendObjectionSubmittedCustomerEmail(dummyObjection, EMAIL_PAYLOAD, HTTP_REQUEST_ID);
+            assertEquals(ObjectionStatus.PROCESSED, dummyObjection.getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retrySkipsSendsRecordedAsSucceeded() throws Exception {
+        when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.ERROR_CHIPS);
+        dummyObjection.setInternalEmailSentOn(LOCAL_DATE_TIME);
+        dummyObjection.setExternalEmailSentOn(LOCAL_DATE_TIME);
+
+        objectionProcessor.retry(dummyObjection, HTTP_REQUEST_ID);
+
+        verify(chipsService, times(1)).sendObjection(HTTP_REQUEST_ID, dummyObjection);
+        verify(emailService, never()).sendObjectionSubmittedDissolutionTeamEmail(any(), any(), any(), any());
+        verify(emailService, never()).sendObjectionSubmittedCustomerEmail(any(), any(), any());
+        assertNotNull(dummyObjection.getChipsSentOn());
+        assertEquals(ObjectionStatus.PROCESSED, dummyObjection.getStatus());
+    }
+
+    @Test
+    void retryThrowsWhenStatusNotRetryable() {
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.PROCESSED);
+
+        assertThrows(InvalidObjectionStatusException.class,
+                () -> objectionProcessor.retry(dummyObjection, HTTP_REQUEST_ID));
+
+        verify(objectionRepository, never()).saveStatus(any(), any());
+    }
+
+    @Test
+    void processThrowsWhenStatusChangedByAnotherProcess() throws Exception {
+        when(companyProfileService.getCompanyProfile(COMPANY_NUMBER, HTTP_REQUEST_ID))
+                .thenReturn(Utils.getDummyCompanyProfile(COMPANY_NUMBER, JURISDICTION));
+        when(objectionRepository.saveStatus(any(), any())).thenReturn(false);
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+
+        InvalidObjectionStatusException thrown = assertThrows(InvalidObjectionStatusException.class,
+                () -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
+
+        verify(apiLogger, times(1)).errorContext(eq(HTTP_REQUEST_ID),
+                eq("Status of objection " + OBJECTION_ID + " was changed by another process, PROCESSED not saved"),
+                eq(thrown), any());
+    }
+
+    @Test
+    void processStopsWhenErrorStatusChangedByAnotherProcess() throws Exception {
+        when(objectionRepository.saveStatus(any(), any())).thenReturn(false);
+        Objection dummyObjection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        dummyObjection.setStatus(ObjectionStatus.SUBMITTED);
+        doThrow(new ServiceException("chips")).when(chipsService).sendObjection(any(), any());
+
+        assertThrows(InvalidObjectionStatusException.class,
+                () -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
+
+        verify(emailService, never()).sendObjectionSubmittedDissolutionTeamEmail(any(), any(), any(), any());
+    }
+
+    private ExecutorService enableConcurrentDispatch() {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        ReflectionTestUtils.setField(objectionProcessor, "objectionDispatchExecutor", executor);
+        ReflectionTestUtils.setField(objectionProcessor, "isConcurrentDispatchEnabled", true);
+        return executor;
+    }
+
     private void processObjectionAndCheckForError(Objection dummyObjection) {
         ArgumentCaptor<Objection> objectionArgumentCaptor = ArgumentCaptor.forClass(Objection.class);
         assertThrows(ServiceException.class,
                 () -> objectionProcessor.process(dummyObjection, HTTP_REQUEST_ID));
         
         verify(apiLogger, times(1)).errorContext(eq(HTTP_REQUEST_ID), any(), any(), any());
-        verify(objectionRepository, times(1)).save(objectionArgumentCaptor.capture());
+        verify(objectionRepository, times(1)).saveStatus(objectionArgumentCaptor.capture(), any());
 
         Objection objection = objectionArgumentCaptor.getValue();
         assertEquals(ObjectionStatus.ERROR_DATA_INCOMPLETE, objection.getStatus());
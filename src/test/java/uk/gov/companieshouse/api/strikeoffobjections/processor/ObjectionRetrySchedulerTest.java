@@ -0,0 +1,172 @@
+package uk.gov.companieshouse.api.strikeoffobjections.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.common.KafkaSpool;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
+import uk.gov.companieshouse.service.ServiceException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Unit
+@ExtendWith(MockitoExtension.class)
+class ObjectionRetrySchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 1, 20, 12, 0);
+    private static final int BATCH_SIZE = 10;
+    private static final long LEASE_SECONDS = 300;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_DELAY_SECONDS = 60;
+    private static final long MAX_DELAY_SECONDS = 3600;
+    private static final int CLAIMED_PARTITION = 3;
+    private static final String REQUEST_ID = "87654321";
+
+    @Mock
+    private ObjectionRepository objectionRepository;
+
+    @Mock
+    private ObjectionProcessor objectionProcessor;
+
+    @Mock
+    private KafkaSpool kafkaSpool;
+
+    @Mock
+    private ApiLogger apiLogger;
+
+    private ObjectionRetryScheduler buildScheduler(boolean enabled) {
+        return new ObjectionRetryScheduler(objectionRepository, objectionProcessor, kafkaSpool, apiLogger,
+                () -> NOW, enabled, BATCH_SIZE, LEASE_SECONDS, MAX_ATTEMPTS, BASE_DELAY_SECONDS, MAX_DELAY_SECONDS);
+    }
+
+    private void claimOnlyOnePartition() {
+        when(objectionRepository.claimRetryPartition(anyInt(), anyString(), eq(NOW), eq(NOW.plusSeconds(LEASE_SECONDS))))
+                .thenAnswer(invocation -> invocation.getArgument(0).equals(CLAIMED_PARTITION));
+    }
+
+    private Objection failedObjection(String id, int retryAttempts) {
+        Objection objection = new Objection();
+        objection.setId(id);
+        objection.setHttpRequestId(REQUEST_ID);
+        objection.setStatus(ObjectionStatus.ERROR_CHIPS);
+        objection.setRetryAttempts(retryAttempts);
+        return objection;
+    }
+
+    @Test
+    void willDoNothingWhenRetryDisabled() {
+        buildScheduler(false).poll();
+
+        verifyNoInteractions(objectionRepository, objectionProcessor);
+    }
+
+    @Test
+    void willNotRetryWhileKafkaMessagesAreSpooled() {
+        when(kafkaSpool.isSpooling()).thenReturn(true);
+
+        buildScheduler(true).poll();
+
+        verifyNoInteractions(objectionRepository, objectionProcessor);
+    }
+
+    @Test
+    void willRetryDueObjectionsInClaimedPartitionsOnly() throws Exception {
+        claimOnlyOnePartition();
+        Objection first = failedObjection("1", 1);
+        Objection second = failedObjection("2", 1);
+        when(objectionRepository.claimFailedObjection(CLAIMED_PARTITION, NOW, NOW.minusSeconds(BASE_DELAY_SECONDS),
+                NOW.plusSeconds(LEASE_SECONDS), MAX_ATTEMPTS)).thenReturn(first, second, null);
+
+        buildScheduler(true).poll();
+
+        verify(objectionRepository, times(ObjectionRetryScheduler.RETRY_PARTITIONS))
+                .claimRetryPartition(anyInt(), anyString(), any(), any());
+        verify(objectionRepository, times(3)).claimFailedObjection(anyInt(), any(), any(), any(), anyInt());
+        verify(objectionProcessor).retry(first, REQUEST_ID);
+        verify(objectionProcessor).retry(second, REQUEST_ID);
+        verify(objectionRepository, never()).scheduleRetry(any(), any());
+        verify(objectionRepository).releaseRetryPartition(eq(CLAIMED_PARTITION), anyString());
+    }
+
+    @Test
+    void willScheduleNextAttemptWithBackoffWhenRetryFails() throws Exception {
+        claimOnlyOnePartition();
+        Objection objection = failedObjection("1", 2);
+        when(objectionRepository.claimFailedObjection(anyInt(), any(), any(), any(), anyInt()))
+                .thenReturn(objection, null);
+        doThrow(new ServiceException("CHIPS unavailable")).when(objectionProcessor).retry(objection, REQUEST_ID);
+
+        buildScheduler(true).poll();
+
+        ArgumentCaptor<LocalDateTime> nextAttemptOn = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(objectionRepository).scheduleRetry(eq("1"), nextAttemptOn.capture());
+        // third attempt is due between half and all of four times the base delay
+        assertTrue(!nextAttemptOn.getValue().isBefore(NOW.plusSeconds(2 * BASE_DELAY_SECONDS)));
+        assertTrue(!nextAttemptOn.getValue().isAfter(NOW.plusSeconds(4 * BASE_DELAY_SECONDS)));
+        verify(objectionRepository).releaseRetryPartition(eq(CLAIMED_PARTITION), anyString());
+    }
+
+    @Test
+    void willNotScheduleNextAttemptWhenRetriesExhausted() throws Exception {
+        claimOnlyOnePartition();
+        Objection objection = failedObjection("1", MAX_ATTEMPTS);
+        when(objectionRepository.claimFailedObjection(anyInt(), any(), any(), any(), anyInt()))
+                .thenReturn(objection, null);
+        doThrow(new ServiceException("CHIPS unavailable")).when(objectionProcessor).retry(objection, REQUEST_ID);
+
+        buildScheduler(true).poll();
+
+        verify(objectionRepository, never()).scheduleRetry(any(), any());
+    }
+
+    @Test
+    void willStopPollingWhenPartitionCannotBeClaimed() {
+        when(objectionRepository.claimRetryPartition(anyInt(), anyString(), any(), any()))
+                .thenThrow(new IllegalStateException("Mongo unavailable"));
+
+        buildScheduler(true).poll();
+
+        verify(objectionRepository, times(1)).claimRetryPartition(anyInt(), anyString(), any(), any());
+        verify(objectionRepository, never()).claimFailedObjection(anyInt(), any(), any(), any(), anyInt());
+        verifyNoInteractions(objectionProcessor);
+    }
+
+    @Test
+    void backoffDoublesWithEachAttemptUpToMaxDelay() {
+        ObjectionRetryScheduler scheduler = buildScheduler(true);
+
+        assertEquals(BASE_DELAY_SECONDS / 2, scheduler.backoffSeconds(0, 0));
+        assertEquals(BASE_DELAY_SECONDS, scheduler.backoffSeconds(1, 0));
+        assertEquals(2 * BASE_DELAY_SECONDS + BASE_DELAY_SECONDS, scheduler.backoffSeconds(2, 0.5));
+        assertEquals(MAX_DELAY_SECONDS / 2, scheduler.backoffSeconds(10, 0));
+        assertEquals(MAX_DELAY_SECONDS / 2, scheduler.backoffSeconds(100, 0));
+    }
+
+    @Test
+    void partitionIsWithinRange() {
+        assertEquals(0, ObjectionRetryScheduler.partitionOf(null));
+        for (String id : new String[] {"5ff5b1a2c3d4e5f6a7b8c9d0", "a", "", "zzzzzzzz"}) {
+            int partition = ObjectionRetryScheduler.partitionOf(id);
+            assertTrue(partition >= 0 && partition < ObjectionRetryScheduler.RETRY_PARTITIONS);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package uk.gov.companieshouse.api.strikeoffobjections.processor;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.common.AsyncKafkaProducer;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
+import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
+import uk.gov.companieshouse.kafka.message.Message;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@Unit
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2021, 1, 20, 12, 0);
+    private static final long RETRY_DELAY_SECONDS = 60;
+    private static final String OBJECTION_ID = "87651234";
+    private static final String REQUEST_ID = "564565";
+    private static final String CHIPS_TOPIC = "chips-rest-interfaces-send";
+    private static final String EMAIL_TOPIC = "email-send";
+
+    @Mock
+    private ObjectionRepository objectionRepository;
+
+    @Mock
+    private AsyncKafkaProducer producer;
+
+    @Mock
+    private ApiLogger apiLogger;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setup() {
+        outboxRelay = new OutboxRelay(objectionRepository, producer, apiLogger, () -> NOW, true, 10,
+                RETRY_DELAY_SECONDS);
+    }
+
+    private OutboxMessage outboxMessage(String id, String topic) {
+        OutboxMessage message = new OutboxMessage();
+        message.setId(id);
+        message.setTopic(topic);
+        message.setValue(id.getBytes());
+        message.setTimestamp(1L);
+        return message;
+    }
+
+    private Objection objectionWithOutbox(OutboxMessage... messages) {
+        Objection objection = new Objection();
+        objection.setId(OBJECTION_ID);
+        objection.setHttpRequestId(REQUEST_ID);
+        objection.setOutbox(Arrays.asList(messages));
+        return objection;
+    }
+
+    private CompletableFuture<RecordMetadata> acknowledged() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<RecordMetadata> failed(Exception exception) {
+        CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        return future;
+    }
+
+    @Test
+    void willDoNothingWhenOutboxDisabled() {
+        new OutboxRelay(objectionRepository, producer, apiLogger, () -> NOW, false, 10, RETRY_DELAY_SECONDS)
+                .relay();
+
+        verifyNoInteractions(objectionRepository, producer);
+    }
+
+    @Test
+    void willRelayAllMessagesAndClearOutbox() throws Exception {
+        Objection objection = objectionWithOutbox(
+                outboxMessage("chips-1", CHIPS_TOPIC), outboxMessage("email-1", EMAIL_TOPIC));
+        when(objectionRepository.claimOutbox(NOW, NOW.plusSeconds(RETRY_DELAY_SECONDS)))
+                .thenReturn(objection, (Objection) null);
+        when(producer.send(any(Message.class))).thenReturn(acknowledged());
+
+        outboxRelay.relay();
+
+        verify(producer).send(argThat(message -> CHIPS_TOPIC.equals(message.getTopic())
+                && "chips-1".equals(new String(message.getValue()))));
+        verify(producer).send(argThat(message -> EMAIL_TOPIC.equals(message.getTopic())));
+        verify(objectionRepository).removeOutboxMessages(eq(OBJECTION_ID),
+                eq(Arrays.asList("chips-1", "email-1")), isNull());
+    }
+
+    @Test
+    void willKeepFailedMessagesForRetry() throws Exception {
+        Objection objection = objectionWithOutbox(
+                outboxMessage("chips-1", CHIPS_TOPIC), outboxMessage("email-1", EMAIL_TOPIC));
+        when(objectionRepository.claimOutbox(any(), any())).thenReturn(objection, (Objection) null);
+        when(producer.send(any(Message.class)))
+                .thenReturn(acknowledged(), failed(new RuntimeException("broker unavailable")));
+
+        outboxRelay.relay();
+
+        verify(objectionRepository).removeOutboxMessages(OBJECTION_ID, Collections.singletonList("chips-1"),
+                NOW.plusSeconds(RETRY_DELAY_SECONDS));
+        verify(apiLogger).errorContext(eq(REQUEST_ID), anyString(), any(ExecutionException.class), anyMap());
+    }
+
+    @Test
+    void willDoNothingWhenNoOutboxIsDue() {
+        when(objectionRepository.claimOutbox(any(), any())).thenReturn(null);
+
+        outboxRelay.relay();
+
+        verify(producer, never()).send(any());
+        verify(objectionRepository, never()).removeOutboxMessages(any(), any(), any());
+    }
+
+    @Test
+    void willClaimNoMoreThanBatchSize() {
+        outboxRelay = new OutboxRelay(objectionRepository, producer, apiLogger, () -> NOW, 2, RETRY_DELAY_SECONDS);
+        when(objectionRepository.claimOutbox(any(), any()))
+                .thenReturn(objectionWithOutbox(), objectionWithOutbox(), objectionWithOutbox());
+
+        outboxRelay.relay();
+
+        verify(objectionRepository, times(2)).claimOutbox(any(), any());
+        verify(objectionRepository, times(2)).removeOutboxMessages(OBJECTION_ID, Collections.emptyList(), null);
+    }
+}
@@ -0,0 +1,136 @@
+package uk.gov.companieshouse.api.strikeoffobjections.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Unit
+@ExtendWith(MockitoExtension.class)
+class ObjectionIndexReconcilerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    @Mock
+    private ApiLogger apiLogger;
+
+    private ObjectionIndexReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new ObjectionIndexReconciler(mongoTemplate, new MongoMappingContext(), apiLogger, true);
+    }
+
+    @Test
+    void declaresIndexesForObjectionQueries() {
+        List<String> declared = declaredNames();
+
+        assertTrue(declared.contains("status_status_changed_on"));
+        assertTrue(declared.contains("company_number_created_on"));
+        assertTrue(declared.contains("created_by_email"));
+        assertTrue(declared.contains("status_changed_on"));
+        assertTrue(declared.contains("outbox_next_attempt_on"));
+    }
+
+    @Test
+    void buildsMissingIndexesInBackground() {
+        when(mongoTemplate.indexOps(Objection.class)).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(indexes("_id_", "status_status_changed_on", "outbox_next_attempt_on"));
+
+        List<String> built = reconciler.reconcile();
+
+        assertEquals(Arrays.asList("company_number_created_on", "created_by_email", "status_changed_on"),
+                built.stream().sorted().collect(Collectors.toList()));
+        ArgumentCaptor<IndexDefinition> definitions = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps, times(3)).ensureIndex(definitions.capture());
+        for (IndexDefinition definition : definitions.getAllValues()) {
+            assertEquals(Boolean.TRUE, definition.getIndexOptions().get("background"));
+        }
+    }
+
+    @Test
+    void buildsNothingWhenAllIndexesExist() {
+        when(mongoTemplate.indexOps(Objection.class)).thenReturn(indexOps);
+        List<String> existing = declaredNames();
+        existing.add(ObjectionIndexReconciler.ID_INDEX_NAME);
+        when(indexOps.getIndexInfo()).thenReturn(indexes(existing.toArray(new String[0])));
+
+        assertTrue(reconciler.reconcile().isEmpty());
+        verify(indexOps, never()).ensureIndex(any());
+        verify(apiLogger, never()).infoContext(anyString(), anyString());
+    }
+
+    @Test
+    void logsUndeclaredIndexesWithoutDroppingThem() {
+        when(mongoTemplate.indexOps(Objection.class)).thenReturn(indexOps);
+        List<String> existing = declaredNames();
+        existing.add("company_number");
+        when(indexOps.getIndexInfo()).thenReturn(indexes(existing.toArray(new String[0])));
+
+        reconciler.reconcile();
+
+        verify(apiLogger).infoContext(anyString(), contains("[company_number]"));
+        verify(indexOps, never()).dropIndex(anyString());
+    }
+
+    @Test
+    void logsErrorWhenIndexCannotBeBuilt() {
+        when(mongoTemplate.indexOps(Objection.class)).thenReturn(indexOps);
+        RuntimeException failure = new RuntimeException("not primary");
+        when(indexOps.getIndexInfo()).thenThrow(failure);
+
+        assertTrue(reconciler.reconcile().isEmpty());
+        verify(apiLogger).errorContext(anyString(), eq("Unable to reconcile objection indexes"), eq(failure));
+    }
+
+    @Test
+    void doesNotReconcileWhenDisabled() {
+        reconciler = new ObjectionIndexReconciler(mongoTemplate, new MongoMappingContext(), apiLogger, false);
+
+        reconciler.reconcileInBackground();
+
+        verify(mongoTemplate, never()).indexOps(Objection.class);
+    }
+
+    private List<String> declaredNames() {
+        return reconciler.getDeclaredIndexes().stream()
+                .map(index -> index.getIndexOptions().getString("name"))
+                .collect(Collectors.toList());
+    }
+
+    private static List<IndexInfo> indexes(String... names) {
+        return Arrays.stream(names)
+                .map(name -> new IndexInfo(Collections.emptyList(), name, false, false, null))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,375 @@
+package uk.gov.companieshouse.api.strikeoffobjections.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.CreatedBy;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
+import uk.gov.companieshouse.api.strikeoffobjections.model.patch.ObjectionPatch;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Unit
+@ExtendWith(MockitoExtension.class)
+class ObjectionRepositoryCustomImplTest {
+
+    private static final String OBJECTION_ID = "OBJECTION_ID";
+    private static final String REQUEST_ID = "REQUEST_ID";
+    private static final String COLLECTION_NAME = "strike_off_objections";
+    private static final LocalDateTime STATUS_CHANGED_ON = LocalDateTime.of(2020, 12, 10, 8, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private ObjectionRepositoryCustomImpl repository;
+
+    @Test
+    void findSummaryByIdReadsOnlyAuthorisationFields() {
+        when(mongoTemplate.getCollectionName(Objection.class)).thenReturn(COLLECTION_NAME);
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq(COLLECTION_NAME))).thenReturn(
+                new Document("_id", OBJECTION_ID)
+                        .append("company_number", "00006400")
+                        .append("status", "OPEN")
+                        .append("created_by", new Document("email", "demo@ch.gov.uk")));
+
+        ObjectionSummary summary = repository.findSummaryById(OBJECTION_ID);
+
+        assertEquals(OBJECTION_ID, summary.getId());
+        assertEquals("00006400", summary.getCompanyNumber());
+        assertEquals(ObjectionStatus.OPEN, summary.getStatus());
+        assertEquals("demo@ch.gov.uk", summary.getCreatedByEmail());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(Document.class), eq(COLLECTION_NAME));
+        Document fields = query.getValue().getFieldsObject();
+        assertEquals(new HashSet<>(Arrays.asList("company_number", "status", "created_by.email")), fields.keySet());
+    }
+
+    @Test
+    void findSummaryByIdReportsMissingObjection() {
+        when(mongoTemplate.getCollectionName(Objection.class)).thenReturn(COLLECTION_NAME);
+
+        assertNull(repository.findSummaryById(OBJECTION_ID));
+    }
+
+    @Test
+    void findAttachmentProjectsMatchingAttachment() {
+        Attachment attachment = new Attachment();
+        attachment.setId("ATTACHMENT_ID");
+        Objection projected = new Objection();
+        projected.addAttachment(attachment);
+        when(mongoTemplate.findOne(any(Query.class), eq(Objection.class))).thenReturn(projected);
+
+        assertEquals(attachment, repository.findAttachment(OBJECTION_ID, "ATTACHMENT_ID"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(Objection.class));
+        assertEquals("ATTACHMENT_ID", query.getValue().getQueryObject().get("attachments.id"));
+        Document elemMatch = query.getValue().getFieldsObject().get("attachments", Document.class);
+        assertEquals(new Document("id", "ATTACHMENT_ID"), elemMatch.get("$elemMatch"));
+    }
+
+    @Test
+    void findAttachmentReportsMissingAttachment() {
+        assertNull(repository.findAttachment(OBJECTION_ID, "ATTACHMENT_ID"));
+    }
+
+    @Test
+    void findCompanyObjectionsReadsFirstPageNewestFirst() {
+        List<Objection> objections = Collections.singletonList(objection());
+        when(mongoTemplate.find(any(Query.class), eq(Objection.class))).thenReturn(objections);
+
+        assertEquals(objections, repository.findCompanyObjections("00006400",
+                EnumSet.of(ObjectionStatus.OPEN, ObjectionStatus.SUBMITTED), null, null, 21));
+
+        Query query = captureFind();
+        assertEquals("00006400", query.getQueryObject().get("company_number"));
+        assertEquals(EnumSet.of(ObjectionStatus.OPEN, ObjectionStatus.SUBMITTED), statusesIn(query));
+        assertFalse(query.getQueryObject().containsKey("$or"));
+        assertEquals(new Document("created_on", -1).append("_id", -1), query.getSortObject());
+        assertEquals(21, query.getLimit());
+        assertEquals(new HashSet<>(Arrays.asList("company_number", "created_on", "created_by", "status",
+                "status_changed_on")), query.getFieldsObject().keySet());
+    }
+
+    @Test
+    void findCompanyObjectionsResumesAfterCursor() {
+        LocalDateTime createdOn = LocalDateTime.of(2020, 12, 1, 9, 30);
+
+        repository.findCompanyObjections("00006400", Collections.emptyList(), createdOn, OBJECTION_ID, 21);
+
+        Query query = captureFind();
+        assertFalse(query.getQueryObject().containsKey("status"));
+        List<?> or = query.getQueryObject().get("$or", List.class);
+        assertEquals(new Document("created_on", new Document("$lt", createdOn)), or.get(0));
+        assertEquals(new Document("created_on", createdOn).append("_id", new Document("$lt", OBJECTION_ID)),
+                or.get(1));
+    }
+
+    @Test
+    void addAttachmentPushesAttachment() {
+        Attachment attachment = new Attachment();
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Objection.class)))
+                .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
+
+        assertTrue(repository.addAttachment(OBJECTION_ID, attachment));
+
+        Document update = captureUpdate();
+        assertEquals(attachment, update.get("$push", Document.class).get("attachments"));
+        assertFalse(update.containsKey("$set"));
+    }
+
+    @Test
+    void addAttachmentReportsMissingObjection() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Objection.class)))
+                .thenReturn(UpdateResult.acknowledged(0L, 0L, null));
+
+        assertFalse(repository.addAttachment(OBJECTION_ID, new Attachment()));
+    }
+
+    @Test
+    void removeAttachmentPullsAttachmentById() {
+        repository.removeAttachment(OBJECTION_ID, "ATTACHMENT_ID");
+
+        Document update = captureUpdate();
+        assertEquals(new Document("id", "ATTACHMENT_ID"), update.get("$pull", Document.class).get("attachments"));
+    }
+
+    @Test
+    void patchObjectionSetsOnlyPatchedFields() {
+        Objection patched = objection();
+        ObjectionPatch patch = new ObjectionPatch();
+        patch.setReason("REASON");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Objection.class))).thenReturn(patched);
+
+        assertEquals(patched, repository.patchObjection(OBJECTION_ID, patch, REQUEST_ID, STATUS_CHANGED_ON));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Objection.class));
+        assertFalse(query.getValue().getQueryObject().containsKey("status"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("REASON", set.get("reason"));
+        assertEquals(REQUEST_ID, set.get("http_request_id"));
+        assertFalse(set.containsKey("status"));
+        assertFalse(set.containsKey("created_by.full_name"));
+        assertFalse(set.containsKey("attachments"));
+    }
+
+    @Test
+    void patchObjectionChangesStatusOnlyFromPreviousStatuses() {
+        ObjectionPatch patch = new ObjectionPatch();
+        patch.setFullName("Joe Bloggs");
+        patch.setStatus(ObjectionStatus.SUBMITTED);
+
+        assertNull(repository.patchObjection(OBJECTION_ID, patch, REQUEST_ID, STATUS_CHANGED_ON));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Objection.class));
+        assertEquals(OBJECTION_ID, query.getValue().getQueryObject().get("_id"));
+        assertEquals(EnumSet.of(ObjectionStatus.OPEN), statusesIn(query.getValue()));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("Joe Bloggs", set.get("created_by.full_name"));
+        assertEquals(ObjectionStatus.SUBMITTED, set.get("status"));
+        assertEquals(STATUS_CHANGED_ON, set.get("status_changed_on"));
+    }
+
+    @Test
+    void saveStatusWithoutOutboxMessages() {
+        Objection objection = objection();
+        objection.setStatus(ObjectionStatus.ERROR_CHIPS);
+        objection.setRetryPartition(3);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Objection.class)))
+                .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
+
+        assertTrue(repository.saveStatus(objection, Collections.emptyList()));
+
+        Document update = captureUpdate();
+        Document set = update.get("$set", Document.class);
+        assertEquals(ObjectionStatus.ERROR_CHIPS, set.get("status"));
+        assertEquals(3, set.get("retry_partition"));
+        assertNull(set.get("outbox_next_attempt_on"));
+        assertFalse(set.containsKey("chips_sent_on"));
+        assertFalse(update.containsKey("$push"));
+    }
+
+    @Test
+    void saveStatusRecordsSuccessfulSends() {
+        Objection objection = objection();
+        objection.setStatus(ObjectionStatus.ERROR_CHIPS);
+        objection.setInternalEmailSentOn(STATUS_CHANGED_ON);
+        objection.setExternalEmailSentOn(STATUS_CHANGED_ON.plusSeconds(1));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Objection.class)))
+                .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
+
+        repository.saveStatus(objection, Collections.emptyList());
+
+        Document set = captureUpdate().get("$set", Document.class);
+        assertFalse(set.containsKey("chips_sent_on"));
+        assertEquals(STATUS_CHANGED_ON, set.get("internal_email_sent_on"));
+        assertEquals(STATUS_CHANGED_ON.plusSeconds(1), set.get("external_email_sent_on"));
+    }
+
+    @Test
+    void saveStatusRecordsInternalEmailRecipientsSentTo() {
+        Objection objection = objection();
+        objection.setStatus(ObjectionStatus.ERROR_INTERNAL_EMAIL);
+        objection.getInternalEmailSentTo().add("test1@cardiff.gov.uk");
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Objection.class)))
+                .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
+
+        repository.saveStatus(objection, Collections.emptyList());
+
+        Document addToSet = captureUpdate().get("$addToSet", Document.class);
+        assertTrue(addToSet.containsKey("internal_email_sent_to"));
+    }
+
+    @Test
+    void saveStatusAppendsOutboxMessages() {
+        Objection objection = objection();
+        objection.setStatus(ObjectionStatus.PROCESSED);
+        objection.setOutboxNextAttemptOn(STATUS_CHANGED_ON);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Objection.class)))
+                .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
+
+        repository.saveStatus(objection, Collections.singletonList(new OutboxMessage()));
+
+        Document update = captureUpdate();
+        assertEquals(STATUS_CHANGED_ON, update.get("$set", Document.class).get("outbox_next_attempt_on"));
+        assertTrue(update.get("$push", Document.class).containsKey("outbox"));
+    }
+
+    @Test
+    void saveStatusReportsStatusChangedByAnotherProcess() {
+        Objection objection = objection();
+        objection.setStatus(ObjectionStatus.ERROR_EXTERNAL_EMAIL);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Objection.class)))
+                .thenReturn(UpdateResult.acknowledged(0L, 0L, null));
+
+        assertFalse(repository.saveStatus(objection, Collections.emptyList()));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(query.capture(), any(Update.class), eq(Objection.class));
+        assertEquals(EnumSet.of(ObjectionStatus.SUBMITTED, ObjectionStatus.ERROR_CHIPS,
+                ObjectionStatus.ERROR_INTERNAL_EMAIL, ObjectionStatus.ERROR_EXTERNAL_EMAIL),
+                statusesIn(query.getValue()));
+    }
+
+    @Test
+    void renewProcessingLeaseOnlyForLeaseOwner() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Objection.class)))
+                .thenReturn(UpdateResult.acknowledged(0L, 0L, null));
+
+        assertFalse(repository.renewProcessingLease(OBJECTION_ID, "worker", STATUS_CHANGED_ON));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Objection.class));
+        Document criteria = query.getValue().getQueryObject();
+        assertEquals(OBJECTION_ID, criteria.get("_id"));
+        assertEquals(ObjectionStatus.SUBMITTED, criteria.get("status"));
+        assertEquals("worker", criteria.get("processing_lease_owner"));
+        assertEquals(STATUS_CHANGED_ON,
+                update.getValue().getUpdateObject().get("$set", Document.class).get("processing_lease_expires_on"));
+    }
+
+    @Test
+    void failExhaustedObjectionMovesToErrorChips() {
+        Objection failed = objection();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Objection.class))).thenReturn(failed);
+
+        assertEquals(failed, repository.failExhaustedObjection(STATUS_CHANGED_ON, 5));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(Objection.class));
+        Document criteria = query.getValue().getQueryObject();
+        assertEquals(ObjectionStatus.SUBMITTED, criteria.get("status"));
+        assertEquals(5, criteria.get("processing_attempts", Document.class).get("$gte"));
+        assertEquals(STATUS_CHANGED_ON, criteria.get("processing_lease_expires_on", Document.class).get("$lt"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(ObjectionStatus.ERROR_CHIPS, set.get("status"));
+        assertEquals(STATUS_CHANGED_ON, set.get("status_changed_on"));
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class)
+                .containsKey("processing_lease_owner"));
+    }
+
+    @Test
+    void saveSentOnKeepsFirstSend() {
+        repository.saveSentOn(OBJECTION_ID, ObjectionStatus.ERROR_INTERNAL_EMAIL, STATUS_CHANGED_ON);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Objection.class));
+        Document criteria = query.getValue().getQueryObject();
+        assertEquals(OBJECTION_ID, criteria.get("_id"));
+        assertEquals(new Document("$exists", false), criteria.get("internal_email_sent_on"));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(STATUS_CHANGED_ON, set.get("internal_email_sent_on"));
+        assertFalse(set.containsKey("status"));
+    }
+
+    private Objection objection() {
+        Objection objection = new Objection();
+        objection.setId(OBJECTION_ID);
+        objection.setHttpRequestId(REQUEST_ID);
+        objection.setStatusChangedOn(STATUS_CHANGED_ON);
+        objection.setCreatedBy(new CreatedBy("USER_ID", "demo@ch.gov.uk", "client", null, false));
+        return objection;
+    }
+
+    private static Set<Object> statusesIn(Query query) {
+        return new HashSet<>((Collection<?>) query.getQueryObject().get("status", Document.class).get("$in"));
+    }
+
+    private Query captureFind() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Objection.class));
+        return query.getValue();
+    }
+
+    private Document captureUpdate() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Objection.class));
+        assertEquals(OBJECTION_ID, query.getValue().getQueryObject().get("_id"));
+        return update.getValue().getUpdateObject();
+    }
+}
@@ -0,0 +1,87 @@
+package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.companieshouse.api.model.company.CompanyProfileApi;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
+import uk.gov.companieshouse.service.ServiceException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Unit
+class CompanyProfileCacheTest {
+
+    private static final String COMPANY_NUMBER = "12345678";
+    private static final String JURISDICTION = "wales";
+
+    private SimpleMeterRegistry meterRegistry;
+    private CompanyProfileCache companyProfileCache;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        companyProfileCache = new CompanyProfileCache(10, 60, meterRegistry);
+    }
+
+    @Test
+    void testOnlyNameAndJurisdictionAreCached() throws ServiceException {
+        CompanyProfileApi companyProfile = companyProfileCache.getCompanyProfile(COMPANY_NUMBER,
+                key -> Utils.getDummyCompanyProfile(key, JURISDICTION));
+
+        assertEquals("Company: " + COMPANY_NUMBER, companyProfile.getCompanyName());
+        assertEquals(JURISDICTION, companyProfile.getJurisdiction());
+        assertNull(companyProfile.getCompanyNumber());
+    }
+
+    @Test
+    void testHitsAndMissesAreCounted() throws ServiceException {
+        CompanyProfileApi loaded = companyProfileCache.getCompanyProfile(COMPANY_NUMBER,
+                key -> Utils.getDummyCompanyProfile(key, JURISDICTION));
+        CompanyProfileApi cached = companyProfileCache.getCompanyProfile(COMPANY_NUMBER, key -> {
+            throw new IllegalStateException("Loader should not be called for a cached company");
+        });
+
+        assertSame(loaded, cached);
+        assertEquals(1, companyProfileCache.getStats().hitCount());
+        assertEquals(1, companyProfileCache.getStats().missCount());
+    }
+
+    @Test
+    void testLoaderFailureIsThrownAndNotCached() throws ServiceException {
+        ServiceException failure = new ServiceException("SDK unavailable");
+
+        ServiceException thrown = assertThrows(ServiceException.class,
+                () -> companyProfileCache.getCompanyProfile(COMPANY_NUMBER, key -> {
+                    throw failure;
+                }));
+        CompanyProfileApi companyProfile = companyProfileCache.getCompanyProfile(COMPANY_NUMBER,
+                key -> Utils.getDummyCompanyProfile(key, JURISDICTION));
+
+        assertSame(failure, thrown);
+        assertEquals(JURISDICTION, companyProfile.getJurisdiction());
+    }
+
+    @Test
+    void testMissingProfileIsNotCached() throws ServiceException {
+        CompanyProfileApi missing = companyProfileCache.getCompanyProfile(COMPANY_NUMBER, key -> null);
+        CompanyProfileApi companyProfile = companyProfileCache.getCompanyProfile(COMPANY_NUMBER,
+                key -> Utils.getDummyCompanyProfile(key, JURISDICTION));
+
+        assertNull(missing);
+        assertEquals(JURISDICTION, companyProfile.getJurisdiction());
+    }
+
+    @Test
+    void testCacheMetricsAreRegistered() {
+        assertNotNull(meterRegistry.find("cache.gets")
+                .tag("cache", CompanyProfileCache.CACHE_NAME).meter());
+        assertNotNull(meterRegistry.find(CompanyProfileCache.COALESCED_METRIC_NAME)
+                .tag("cache", CompanyProfileCache.CACHE_NAME).meter());
+    }
+}
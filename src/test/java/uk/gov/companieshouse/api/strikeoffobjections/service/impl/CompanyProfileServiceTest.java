@@ -1,9 +1,9 @@
 package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.companieshouse.api.ApiClient;
@@ -22,6 +22,8 @@ import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Unit
@@ -48,7 +50,6 @@ class CompanyProfileServiceTest {
     @Mock
     private ApiResponse<CompanyProfileApi> apiResponse;
 
-    @InjectMocks
     private CompanyProfileService companyProfileService;
 
     private CompanyProfileApi dummyCompanyProfile;
@@ -56,6 +57,8 @@ class CompanyProfileServiceTest {
     @BeforeEach
     void init() {
         dummyCompanyProfile = Utils.getDummyCompanyProfile(COMPANY_NUMBER, "wales");
+        companyProfileService = new CompanyProfileService(apiSdkClient, apiLogger,
+                new CompanyProfileCache(10, 60, new SimpleMeterRegistry()));
     }
 
     @Test
@@ -68,7 +71,23 @@ class CompanyProfileServiceTest {
 
         CompanyProfileApi returnedCompanyProfile = companyProfileService.getCompanyProfile(COMPANY_NUMBER, REQUEST_ID);
 
-        assertEquals(dummyCompanyProfile, returnedCompanyProfile);
+        assertEquals(dummyCompanyProfile.getCompanyName(), returnedCompanyProfile.getCompanyName());
+        assertEquals(dummyCompanyProfile.getJurisdiction(), returnedCompanyProfile.getJurisdiction());
+    }
+
+    @Test
+    void testGetCompanyProfileIsCached() throws ApiErrorResponseException, URIValidationException, ServiceException {
+        when(apiSdkClient.getApiClient()).thenReturn(apiClient);
+        when(apiClient.company()).thenReturn(companyResourceHandler);
+        when(companyResourceHandler.get("/company/" + COMPANY_NUMBER)).thenReturn(companyGet);
+        when(companyGet.execute()).thenReturn(apiResponse);
+        when(apiResponse.getData()).thenReturn(dummyCompanyProfile);
+
+        companyProfileService.getCompanyProfile(COMPANY_NUMBER, REQUEST_ID);
+        CompanyProfileApi returnedCompanyProfile = companyProfileService.getCompanyProfile(COMPANY_NUMBER, REQUEST_ID);
+
+        assertEquals(dummyCompanyProfile.getCompanyName(), returnedCompanyProfile.getCompanyName());
+        verify(companyGet, times(1)).execute();
     }
 
     @Test
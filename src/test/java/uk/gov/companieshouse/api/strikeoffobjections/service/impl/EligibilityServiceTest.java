@@ -0,0 +1,107 @@
+package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.CompanyEligibility;
+import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.EligibilityStatus;
+import uk.gov.companieshouse.api.strikeoffobjections.model.eligibility.ObjectionEligibility;
+import uk.gov.companieshouse.api.strikeoffobjections.service.IObjectionService;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Unit
+@ExtendWith(MockitoExtension.class)
+class EligibilityServiceTest {
+
+    private static final String REQUEST_ID = "87654321";
+    private static final String COMPANY_NUMBER_1 = "00000001";
+    private static final String COMPANY_NUMBER_2 = "00000002";
+
+    @Mock
+    private IObjectionService objectionService;
+
+    @Mock
+    private ApiLogger apiLogger;
+
+    private ExecutorService executor;
+
+    private EligibilityService eligibilityService;
+
+    @BeforeEach
+    void setup() {
+        executor = Executors.newFixedThreadPool(2);
+        eligibilityService = new EligibilityService(objectionService, executor, apiLogger);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void willCheckEachDistinctCompanyOnce() throws Exception {
+        when(objectionService.isCompanyEligible(COMPANY_NUMBER_1, REQUEST_ID))
+                .thenReturn(new ObjectionEligibility(true, EligibilityStatus.ELIGIBLE));
+        when(objectionService.isCompanyEligible(COMPANY_NUMBER_2, REQUEST_ID))
+                .thenReturn(new ObjectionEligibility(false, EligibilityStatus.INELIGIBLE_COMPANY_STRUCK_OFF));
+
+        Map<String, CompanyEligibility> results = new ConcurrentHashMap<>();
+        eligibilityService.checkEligibility(
+                Arrays.asList(COMPANY_NUMBER_1, " " + COMPANY_NUMBER_2 + " ", COMPANY_NUMBER_1, ""),
+                REQUEST_ID,
+                result -> results.put(result.getCompanyNumber(), result)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(COMPANY_NUMBER_1).isEligible());
+        assertEquals(EligibilityStatus.ELIGIBLE, results.get(COMPANY_NUMBER_1).getEligibilityStatus());
+        assertFalse(results.get(COMPANY_NUMBER_2).isEligible());
+        assertEquals(EligibilityStatus.INELIGIBLE_COMPANY_STRUCK_OFF,
+                results.get(COMPANY_NUMBER_2).getEligibilityStatus());
+        verify(objectionService, times(1)).isCompanyEligible(COMPANY_NUMBER_1, REQUEST_ID);
+        verify(objectionService, times(1)).isCompanyEligible(COMPANY_NUMBER_2, REQUEST_ID);
+    }
+
+    @Test
+    void willReturnErrorResultWhenCheckFails() throws Exception {
+        RuntimeException exception = new RuntimeException("Oracle Query API unavailable");
+        when(objectionService.isCompanyEligible(COMPANY_NUMBER_1, REQUEST_ID))
+                .thenReturn(new ObjectionEligibility(true, EligibilityStatus.ELIGIBLE));
+        when(objectionService.isCompanyEligible(COMPANY_NUMBER_2, REQUEST_ID)).thenThrow(exception);
+
+        Map<String, CompanyEligibility> results = new ConcurrentHashMap<>();
+        eligibilityService.checkEligibility(
+                Arrays.asList(COMPANY_NUMBER_1, COMPANY_NUMBER_2),
+                REQUEST_ID,
+                result -> results.put(result.getCompanyNumber(), result)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(COMPANY_NUMBER_1).isEligible());
+        assertNull(results.get(COMPANY_NUMBER_2).isEligible());
+        assertNull(results.get(COMPANY_NUMBER_2).getEligibilityStatus());
+        assertEquals("Unable to determine eligibility", results.get(COMPANY_NUMBER_2).getError());
+        verify(apiLogger).errorContext(eq(REQUEST_ID), anyString(), eq(exception), anyMap());
+    }
+}
@@ -0,0 +1,121 @@
+package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
+import uk.gov.companieshouse.api.strikeoffobjections.email.KafkaEmailClient;
+import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailContent;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
+import uk.gov.companieshouse.service.ServiceException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds an objection's dissolution team emails, for different numbers of recipients, and its
+ * customer email. Kafka is stubbed out, so only building the email contents is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EmailServiceBenchmark {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 12, 10, 8, 0);
+
+    @Param({"1", "5", "20"})
+    public int recipients;
+
+    private final CapturingEmailClient kafkaEmailClient = new CapturingEmailClient();
+    private EmailService emailService;
+    private Objection objection;
+
+    @Setup
+    public void setUp() {
+        List<String> addresses = new ArrayList<>(recipients);
+        for (int i = 0; i < recipients; i++) {
+            addresses.add(String.format("dissolution%d@cardiff.gov.uk", i));
+        }
+
+        emailService = new EmailService(new SilentLogger(), kafkaEmailClient, () -> NOW);
+        ReflectionTestUtils.setField(emailService, "emailSubject", "{{ COMPANY_NUMBER }}: objection submitted");
+        ReflectionTestUtils.setField(emailService, "emailAttachmentDownloadUrlPrefix",
+                "http://chs-test-web:4000/strike-off-objections/download");
+        ReflectionTestUtils.setField(emailService, "emailRecipientsCardiff", String.join(",", addresses));
+        ReflectionTestUtils.setField(emailService, "emailRecipientsEdinburgh", "test1@edinburgh.gov.uk");
+        ReflectionTestUtils.setField(emailService, "emailRecipientsBelfast", "test1@belfast.gov.uk");
+        emailService.buildDissolutionTeamRecipients();
+
+        objection = Utils.getTestObjection("OBJECTION_ID", "THIS IS A REASON", "00006400", "32324",
+                "demo@ch.gov.uk", NOW, Utils.buildTestObjectionCreate("client", "Joe Bloggs", false));
+    }
+
+    @Benchmark
+    public List<EmailContent> dissolutionTeamEmails() throws ServiceException {
+        emailService.sendObjectionSubmittedDissolutionTeamEmail(
+                emailService.buildEmailPayload("TEST COMPANY", objection), "wales", objection, "REQUEST_ID");
+        return kafkaEmailClient.sent;
+    }
+
+    @Benchmark
+    public List<EmailContent> customerEmail() throws ServiceException {
+        emailService.sendObjectionSubmittedCustomerEmail(
+                objection, emailService.buildEmailPayload("TEST COMPANY", objection), "REQUEST_ID");
+        return kafkaEmailClient.sent;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Keeps the last emails rather than sending them, so building them can't be optimised away
+     */
+    private static class CapturingEmailClient extends KafkaEmailClient {
+
+        private List<EmailContent> sent;
+
+        CapturingEmailClient() {
+            super(null, null, null);
+        }
+
+        @Override
+        public void sendEmailToKafka(EmailContent emailContent) {
+            sent = Collections.singletonList(emailContent);
+        }
+
+        @Override
+        public Map<String, Exception> sendEmailsToKafka(List<EmailContent> emailContents) {
+            sent = emailContents;
+            return Collections.emptyMap();
+        }
+    }
+
+    private static class SilentLogger extends ApiLogger {
+
+        @Override
+        public void debugContext(String context, String message) {
+            // logging isn't being measured
+        }
+    }
+}
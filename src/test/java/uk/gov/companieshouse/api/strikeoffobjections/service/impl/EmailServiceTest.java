@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -11,19 +12,36 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.email.KafkaEmailClient;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.KafkaMessageSpooledException;
 import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
 import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailContent;
+import uk.gov.companieshouse.api.strikeoffobjections.model.email.EmailPayload;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.OutboxMessage;
 import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
 import uk.gov.companieshouse.service.ServiceException;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -64,6 +82,9 @@ class EmailServiceTest {
     @Mock
     private Supplier<LocalDateTime> dateTimeSupplier;
 
+    @Captor
+    private ArgumentCaptor<List<EmailContent>> emailContentsArgumentCaptor;
+
     @InjectMocks
     private EmailService emailService;
 
@@ -77,6 +98,7 @@ class EmailServiceTest {
         ReflectionTestUtils.setField(emailService, "emailRecipientsCardiff", EMAIL_RECIPIENTS_CARDIFF_TEST);
         ReflectionTestUtils.setField(emailService, "emailRecipientsEdinburgh", EMAIL_RECIPIENTS_EDINBURGH_TEST);
         ReflectionTestUtils.setField(emailService, "emailRecipientsBelfast", EMAIL_RECIPIENTS_BELFAST_TEST);
+        emailService.buildDissolutionTeamRecipients();
     }
     @Test
     void sendObjectionSubmittedCustomerEmail() throws ServiceException {
@@ -88,7 +110,7 @@ class EmailServiceTest {
 
         emailService.sendObjectionSubmittedCustomerEmail(
                 objection,
-                COMPANY_NAME,
+                emailService.buildEmailPayload(COMPANY_NAME, objection),
                 REQUEST_ID
         );
 
@@ -104,6 +126,31 @@ class EmailServiceTest {
         assertExternalEmailData(data);
     }
 
+    @Test
+    void buildObjectionSubmittedDissolutionTeamEmailsForOutbox() throws ServiceException {
+        when(dateTimeSupplier.get()).thenReturn(LOCAL_DATE_TIME);
+        Objection objection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        OutboxMessage outboxMessage = new OutboxMessage();
+        when(kafkaEmailClient.toOutboxMessage(any())).thenReturn(outboxMessage);
+
+        List<OutboxMessage> messages = emailService.buildObjectionSubmittedDissolutionTeamEmails(
+                emailService.buildEmailPayload(COMPANY_NAME, objection),
+                JURISDICTION_SCOTLAND,
+                objection,
+                REQUEST_ID
+        );
+
+        ArgumentCaptor<EmailContent> emailContentArgumentCaptor = ArgumentCaptor.forClass(EmailContent.class);
+        verify(kafkaEmailClient, times(2)).toOutboxMessage(emailContentArgumentCaptor.capture());
+        verify(kafkaEmailClient, never()).sendEmailToKafka(any());
+        verify(kafkaEmailClient, never()).sendEmailsToKafka(any());
+        assertEquals(2, messages.size());
+        assertEquals("test1@edinburgh.gov.uk", emailContentArgumentCaptor.getAllValues().get(0).getEmailAddress());
+        assertEquals(EMAIL, emailContentArgumentCaptor.getAllValues().get(0).getData().get("customer_email"));
+    }
+
     @Test
     void sendObjectionSubmittedDissolutionEmailsWalesJurisdiction() throws ServiceException {
         when(dateTimeSupplier.get()).thenReturn(LOCAL_DATE_TIME);
@@ -112,16 +159,16 @@ class EmailServiceTest {
                 Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
 
         emailService.sendObjectionSubmittedDissolutionTeamEmail(
-                COMPANY_NAME,
+                emailService.buildEmailPayload(COMPANY_NAME, objection),
                 JURISDICTION_WALES ,
                 objection,
                 REQUEST_ID
         );
 
-        ArgumentCaptor<EmailContent> emailContentArgumentCaptor = ArgumentCaptor.forClass(EmailContent.class);
-        verify(kafkaEmailClient, times(3)).sendEmailToKafka(emailContentArgumentCaptor.capture());
+        verify(kafkaEmailClient, times(1)).sendEmailsToKafka(emailContentsArgumentCaptor.capture());
 
-        List<EmailContent> emailContentList = emailContentArgumentCaptor.getAllValues();
+        List<EmailContent> emailContentList = emailContentsArgumentCaptor.getValue();
+        assertEquals(3, emailContentList.size());
         assertEquals("test1@cardiff.gov.uk", emailContentList.get(0).getEmailAddress());
         assertEquals("test2@cardiff.gov.uk", emailContentList.get(1).getEmailAddress());
         assertEquals("test3@cardiff.gov.uk", emailContentList.get(2).getEmailAddress());
@@ -134,21 +181,22 @@ class EmailServiceTest {
     void sendObjectionSubmittedDissolutionEmailsWalesSpaceInConfigs() throws ServiceException {
         when(dateTimeSupplier.get()).thenReturn(LOCAL_DATE_TIME);
         ReflectionTestUtils.setField(emailService, "emailRecipientsCardiff", EMAIL_RECIPIENTS_CARDIFF_TEST_SPACE);
+        emailService.buildDissolutionTeamRecipients();
         Objection objection = Utils.getTestObjection(
                 OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
                 Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
 
         emailService.sendObjectionSubmittedDissolutionTeamEmail(
-                COMPANY_NAME,
+                emailService.buildEmailPayload(COMPANY_NAME, objection),
                 JURISDICTION_WALES ,
                 objection,
                 REQUEST_ID
         );
 
-        ArgumentCaptor<EmailContent> emailContentArgumentCaptor = ArgumentCaptor.forClass(EmailContent.class);
-        verify(kafkaEmailClient, times(3)).sendEmailToKafka(emailContentArgumentCaptor.capture());
+        verify(kafkaEmailClient, times(1)).sendEmailsToKafka(emailContentsArgumentCaptor.capture());
 
-        List<EmailContent> emailContentList = emailContentArgumentCaptor.getAllValues();
+        List<EmailContent> emailContentList = emailContentsArgumentCaptor.getValue();
+        assertEquals(3, emailContentList.size());
         assertEquals("test1@cardiff.gov.uk", emailContentList.get(0).getEmailAddress());
         assertEquals("test2@cardiff.gov.uk", emailContentList.get(1).getEmailAddress());
         assertEquals("test3@cardiff.gov.uk", emailContentList.get(2).getEmailAddress());
@@ -165,16 +213,16 @@ class EmailServiceTest {
                 Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
 
         emailService.sendObjectionSubmittedDissolutionTeamEmail(
-                COMPANY_NAME,
+                emailService.buildEmailPayload(COMPANY_NAME, objection),
                 JURISDICTION_SCOTLAND,
                 objection,
                 REQUEST_ID
         );
 
-        ArgumentCaptor<EmailContent> emailContentArgumentCaptor = ArgumentCaptor.forClass(EmailContent.class);
-        verify(kafkaEmailClient, times(2)).sendEmailToKafka(emailContentArgumentCaptor.capture());
+        verify(kafkaEmailClient, times(1)).sendEmailsToKafka(emailContentsArgumentCaptor.capture());
 
-        List<EmailContent> emailContentList = emailContentArgumentCaptor.getAllValues();
+        List<EmailContent> emailContentList = emailContentsArgumentCaptor.getValue();
+        assertEquals(2, emailContentList.size());
         assertEquals("test1@edinburgh.gov.uk", emailContentList.get(0).getEmailAddress());
         assertEquals("test2@edinburgh.gov.uk", emailContentList.get(1).getEmailAddress());
 
@@ -190,16 +238,16 @@ class EmailServiceTest {
                 Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
 
         emailService.sendObjectionSubmittedDissolutionTeamEmail(
-                COMPANY_NAME,
+                emailService.buildEmailPayload(COMPANY_NAME, objection),
                 JURISDICTION_NORTHERN_IRELAND,
                 objection,
                 REQUEST_ID
         );
 
-        ArgumentCaptor<EmailContent> emailContentArgumentCaptor = ArgumentCaptor.forClass(EmailContent.class);
-        verify(kafkaEmailClient, times(2)).sendEmailToKafka(emailContentArgumentCaptor.capture());
+        verify(kafkaEmailClient, times(1)).sendEmailsToKafka(emailContentsArgumentCaptor.capture());
 
-        List<EmailContent> emailContentList = emailContentArgumentCaptor.getAllValues();
+        List<EmailContent> emailContentList = emailContentsArgumentCaptor.getValue();
+        assertEquals(2, emailContentList.size());
         assertEquals("test1@belfast.gov.uk", emailContentList.get(0).getEmailAddress());
         assertEquals("test2@belfast.gov.uk", emailContentList.get(1).getEmailAddress());
 
@@ -207,41 +255,212 @@ class EmailServiceTest {
         assertInternalEmailData(sampleData);
     }
 
+    @Test
+    void sendObjectionSubmittedDissolutionEmailsReportsFailedRecipients() {
+        when(dateTimeSupplier.get()).thenReturn(LOCAL_DATE_TIME);
+        Objection objection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        IOException failure = new IOException("broker unavailable");
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        failures.put("test2@cardiff.gov.uk", failure);
+        when(kafkaEmailClient.sendEmailsToKafka(any())).thenReturn(failures);
+
+        ServiceException thrown = assertThrows(ServiceException.class,
+                () -> emailService.sendObjectionSubmittedDissolutionTeamEmail(
+                        emailService.buildEmailPayload(COMPANY_NAME, objection),
+                        JURISDICTION_WALES,
+                        objection,
+                        REQUEST_ID
+                ));
+
+        assertTrue(thrown.getMessage().contains("1 of 3"));
+        assertTrue(thrown.getMessage().contains("test2@cardiff.gov.uk"));
+        verify(apiLogger, times(1)).errorContext(eq(REQUEST_ID), eq("Error sending dissolution team email"),
+                eq(failure), anyMap());
+    }
+
+    @Test
+    void sendObjectionSubmittedDissolutionEmailsRecordsRecipientsSentTo() {
+        when(dateTimeSupplier.get()).thenReturn(LOCAL_DATE_TIME);
+        Objection objection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        failures.put("test2@cardiff.gov.uk", new IOException("broker unavailable"));
+        when(kafkaEmailClient.sendEmailsToKafka(any())).thenReturn(failures);
+
+        assertThrows(ServiceException.class,
+                () -> emailService.sendObjectionSubmittedDissolutionTeamEmail(
+                        emailService.buildEmailPayload(COMPANY_NAME, objection),
+                        JURISDICTION_WALES,
+                        objection,
+                        REQUEST_ID
+                ));
+
+        assertEquals(Arrays.asList("test1@cardiff.gov.uk", "test3@cardiff.gov.uk"),
+                objection.getInternalEmailSentTo());
+    }
+
+    @Test
+    void sendObjectionSubmittedDissolutionEmailsSkipsRecipientsAlreadySent() throws ServiceException {
+        when(dateTimeSupplier.get()).thenReturn(LOCAL_DATE_TIME);
+        Objection objection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        objection.getInternalEmailSentTo().addAll(Arrays.asList("test1@cardiff.gov.uk", "test3@cardiff.gov.uk"));
+
+        emailService.sendObjectionSubmittedDissolutionTeamEmail(
+                emailService.buildEmailPayload(COMPANY_NAME, objection),
+                JURISDICTION_WALES,
+                objection,
+                REQUEST_ID
+        );
+
+        verify(kafkaEmailClient, times(1)).sendEmailsToKafka(emailContentsArgumentCaptor.capture());
+        List<EmailContent> emailContentList = emailContentsArgumentCaptor.getValue();
+        assertEquals(1, emailContentList.size());
+        assertEquals("test2@cardiff.gov.uk", emailContentList.get(0).getEmailAddress());
+        assertEquals(Arrays.asList("test1@cardiff.gov.uk", "test3@cardiff.gov.uk", "test2@cardiff.gov.uk"),
+                objection.getInternalEmailSentTo());
+    }
+
+    @Test
+    void sendObjectionSubmittedDissolutionEmailsReportsSpooledWhenAllFailedRecipientsAreSpooled() {
+        when(dateTimeSupplier.get()).thenReturn(LOCAL_DATE_TIME);
+        Objection objection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        CompletableFuture<Void> firstReplayed = new CompletableFuture<>();
+        CompletableFuture<Void> secondReplayed = new CompletableFuture<>();
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        failures.put("test1@cardiff.gov.uk", new ExecutionException(
+                new KafkaMessageSpooledException("spooled", null, firstReplayed)));
+        failures.put("test2@cardiff.gov.uk", new ExecutionException(
+                new KafkaMessageSpooledException("spooled", null, secondReplayed)));
+        when(kafkaEmailClient.sendEmailsToKafka(any())).thenReturn(failures);
+
+        KafkaMessageSpooledException thrown = assertThrows(KafkaMessageSpooledException.class,
+                () -> emailService.sendObjectionSubmittedDissolutionTeamEmail(
+                        emailService.buildEmailPayload(COMPANY_NAME, objection),
+                        JURISDICTION_WALES,
+                        objection,
+                        REQUEST_ID
+                ));
+
+        assertTrue(thrown.getMessage().contains("2 of 3"));
+        firstReplayed.complete(null);
+        assertFalse(thrown.getReplayed().isDone());
+        secondReplayed.complete(null);
+        assertTrue(thrown.getReplayed().isDone());
+    }
+
+    @Test
+    void sendObjectionSubmittedDissolutionEmailsShareCommonData() throws ServiceException {
+        when(dateTimeSupplier.get()).thenReturn(LOCAL_DATE_TIME);
+        Objection objection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+
+        emailService.sendObjectionSubmittedDissolutionTeamEmail(
+                emailService.buildEmailPayload(COMPANY_NAME, objection),
+                JURISDICTION_WALES,
+                objection,
+                REQUEST_ID
+        );
+
+        verify(kafkaEmailClient, times(1)).sendEmailsToKafka(emailContentsArgumentCaptor.capture());
+
+        List<EmailContent> emailContentList = emailContentsArgumentCaptor.getValue();
+        Map<String, Object> first = emailContentList.get(0).getData();
+        Map<String, Object> second = emailContentList.get(1).getData();
+        assertNotSame(first, second);
+        assertSame(first.get("attachments"), second.get("attachments"));
+        assertSame(first.get("subject"), second.get("subject"));
+        assertSame(first.get("date"), second.get("date"));
+        assertEquals("test1@cardiff.gov.uk", first.get("to"));
+        assertEquals("test2@cardiff.gov.uk", second.get("to"));
+    }
+
+    @Test
+    void sendObjectionSubmittedEmailsShareOnePayload() throws ServiceException {
+        when(dateTimeSupplier.get()).thenReturn(LOCAL_DATE_TIME);
+        Objection objection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        EmailPayload payload = emailService.buildEmailPayload(COMPANY_NAME, objection);
+
+        emailService.sendObjectionSubmittedDissolutionTeamEmail(payload, JURISDICTION_WALES, objection, REQUEST_ID);
+        emailService.sendObjectionSubmittedCustomerEmail(objection, payload, REQUEST_ID);
+
+        ArgumentCaptor<EmailContent> customerEmailCaptor = ArgumentCaptor.forClass(EmailContent.class);
+        verify(kafkaEmailClient, times(1)).sendEmailsToKafka(emailContentsArgumentCaptor.capture());
+        verify(kafkaEmailClient, times(1)).sendEmailToKafka(customerEmailCaptor.capture());
+        Map<String, Object> internal = emailContentsArgumentCaptor.getValue().get(0).getData();
+        Map<String, Object> customer = customerEmailCaptor.getValue().getData();
+        assertSame(internal.get("attachments"), customer.get("attachments"));
+        assertSame(internal.get("subject"), customer.get("subject"));
+        assertEquals(EMAIL, customer.get("to"));
+    }
+
+    @Test
+    void buildEmailPayloadCopiesAttachments() {
+        Objection objection = Utils.getTestObjection(
+                OBJECTION_ID, REASON, COMPANY_NUMBER, USER_ID, EMAIL, LOCAL_DATE_TIME,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+        int attachmentCount = objection.getAttachments().size();
+
+        EmailPayload payload = emailService.buildEmailPayload(COMPANY_NAME, objection);
+        List<Attachment> attachments = (List<Attachment>) payload.getCommonData().get("attachments");
+        objection.getAttachments().clear();
+
+        assertEquals(attachmentCount, attachments.size());
+        assertThrows(UnsupportedOperationException.class, () -> attachments.add(new Attachment()));
+    }
+
+    @Test
+    void testRegionalEmailAddressesAreResolvedOnce() {
+        List<String> recipients = emailService.getDissolutionTeamRecipients(JURISDICTION_SCOTLAND);
+
+        assertSame(recipients, emailService.getDissolutionTeamRecipients(JURISDICTION_SCOTLAND));
+        assertThrows(UnsupportedOperationException.class, () -> recipients.add("test3@edinburgh.gov.uk"));
+    }
+
     @Test
     void testRegionalEmailAddresses() {
-        String[] recipients;
+        List<String> recipients;
         recipients = emailService.getDissolutionTeamRecipients("england");
-        assertEquals("test1@cardiff.gov.uk", recipients[0]);
-        assertEquals("test2@cardiff.gov.uk", recipients[1]);
-        assertEquals("test3@cardiff.gov.uk", recipients[2]);
+        assertEquals("test1@cardiff.gov.uk", recipients.get(0));
+        assertEquals("test2@cardiff.gov.uk", recipients.get(1));
+        assertEquals("test3@cardiff.gov.uk", recipients.get(2));
 
         recipients = emailService.getDissolutionTeamRecipients(JURISDICTION_WALES);
-        assertEquals("test1@cardiff.gov.uk", recipients[0]);
-        assertEquals("test2@cardiff.gov.uk", recipients[1]);
-        assertEquals("test3@cardiff.gov.uk", recipients[2]);
+        assertEquals("test1@cardiff.gov.uk", recipients.get(0));
+        assertEquals("test2@cardiff.gov.uk", recipients.get(1));
+        assertEquals("test3@cardiff.gov.uk", recipients.get(2));
 
         recipients = emailService.getDissolutionTeamRecipients("england-wales");
-        assertEquals("test1@cardiff.gov.uk", recipients[0]);
-        assertEquals("test2@cardiff.gov.uk", recipients[1]);
-        assertEquals("test3@cardiff.gov.uk", recipients[2]);
+        assertEquals("test1@cardiff.gov.uk", recipients.get(0));
+        assertEquals("test2@cardiff.gov.uk", recipients.get(1));
+        assertEquals("test3@cardiff.gov.uk", recipients.get(2));
 
         recipients = emailService.getDissolutionTeamRecipients(JURISDICTION_SCOTLAND );
-        assertEquals("test1@edinburgh.gov.uk", recipients[0]);
-        assertEquals("test2@edinburgh.gov.uk", recipients[1]);
+        assertEquals("test1@edinburgh.gov.uk", recipients.get(0));
+        assertEquals("test2@edinburgh.gov.uk", recipients.get(1));
 
         recipients = emailService.getDissolutionTeamRecipients(JURISDICTION_NORTHERN_IRELAND);
-        assertEquals("test1@belfast.gov.uk", recipients[0]);
-        assertEquals("test2@belfast.gov.uk", recipients[1]);
+        assertEquals("test1@belfast.gov.uk", recipients.get(0));
+        assertEquals("test2@belfast.gov.uk", recipients.get(1));
 
         recipients = emailService.getDissolutionTeamRecipients("united-kingdom");
-        assertEquals("test1@cardiff.gov.uk", recipients[0]);
-        assertEquals("test2@cardiff.gov.uk", recipients[1]);
-        assertEquals("test3@cardiff.gov.uk", recipients[2]);
+        assertEquals("test1@cardiff.gov.uk", recipients.get(0));
+        assertEquals("test2@cardiff.gov.uk", recipients.get(1));
+        assertEquals("test3@cardiff.gov.uk", recipients.get(2));
 
         recipients = emailService.getDissolutionTeamRecipients("something-else");
-        assertEquals("test1@cardiff.gov.uk", recipients[0]);
-        assertEquals("test2@cardiff.gov.uk", recipients[1]);
-        assertEquals("test3@cardiff.gov.uk", recipients[2]);
+        assertEquals("test1@cardiff.gov.uk", recipients.get(0));
+        assertEquals("test2@cardiff.gov.uk", recipients.get(1));
+        assertEquals("test3@cardiff.gov.uk", recipients.get(2));
     }
 
     void assertCommonEmailData(Map<String, Object> data) {
@@ -0,0 +1,94 @@
+package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
+import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@Unit
+class ObjectionContextTest {
+
+    private static final String OBJECTION_ID = "OBJECTION_ID";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectionContext objectionContext = new ObjectionContext(meterRegistry);
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void returnsObjectionLoadedEarlierInRequest() {
+        Objection objection = objection(OBJECTION_ID);
+        request.setAttribute(ObjectionContext.OBJECTION_ATTRIBUTE, objection);
+
+        assertEquals(Optional.of(objection), objectionContext.get(OBJECTION_ID));
+        assertEquals(1.0, readsSaved());
+    }
+
+    @Test
+    void doesNotReturnObjectionWithDifferentId() {
+        objectionContext.put(objection("OTHER_ID"));
+
+        assertFalse(objectionContext.get(OBJECTION_ID).isPresent());
+        assertEquals(0.0, readsSaved());
+    }
+
+    @Test
+    void putReplacesObjection() {
+        request.setAttribute(ObjectionContext.OBJECTION_ATTRIBUTE, objection(OBJECTION_ID));
+        Objection patched = objection(OBJECTION_ID);
+
+        objectionContext.put(patched);
+
+        assertEquals(patched, request.getAttribute(ObjectionContext.OBJECTION_ATTRIBUTE));
+    }
+
+    @Test
+    void evictRemovesObjection() {
+        request.setAttribute(ObjectionContext.OBJECTION_ATTRIBUTE, objection(OBJECTION_ID));
+
+        objectionContext.evict(OBJECTION_ID);
+
+        assertNull(request.getAttribute(ObjectionContext.OBJECTION_ATTRIBUTE));
+        assertFalse(objectionContext.get(OBJECTION_ID).isPresent());
+    }
+
+    @Test
+    void holdsNothingOutsideRequest() {
+        RequestContextHolder.resetRequestAttributes();
+
+        objectionContext.put(objection(OBJECTION_ID));
+
+        assertFalse(objectionContext.get(OBJECTION_ID).isPresent());
+    }
+
+    private double readsSaved() {
+        return meterRegistry.counter(ObjectionContext.READS_SAVED_METRIC_NAME).count();
+    }
+
+    private static Objection objection(String id) {
+        Objection objection = new Objection();
+        objection.setId(id);
+        return objection;
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.companieshouse.api.strikeoffobjections.service.impl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -8,14 +9,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
+import uk.gov.companieshouse.api.strikeoffobjections.client.OracleQueryCache;
 import uk.gov.companieshouse.api.strikeoffobjections.client.OracleQueryClient;
 import uk.gov.companieshouse.api.strikeoffobjections.common.ApiLogger;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.AttachmentNotFoundException;
+import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidCursorException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.InvalidObjectionStatusException;
 import uk.gov.companieshouse.api.strikeoffobjections.exception.ObjectionNotFoundException;
 import uk.gov.companieshouse.api.strikeoffobjections.file.FileTransferApiClient;
@@ -28,10 +35,13 @@ import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Attachment;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.CreatedBy;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.Objection;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
-import uk.gov.companieshouse.api.strikeoffobjections.model.patcher.ObjectionPatcher;
+import uk.gov.companieshouse.api.strikeoffobjections.model.list.ObjectionListCursor;
+import uk.gov.companieshouse.api.strikeoffobjections.model.list.ObjectionPage;
 import uk.gov.companieshouse.api.strikeoffobjections.model.patch.ObjectionPatch;
+import uk.gov.companieshouse.api.strikeoffobjections.model.projection.ObjectionSummary;
 import uk.gov.companieshouse.api.strikeoffobjections.processor.ObjectionProcessor;
 import uk.gov.companieshouse.api.strikeoffobjections.repository.ObjectionRepository;
+import uk.gov.companieshouse.api.strikeoffobjections.service.ICompanyProfileService;
 import uk.gov.companieshouse.api.strikeoffobjections.service.IReferenceNumberGeneratorService;
 import uk.gov.companieshouse.api.strikeoffobjections.utils.Utils;
 import uk.gov.companieshouse.api.strikeoffobjections.validation.ActionCodeValidator;
@@ -42,22 +52,28 @@ import uk.gov.companieshouse.service.ServiceResult;
 
 import javax.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.only;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -92,10 +108,10 @@ class ObjectionServiceTest {
     private ObjectionRepository objectionRepository;
 
     @Mock
-    private Supplier<LocalDateTime> localDateTimeSupplier;
+    private ObjectionContext objectionContext;
 
     @Mock
-    private ObjectionPatcher objectionPatcher;
+    private Supplier<LocalDateTime> localDateTimeSupplier;
 
     @Mock
     private FileTransferApiClient fileTransferApiClient;
@@ -109,6 +125,9 @@ class ObjectionServiceTest {
     @Mock
     private OracleQueryClient oracleQueryClient;
 
+    @Mock
+    private OracleQueryCache oracleQueryCache;
+
     @Mock
     private ActionCodeValidator actionCodeValidator;
 
@@ -118,6 +137,9 @@ class ObjectionServiceTest {
     @Mock
     private Gaz2RequestedValidator gaz2RequestedValidator;
 
+    @Mock
+    private ICompanyProfileService companyProfileService;
+
     @InjectMocks
     private ObjectionService objectionService;
 
@@ -230,21 +252,21 @@ class ObjectionServiceTest {
 
     @Test
     void patchObjectionExistsTest() throws Exception {
-        Objection existingObjection = new Objection();
-        existingObjection.setId(OBJECTION_ID);
         Objection objection = new Objection();
         objection.setId(OBJECTION_ID);
         ObjectionPatch objectionPatch = new ObjectionPatch();
         objectionPatch.setFullName(FULL_NAME);
         objectionPatch.setShareIdentity(Boolean.TRUE);
         objectionPatch.setReason(REASON);
-        objectionPatch.setStatus(ObjectionStatus.PROCESSED);
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(existingObjection));
-        when(objectionPatcher.patchObjection(any(), any(), any())).thenReturn(objection);
+        objectionPatch.setStatus(OPEN);
+        when(objectionRepository.patchObjection(eq(OBJECTION_ID), eq(objectionPatch), eq(REQUEST_ID), any()))
+                .thenReturn(objection);
 
         objectionService.patchObjection(OBJECTION_ID, objectionPatch, REQUEST_ID, COMPANY_NUMBER);
 
-        verify(objectionRepository, times(1)).save(objection);
+        verify(objectionRepository, never()).findById(any());
+        verify(objectionContext, times(1)).put(objection);
+        verifyNoInteractions(objectionProcessor);
     }
 
     @Test
@@ -257,15 +279,11 @@ class ObjectionServiceTest {
         assertThrows(ObjectionNotFoundException.class,
                 () -> objectionService.patchObjection( OBJECTION_ID, objectionPatch, REQUEST_ID, COMPANY_NUMBER));
 
-        verify(objectionRepository, times(0)).save(any());
+        verifyNoInteractions(objectionProcessor);
     }
 
     @Test
     void patchObjectionSubmittedTest() throws Exception {
-        Objection existingObjection = new Objection();
-        existingObjection.setId(OBJECTION_ID);
-        existingObjection.setStatus(OPEN);
-
         Objection objection = new Objection();
         objection.setId(OBJECTION_ID);
 
@@ -275,58 +293,66 @@ class ObjectionServiceTest {
         objectionPatch.setReason(REASON);
         objectionPatch.setStatus(ObjectionStatus.SUBMITTED);
 
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(existingObjection));
-        when(objectionPatcher.patchObjection(any(), any(), any())).thenReturn(objection);
+        when(objectionRepository.patchObjection(eq(OBJECTION_ID), eq(objectionPatch), eq(REQUEST_ID), any()))
+                .thenReturn(objection);
 
         objectionService.patchObjection( OBJECTION_ID, objectionPatch, REQUEST_ID, COMPANY_NUMBER);
 
-        verify(objectionRepository, times(1)).save(objection);
         verify(objectionProcessor, only()).process(objection, REQUEST_ID);
     }
 
     @Test
-    void patchObjectionPropagatesProcessInvalidStatusExceptionTest() throws Exception {
-        Objection existingObjection = new Objection();
-        existingObjection.setId(OBJECTION_ID);
-        existingObjection.setStatus(OPEN);
+    void patchObjectionSubmittedLeavesProcessingToWorkerWhenAsyncProcessingEnabledTest() throws Exception {
+        ReflectionTestUtils.setField(objectionService, "isAsyncObjectionProcessingEnabled", true);
 
         Objection objection = new Objection();
         objection.setId(OBJECTION_ID);
 
+        ObjectionPatch objectionPatch = new ObjectionPatch();
+        objectionPatch.setStatus(ObjectionStatus.SUBMITTED);
+
+        when(objectionRepository.patchObjection(eq(OBJECTION_ID), eq(objectionPatch), eq(REQUEST_ID), any()))
+                .thenReturn(objection);
+
+        objectionService.patchObjection( OBJECTION_ID, objectionPatch, REQUEST_ID, COMPANY_NUMBER);
+
+        verifyNoInteractions(objectionProcessor);
+    }
+
+    @Test
+    void patchObjectionPropagatesProcessInvalidStatusExceptionTest() throws Exception {
+        Objection objection = new Objection();
+        objection.setId(OBJECTION_ID);
+
         ObjectionPatch objectionPatch = new ObjectionPatch();
         objectionPatch.setFullName(FULL_NAME);
         objectionPatch.setShareIdentity(Boolean.TRUE);
         objectionPatch.setReason(REASON);
         objectionPatch.setStatus(ObjectionStatus.SUBMITTED);
 
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(existingObjection));
-        when(objectionPatcher.patchObjection(any(), any(), any())).thenReturn(objection);
+        when(objectionRepository.patchObjection(eq(OBJECTION_ID), eq(objectionPatch), eq(REQUEST_ID), any()))
+                .thenReturn(objection);
         doThrow(new InvalidObjectionStatusException("Invalid")).when(objectionProcessor).process(any(), any());
 
         assertThrows(InvalidObjectionStatusException.class,
                 () -> objectionService.patchObjection( OBJECTION_ID, objectionPatch, REQUEST_ID, COMPANY_NUMBER));
 
-        verify(objectionRepository, times(1)).save(objection);
         verify(objectionProcessor, only()).process(objection, REQUEST_ID);
     }
 
     @Test
     void patchObjectionWithNoStatusTest() throws Exception {
-        Objection existingObjection = new Objection();
-        existingObjection.setId(OBJECTION_ID);
-
         Objection objection = new Objection();
         objection.setId(OBJECTION_ID);
 
         ObjectionPatch objectionPatch = new ObjectionPatch();
         objectionPatch.setReason(REASON);
 
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(existingObjection));
-        when(objectionPatcher.patchObjection(any(), any(), any())).thenReturn(objection);
+        when(objectionRepository.patchObjection(eq(OBJECTION_ID), eq(objectionPatch), eq(REQUEST_ID), any()))
+                .thenReturn(objection);
 
         objectionService.patchObjection( OBJECTION_ID, objectionPatch, REQUEST_ID, COMPANY_NUMBER);
 
-        verify(objectionRepository, times(1)).save(objection);
         verifyNoInteractions(objectionProcessor);
     }
 
@@ -336,20 +362,18 @@ class ObjectionServiceTest {
         existingObjection.setId(OBJECTION_ID);
         existingObjection.setStatus(ObjectionStatus.PROCESSED);
 
-        Objection objection = new Objection();
-        objection.setId(OBJECTION_ID);
-
         ObjectionPatch objectionPatch = new ObjectionPatch();
         objectionPatch.setReason(REASON);
         objectionPatch.setStatus(ObjectionStatus.SUBMITTED);
 
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(existingObjection));
+        // the status condition doesn't match, so the repository applies nothing
+        when(objectionRepository.patchObjection(eq(OBJECTION_ID), eq(objectionPatch), eq(REQUEST_ID), any()))
+                .thenReturn(null);
+        when(objectionRepository.findById(OBJECTION_ID)).thenReturn(Optional.of(existingObjection));
 
         assertThrows(InvalidObjectionStatusException.class,
                 () -> objectionService.patchObjection( OBJECTION_ID, objectionPatch, REQUEST_ID, COMPANY_NUMBER));
 
-        verify(objectionRepository, never()).save(objection);
-        verifyNoInteractions(objectionPatcher);
         verifyNoInteractions(objectionProcessor);
     }
 
@@ -363,6 +387,87 @@ class ObjectionServiceTest {
 
         assertEquals(objection, returnedObjection);
         verify(objectionRepository, times(1)).findById(OBJECTION_ID);
+        verify(objectionContext, times(1)).put(objection);
+    }
+
+    @Test
+    void getObjectionSummaryTest() throws Exception {
+        ObjectionSummary summary = new ObjectionSummary(OBJECTION_ID, COMPANY_NUMBER, OPEN, "demo@ch.gov.uk");
+        when(objectionRepository.findSummaryById(OBJECTION_ID)).thenReturn(summary);
+
+        assertEquals(summary, objectionService.getObjectionSummary(REQUEST_ID, OBJECTION_ID));
+        verify(objectionRepository, never()).findById(any());
+    }
+
+    @Test
+    void getObjectionSummaryWhenObjectionDoesNotExistTest() {
+        assertThrows(ObjectionNotFoundException.class,
+                () -> objectionService.getObjectionSummary(REQUEST_ID, OBJECTION_ID));
+    }
+
+    @Test
+    void listObjectionsReturnsCursorForNextPageTest() throws Exception {
+        ReflectionTestUtils.setField(objectionService, "defaultListPageSize", 2);
+        ReflectionTestUtils.setField(objectionService, "maxListPageSize", 100);
+        Objection newest = listedObjection("ID_3", MOCKED_TIME_STAMP.plusMinutes(2));
+        Objection middle = listedObjection("ID_2", MOCKED_TIME_STAMP.plusMinutes(1));
+        Objection oldest = listedObjection("ID_1", MOCKED_TIME_STAMP);
+        when(objectionRepository.findCompanyObjections(COMPANY_NUMBER, null, null, null, 3))
+                .thenReturn(Arrays.asList(newest, middle, oldest));
+
+        ObjectionPage page = objectionService.listObjections(REQUEST_ID, COMPANY_NUMBER, null, null, null);
+
+        assertEquals(Arrays.asList(newest, middle), page.getObjections());
+        ObjectionListCursor nextCursor = ObjectionListCursor.decode(page.getNextCursor());
+        assertEquals(middle.getCreatedOn(), nextCursor.getCreatedOn());
+        assertEquals(middle.getId(), nextCursor.getId());
+    }
+
+    @Test
+    void listObjectionsResumesAfterCursorTest() throws Exception {
+        ReflectionTestUtils.setField(objectionService, "maxListPageSize", 100);
+        List<ObjectionStatus> statuses = Collections.singletonList(ObjectionStatus.SUBMITTED);
+        Objection oldest = listedObjection("ID_1", MOCKED_TIME_STAMP);
+        String cursor = new ObjectionListCursor(MOCKED_TIME_STAMP.plusMinutes(1), "ID_2").encode();
+        when(objectionRepository.findCompanyObjections(
+                COMPANY_NUMBER, statuses, MOCKED_TIME_STAMP.plusMinutes(1), "ID_2", 3))
+                .thenReturn(Collections.singletonList(oldest));
+
+        ObjectionPage page = objectionService.listObjections(REQUEST_ID, COMPANY_NUMBER, statuses, cursor, 2);
+
+        assertEquals(Collections.singletonList(oldest), page.getObjections());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void listObjectionsCapsPageSizeTest() throws Exception {
+        ReflectionTestUtils.setField(objectionService, "maxListPageSize", 100);
+        when(objectionRepository.findCompanyObjections(COMPANY_NUMBER, null, null, null, 101))
+                .thenReturn(Collections.emptyList());
+
+        ObjectionPage page = objectionService.listObjections(REQUEST_ID, COMPANY_NUMBER, null, null, 500);
+
+        assertTrue(page.getObjections().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void listObjectionsRejectsInvalidCursorTest() {
+        assertThrows(InvalidCursorException.class,
+                () -> objectionService.listObjections(REQUEST_ID, COMPANY_NUMBER, null, "not a cursor!", null));
+        verify(objectionRepository, never()).findCompanyObjections(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getObjectionLoadedEarlierInRequestTest() throws Exception {
+        Objection objection = new Objection();
+        objection.setId(OBJECTION_ID);
+        when(objectionContext.get(OBJECTION_ID)).thenReturn(Optional.of(objection));
+
+        Objection returnedObjection = objectionService.getObjection(REQUEST_ID, OBJECTION_ID);
+
+        assertEquals(objection, returnedObjection);
+        verify(objectionRepository, never()).findById(any());
     }
 
     @Test
@@ -379,59 +484,53 @@ class ObjectionServiceTest {
 
     @Test
     void canAddAnAttachment() throws Exception {
-        Objection existingObjection = new Objection();
-        existingObjection.setId(OBJECTION_ID);
         when(fileTransferApiClient.upload(anyString(), any(MultipartFile.class)))
                 .thenReturn(Utils.getSuccessfulUploadResponse());
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(existingObjection));
+        when(objectionRepository.addAttachment(eq(OBJECTION_ID), any())).thenReturn(true);
         ServiceResult<String> attachmentIdResult =
                 objectionService.addAttachment(REQUEST_ID, OBJECTION_ID, Utils.mockMultipartFile(), ACCESS_URL);
         assertEquals(Utils.UPLOAD_ID, attachmentIdResult.getData());
-        Optional<Attachment> entityAttachment = existingObjection
-                .getAttachments()
-                .stream()
-                .findAny();
-
-        assertTrue(entityAttachment.isPresent());
-        String linkUrl = entityAttachment.get().getLinks().getLink(ObjectionsLinkKeys.SELF);
-        String downloadUrl = entityAttachment.get().getLinks().getLink(ObjectionsLinkKeys.DOWNLOAD);
+
+        ArgumentCaptor<Attachment> attachmentCaptor = ArgumentCaptor.forClass(Attachment.class);
+        verify(objectionRepository).addAttachment(eq(OBJECTION_ID), attachmentCaptor.capture());
+        Attachment entityAttachment = attachmentCaptor.getValue();
+
+        String linkUrl = entityAttachment.getLinks().getLink(ObjectionsLinkKeys.SELF);
+        String downloadUrl = entityAttachment.getLinks().getLink(ObjectionsLinkKeys.DOWNLOAD);
         assertEquals(linkUrl + "/download", downloadUrl);
         assertTrue(linkUrl.startsWith(ACCESS_URL));
         assertFalse(linkUrl.endsWith(ACCESS_URL + "/"));
-        assertNotNull(entityAttachment.get().getId());
+        assertNotNull(entityAttachment.getId());
 
-        verify(objectionRepository).save(existingObjection);
-        verify(objectionRepository, times(1)).findById(OBJECTION_ID);
+        verify(objectionRepository, never()).findById(any());
+        verify(objectionRepository, never()).save(any());
     }
 
     @Test
     void willNotOverrideAlreadyExistingAttachments() throws Exception {
-        Objection existingObjection = new Objection();
-        existingObjection.setId(OBJECTION_ID);
-
         when(fileTransferApiClient.upload(anyString(), any(MultipartFile.class)))
                 .thenReturn(Utils.getSuccessfulUploadResponse());
-
-        Attachment attachment = new Attachment();
-        attachment.setSize(1L);
-        attachment.setContentType("text/plain");
-        attachment.setName("testFile");
-        String newId = "12345a";
-        attachment.setId(newId);
-        List<Attachment> attachmentsList = new ArrayList<>();
-        attachmentsList.add(attachment);
-        existingObjection.setAttachments(attachmentsList);
-
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(existingObjection));
+        when(objectionRepository.addAttachment(eq(OBJECTION_ID), any())).thenReturn(true);
 
         objectionService.addAttachment(
                  REQUEST_ID, OBJECTION_ID, Utils.mockMultipartFile(), ACCESS_URL);
 
-        List<Attachment> objectionAttachments = existingObjection.getAttachments();
+        // only the new attachment is appended, leaving the existing ones untouched
+        ArgumentCaptor<Attachment> attachmentCaptor = ArgumentCaptor.forClass(Attachment.class);
+        verify(objectionRepository, times(1)).addAttachment(eq(OBJECTION_ID), attachmentCaptor.capture());
+        assertEquals(Utils.ORIGINAL_FILE_NAME, attachmentCaptor.getValue().getName());
+        verify(objectionRepository, never()).save(any());
+        verify(objectionContext, times(1)).evict(OBJECTION_ID);
+    }
+
+    @Test
+    void addAttachmentWhenObjectionDoesNotExistTest() throws Exception {
+        when(fileTransferApiClient.upload(anyString(), any(MultipartFile.class)))
+                .thenReturn(Utils.getSuccessfulUploadResponse());
+        when(objectionRepository.addAttachment(eq(OBJECTION_ID), any())).thenReturn(false);
 
-        assertEquals(2, objectionAttachments.size());
-        assertEquals("testFile", objectionAttachments.get(0).getName());
-        assertEquals(Utils.ORIGINAL_FILE_NAME, objectionAttachments.get(1).getName());
+        assertThrows(ObjectionNotFoundException.class, () ->
+                objectionService.addAttachment(REQUEST_ID, OBJECTION_ID, Utils.mockMultipartFile(), ACCESS_URL));
     }
 
     @Test
@@ -448,6 +547,20 @@ class ObjectionServiceTest {
         assertEquals(attachment, attachments.get(0));
     }
 
+    @Test
+    void getAttachmentsOfObjectionLoadedEarlierInRequestTest() throws Exception {
+        Objection existingObjection = new Objection();
+        existingObjection.setId(OBJECTION_ID);
+        Attachment attachment = new Attachment();
+        existingObjection.addAttachment(attachment);
+        when(objectionContext.get(OBJECTION_ID)).thenReturn(Optional.of(existingObjection));
+
+        List<Attachment> attachments = objectionService.getAttachments(REQUEST_ID, COMPANY_NUMBER, OBJECTION_ID);
+
+        assertEquals(Collections.singletonList(attachment), attachments);
+        verify(objectionRepository, never()).findById(any());
+    }
+
     @Test
     void getAttachmentsWhenObjectionDoesNotExistTest() {
         when(objectionRepository.findById(any())).thenReturn(Optional.empty());
@@ -455,7 +568,7 @@ class ObjectionServiceTest {
         assertThrows(ObjectionNotFoundException.class,
                 () -> objectionService.getAttachments(REQUEST_ID, COMPANY_NUMBER, OBJECTION_ID));
 
-        verify(objectionRepository, times(0)).save(any());
+        verify(objectionRepository, times(0)).removeAttachment(any(), any());
     }
 
     @Test
@@ -517,7 +630,7 @@ class ObjectionServiceTest {
         Attachment attachment = new Attachment();
         attachment.setId(ATTACHMENT_ID);
         existingObjection.addAttachment(attachment);
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(existingObjection));
+        when(objectionRepository.findAttachment(OBJECTION_ID, ATTACHMENT_ID)).thenReturn(attachment);
 
         Attachment returnedAttachment = objectionService.getAttachment(
                 REQUEST_ID,
@@ -527,12 +640,31 @@ class ObjectionServiceTest {
         );
 
         assertEquals(attachment, returnedAttachment);
+        verify(objectionRepository, never()).findById(any());
+    }
+
+    @Test
+    void getAttachmentOfObjectionLoadedEarlierInRequestTest() throws Exception {
+        Objection existingObjection = new Objection();
+        existingObjection.setId(OBJECTION_ID);
+        Utils.getTestAttachmentsContainingKey(ATTACHMENT_ID).forEach(existingObjection::addAttachment);
+        when(objectionContext.get(OBJECTION_ID)).thenReturn(Optional.of(existingObjection));
+
+        Attachment returnedAttachment = objectionService.getAttachment(
+                REQUEST_ID,
+                COMPANY_NUMBER,
+                OBJECTION_ID,
+                ATTACHMENT_ID
+        );
+
+        assertEquals(ATTACHMENT_ID, returnedAttachment.getId());
+        verifyNoInteractions(objectionRepository);
     }
 
     @Test
     void getAttachmentTestWhenObjectionDoesNotExist() {
 
-        when(objectionRepository.findById(any())).thenReturn(Optional.empty());
+        when(objectionRepository.existsById(OBJECTION_ID)).thenReturn(false);
 
         assertThrows(ObjectionNotFoundException.class, () -> objectionService.getAttachment(
                 REQUEST_ID,
@@ -546,8 +678,7 @@ class ObjectionServiceTest {
     @Test
     void getAttachmentTestAttachmentDoesNotExist() {
 
-        Objection objection = new Objection();
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(objection));
+        when(objectionRepository.existsById(OBJECTION_ID)).thenReturn(true);
 
         assertThrows(AttachmentNotFoundException.class, () -> objectionService.getAttachment(
                 REQUEST_ID,
@@ -565,7 +696,7 @@ class ObjectionServiceTest {
         Attachment attachment = new Attachment();
         attachment.setId(ATTACHMENT_ID);
         existingObjection.addAttachment(attachment);
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(existingObjection));
+        when(objectionRepository.findAttachment(OBJECTION_ID, ATTACHMENT_ID)).thenReturn(attachment);
         when(fileTransferApiClient.delete(REQUEST_ID, ATTACHMENT_ID)).thenReturn(Utils.getSuccessfulDeleteResponse());
         objectionService.deleteAttachment(
                 REQUEST_ID,
@@ -573,15 +704,16 @@ class ObjectionServiceTest {
                 ATTACHMENT_ID
         );
 
-        verify(objectionRepository, times(1)).save(existingObjection);
+        verify(objectionRepository, times(1)).removeAttachment(OBJECTION_ID, ATTACHMENT_ID);
+        verify(objectionRepository, never()).save(any());
         verify(fileTransferApiClient, times(1)).delete(REQUEST_ID, ATTACHMENT_ID);
-        assertFalse(existingObjection.getAttachments().contains(attachment));
+        verify(objectionContext, times(1)).evict(OBJECTION_ID);
     }
 
     @Test
     void deleteAttachmentTestWhenObjectionDoesNotExist() {
 
-        when(objectionRepository.findById(any())).thenReturn(Optional.empty());
+        when(objectionRepository.existsById(OBJECTION_ID)).thenReturn(false);
         assertThrows(ObjectionNotFoundException.class, () -> objectionService.deleteAttachment(
                 REQUEST_ID,
                 OBJECTION_ID,
@@ -591,8 +723,7 @@ class ObjectionServiceTest {
 
     @Test
     void deleteAttachmentTestAttachmentDoesNotExist() {
-        Objection objection = new Objection();
-        when(objectionRepository.findById(any())).thenReturn(Optional.of(objection));
+        when(objectionRepository.existsById(OBJECTION_ID)).thenReturn(true);
         assertThrows(AttachmentNotFoundException.class, () -> objectionService.deleteAttachment(
                 REQUEST_ID,
                 OBJECTION_ID,
@@ -606,8 +737,8 @@ class ObjectionServiceTest {
         Utils.getTestAttachmentsContainingKey(ATTACHMENT_ID).forEach(objection::addAttachment);
         HttpServerErrorException clientException = new HttpServerErrorException(HttpStatus.BAD_REQUEST);
         when(fileTransferApiClient.delete(REQUEST_ID, ATTACHMENT_ID)).thenThrow(clientException);
-        when(objectionRepository.findById(objection.getId()))
-                .thenReturn(Optional.of(objection));
+        when(objectionRepository.findAttachment(OBJECTION_ID, ATTACHMENT_ID))
+                .thenReturn(objection.getAttachment(ATTACHMENT_ID));
 
         assertThrows(ServiceException.class, () -> objectionService.deleteAttachment(
                 REQUEST_ID,
@@ -616,7 +747,7 @@ class ObjectionServiceTest {
             )
         );
 
-        verify(objectionRepository, never()).save(objection);
+        verify(objectionRepository, never()).removeAttachment(any(), any());
         verify(fileTransferApiClient, times(1)).delete(REQUEST_ID, ATTACHMENT_ID);
         verify(apiLogger).errorContext(
                 eq(REQUEST_ID),
@@ -632,8 +763,8 @@ class ObjectionServiceTest {
 
         HttpServerErrorException serviceException = new HttpServerErrorException(HttpStatus.GATEWAY_TIMEOUT);
         when(fileTransferApiClient.delete(REQUEST_ID, ATTACHMENT_ID)).thenThrow(serviceException);
-        when(objectionRepository.findById(objection.getId()))
-                .thenReturn(Optional.of(objection));
+        when(objectionRepository.findAttachment(OBJECTION_ID, ATTACHMENT_ID))
+                .thenReturn(objection.getAttachment(ATTACHMENT_ID));
 
         assertThrows(ServiceException.class, () -> objectionService.deleteAttachment(
                 REQUEST_ID,
@@ -641,7 +772,7 @@ class ObjectionServiceTest {
                 ATTACHMENT_ID
             )
         );
-        verify(objectionRepository, never()).save(objection);
+        verify(objectionRepository, never()).removeAttachment(any(), any());
         verify(fileTransferApiClient, times(1)).delete(REQUEST_ID, ATTACHMENT_ID);
         verify(apiLogger).errorContext(
                 eq(REQUEST_ID),
@@ -661,8 +792,8 @@ class ObjectionServiceTest {
 
 
 
-        when(objectionRepository.findById(objection.getId()))
-                .thenReturn(Optional.of(objection));
+        when(objectionRepository.findAttachment(OBJECTION_ID, ATTACHMENT_ID))
+                .thenReturn(objection.getAttachment(ATTACHMENT_ID));
 
         assertThrows(ServiceException.class, () -> objectionService.deleteAttachment(
                 REQUEST_ID,
@@ -671,7 +802,7 @@ class ObjectionServiceTest {
             )
         );
 
-        verify(objectionRepository, never()).save(objection);
+        verify(objectionRepository, never()).removeAttachment(any(), any());
         verify(fileTransferApiClient, times(1)).delete(REQUEST_ID, ATTACHMENT_ID);
         verify(apiLogger).infoContext(
                 eq(REQUEST_ID),
@@ -685,8 +816,8 @@ class ObjectionServiceTest {
         Utils.getTestAttachmentsContainingKey(ATTACHMENT_ID).forEach(objection::addAttachment);
         when(fileTransferApiClient.delete(REQUEST_ID, ATTACHMENT_ID)).thenReturn(null);
 
-        when(objectionRepository.findById(objection.getId()))
-                .thenReturn(Optional.of(objection));
+        when(objectionRepository.findAttachment(OBJECTION_ID, ATTACHMENT_ID))
+                .thenReturn(objection.getAttachment(ATTACHMENT_ID));
 
         assertThrows(ServiceException.class, () -> objectionService.deleteAttachment(
                 REQUEST_ID,
@@ -695,7 +826,7 @@ class ObjectionServiceTest {
             )
         );
 
-        verify(objectionRepository, never()).save(objection);
+        verify(objectionRepository, never()).removeAttachment(any(), any());
         verify(fileTransferApiClient, times(1)).delete(REQUEST_ID, ATTACHMENT_ID);
         verify(apiLogger).infoContext(
                 eq(REQUEST_ID),
@@ -711,8 +842,8 @@ class ObjectionServiceTest {
         response.setHttpStatus(null);
         when(fileTransferApiClient.delete(REQUEST_ID, ATTACHMENT_ID)).thenReturn(response);
 
-        when(objectionRepository.findById(objection.getId()))
-                .thenReturn(Optional.of(objection));
+        when(objectionRepository.findAttachment(OBJECTION_ID, ATTACHMENT_ID))
+                .thenReturn(objection.getAttachment(ATTACHMENT_ID));
 
         assertThrows(ServiceException.class, () -> objectionService.deleteAttachment(
                 REQUEST_ID,
@@ -721,7 +852,7 @@ class ObjectionServiceTest {
             )
         );
 
-        verify(objectionRepository, never()).save(objection);
+        verify(objectionRepository, never()).removeAttachment(any(), any());
         verify(fileTransferApiClient, times(1)).delete(REQUEST_ID, ATTACHMENT_ID);
         verify(apiLogger).infoContext(
                 eq(REQUEST_ID),
@@ -790,4 +921,136 @@ class ObjectionServiceTest {
         assertFalse(response.isEligible());
         assertEquals(EligibilityStatus.INELIGIBLE_GAZ2_REQUESTED, response.getEligibilityStatus());
     }
+
+    @Test
+    void willPrefetchGaz2WhenParallelEligibilityLookupEnabled() throws ValidationException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(objectionService, "oracleLookupExecutor", executor);
+        ReflectionTestUtils.setField(objectionService, "isParallelEligibilityLookupEnabled", true);
+
+        try {
+            when(oracleQueryClient.getCompanyActionCode(COMPANY_NUMBER, REQUEST_ID)).thenReturn(ACTION_CODE_OK);
+            when(gaz2RequestedValidator.isGaz2Checked(ACTION_CODE_OK)).thenReturn(true);
+            // the first check finds the company has a GAZ1 action code
+            when(oracleQueryCache.isRecentGaz1(COMPANY_NUMBER)).thenReturn(false, true);
+            objectionService.isCompanyEligible(COMPANY_NUMBER, REQUEST_ID);
+            ObjectionEligibility response = objectionService.isCompanyEligible(COMPANY_NUMBER, REQUEST_ID);
+
+            verify(oracleQueryClient, timeout(1000)).getRequestedGaz2(COMPANY_NUMBER, REQUEST_ID);
+            verify(oracleQueryCache, times(2)).setRecentGaz1(COMPANY_NUMBER, true);
+            verify(actionCodeValidator, times(2)).validate(ACTION_CODE_OK, REQUEST_ID);
+            verify(gaz2RequestedValidator, times(1))
+                    .validate(eq(COMPANY_NUMBER), eq(ACTION_CODE_OK), any(Supplier.class), eq(REQUEST_ID));
+            verify(gaz2RequestedValidator, times(1)).validate(COMPANY_NUMBER, ACTION_CODE_OK, REQUEST_ID);
+
+            assertTrue(response.isEligible());
+            assertEquals(EligibilityStatus.ELIGIBLE, response.getEligibilityStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void willNotPrefetchGaz2ForCompanyNotRecentlyGaz1() throws ValidationException {
+        ReflectionTestUtils.setField(objectionService, "isParallelEligibilityLookupEnabled", true);
+        when(oracleQueryClient.getCompanyActionCode(COMPANY_NUMBER, REQUEST_ID)).thenReturn(ACTION_CODE_OK);
+        when(gaz2RequestedValidator.isGaz2Checked(ACTION_CODE_OK)).thenReturn(false);
+
+        objectionService.isCompanyEligible(COMPANY_NUMBER, REQUEST_ID);
+        objectionService.isCompanyEligible(COMPANY_NUMBER, REQUEST_ID);
+
+        verify(gaz2RequestedValidator, times(2)).validate(COMPANY_NUMBER, ACTION_CODE_OK, REQUEST_ID);
+        verify(oracleQueryCache, times(2)).setRecentGaz1(COMPANY_NUMBER, false);
+        verify(oracleQueryClient, never()).getRequestedGaz2(COMPANY_NUMBER, REQUEST_ID);
+    }
+
+    @Test
+    void willNotPrefetchGaz2OnRequestThreadWhenExecutorFull() throws ValidationException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        ReflectionTestUtils.setField(objectionService, "oracleLookupExecutor", executor);
+        ReflectionTestUtils.setField(objectionService, "isParallelEligibilityLookupEnabled", true);
+        when(oracleQueryClient.getCompanyActionCode(COMPANY_NUMBER, REQUEST_ID)).thenReturn(ACTION_CODE_OK);
+        when(gaz2RequestedValidator.isGaz2Checked(ACTION_CODE_OK)).thenReturn(true);
+        when(oracleQueryCache.isRecentGaz1(COMPANY_NUMBER)).thenReturn(false, true);
+
+        objectionService.isCompanyEligible(COMPANY_NUMBER, REQUEST_ID);
+        ObjectionEligibility response = objectionService.isCompanyEligible(COMPANY_NUMBER, REQUEST_ID);
+
+        // the rejected lookup is left to the validator
+        verify(gaz2RequestedValidator, times(2)).validate(COMPANY_NUMBER, ACTION_CODE_OK, REQUEST_ID);
+        assertTrue(response.isEligible());
+    }
+
+    @Test
+    void willPrefetchCompanyProfileForOpenObjectionWhenPrefetchEnabled() throws ServiceException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(objectionService, "companyProfilePrefetchExecutor", executor);
+        ReflectionTestUtils.setField(objectionService, "isCompanyProfilePrefetchEnabled", true);
+
+        try {
+            when(objectionRepository.insert(any(Objection.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(localDateTimeSupplier.get()).thenReturn(MOCKED_TIME_STAMP);
+            when(ericHeaderParser.getEmailAddress(AUTH_USER)).thenReturn(E_MAIL);
+            when(oracleQueryClient.getCompanyActionCode(COMPANY_NUMBER, REQUEST_ID)).thenReturn(ACTION_CODE_OK);
+            when(referenceNumberGeneratorService.generateReferenceNumber()).thenReturn(OBJECTION_ID);
+
+            objectionService.createObjection(REQUEST_ID, COMPANY_NUMBER, AUTH_ID, AUTH_USER,
+                    Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+
+            verify(companyProfileService, timeout(1000)).getCompanyProfile(COMPANY_NUMBER, REQUEST_ID);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void willNotPrefetchCompanyProfileForIneligibleObjection() throws ValidationException, ServiceException {
+        ReflectionTestUtils.setField(objectionService, "isCompanyProfilePrefetchEnabled", true);
+        when(objectionRepository.insert(any(Objection.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(localDateTimeSupplier.get()).thenReturn(MOCKED_TIME_STAMP);
+        when(ericHeaderParser.getEmailAddress(AUTH_USER)).thenReturn(E_MAIL);
+        when(oracleQueryClient.getCompanyActionCode(COMPANY_NUMBER, REQUEST_ID)).thenReturn(ACTION_CODE_OK);
+        when(referenceNumberGeneratorService.generateReferenceNumber()).thenReturn(OBJECTION_ID);
+        doThrow(new ValidationException(EligibilityStatus.INELIGIBLE_GAZ2_REQUESTED))
+                .when(gaz2RequestedValidator).validate(COMPANY_NUMBER, ACTION_CODE_OK, REQUEST_ID);
+
+        objectionService.createObjection(REQUEST_ID, COMPANY_NUMBER, AUTH_ID, AUTH_USER,
+                Utils.buildTestObjectionCreate(OBJECTOR, FULL_NAME, false));
+
+        verifyNoInteractions(companyProfileService);
+    }
+
+    @Test
+    void willReadObjectionOnceForInterceptorAndHandler() throws ObjectionNotFoundException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(objectionService, "objectionContext", new ObjectionContext(meterRegistry));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        try {
+            Objection objection = new Objection();
+            objection.setId(OBJECTION_ID);
+            objection.setAttachments(Collections.singletonList(new Attachment()));
+            when(objectionRepository.findById(OBJECTION_ID)).thenReturn(Optional.of(objection));
+
+            // loaded by the ObjectionInterceptor, then read by the handler
+            objectionService.getObjection(REQUEST_ID, OBJECTION_ID);
+            List<Attachment> attachments = objectionService.getAttachments(REQUEST_ID, COMPANY_NUMBER, OBJECTION_ID);
+
+            assertEquals(objection.getAttachments(), attachments);
+            verify(objectionRepository, times(1)).findById(OBJECTION_ID);
+            assertEquals(1.0, meterRegistry.get(ObjectionContext.READS_SAVED_METRIC_NAME).counter().count());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static Objection listedObjection(String id, LocalDateTime createdOn) {
+        return new Objection.Builder()
+                .withId(id)
+                .withCompanyNumber(COMPANY_NUMBER)
+                .withCreatedOn(createdOn)
+                .withStatus(OPEN)
+                .build();
+    }
 }
@@ -13,9 +13,13 @@ import uk.gov.companieshouse.api.strikeoffobjections.groups.Unit;
 import uk.gov.companieshouse.api.strikeoffobjections.model.entity.ObjectionStatus;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @Unit
@@ -50,6 +54,13 @@ class Gaz2RequestedValidatorTest {
         verify(oracleQueryClient, times(1)).getRequestedGaz2(COMPANY_NUMBER, REQUEST_ID);
     }
 
+    @Test
+    void onlyGaz1ActionCodeIsGaz2Checked() {
+        assertTrue(gaz2RequestedValidator.isGaz2Checked(GAZ1_ACTION_CODE));
+        assertFalse(gaz2RequestedValidator.isGaz2Checked(NON_GAZ1_ACTION_CODE));
+        assertFalse(gaz2RequestedValidator.isGaz2Checked(null));
+    }
+
     @Test
     void verifyOracleIsNotCalledIfActionCodeNotGaz1() throws ValidationException {
         gaz2RequestedValidator.validate(COMPANY_NUMBER, NON_GAZ1_ACTION_CODE, REQUEST_ID);
@@ -67,4 +78,22 @@ class Gaz2RequestedValidatorTest {
         verify(oracleQueryClient, times(1)).getRequestedGaz2(COMPANY_NUMBER, REQUEST_ID);
         assertEquals(ObjectionStatus.INELIGIBLE_GAZ2_REQUESTED, ve.getObjectionStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void validateUsesSuppliedGaz2LookupTest() {
+        ValidationException ve = assertThrows(ValidationException.class,
+                () -> gaz2RequestedValidator.validate(COMPANY_NUMBER, GAZ1_ACTION_CODE, () -> "GAZ2", REQUEST_ID));
+
+        verifyNoInteractions(oracleQueryClient);
+        assertEquals(ObjectionStatus.INELIGIBLE_GAZ2_REQUESTED, ve.getObjectionStatus());
+    }
+
+    @Test
+    void suppliedGaz2LookupIsNotUsedIfActionCodeNotGaz1() throws ValidationException {
+        gaz2RequestedValidator.validate(COMPANY_NUMBER, NON_GAZ1_ACTION_CODE, () -> {
+            throw new IllegalStateException("Lookup should not be used");
+        }, REQUEST_ID);
+
+        verify(oracleQueryClient, never()).getRequestedGaz2(COMPANY_NUMBER, REQUEST_ID);
+    }
+}